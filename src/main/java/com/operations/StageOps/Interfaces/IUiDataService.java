@@ -0,0 +1,75 @@
+package com.operations.StageOps.Interfaces;
+
+import com.operations.StageOps.model.*;
+import com.operations.StageOps.util.ProgressListener;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Data access used by the JavaFX screens.
+ * <p>
+ * When the UI runs in the same JVM as the Spring context ({@code stageops.ui.mode=local}, the default) the
+ * implementation calls the services directly; in {@code remote} mode it calls the REST API at
+ * {@code stageops.ui.api-base-url}. Both return the same shapes the REST API produces.
+ */
+public interface IUiDataService {
+
+    DashboardSummary getDashboardSummary();
+
+    EventDto getEvent(int eventId);
+
+    List<Seating> getSeatsForEvent(int eventId);
+
+    double getTotalRevenueForDate(LocalDate date);
+
+    List<Map<String, Object>> getMonthlyRevenue(int year);
+
+    List<Map<String, Object>> getDailyRevenue(int month, int year);
+
+    List<Map<String, Object>> getLifetimeRevenue();
+
+    List<RevenueTrackingDTO> getRevenueEntriesByYear(int year);
+
+    List<RevenueTrackingDTO> getRevenueEntriesByMonth(int year, int month);
+
+    List<RevenueTrackingDTO> getAllRevenueEntries();
+
+    // Writes the entries booked between the dates (inclusive, null for open-ended) to a CSV file; blocks until done
+    void exportRevenueCsv(LocalDate startDate, LocalDate endDate, boolean gzip, Path target, ProgressListener progress);
+
+    // Events and booking days overlapping the dates (inclusive), with room and layout names
+    List<CalendarEntry> getCalendarEntries(LocalDate startDate, LocalDate endDate);
+
+    List<Booking> getAllBookings();
+
+    boolean createBooking(Booking booking);
+
+    List<Room> getAllRooms();
+
+    Room getRoom(int roomId);
+
+    List<Client> getAllClients();
+
+    boolean createClient(Client client);
+
+    List<Contract> getContractsByClient(int clientId);
+
+    List<Invoice> getInvoicesByClient(int clientId);
+
+    // Queues a background PDF job for invoices or contracts (PdfJob.INVOICE / PdfJob.CONTRACT)
+    PdfJob submitPdfJob(String jobType, List<Integer> documentIds);
+
+    // Blocks until the job has completed or failed, or until the wait times out; returns the job's state then
+    PdfJob awaitPdfJob(int jobId);
+
+    // Saves the result of a completed job: a PDF for a single document, otherwise a ZIP archive
+    void downloadPdfJobResult(int jobId, Path target);
+
+    // Calls the listener on a background thread with each committed change on the topics (see ChangeEvent) until
+    // closed; a RESYNC means changes were missed and the screen should reload
+    AutoCloseable subscribeChanges(List<String> topics, Consumer<ChangeEvent> listener);
+}
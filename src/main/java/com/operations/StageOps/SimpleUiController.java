@@ -1,11 +1,12 @@
 package com.operations.StageOps;
 
-import com.calendarfx.model.Calendar;
-import com.calendarfx.model.CalendarSource;
 import com.calendarfx.model.Entry;
 import com.calendarfx.view.CalendarView;
+import com.operations.StageOps.Interfaces.IUiDataService;
 import com.operations.StageOps.model.*;
+import com.operations.StageOps.uiControllers.CalendarRangeLoader;
 import com.operations.StageOps.uiControllers.EventDetailsController;
+import com.operations.StageOps.uiControllers.UiTaskExecutor;
 import javafx.collections.SetChangeListener;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -16,14 +17,10 @@ import javafx.scene.control.Label;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.List;
 
@@ -49,9 +46,19 @@ public class SimpleUiController {
     private Button tab7Button;
 
     private List<Button> allTabs;
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final String EVENTS_API_URL = "http://localhost:8080/api/events/all";  // Adjust if needed
-    private final String BOOKINGS_API_URL = "http://localhost:8080/booking/all";
+    private final IUiDataService uiDataService;
+    private final UiTaskExecutor uiTasks;
+    private final ApplicationContext applicationContext;
+    private final CalendarRangeLoader calendarRangeLoader;
+    private Object currentScreenController; // Controller of the tab content being shown, if any
+
+    public SimpleUiController(IUiDataService uiDataService, UiTaskExecutor uiTasks, ApplicationContext applicationContext,
+                              CalendarRangeLoader calendarRangeLoader) {
+        this.uiDataService = uiDataService;
+        this.uiTasks = uiTasks;
+        this.applicationContext = applicationContext;
+        this.calendarRangeLoader = calendarRangeLoader;
+    }
 
 //    private static final Logger logger = LoggerFactory.getLogger(SimpleUiController.class);
 
@@ -69,41 +76,14 @@ public class SimpleUiController {
 
     // ===================== API Interactions ====================
 
-    // Fetch events from the API
-    private List<EventDto> fetchEventsFromApi() {
-        try {
-            EventDto[] events = restTemplate.getForObject(EVENTS_API_URL, EventDto[].class);
-            return events != null ? List.of(events) : List.of();
-        } catch (Exception e) {
-            e.printStackTrace();
-            return List.of();
-        }
-    }
-    private List<Booking> fetchBookingsFromApi() {
-        try {
-            Booking[] bookings = restTemplate.getForObject(BOOKINGS_API_URL, Booking[].class);
-            return bookings != null ? List.of(bookings) : List.of();
-        } catch (Exception e) {
-            e.printStackTrace();
-            return List.of();
-        }
-    }
-
     // Fetch available seats for a specific event
     private List<Seating> fetchAvailableSeats(int eventId) {
-        String url = "http://localhost:8080/api/events/" + eventId + "/seats";
-        Seating[] seats = restTemplate.getForObject(url, Seating[].class);
-        return seats != null ? List.of(seats) : List.of();
+        return uiDataService.getSeatsForEvent(eventId);
     }
 
-    // Fetch event details by name
-    private EventDto fetchEventByName(String entryTitle) {
-        String eventName = entryTitle.split(" - layout: ")[0]; // Extract event name before " - layout:"
-        List<EventDto> events = fetchEventsFromApi();
-        return events.stream()
-                .filter(event -> event.getEventName().equalsIgnoreCase(eventName))
-                .findFirst()
-                .orElse(null);
+    // Fetch the event a calendar entry shows
+    private EventDto fetchEvent(CalendarEntry calendarEntry) {
+        return uiDataService.getEvent(calendarEntry.getId());
     }
 
 
@@ -112,8 +92,10 @@ public class SimpleUiController {
     // Show calendar view with events loaded from the API
     @FXML
     public void showCalendar() {
+        leaveCurrentScreen();
         contentArea.getChildren().clear();
         contentArea.getChildren().add(createCalendarView());
+        currentScreenController = calendarRangeLoader; // its pending loads are cancelled when the tab is left
         updateTabStyles(tab2Button);
     }
 
@@ -124,8 +106,8 @@ public class SimpleUiController {
         calendarView.setEntryFactory(param -> null);  // Disable event editing
         calendarView.setEntryDetailsCallback(param -> null);  // Disable popover
 
-        // Load events from API
-        loadEventsFromApi(calendarView);
+        // Load the events and bookings of whatever range the view shows
+        calendarRangeLoader.attach(calendarView);
 
         // Listen for event selection
         calendarView.getSelections().addListener((SetChangeListener<Object>) change -> {
@@ -138,124 +120,32 @@ public class SimpleUiController {
         return calendarView;
     }
 
-    public void loadEventsFromApi(CalendarView calendarView) {
-        Calendar eventCalendar = new Calendar("Events");
-        eventCalendar.setReadOnly(true);
-        Calendar bookingCalendar = new Calendar("Bookings");
-        bookingCalendar.setStyle(Calendar.Style.STYLE2);
-        bookingCalendar.setReadOnly(true);
-
-        // Fetch and add events
-        List<EventDto> events = fetchEventsFromApi();
-        for (EventDto event : events) {
-            Entry<String> entry = new Entry<>(event.getEventName() + " - layout: " + event.getLayoutId() + " - room: " + event.getRoomId());
-
-            LocalDateTime start = Instant.parse(event.getStartTime()).atZone(ZoneId.systemDefault()).toLocalDateTime();
-            LocalDateTime end = Instant.parse(event.getEndTime()).atZone(ZoneId.systemDefault()).toLocalDateTime();
-
-            entry.setInterval(start, end);
-            eventCalendar.addEntry(entry);
-        }
-
-        // Fetch and add bookings
-        List<Booking> bookings = fetchBookingsFromApi();
-        for (Booking booking : bookings) {
-            LocalDateTime bookingStart = booking.getStartTime().toLocalDateTime();
-            LocalDateTime bookingEnd = booking.getEndTime().toLocalDateTime();
-
-            LocalDateTime currentDay = bookingStart;
-            while (!currentDay.isAfter(bookingEnd)) {
-                // Find the room assigned for this specific day (handling timestamp comparison)
-                Integer roomIdForDay = getRoomIdForDate(booking.getRoomAssignments(), currentDay.toLocalDate());
-
-                // Log the room ID passed for the specific day
-//                logger.info("Processing room ID for day: " + currentDay.toLocalDate() + " - Room ID: " + roomIdForDay);
-
-                String roomNameAndLayout = (roomIdForDay != null) ? getRoomNameAndLayoutById(roomIdForDay) : "Room Not Found - Layout Not Found";
-                // Title includes room name
-                String dayTitle = "Booking: " + booking.getClientId() + " -Room: " + roomNameAndLayout;
-
-                // Set correct start & end times
-                LocalDateTime startTime = (currentDay.equals(bookingStart)) ? bookingStart : currentDay.toLocalDate().atStartOfDay();
-                LocalDateTime endTime = (currentDay.plusDays(1).isAfter(bookingEnd)) ? bookingEnd : currentDay.toLocalDate().atTime(23, 59, 59);
-
-                Entry<String> entry = new Entry<>(dayTitle);
-                entry.setInterval(startTime, endTime);
-
-                bookingCalendar.addEntry(entry);
-                currentDay = currentDay.plusDays(1);
-            }
-        }
-
-        // Add calendars to CalendarSource
-        CalendarSource calendarSource = new CalendarSource("Schedules");
-        calendarSource.getCalendars().addAll(eventCalendar, bookingCalendar);
-        calendarView.getCalendarSources().add(calendarSource);
-    }
-
-    private String getRoomNameAndLayoutById(int roomId) {
-        // Fetch room details by ID
-//        logger.info("Fetching room details for Room ID: " + roomId);
-        Room room = fetchRoomDetailsById(roomId);
-
-        // Fetch layout details based on currentLayoutId
-        String roomName = (room != null && room.getRoomName() != null) ? room.getRoomName() : "Room Not Found";
-        String layoutName = "Layout Not Found"; // Default layout name
-
-        // Fetch layout details if room and currentLayoutId are available
-        layoutName = fetchLayoutDetailsById(room.getCurrentLayoutId());
-
-        // Log room name and layout
-//        logger.info("Room ID: " + roomId + " - Room Name: " + roomName + " - Layout: " + layoutName);
-        return roomName + " - Layout: " + layoutName;
-    }
-
-    private String fetchLayoutDetailsById(int layoutId) {
-        // Fetch layout details from an external service or database
-        String url = "http://localhost:8080/api/layouts/" + layoutId;
-        LayoutConfiguration layout = restTemplate.getForObject(url, LayoutConfiguration.class);
-
-        return (layout != null && layout.getLayoutName() != null) ? layout.getLayoutName() : "Unknown Layout";
-    }
-    /**
-     * Gets the room ID assigned for a specific date, handling timestamp conversion.
-     */
-    private Integer getRoomIdForDate(List<BookingRoomAssignment> roomAssignments, LocalDate date) {
-        for (BookingRoomAssignment assignment : roomAssignments) {
-            // Convert timestamp to LocalDate before comparing
-            LocalDate assignmentDate = assignment.getDateTime().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-            if (assignmentDate.equals(date)) {
-                // Log the room ID for the assignment date
-//                logger.info("Found room assignment for date: " + assignmentDate + " - Room ID: " + assignment.getRoomId());
-                return assignment.getRoomId();
-            }
-        }
-        // Log if no room is found for the given date
-//        logger.warn("No room found for date: " + date);
-        return null; // No room found for the date
-    }
-
-    // Fetch room details by ID
-    private Room fetchRoomDetailsById(int roomId) {
-        String url = "http://localhost:8080/api/rooms/" + roomId;
-        return restTemplate.getForObject(url, Room.class);
-    }
-    // Show event details in a modal window
+    // Load the event and its seats off the JavaFX thread, then show them in a modal window; booking entries have
+    // no details to show
     private void showEventDetailsInModal(Entry<?> entry) {
-        EventDto event = fetchEventByName(entry.getTitle());
-        if (event == null) {
-            System.out.println("Event details not found!");
+        if (!(entry.getUserObject() instanceof CalendarEntry calendarEntry) || calendarEntry.getType() != CalendarEntry.Type.EVENT) {
             return;
         }
+        // Keyed by screen, so clicking another entry first replaces this load
+        uiTasks.load(calendarRangeLoader, "eventDetails", () -> {
+            EventDto event = fetchEvent(calendarEntry);
+            return event != null ? new EventDetails(event, fetchAvailableSeats(event.getEventId())) : null;
+        }, details -> {
+            if (details == null) {
+                System.out.println("Event details not found!");
+                return;
+            }
+            showEventDetails(details.event(), details.seats());
+        });
+    }
 
-        List<Seating> availableSeats = fetchAvailableSeats(event.getEventId());
-
+    private void showEventDetails(EventDto event, List<Seating> availableSeats) {
         // Create and display modal window
         Stage modalStage = new Stage();
         modalStage.initModality(Modality.APPLICATION_MODAL);
         modalStage.setTitle("Event Details");
 
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/event_details.fxml"));
+        FXMLLoader loader = createLoader("/views/event_details.fxml");
         Object root;
         try {
             root = loader.load();
@@ -269,7 +159,12 @@ public class SimpleUiController {
 
         Scene scene = new Scene((Parent) root, 1200, 800);
         modalStage.setScene(scene);
-        modalStage.showAndWait();
+        // Not showAndWait: this runs among other queued UI updates, which must not wait for the window to close
+        modalStage.setOnHidden(e -> controller.close());
+        modalStage.show();
+    }
+
+    private record EventDetails(EventDto event, List<Seating> seats) {
     }
 
     // ===================== Tab Navigation ====================
@@ -325,6 +220,7 @@ public class SimpleUiController {
 
     // Handle content switching based on selected tab
     private void showTabContent(int tabId) {
+        leaveCurrentScreen();
         contentArea.getChildren().clear();
 
         switch (tabId) {
@@ -354,12 +250,36 @@ public class SimpleUiController {
         }
     }
 
+    // Cancel the pending loads of the screen being left, so they do not compete with the next one, and stop its
+    // change feed subscriptions
+    private void leaveCurrentScreen() {
+        if (currentScreenController != null) {
+            uiTasks.cancelAll(currentScreenController);
+            if (currentScreenController instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+            currentScreenController = null;
+        }
+    }
+
+    // Create an FXML loader whose controllers are built by Spring, so they can be given the UI data service
+    private FXMLLoader createLoader(String fxmlPath) {
+        FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
+        loader.setClassLoader(getClass().getClassLoader());
+        loader.setControllerFactory(applicationContext.getAutowireCapableBeanFactory()::createBean);
+        return loader;
+    }
+
     // Load dashboard view from FXML
     private void loadDashboardFXML() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/dashboardView.fxml"));
-            loader.setClassLoader(getClass().getClassLoader());
+            FXMLLoader loader = createLoader("/views/dashboardView.fxml");
             contentArea.getChildren().add(loader.load());
+            currentScreenController = loader.getController();
         } catch (IOException e) {
             e.printStackTrace();
             contentArea.getChildren().add(new Label("Error loading dashboard"));
@@ -367,9 +287,9 @@ public class SimpleUiController {
     }
     private void loadSeatManagementFXML() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/seatManagement.fxml"));
-            loader.setClassLoader(getClass().getClassLoader());
+            FXMLLoader loader = createLoader("/views/seatManagement.fxml");
             contentArea.getChildren().add(loader.load());
+            currentScreenController = loader.getController();
         } catch (IOException e) {
             e.printStackTrace();
             contentArea.getChildren().add(new Label("Error loading dashboard"));
@@ -378,9 +298,9 @@ public class SimpleUiController {
 
     private void loadBookingManagement() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/bookingsView.fxml"));
-            loader.setClassLoader(getClass().getClassLoader());
+            FXMLLoader loader = createLoader("/views/bookingsView.fxml");
             contentArea.getChildren().add(loader.load());
+            currentScreenController = loader.getController();
         } catch (IOException e) {
             e.printStackTrace();
             contentArea.getChildren().add(new Label("Error loading dashboard"));
@@ -388,9 +308,9 @@ public class SimpleUiController {
     }
     private void loadSalesRevenue() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/salesRevenueView.fxml"));
-            loader.setClassLoader(getClass().getClassLoader());
+            FXMLLoader loader = createLoader("/views/salesRevenueView.fxml");
             contentArea.getChildren().add(loader.load());
+            currentScreenController = loader.getController();
         } catch (IOException e) {
             e.printStackTrace();
             contentArea.getChildren().add(new Label("Error loading dashboard"));
@@ -398,9 +318,9 @@ public class SimpleUiController {
     }
     private void loadEventManagement() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/eventsView.fxml"));
-            loader.setClassLoader(getClass().getClassLoader());
+            FXMLLoader loader = createLoader("/views/eventsView.fxml");
             contentArea.getChildren().add(loader.load());
+            currentScreenController = loader.getController();
         } catch (IOException e) {
             e.printStackTrace();
             contentArea.getChildren().add(new Label("Error loading dashboard"));
@@ -408,9 +328,9 @@ public class SimpleUiController {
     }
     private void loadClientManagement() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/clientManagement.fxml"));
-            loader.setClassLoader(getClass().getClassLoader());
+            FXMLLoader loader = createLoader("/views/clientManagement.fxml");
             contentArea.getChildren().add(loader.load());
+            currentScreenController = loader.getController();
         } catch (IOException e) {
             e.printStackTrace();
             contentArea.getChildren().add(new Label("Error loading dashboard"));
@@ -1,9 +1,11 @@
 package com.operations.StageOps.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 
 import javax.sql.DataSource;
 
@@ -15,14 +17,75 @@ public class DataSourceConfig {
     private static final String PASSWORD = "FgsY3iLp-sc";  // Admin password
     private static final String DB_URL = "jdbc:mysql://sst-stuproj.city.ac.uk:3306/in2033t38?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
 
-    @Bean
-    public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        dataSource.setUrl(DB_URL);  // Using the hardcoded database URL
-        dataSource.setUsername(USERNAME);  // Using the hardcoded username
-        dataSource.setPassword(PASSWORD);  // Using the hardcoded password
-        return dataSource;
+    @Value("${stageops.datasource.pool.name:StageOpsPool}")
+    private String poolName;
+
+    @Value("${stageops.datasource.pool.minimum-idle:2}")
+    private int minimumIdle;
+
+    @Value("${stageops.datasource.pool.maximum-size:10}")
+    private int maximumPoolSize;
+
+    @Value("${stageops.datasource.pool.idle-timeout-ms:300000}")
+    private long idleTimeoutMs;
+
+    @Value("${stageops.datasource.pool.max-lifetime-ms:1800000}")
+    private long maxLifetimeMs;
+
+    @Value("${stageops.datasource.pool.connection-timeout-ms:10000}")
+    private long connectionTimeoutMs;
+
+    @Value("${stageops.datasource.pool.validation-timeout-ms:3000}")
+    private long validationTimeoutMs;
+
+    @Value("${stageops.datasource.pool.leak-detection-threshold-ms:20000}")
+    private long leakDetectionThresholdMs;
+
+    @Value("${stageops.datasource.pool.connection-test-query:}")
+    private String connectionTestQuery;
+
+    /**
+     * Creates a pooled DataSource so that repository calls reuse open connections
+     * instead of opening a new MySQL connection per query.
+     *
+     * @param poolMetricsTracker collects acquire, usage and timeout statistics for the pool
+     * @return the pooled DataSource
+     */
+    @Bean(destroyMethod = "close")
+    public DataSource dataSource(PoolMetricsTracker poolMetricsTracker) {
+        HikariConfig config = new HikariConfig();
+        config.setDriverClassName("com.mysql.cj.jdbc.Driver");
+        config.setJdbcUrl(DB_URL);  // Using the hardcoded database URL
+        config.setUsername(USERNAME);  // Using the hardcoded username
+        config.setPassword(PASSWORD);  // Using the hardcoded password
+
+        config.setPoolName(poolName);
+        config.setMinimumIdle(minimumIdle);
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setIdleTimeout(idleTimeoutMs);
+        config.setMaxLifetime(maxLifetimeMs);
+        config.setConnectionTimeout(connectionTimeoutMs);
+        config.setValidationTimeout(validationTimeoutMs);
+        config.setLeakDetectionThreshold(leakDetectionThresholdMs);
+        // JDBC4 isValid() is used for validation unless a test query is configured
+        if (!connectionTestQuery.isBlank()) {
+            config.setConnectionTestQuery(connectionTestQuery);
+        }
+        // Let the app start even if the database is briefly unreachable
+        config.setInitializationFailTimeout(-1);
+
+        // Standard MySQL Connector/J statement caching
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", "250");
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        config.addDataSourceProperty("useServerPrepStmts", "true");
+        // Statements that set a fetch size (the streaming list queries) read their rows through a server-side cursor
+        config.addDataSourceProperty("useCursorFetch", "true");
+        // JDBC batches of INSERTs are sent as one multi-row INSERT (e.g. SeatingRepository.saveAll)
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
+
+        config.setMetricsTrackerFactory(poolMetricsTracker);
+        return new HikariDataSource(config);
     }
 
     @Bean
@@ -0,0 +1,122 @@
+package com.operations.StageOps.config;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Collects connection pool statistics from HikariCP.
+ * <p>
+ * Hikari calls back into this tracker every time a connection is acquired, returned
+ * or times out. Acquire latency is kept as a fixed-bucket histogram so it can be
+ * read without locking.
+ */
+@Component
+public class PoolMetricsTracker implements MetricsTrackerFactory {
+
+    /**
+     * Upper bounds (inclusive, in milliseconds) of the acquire-latency histogram buckets.
+     * A final overflow bucket holds everything slower than the last bound.
+     */
+    static final long[] ACQUIRE_BUCKETS_MS = {1, 5, 10, 25, 50, 100, 250, 500, 1000, 5000};
+
+    private final AtomicLongArray acquireHistogram = new AtomicLongArray(ACQUIRE_BUCKETS_MS.length + 1);
+    private final AtomicLong acquireCount = new AtomicLong();
+    private final AtomicLong acquireTotalNanos = new AtomicLong();
+    private final AtomicLong acquireMaxNanos = new AtomicLong();
+    private final AtomicLong usageCount = new AtomicLong();
+    private final AtomicLong usageTotalMillis = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong connectionsCreated = new AtomicLong();
+
+    private volatile String poolName;
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+        return new Tracker();
+    }
+
+    /**
+     * Returns a point-in-time snapshot of the pool gauges and counters.
+     *
+     * @return a map of metric names to values, including the acquire-latency histogram
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        PoolStats stats = poolStats;
+        metrics.put("poolName", poolName);
+        metrics.put("activeConnections", stats != null ? stats.getActiveConnections() : 0);
+        metrics.put("idleConnections", stats != null ? stats.getIdleConnections() : 0);
+        metrics.put("totalConnections", stats != null ? stats.getTotalConnections() : 0);
+        metrics.put("pendingThreads", stats != null ? stats.getPendingThreads() : 0);
+        metrics.put("maxConnections", stats != null ? stats.getMaxConnections() : 0);
+        metrics.put("minConnections", stats != null ? stats.getMinConnections() : 0);
+
+        long count = acquireCount.get();
+        metrics.put("acquireCount", count);
+        metrics.put("acquireWaitTotalMs", TimeUnit.NANOSECONDS.toMillis(acquireTotalNanos.get()));
+        metrics.put("acquireWaitAvgMs", count == 0 ? 0.0 : acquireTotalNanos.get() / (double) count / 1_000_000);
+        metrics.put("acquireWaitMaxMs", acquireMaxNanos.get() / 1_000_000.0);
+        metrics.put("acquireTimeouts", timeoutCount.get());
+
+        long usages = usageCount.get();
+        metrics.put("usageCount", usages);
+        metrics.put("usageAvgMs", usages == 0 ? 0.0 : usageTotalMillis.get() / (double) usages);
+        metrics.put("connectionsCreated", connectionsCreated.get());
+
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < ACQUIRE_BUCKETS_MS.length; i++) {
+            histogram.put("le_" + ACQUIRE_BUCKETS_MS[i] + "ms", acquireHistogram.get(i));
+        }
+        histogram.put("gt_" + ACQUIRE_BUCKETS_MS[ACQUIRE_BUCKETS_MS.length - 1] + "ms",
+                acquireHistogram.get(ACQUIRE_BUCKETS_MS.length));
+        metrics.put("acquireLatencyHistogram", histogram);
+        return metrics;
+    }
+
+    private static int bucketFor(long millis) {
+        for (int i = 0; i < ACQUIRE_BUCKETS_MS.length; i++) {
+            if (millis <= ACQUIRE_BUCKETS_MS[i]) {
+                return i;
+            }
+        }
+        return ACQUIRE_BUCKETS_MS.length;
+    }
+
+    private class Tracker implements IMetricsTracker {
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            connectionsCreated.incrementAndGet();
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquireCount.incrementAndGet();
+            acquireTotalNanos.addAndGet(elapsedAcquiredNanos);
+            acquireMaxNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+            acquireHistogram.incrementAndGet(bucketFor(TimeUnit.NANOSECONDS.toMillis(elapsedAcquiredNanos)));
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usageCount.incrementAndGet();
+            usageTotalMillis.addAndGet(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeoutCount.incrementAndGet();
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.operations.StageOps.controller;
 
 import com.operations.StageOps.model.Booking;
 import com.operations.StageOps.service.BookingService;
+import com.operations.StageOps.util.JsonArrayStreamer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -17,6 +19,7 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     /**
      * Constructor for the BookingController class.
@@ -24,8 +27,9 @@ public class BookingController {
      *
      * @param bookingService The service used to manage bookings
      */
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, JsonArrayStreamer jsonArrayStreamer) {
         this.bookingService = bookingService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
     }
 
     /**
@@ -47,11 +51,29 @@ public class BookingController {
      * Retrieves all bookings.
      * This method calls the {@link BookingService} to fetch all bookings from the database.
      *
+     * Pass afterId and/or limit to get one page in ID order instead; afterId is the ID of the last booking received.
+     *
+     * @param afterId The ID of the last booking of the previous page
+     * @param limit The page size
      * @return A list of all bookings
      */
     @GetMapping("/all")
-    public List<Booking> getAllBookings() {
-        return bookingService.getAllBookings();
+    public List<Booking> getAllBookings(@RequestParam(required = false) Integer afterId,
+                                        @RequestParam(required = false) Integer limit) {
+        if (afterId == null && limit == null) {
+            return bookingService.getAllBookings();
+        }
+        return bookingService.getBookingsPage(afterId != null ? afterId : 0, limit);
+    }
+
+    /**
+     * Streams all bookings as a JSON array, writing each booking as it is read from the database.
+     *
+     * @return The streamed bookings
+     */
+    @GetMapping(value = "/all", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllBookings() {
+        return jsonArrayStreamer.stream(bookingService::forEachBooking);
     }
 
     /**
@@ -1,8 +1,10 @@
 package com.operations.StageOps.controller;
 
 import com.operations.StageOps.model.Booking;
+import com.operations.StageOps.model.CalendarEntry;
 import com.operations.StageOps.model.Event;
 import com.operations.StageOps.service.BookingService;
+import com.operations.StageOps.service.CalendarService;
 import com.operations.StageOps.service.EventService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +24,25 @@ import java.util.List;
         @Autowired
         private BookingService bookingService;
 
+        @Autowired
+        private CalendarService calendarService;
+
+    /**
+     * Retrieves the events and booking days between two dates for CalendarFX, with their room and layout names.
+     *
+     * @param startDate The first day of the window.
+     * @param endDate   The last day of the window (inclusive).
+     * @return The calendar entries, or 400 if the window is invalid or longer than 400 days.
+     */
+    @GetMapping("/entries")
+    public ResponseEntity<List<CalendarEntry>> getEntries(@RequestParam LocalDate startDate, @RequestParam LocalDate endDate) {
+        try {
+            return ResponseEntity.ok(calendarService.getEntries(startDate, endDate));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // Retrieve all events for CalendarFX
     @GetMapping("/events")
     public ResponseEntity<List<Event>> getAllEvents() {
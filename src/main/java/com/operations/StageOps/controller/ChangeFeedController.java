@@ -0,0 +1,79 @@
+package com.operations.StageOps.controller;
+
+import com.operations.StageOps.model.ChangeEvent;
+import com.operations.StageOps.util.ChangeFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Controller streaming committed changes to clients as server-sent events, so open screens can apply them instead
+ * of polling.
+ */
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeFeedController {
+
+    private final ChangeFeed changeFeed;
+    private final long timeoutMs;
+
+    /**
+     * Constructor for the ChangeFeedController class.
+     *
+     * @param changeFeed the feed the repositories publish their changes on
+     * @param timeoutMs  how long a stream stays open before the client has to reconnect, in milliseconds
+     */
+    @Autowired
+    public ChangeFeedController(ChangeFeed changeFeed,
+                                @Value("${stageops.changes.sse-timeout-ms:600000}") long timeoutMs) {
+        this.changeFeed = changeFeed;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Streams the changes on some topics, e.g. {@code /api/changes?topics=seats/12,events/12}. Each change is sent
+     * with its number as the event ID and its type as the event name. A client reconnecting with the
+     * {@code Last-Event-ID} header first receives the changes it missed, or a {@code resync} per topic when
+     * those are no longer kept.
+     *
+     * @param topics      the topics to receive, including the topics below them
+     * @param lastEventId the number of the last change the client received, if it is reconnecting
+     * @return the event stream
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestParam List<String> topics,
+                                @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        ChangeFeed.Subscription subscription = changeFeed.subscribe(topics, lastEventId, change -> send(emitter, change));
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        return emitter;
+    }
+
+    private static void send(SseEmitter emitter, ChangeEvent change) {
+        try {
+            SseEmitter.SseEventBuilder event = SseEmitter.event()
+                    .name(change.getType())
+                    .data(change, MediaType.APPLICATION_JSON);
+            if (change.getSequence() > 0) {
+                // A resync is not numbered and must not move the client's Last-Event-ID
+                event.id(Long.toString(change.getSequence()));
+            }
+            emitter.send(event);
+        } catch (IOException e) {
+            // The change feed closes the subscription
+            throw new UncheckedIOException(e);
+        }
+    }
+}
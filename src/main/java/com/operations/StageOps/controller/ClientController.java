@@ -2,8 +2,11 @@ package com.operations.StageOps.controller;
 
 import com.operations.StageOps.model.Client;
 import com.operations.StageOps.service.ClientService;
+import com.operations.StageOps.util.JsonArrayStreamer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -12,10 +15,12 @@ import java.util.List;
 public class ClientController {
 
     private final ClientService clientService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     @Autowired
-    public ClientController(ClientService clientService) {
+    public ClientController(ClientService clientService, JsonArrayStreamer jsonArrayStreamer) {
         this.clientService = clientService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
     }
 
     @PostMapping
@@ -29,9 +34,20 @@ public class ClientController {
         return clientService.getClientById(clientId);
     }
 
+    // All clients, or one page in ID order when afterId and/or limit are given
     @GetMapping
-    public List<Client> getAllClients() {
-        return clientService.getAllClients();
+    public List<Client> getAllClients(@RequestParam(required = false) Integer afterId,
+                                      @RequestParam(required = false) Integer limit) {
+        if (afterId == null && limit == null) {
+            return clientService.getAllClients();
+        }
+        return clientService.getClientsPage(afterId != null ? afterId : 0, limit);
+    }
+
+    // All clients as a JSON array written row by row
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllClients() {
+        return jsonArrayStreamer.stream(clientService::forEachClient);
     }
 
     @PutMapping("/{clientId}")
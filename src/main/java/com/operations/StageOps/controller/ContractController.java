@@ -2,8 +2,13 @@ package com.operations.StageOps.controller;
 
 import com.operations.StageOps.model.Contract;
 import com.operations.StageOps.repository.ContractRepository;
+import com.operations.StageOps.service.PdfBatchService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -15,6 +20,9 @@ public class ContractController {
     @Autowired
     private ContractRepository contractRepository;
 
+    @Autowired
+    private PdfBatchService pdfBatchService;
+
     @PostMapping
     public String createContract(@RequestBody Contract contract) {
         int result = contractRepository.createContract(contract);
@@ -36,4 +44,17 @@ public class ContractController {
         int result = contractRepository.updateContractStatus(contractId, status);
         return result > 0 ? "Contract status updated successfully!" : "Error updating contract status.";
     }
-}
\ No newline at end of file
+
+    /**
+     * Renders the given contracts as PDFs and streams them back as one ZIP archive, contract_&lt;id&gt;.pdf per contract.
+     * Contracts that fail to render are left out of the archive.
+     */
+    @PostMapping("/pdf")
+    public ResponseEntity<StreamingResponseBody> exportContractPdfs(@RequestBody List<Integer> contractIds) {
+        StreamingResponseBody body = out -> pdfBatchService.writeContractsZip(contractIds, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"contracts.zip\"")
+                .body(body);
+    }
+}
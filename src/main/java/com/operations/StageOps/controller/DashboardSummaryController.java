@@ -0,0 +1,26 @@
+package com.operations.StageOps.controller;
+
+import com.operations.StageOps.model.DashboardSummary;
+import com.operations.StageOps.service.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardSummaryController {
+
+    private final DashboardService dashboardService;
+
+    @Autowired
+    public DashboardSummaryController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    // Everything the dashboard shows on load, computed in parallel and cached for a few seconds
+    @GetMapping("/summary")
+    public DashboardSummary getSummary() {
+        return dashboardService.getSummary();
+    }
+}
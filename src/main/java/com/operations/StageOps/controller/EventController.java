@@ -1,11 +1,18 @@
 package com.operations.StageOps.controller;
 
 import com.operations.StageOps.model.Event;
+import com.operations.StageOps.model.SeatAllocationRequest;
+import com.operations.StageOps.model.SeatHold;
 import com.operations.StageOps.model.Seating;
 import com.operations.StageOps.service.EventService;
+import com.operations.StageOps.util.JsonArrayStreamer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -15,6 +22,7 @@ import java.util.List;
 public class EventController {
 
     private final EventService eventService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     /**
      * Constructor for the EventController class.
@@ -23,8 +31,9 @@ public class EventController {
      * @param eventService The service used to manage events
      */
     @Autowired
-    public EventController(EventService eventService) {
+    public EventController(EventService eventService, JsonArrayStreamer jsonArrayStreamer) {
         this.eventService = eventService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
     }
 
     /**
@@ -90,16 +99,85 @@ public class EventController {
         return eventService.getSeatsForEvent(eventId);
     }
 
+    /**
+     * Suggests the best block of adjacent free seats for a party, without reserving it.
+     * Seats are adjacent when they are in the same section and have consecutive seat numbers.
+     *
+     * @param eventId          The ID of the event
+     * @param partySize        The number of seats needed
+     * @param accessible       Whether the block must include an accessible seat
+     * @param avoidRestricted  Whether restricted-view seats must be left out
+     * @param preferredSection The section to try first
+     * @return The seats of the block, 404 if no block fits, or 400 if the party size is not positive
+     */
+    @GetMapping("/{eventId}/bestAvailableSeats")
+    public ResponseEntity<List<Seating>> getBestAvailableSeats(@PathVariable int eventId, @RequestParam int partySize,
+                                                               @RequestParam(defaultValue = "false") boolean accessible,
+                                                               @RequestParam(defaultValue = "false") boolean avoidRestricted,
+                                                               @RequestParam(required = false) String preferredSection) {
+        try {
+            List<Seating> seats = eventService.findBestAvailableSeats(eventId,
+                    new SeatAllocationRequest(partySize, accessible, avoidRestricted, preferredSection));
+            return seats.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(seats);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Holds the best block of adjacent free seats for a party; the hold expires unless it is confirmed
+     * through the marketing hold endpoints.
+     *
+     * @param eventId The ID of the event
+     * @param request The party size and constraints
+     * @return The hold, 409 if no block fits or the event has too few tickets left, 503 if concurrent claims kept
+     *         taking the chosen seats, or 400 if the party size is not positive
+     */
+    @PostMapping("/{eventId}/holdBestAvailableSeats")
+    public ResponseEntity<SeatHold> holdBestAvailableSeats(@PathVariable int eventId, @RequestBody SeatAllocationRequest request) {
+        if (request.getPartySize() < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            SeatHold hold = eventService.holdBestAvailableSeats(eventId, request);
+            return hold != null ? ResponseEntity.ok(hold) : ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // A chosen seat was taken by another instance, or too few tickets are left
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (ConcurrencyFailureException e) {
+            // Free seats exist but were lost to other claims; the client may retry straight away
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
+    }
+
 
     /**
      * Retrieves all events.
      * This method calls the {@link EventService} to fetch all events from the database.
      *
+     * Pass afterId and/or limit to get one page in ID order instead; afterId is the ID of the last event received.
+     *
+     * @param afterId The ID of the last event of the previous page
+     * @param limit The page size
      * @return A list of all events
      */
     @GetMapping("/all")
-    public List<Event> getAllEvents() {
-        return eventService.getAllEvents();
+    public List<Event> getAllEvents(@RequestParam(required = false) Integer afterId,
+                                    @RequestParam(required = false) Integer limit) {
+        if (afterId == null && limit == null) {
+            return eventService.getAllEvents();
+        }
+        return eventService.getEventsPage(afterId != null ? afterId : 0, limit);
+    }
+
+    /**
+     * Streams all events as a JSON array, writing each event as it is read from the database.
+     *
+     * @return The streamed events
+     */
+    @GetMapping(value = "/all", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllEvents() {
+        return jsonArrayStreamer.stream(eventService::forEachEvent);
     }
 
     /**
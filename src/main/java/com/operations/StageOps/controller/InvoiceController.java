@@ -2,8 +2,13 @@ package com.operations.StageOps.controller;
 
 import com.operations.StageOps.model.Invoice;
 import com.operations.StageOps.repository.InvoiceRepository;
+import com.operations.StageOps.service.PdfBatchService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -15,6 +20,9 @@ public class InvoiceController {
     @Autowired
     private InvoiceRepository invoiceRepository;
 
+    @Autowired
+    private PdfBatchService pdfBatchService;
+
     @PostMapping
     public String createInvoice(@RequestBody Invoice invoice) {
         int result = invoiceRepository.createInvoice(invoice);
@@ -36,5 +44,17 @@ public class InvoiceController {
         int result = invoiceRepository.updateInvoiceStatus(invoiceId, status);
         return result > 0 ? "Invoice status updated successfully!" : "Error updating invoice status.";
     }
-}
 
+    /**
+     * Renders the given invoices as PDFs and streams them back as one ZIP archive, invoice_&lt;id&gt;.pdf per invoice.
+     * Invoices that fail to render are left out of the archive.
+     */
+    @PostMapping("/pdf")
+    public ResponseEntity<StreamingResponseBody> exportInvoicePdfs(@RequestBody List<Integer> invoiceIds) {
+        StreamingResponseBody body = out -> pdfBatchService.writeInvoicesZip(invoiceIds, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"invoices.zip\"")
+                .body(body);
+    }
+}
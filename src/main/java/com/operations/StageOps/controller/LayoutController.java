@@ -3,10 +3,12 @@ package com.operations.StageOps.controller;
 import com.operations.StageOps.model.LayoutConfiguration;
 import com.operations.StageOps.model.Seating;
 import com.operations.StageOps.service.LayoutService;
+import com.operations.StageOps.util.JsonArrayStreamer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -15,14 +17,16 @@ import java.util.List;
 public class LayoutController {
 
     private final LayoutService layoutService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     /**
      * Constructor for LayoutController
      * @param layoutService LayoutService object
      */
     @Autowired
-    public LayoutController(LayoutService layoutService) {
+    public LayoutController(LayoutService layoutService, JsonArrayStreamer jsonArrayStreamer) {
         this.layoutService = layoutService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
     }
 
     /**
@@ -57,12 +61,27 @@ public class LayoutController {
     }
 
     /**
-     * Get all layouts
+     * Get all layouts, or one page in ID order when afterId and/or limit are given
+     * @param afterId The ID of the last layout of the previous page
+     * @param limit The page size
      * @return List of LayoutConfiguration objects
      */
     @GetMapping
-    public List<LayoutConfiguration> getAllLayouts() {
-        return layoutService.getAllLayouts();
+    public List<LayoutConfiguration> getAllLayouts(@RequestParam(required = false) Integer afterId,
+                                                   @RequestParam(required = false) Integer limit) {
+        if (afterId == null && limit == null) {
+            return layoutService.getAllLayouts();
+        }
+        return layoutService.getLayoutsPage(afterId != null ? afterId : 0, limit);
+    }
+
+    /**
+     * Stream all layouts as a JSON array, written a page at a time as they are read
+     * @return The streamed layouts
+     */
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllLayouts() {
+        return jsonArrayStreamer.stream(layoutService::forEachLayout);
     }
 
     /**
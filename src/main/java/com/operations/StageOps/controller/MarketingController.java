@@ -1,8 +1,11 @@
 package com.operations.StageOps.controller;
 
 import com.operations.StageOps.model.Event;
+import com.operations.StageOps.model.SeatHold;
 import com.operations.StageOps.service.EventService;
+import com.operations.StageOps.service.SeatHoldService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -11,10 +14,12 @@ import java.util.List;
 @RequestMapping("/api/marketing")
 public class MarketingController {
     private final EventService eventService;
+    private final SeatHoldService seatHoldService;
 
     @Autowired
-    public MarketingController(EventService eventService) {
+    public MarketingController(EventService eventService, SeatHoldService seatHoldService) {
         this.eventService = eventService;
+        this.seatHoldService = seatHoldService;
     }
 
     @GetMapping("/events/all")
@@ -33,4 +38,23 @@ public class MarketingController {
     public String holdSeatsForGroupBooking(@PathVariable int eventId, @RequestParam int groupSize, @RequestBody List<String> seatIds) {
         return eventService.holdSeatsForGroupBooking(eventId, groupSize, seatIds);
     }
+
+    // A group hold with its seats and expiry time, or 404 once it has been confirmed, released or has expired
+    @GetMapping("/holds/{holdId}")
+    public ResponseEntity<SeatHold> getHold(@PathVariable String holdId) {
+        SeatHold hold = seatHoldService.getHold(holdId);
+        return hold != null ? ResponseEntity.ok(hold) : ResponseEntity.notFound().build();
+    }
+
+    // Keep the held seats for good, so the hold no longer expires
+    @PostMapping("/holds/{holdId}/confirm")
+    public ResponseEntity<Void> confirmHold(@PathVariable String holdId) {
+        return seatHoldService.confirmHold(holdId) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    // Give the held seats back before the hold expires
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<Void> releaseHold(@PathVariable String holdId) {
+        return seatHoldService.releaseHold(holdId) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
 }
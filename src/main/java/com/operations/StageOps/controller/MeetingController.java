@@ -1,11 +1,14 @@
 package com.operations.StageOps.controller;
 
+import com.operations.StageOps.model.LayoutConfiguration;
 import com.operations.StageOps.service.LayoutCreationService;
 import com.operations.StageOps.service.RoomPopulator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/meetings")
 public class MeetingController {
@@ -23,8 +26,9 @@ public class MeetingController {
     @PostMapping("/{roomId}")
     public ResponseEntity<String> createMeetingRoom(@PathVariable int roomId) {
         try {
-            layoutCreationService.createLayoutForRoom(roomId);
-            return ResponseEntity.ok("room layout and seats sectioned successfully.");
+            LayoutConfiguration layout = layoutCreationService.createLayoutForRoom(roomId);
+            return ResponseEntity.ok("room layout and seats sectioned successfully: " + layout.getSections().size()
+                    + " sections, " + layout.getMaxCapacity() + " seats.");
         } catch (Exception e) {
             System.out.println(e.getMessage());
             return ResponseEntity.status(500).body("Error creating meeting room: " + e.getMessage());
@@ -39,4 +43,15 @@ public class MeetingController {
             return "Error creating seats: " + e.getMessage();
         }
     }
+
+    // Endpoint to create the seats of several rooms in one transaction; the body maps room IDs to capacities
+    @PostMapping("/seats")
+    public String createSeatsForRooms(@RequestBody Map<Integer, Integer> capacityByRoom) {
+        try {
+            int created = roomPopulator.createSeatsForRooms(capacityByRoom);
+            return created + " seats successfully created for " + capacityByRoom.size() + " rooms";
+        } catch (Exception e) {
+            return "Error creating seats: " + e.getMessage();
+        }
+    }
 }
@@ -0,0 +1,106 @@
+package com.operations.StageOps.controller;
+
+import com.operations.StageOps.model.PdfJob;
+import com.operations.StageOps.service.PdfJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller for background invoice and contract PDF jobs.
+ */
+@RestController
+@RequestMapping("/api/pdf-jobs")
+public class PdfJobController {
+
+    // Longest a client may wait on /await; kept below the servlet container's default async timeout of 30 seconds
+    private static final int MAX_AWAIT_SECONDS = 25;
+
+    private final PdfJobService pdfJobService;
+
+    @Autowired
+    public PdfJobController(PdfJobService pdfJobService) {
+        this.pdfJobService = pdfJobService;
+    }
+
+    /**
+     * Queues a job. The body names the job type (INVOICE or CONTRACT) and the document IDs to render.
+     *
+     * @param request The job type and document IDs.
+     * @return The queued job, with its ID.
+     */
+    @PostMapping
+    public ResponseEntity<PdfJob> submitJob(@RequestBody PdfJob request) {
+        try {
+            PdfJob job = pdfJobService.submit(request.getJobType(), request.getDocumentIds());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Retrieves the current state of a job.
+     *
+     * @param jobId The ID of the job.
+     * @return The job, or 404 if there is no such job.
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<PdfJob> getJob(@PathVariable int jobId) {
+        PdfJob job = pdfJobService.getJob(jobId);
+        return job != null ? ResponseEntity.ok(job) : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Waits until a job has completed or failed, or until the timeout passes, and returns its state then.
+     *
+     * @param jobId          The ID of the job.
+     * @param timeoutSeconds How long to wait, at most 25 seconds.
+     * @return The job, or 404 if there is no such job.
+     */
+    @GetMapping("/{jobId}/await")
+    public CompletableFuture<ResponseEntity<PdfJob>> awaitJob(@PathVariable int jobId,
+                                                              @RequestParam(defaultValue = "20") int timeoutSeconds) {
+        int timeout = Math.max(0, Math.min(timeoutSeconds, MAX_AWAIT_SECONDS));
+        // Time out a copy: the future itself is shared with every other caller waiting on the job
+        return pdfJobService.awaitCompletion(jobId).copy()
+                .completeOnTimeout(null, timeout, TimeUnit.SECONDS)
+                .thenApply(job -> job != null ? job : pdfJobService.getJob(jobId))
+                .thenApply(job -> job != null ? ResponseEntity.ok(job) : new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Downloads the result of a completed job: a PDF for a single document, otherwise a ZIP archive.
+     *
+     * @param jobId The ID of the job.
+     * @return The result, 404 if there is no such job or 409 if it has not completed.
+     */
+    @GetMapping("/{jobId}/result")
+    public ResponseEntity<StreamingResponseBody> downloadResult(@PathVariable int jobId) {
+        PdfJob job = pdfJobService.getJob(jobId);
+        if (job == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (!PdfJob.COMPLETED.equals(job.getStatus())) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+        StreamingResponseBody body = out -> pdfJobService.writeResult(job, out);
+        return ResponseEntity.ok()
+                .contentType(pdfJobService.isZipResult(job) ? MediaType.parseMediaType("application/zip") : MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + pdfJobService.resultFileName(job) + "\"")
+                .body(body);
+    }
+}
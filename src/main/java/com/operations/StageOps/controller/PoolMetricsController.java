@@ -0,0 +1,68 @@
+package com.operations.StageOps.controller;
+
+import com.operations.StageOps.config.PoolMetricsTracker;
+import com.operations.StageOps.repository.ClientRepository;
+import com.operations.StageOps.repository.LayoutRepository;
+import com.operations.StageOps.repository.RoomRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controller exposing database connection pool and reference-data cache metrics.
+ */
+@RestController
+@RequestMapping("/api/metrics")
+public class PoolMetricsController {
+
+    private final PoolMetricsTracker poolMetricsTracker;
+    private final RoomRepository roomRepository;
+    private final LayoutRepository layoutRepository;
+    private final ClientRepository clientRepository;
+
+    /**
+     * Constructor for the PoolMetricsController class.
+     *
+     * @param poolMetricsTracker the tracker collecting pool statistics
+     * @param roomRepository     the repository owning the room cache
+     * @param layoutRepository   the repository owning the layout cache
+     * @param clientRepository   the repository owning the client cache
+     */
+    @Autowired
+    public PoolMetricsController(PoolMetricsTracker poolMetricsTracker, RoomRepository roomRepository,
+                                 LayoutRepository layoutRepository, ClientRepository clientRepository) {
+        this.poolMetricsTracker = poolMetricsTracker;
+        this.roomRepository = roomRepository;
+        this.layoutRepository = layoutRepository;
+        this.clientRepository = clientRepository;
+    }
+
+    /**
+     * Retrieves the current connection pool metrics: active/idle connections,
+     * waiting threads, acquire wait time and the acquire-latency histogram.
+     *
+     * @return the pool metrics snapshot
+     */
+    @GetMapping("/pool")
+    public ResponseEntity<Map<String, Object>> getPoolMetrics() {
+        return ResponseEntity.ok(poolMetricsTracker.snapshot());
+    }
+
+    /**
+     * Retrieves the size, hits, misses, evictions and hit rate of the room, layout and client caches.
+     *
+     * @return one statistics entry per cache
+     */
+    @GetMapping("/caches")
+    public ResponseEntity<List<Map<String, Object>>> getCacheMetrics() {
+        return ResponseEntity.ok(List.of(
+                roomRepository.roomCacheStats(),
+                layoutRepository.layoutCacheStats(),
+                clientRepository.clientCacheStats()));
+    }
+}
@@ -1,13 +1,21 @@
 package com.operations.StageOps.controller;
 
 import com.operations.StageOps.model.RevenueTracking;
+import com.operations.StageOps.service.RevenueCsvExportService;
 import com.operations.StageOps.service.RevenueTrackingService;
+import com.operations.StageOps.util.JsonArrayStreamer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -21,6 +29,8 @@ import java.util.Map;
 public class RevenueTrackingController {
 
     private final RevenueTrackingService revenueTrackingService;
+    private final RevenueCsvExportService revenueCsvExportService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     /**
      * Constructor for the RevenueTrackingController class.
@@ -28,8 +38,11 @@ public class RevenueTrackingController {
      * @param revenueTrackingService the service class for revenue tracking
      */
     @Autowired
-    public RevenueTrackingController(RevenueTrackingService revenueTrackingService) {
+    public RevenueTrackingController(RevenueTrackingService revenueTrackingService, RevenueCsvExportService revenueCsvExportService,
+                                     JsonArrayStreamer jsonArrayStreamer) {
         this.revenueTrackingService = revenueTrackingService;
+        this.revenueCsvExportService = revenueCsvExportService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
     }
 
 
@@ -105,16 +118,31 @@ public class RevenueTrackingController {
 
 
     /**
-     * Retrieves total revenue for all time.
+     * Retrieves all revenue tracking entries, or one page of them in ID order when afterId and/or limit are given.
      *
-     * @return the total revenue for all time
+     * @param afterId the ID of the last entry of the previous page
+     * @param limit the page size
+     * @return the revenue tracking entries
      */
     @GetMapping("/entries/lifetime")
-    public ResponseEntity<List<RevenueTracking>> getAllRevenueEntries() {
-        List<RevenueTracking> entries = revenueTrackingService.getAllRevenueTrackingEntries();
+    public ResponseEntity<List<RevenueTracking>> getAllRevenueEntries(@RequestParam(required = false) Integer afterId,
+                                                                      @RequestParam(required = false) Integer limit) {
+        List<RevenueTracking> entries = afterId == null && limit == null
+                ? revenueTrackingService.getAllRevenueTrackingEntries()
+                : revenueTrackingService.getRevenueTrackingEntriesPage(afterId != null ? afterId : 0, limit);
         return ResponseEntity.ok(entries);
     }
 
+    /**
+     * Streams all revenue tracking entries as a JSON array, writing each entry as it is read from the database.
+     *
+     * @return the streamed entries
+     */
+    @GetMapping(value = "/entries/lifetime", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllRevenueEntries() {
+        return jsonArrayStreamer.stream(revenueTrackingService::forEachRevenueTrackingEntry);
+    }
+
     /**
      * Endpoint to get the monthly revenue for a given year.
      *
@@ -162,4 +190,34 @@ public class RevenueTrackingController {
         double totalRevenue = revenueTrackingService.getTotalRevenueForWeek(startOfWeek, endOfWeek);
         return ResponseEntity.ok(totalRevenue);
     }
+
+    /**
+     * Rebuilds the daily and monthly revenue rollups from the revenue tracking records.
+     *
+     * @return the number of daily buckets written
+     */
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Integer> rebuildRevenueRollups() {
+        return ResponseEntity.ok(revenueTrackingService.rebuildRevenueRollups());
+    }
+
+    /**
+     * Exports the revenue tracking entries as a CSV download, streamed from the database row by row.
+     *
+     * @param startDate the first booking date to include (inclusive); all dates if omitted
+     * @param endDate the last booking date to include (inclusive); all dates if omitted
+     * @param gzip whether to gzip the file
+     * @return the CSV file
+     */
+    @GetMapping("/export/csv")
+    public ResponseEntity<StreamingResponseBody> exportRevenueCsv(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = out -> revenueCsvExportService.writeCsv(startDate, endDate, out, gzip, (done, total) -> { });
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"revenue_report.csv" + (gzip ? ".gz" : "") + "\"")
+                .body(body);
+    }
 }
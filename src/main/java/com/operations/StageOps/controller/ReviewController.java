@@ -1,12 +1,17 @@
 package com.operations.StageOps.controller;
 
 import com.operations.StageOps.model.Review;
+import com.operations.StageOps.model.ReviewDto;
 import com.operations.StageOps.service.ReviewService;
+import com.operations.StageOps.util.JsonArrayStreamer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -14,10 +19,12 @@ import java.util.List;
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     @Autowired
-    public ReviewController(ReviewService reviewService) {
+    public ReviewController(ReviewService reviewService, JsonArrayStreamer jsonArrayStreamer) {
         this.reviewService = reviewService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
     }
 
     @PostMapping
@@ -35,9 +42,20 @@ public class ReviewController {
         return reviewService.getReviewById(reviewId);
     }
 
+    // All reviews, or one page in ID order when afterId and/or limit are given
     @GetMapping
-    public List<Review> getAllReviews() {
-        return reviewService.getAllReviews();
+    public List<Review> getAllReviews(@RequestParam(required = false) Integer afterId,
+                                      @RequestParam(required = false) Integer limit) {
+        if (afterId == null && limit == null) {
+            return reviewService.getAllReviews();
+        }
+        return reviewService.getReviewsPage(afterId != null ? afterId : 0, limit);
+    }
+
+    // All reviews as a JSON array written row by row
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllReviews() {
+        return jsonArrayStreamer.stream(reviewService::forEachReview);
     }
 
     @DeleteMapping("/{reviewId}")
@@ -79,4 +97,15 @@ public class ReviewController {
         List<Review> reviews = reviewService.getReviewsByBookingId(bookingId);
         return ResponseEntity.ok(reviews);
     }
+
+    // Endpoint to page through reviews newest first, with event and client names;
+    // pass the reviewDate and reviewId of the last review received to get the next page
+    @GetMapping("/feed")
+    public ResponseEntity<List<ReviewDto>> getReviewFeed(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeDate,
+            @RequestParam(defaultValue = "0") int beforeId,
+            @RequestParam(defaultValue = "20") int limit) {
+        List<ReviewDto> reviews = reviewService.getReviewFeed(beforeDate, beforeId, limit);
+        return ResponseEntity.ok(reviews);
+    }
 }
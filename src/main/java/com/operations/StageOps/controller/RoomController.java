@@ -2,6 +2,7 @@ package com.operations.StageOps.controller;
 
 import com.operations.StageOps.model.LayoutConfiguration;
 import com.operations.StageOps.model.Room;
+import com.operations.StageOps.model.RoomAvailabilityMatrix;
 import com.operations.StageOps.service.LayoutService;
 import com.operations.StageOps.service.RoomService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -142,5 +143,26 @@ public class RoomController {
         List<Integer> availableRooms = roomService.getAvailableRooms(startDate, endDate, eventStartTime, eventEndTime);
         return ResponseEntity.ok(availableRooms);
     }
-}
 
+    /**
+     * Retrieves the availability of every room over equally sized time slots in a single response,
+     * e.g. 30-minute slots over a week for the dashboard or the booking calendar.
+     *
+     * @param startDate   The first day of the range.
+     * @param endDate     The last day of the range (inclusive).
+     * @param slotMinutes The length of each slot in minutes (defaults to 30).
+     * @return The room × slot availability matrix, or 400 if the range or slot length is invalid.
+     */
+    @GetMapping("/availability-matrix")
+    public ResponseEntity<RoomAvailabilityMatrix> getAvailabilityMatrix(
+            @RequestParam LocalDate startDate,
+            @RequestParam LocalDate endDate,
+            @RequestParam(defaultValue = "30") int slotMinutes
+    ) {
+        try {
+            return ResponseEntity.ok(roomService.getAvailabilityMatrix(startDate, endDate, slotMinutes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.operations.StageOps.controller;
 
 import com.operations.StageOps.model.Ticket;
 import com.operations.StageOps.service.TicketService;
+import com.operations.StageOps.util.JsonArrayStreamer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -16,14 +18,16 @@ import java.util.List;
 public class TicketController {
 
     private final TicketService ticketService;
+    private final JsonArrayStreamer jsonArrayStreamer;
 
     /**
      * Constructor for TicketController.
      *
      * @param ticketService The service handling ticket operations.
      */
-    public TicketController(TicketService ticketService) {
+    public TicketController(TicketService ticketService, JsonArrayStreamer jsonArrayStreamer) {
         this.ticketService = ticketService;
+        this.jsonArrayStreamer = jsonArrayStreamer;
     }
 
     /**
@@ -45,11 +49,29 @@ public class TicketController {
     /**
      * Get all tickets.
      *
+     * Pass afterId and/or limit to get one page in ID order instead.
+     *
+     * @param afterId The ID of the last ticket of the previous page.
+     * @param limit The page size.
      * @return List of all tickets.
      */
     @GetMapping
-    public List<Ticket> getAllTickets() {
-        return ticketService.getAllTickets();
+    public List<Ticket> getAllTickets(@RequestParam(required = false) Integer afterId,
+                                      @RequestParam(required = false) Integer limit) {
+        if (afterId == null && limit == null) {
+            return ticketService.getAllTickets();
+        }
+        return ticketService.getTicketsPage(afterId != null ? afterId : 0, limit);
+    }
+
+    /**
+     * Stream all tickets as a JSON array, written as they are read from the database.
+     *
+     * @return The streamed tickets.
+     */
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllTickets() {
+        return jsonArrayStreamer.stream(ticketService::forEachTicket);
     }
 
     /**
@@ -86,6 +108,24 @@ public class TicketController {
         }
     }
 
+    /**
+     * Refunds a ticket: the ticket is removed, its seat is released and the event's totals are reduced.
+     *
+     * @param ticketId The ID of the ticket to refund.
+     * @return ResponseEntity indicating success or failure.
+     */
+    @PostMapping("/{ticketId}/refund")
+    public ResponseEntity<String> refundTicket(@PathVariable int ticketId) {
+        try {
+            if (ticketService.refundTicket(ticketId)) {
+                return ResponseEntity.ok("Ticket refunded successfully.");
+            }
+            return ResponseEntity.status(404).body("Ticket not found.");
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error refunding the ticket: " + e.getMessage());
+        }
+    }
+
     /**
      * Deletes a ticket by its ID.
      *
@@ -0,0 +1,100 @@
+package com.operations.StageOps.model;
+
+import java.time.Instant;
+
+/**
+ * One entry of the calendar: an event, or one day of a booking. The room and layout names are included,
+ * so the calendar can label the entry without looking them up.
+ */
+public class CalendarEntry {
+
+    /**
+     * What an entry shows.
+     */
+    public enum Type { EVENT, BOOKING }
+
+    private Type type;
+    private int id;          // event ID or booking ID
+    private String name;     // event name; null for bookings
+    private int clientId;
+    private Integer roomId;  // null for a booking day without a room assignment
+    private String roomName;
+    private Integer layoutId;
+    private String layoutName;
+    private Instant start;
+    private Instant end;
+
+    /**
+     * Default constructor for CalendarEntry.
+     */
+    public CalendarEntry() {
+    }
+
+    /**
+     * Constructs a CalendarEntry.
+     *
+     * @param type       Whether the entry is an event or a booking day.
+     * @param id         The event ID or booking ID.
+     * @param name       The event name; null for bookings.
+     * @param clientId   The ID of the client.
+     * @param roomId     The ID of the room, or null if none is assigned.
+     * @param roomName   The name of the room, or null if unknown.
+     * @param layoutId   The ID of the layout, or null if unknown.
+     * @param layoutName The name of the layout, or null if unknown.
+     * @param start      The start of the entry.
+     * @param end        The end of the entry.
+     */
+    public CalendarEntry(Type type, int id, String name, int clientId, Integer roomId, String roomName,
+                         Integer layoutId, String layoutName, Instant start, Instant end) {
+        this.type = type;
+        this.id = id;
+        this.name = name;
+        this.clientId = clientId;
+        this.roomId = roomId;
+        this.roomName = roomName;
+        this.layoutId = layoutId;
+        this.layoutName = layoutName;
+        this.start = start;
+        this.end = end;
+    }
+
+    public Type getType() { return type; }
+
+    public void setType(Type type) { this.type = type; }
+
+    public int getId() { return id; }
+
+    public void setId(int id) { this.id = id; }
+
+    public String getName() { return name; }
+
+    public void setName(String name) { this.name = name; }
+
+    public int getClientId() { return clientId; }
+
+    public void setClientId(int clientId) { this.clientId = clientId; }
+
+    public Integer getRoomId() { return roomId; }
+
+    public void setRoomId(Integer roomId) { this.roomId = roomId; }
+
+    public String getRoomName() { return roomName; }
+
+    public void setRoomName(String roomName) { this.roomName = roomName; }
+
+    public Integer getLayoutId() { return layoutId; }
+
+    public void setLayoutId(Integer layoutId) { this.layoutId = layoutId; }
+
+    public String getLayoutName() { return layoutName; }
+
+    public void setLayoutName(String layoutName) { this.layoutName = layoutName; }
+
+    public Instant getStart() { return start; }
+
+    public void setStart(Instant start) { this.start = start; }
+
+    public Instant getEnd() { return end; }
+
+    public void setEnd(Instant end) { this.end = end; }
+}
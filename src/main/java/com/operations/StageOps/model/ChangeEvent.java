@@ -0,0 +1,163 @@
+package com.operations.StageOps.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A change published on the change feed ({@code /api/changes}) after it has been committed.
+ * <p>
+ * Every change belongs to a topic such as {@code events/12}, {@code seats/12}, {@code bookings/7} or
+ * {@code rooms/3/seating}; subscribing to a topic also delivers the topics below it, so {@code events} receives
+ * the changes of every event. A change carries what changed, so screens can apply it without reloading:
+ * the seats reserved or released, the change in an event's ticket counters, or the updated seats of a room.
+ * Created, updated and deleted events and bookings carry only their ID.
+ */
+public class ChangeEvent {
+
+    public static final String EVENT_CREATED = "event.created";
+    public static final String EVENT_UPDATED = "event.updated";
+    public static final String EVENT_DELETED = "event.deleted";
+    public static final String EVENT_TICKETS = "event.tickets";
+    public static final String BOOKING_CREATED = "booking.created";
+    public static final String BOOKING_UPDATED = "booking.updated";
+    public static final String BOOKING_DELETED = "booking.deleted";
+    public static final String SEATS_RESERVED = "seats.reserved";
+    public static final String SEATS_RELEASED = "seats.released";
+    public static final String SEATING_UPDATED = "seating.updated";
+    // Sent instead of the missed changes when a subscriber reconnects after they were dropped; reload everything
+    public static final String RESYNC = "resync";
+
+    private long sequence;
+    private String topic;
+    private String type;
+    private Integer eventId;
+    private Integer bookingId;
+    private Integer roomId;
+    private List<String> seatIds;
+    private List<Seating> seats;
+    private int soldDelta;
+    private int availableDelta;
+    private Instant timestamp;
+
+    /**
+     * Default constructor for ChangeEvent.
+     */
+    public ChangeEvent() {
+    }
+
+    private ChangeEvent(String topic, String type) {
+        this.topic = topic;
+        this.type = type;
+    }
+
+    /**
+     * @param type    {@link #EVENT_CREATED}, {@link #EVENT_UPDATED} or {@link #EVENT_DELETED}.
+     * @param eventId The ID of the event.
+     * @return The change.
+     */
+    public static ChangeEvent eventChanged(String type, int eventId) {
+        ChangeEvent change = new ChangeEvent("events/" + eventId, type);
+        change.eventId = eventId;
+        return change;
+    }
+
+    /**
+     * @param eventId        The ID of the event.
+     * @param soldDelta      The change in tickets sold.
+     * @param availableDelta The change in tickets available.
+     * @return The change.
+     */
+    public static ChangeEvent ticketsChanged(int eventId, int soldDelta, int availableDelta) {
+        ChangeEvent change = eventChanged(EVENT_TICKETS, eventId);
+        change.soldDelta = soldDelta;
+        change.availableDelta = availableDelta;
+        return change;
+    }
+
+    /**
+     * @param type      {@link #BOOKING_CREATED}, {@link #BOOKING_UPDATED} or {@link #BOOKING_DELETED}.
+     * @param bookingId The ID of the booking.
+     * @return The change.
+     */
+    public static ChangeEvent bookingChanged(String type, int bookingId) {
+        ChangeEvent change = new ChangeEvent("bookings/" + bookingId, type);
+        change.bookingId = bookingId;
+        return change;
+    }
+
+    /**
+     * @param type    {@link #SEATS_RESERVED} or {@link #SEATS_RELEASED}.
+     * @param eventId The ID of the event.
+     * @param seatIds The IDs of the seats.
+     * @return The change.
+     */
+    public static ChangeEvent seatsChanged(String type, int eventId, List<String> seatIds) {
+        ChangeEvent change = new ChangeEvent("seats/" + eventId, type);
+        change.eventId = eventId;
+        change.seatIds = List.copyOf(seatIds);
+        return change;
+    }
+
+    /**
+     * @param seat The seat as it was saved.
+     * @return A {@link #SEATING_UPDATED} change on the topic of the seat's room.
+     */
+    public static ChangeEvent seatingUpdated(Seating seat) {
+        ChangeEvent change = new ChangeEvent("rooms/" + seat.getRoomId() + "/seating", SEATING_UPDATED);
+        change.roomId = seat.getRoomId();
+        change.seats = List.of(seat);
+        return change;
+    }
+
+    /**
+     * @param topic The topic the subscriber missed changes on.
+     * @return A {@link #RESYNC} change.
+     */
+    public static ChangeEvent resync(String topic) {
+        return new ChangeEvent(topic, RESYNC);
+    }
+
+    public long getSequence() { return sequence; }
+
+    public void setSequence(long sequence) { this.sequence = sequence; }
+
+    public String getTopic() { return topic; }
+
+    public void setTopic(String topic) { this.topic = topic; }
+
+    public String getType() { return type; }
+
+    public void setType(String type) { this.type = type; }
+
+    public Integer getEventId() { return eventId; }
+
+    public void setEventId(Integer eventId) { this.eventId = eventId; }
+
+    public Integer getBookingId() { return bookingId; }
+
+    public void setBookingId(Integer bookingId) { this.bookingId = bookingId; }
+
+    public Integer getRoomId() { return roomId; }
+
+    public void setRoomId(Integer roomId) { this.roomId = roomId; }
+
+    public List<String> getSeatIds() { return seatIds; }
+
+    public void setSeatIds(List<String> seatIds) { this.seatIds = seatIds; }
+
+    public List<Seating> getSeats() { return seats; }
+
+    public void setSeats(List<Seating> seats) { this.seats = seats; }
+
+    public int getSoldDelta() { return soldDelta; }
+
+    public void setSoldDelta(int soldDelta) { this.soldDelta = soldDelta; }
+
+    public int getAvailableDelta() { return availableDelta; }
+
+    public void setAvailableDelta(int availableDelta) { this.availableDelta = availableDelta; }
+
+    public Instant getTimestamp() { return timestamp; }
+
+    public void setTimestamp(Instant timestamp) { this.timestamp = timestamp; }
+}
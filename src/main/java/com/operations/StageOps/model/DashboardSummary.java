@@ -0,0 +1,67 @@
+package com.operations.StageOps.model;
+
+import java.util.List;
+
+/**
+ * Everything the dashboard shows on load: the figures for the current week (Monday to Sunday),
+ * today's room availability in one-hour slots, the most recent reviews with their event names and the upcoming events.
+ */
+public class DashboardSummary {
+
+    private int eventsThisWeek;
+    private double revenueThisWeek;
+    private int ticketsSoldThisWeek;
+    private RoomAvailabilityMatrix roomAvailability;
+    private List<ReviewDto> reviews;
+    private List<EventDto> upcomingEvents;
+
+    /**
+     * Default constructor for DashboardSummary.
+     */
+    public DashboardSummary() {
+    }
+
+    /**
+     * Constructs a DashboardSummary.
+     *
+     * @param eventsThisWeek      The number of events this week.
+     * @param revenueThisWeek     The total revenue this week.
+     * @param ticketsSoldThisWeek The number of tickets sold this week.
+     * @param roomAvailability    Today's availability of every room.
+     * @param reviews             The most recent reviews, with their event names set.
+     * @param upcomingEvents      The upcoming events.
+     */
+    public DashboardSummary(int eventsThisWeek, double revenueThisWeek, int ticketsSoldThisWeek,
+                            RoomAvailabilityMatrix roomAvailability, List<ReviewDto> reviews, List<EventDto> upcomingEvents) {
+        this.eventsThisWeek = eventsThisWeek;
+        this.revenueThisWeek = revenueThisWeek;
+        this.ticketsSoldThisWeek = ticketsSoldThisWeek;
+        this.roomAvailability = roomAvailability;
+        this.reviews = reviews;
+        this.upcomingEvents = upcomingEvents;
+    }
+
+    public int getEventsThisWeek() { return eventsThisWeek; }
+
+    public void setEventsThisWeek(int eventsThisWeek) { this.eventsThisWeek = eventsThisWeek; }
+
+    public double getRevenueThisWeek() { return revenueThisWeek; }
+
+    public void setRevenueThisWeek(double revenueThisWeek) { this.revenueThisWeek = revenueThisWeek; }
+
+    public int getTicketsSoldThisWeek() { return ticketsSoldThisWeek; }
+
+    public void setTicketsSoldThisWeek(int ticketsSoldThisWeek) { this.ticketsSoldThisWeek = ticketsSoldThisWeek; }
+
+    public RoomAvailabilityMatrix getRoomAvailability() { return roomAvailability; }
+
+    public void setRoomAvailability(RoomAvailabilityMatrix roomAvailability) { this.roomAvailability = roomAvailability; }
+
+    public List<ReviewDto> getReviews() { return reviews; }
+
+    public void setReviews(List<ReviewDto> reviews) { this.reviews = reviews; }
+
+    public List<EventDto> getUpcomingEvents() { return upcomingEvents; }
+
+    public void setUpcomingEvents(List<EventDto> upcomingEvents) { this.upcomingEvents = upcomingEvents; }
+}
@@ -0,0 +1,51 @@
+package com.operations.StageOps.model;
+
+import java.util.List;
+
+/**
+ * The outcome of a batch PDF run: how many documents were written, which ones failed and how fast it went.
+ */
+public class PdfBatchResult {
+
+    private int documents;
+    private List<Integer> failedIds;
+    private long elapsedMillis;
+
+    /**
+     * Default constructor for PdfBatchResult.
+     */
+    public PdfBatchResult() {
+    }
+
+    /**
+     * Constructs a PdfBatchResult.
+     *
+     * @param documents     The number of documents written.
+     * @param failedIds     The IDs of the invoices or contracts that could not be rendered.
+     * @param elapsedMillis The wall-clock time of the whole batch, in milliseconds.
+     */
+    public PdfBatchResult(int documents, List<Integer> failedIds, long elapsedMillis) {
+        this.documents = documents;
+        this.failedIds = failedIds;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getDocuments() { return documents; }
+
+    public void setDocuments(int documents) { this.documents = documents; }
+
+    public List<Integer> getFailedIds() { return failedIds; }
+
+    public void setFailedIds(List<Integer> failedIds) { this.failedIds = failedIds; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    /**
+     * @return The documents written per second of wall-clock time.
+     */
+    public double getDocumentsPerSecond() {
+        return elapsedMillis > 0 ? documents * 1000.0 / elapsedMillis : documents;
+    }
+}
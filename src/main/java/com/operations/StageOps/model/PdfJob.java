@@ -0,0 +1,121 @@
+package com.operations.StageOps.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A background job that renders one or more invoices or contracts as PDF.
+ * <p>
+ * A job starts {@link #QUEUED}, is {@link #RUNNING} while an attempt renders it and ends {@link #COMPLETED} or
+ * {@link #FAILED}. A completed job may still list failed documents: those are left out of its result.
+ */
+public class PdfJob {
+
+    public static final String INVOICE = "INVOICE";
+    public static final String CONTRACT = "CONTRACT";
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private int jobId;
+    private String jobType;
+    private List<Integer> documentIds;
+    private String status;
+    private int attempts;
+    private int documents;
+    private List<Integer> failedIds;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+
+    /**
+     * Default constructor for PdfJob.
+     */
+    public PdfJob() {
+    }
+
+    /**
+     * Constructs a PdfJob.
+     *
+     * @param jobId        The ID of the job.
+     * @param jobType      {@link #INVOICE} or {@link #CONTRACT}.
+     * @param documentIds  The IDs of the invoices or contracts to render.
+     * @param status       The status of the job.
+     * @param attempts     The number of attempts started so far.
+     * @param documents    The number of documents rendered so far.
+     * @param failedIds    The IDs that failed in the last attempt.
+     * @param errorMessage Why the last attempt failed, or null.
+     * @param createdAt    When the job was submitted.
+     * @param startedAt    When the last attempt started, or null.
+     * @param completedAt  When the job completed or failed, or null.
+     */
+    public PdfJob(int jobId, String jobType, List<Integer> documentIds, String status, int attempts, int documents,
+                  List<Integer> failedIds, String errorMessage, LocalDateTime createdAt, LocalDateTime startedAt,
+                  LocalDateTime completedAt) {
+        this.jobId = jobId;
+        this.jobType = jobType;
+        this.documentIds = documentIds;
+        this.status = status;
+        this.attempts = attempts;
+        this.documents = documents;
+        this.failedIds = failedIds;
+        this.errorMessage = errorMessage;
+        this.createdAt = createdAt;
+        this.startedAt = startedAt;
+        this.completedAt = completedAt;
+    }
+
+    /**
+     * @return Whether the job has completed or failed and will not run again.
+     */
+    public boolean isFinished() {
+        return COMPLETED.equals(status) || FAILED.equals(status);
+    }
+
+    public int getJobId() { return jobId; }
+
+    public void setJobId(int jobId) { this.jobId = jobId; }
+
+    public String getJobType() { return jobType; }
+
+    public void setJobType(String jobType) { this.jobType = jobType; }
+
+    public List<Integer> getDocumentIds() { return documentIds; }
+
+    public void setDocumentIds(List<Integer> documentIds) { this.documentIds = documentIds; }
+
+    public String getStatus() { return status; }
+
+    public void setStatus(String status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public int getDocuments() { return documents; }
+
+    public void setDocuments(int documents) { this.documents = documents; }
+
+    public List<Integer> getFailedIds() { return failedIds; }
+
+    public void setFailedIds(List<Integer> failedIds) { this.failedIds = failedIds; }
+
+    public String getErrorMessage() { return errorMessage; }
+
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
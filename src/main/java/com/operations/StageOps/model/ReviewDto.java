@@ -13,6 +13,7 @@ public class ReviewDto {
     private String reviewText;
     private String reviewDate;
     private String eventName; // Will be set dynamically
+    private String clientName;
 
     // Getters and Setters
 
@@ -127,4 +128,18 @@ public class ReviewDto {
      * @param eventName The event name.
      */
     public void setEventName(String eventName) { this.eventName = eventName; }
+
+    /**
+     * Gets the name of the client who wrote the review.
+     *
+     * @return The client name.
+     */
+    public String getClientName() { return clientName; }
+
+    /**
+     * Sets the name of the client who wrote the review.
+     *
+     * @param clientName The client name.
+     */
+    public void setClientName(String clientName) { this.clientName = clientName; }
 }
@@ -0,0 +1,96 @@
+package com.operations.StageOps.model;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Availability of every room over a series of equally sized time slots.
+ * <p>
+ * Slot {@code i} covers [{@code start + i * slotMinutes}, {@code start + (i + 1) * slotMinutes}),
+ * and {@code rooms.get(r).getAvailable()[i]} tells whether room {@code r} is free for the whole slot.
+ */
+public class RoomAvailabilityMatrix {
+
+    private ZonedDateTime start;
+    private ZonedDateTime end;
+    private int slotMinutes;
+    private List<RoomSlots> rooms;
+
+    /**
+     * Default constructor for RoomAvailabilityMatrix.
+     */
+    public RoomAvailabilityMatrix() {
+    }
+
+    /**
+     * Constructs a RoomAvailabilityMatrix.
+     *
+     * @param start       The start of the first slot.
+     * @param end         The end of the last slot.
+     * @param slotMinutes The length of each slot in minutes.
+     * @param rooms       The per-room slot availability.
+     */
+    public RoomAvailabilityMatrix(ZonedDateTime start, ZonedDateTime end, int slotMinutes, List<RoomSlots> rooms) {
+        this.start = start;
+        this.end = end;
+        this.slotMinutes = slotMinutes;
+        this.rooms = rooms;
+    }
+
+    public ZonedDateTime getStart() { return start; }
+
+    public void setStart(ZonedDateTime start) { this.start = start; }
+
+    public ZonedDateTime getEnd() { return end; }
+
+    public void setEnd(ZonedDateTime end) { this.end = end; }
+
+    public int getSlotMinutes() { return slotMinutes; }
+
+    public void setSlotMinutes(int slotMinutes) { this.slotMinutes = slotMinutes; }
+
+    public List<RoomSlots> getRooms() { return rooms; }
+
+    public void setRooms(List<RoomSlots> rooms) { this.rooms = rooms; }
+
+    /**
+     * One row of the matrix: a room and whether it is free in each slot.
+     */
+    public static class RoomSlots {
+
+        private int roomId;
+        private String roomName;
+        private boolean[] available;
+
+        /**
+         * Default constructor for RoomSlots.
+         */
+        public RoomSlots() {
+        }
+
+        /**
+         * Constructs a RoomSlots row.
+         *
+         * @param roomId    The ID of the room.
+         * @param roomName  The name of the room.
+         * @param available Whether the room is free in each slot.
+         */
+        public RoomSlots(int roomId, String roomName, boolean[] available) {
+            this.roomId = roomId;
+            this.roomName = roomName;
+            this.available = available;
+        }
+
+        public int getRoomId() { return roomId; }
+
+        public void setRoomId(int roomId) { this.roomId = roomId; }
+
+        public String getRoomName() { return roomName; }
+
+        public void setRoomName(String roomName) { this.roomName = roomName; }
+
+        public boolean[] getAvailable() { return available; }
+
+        public void setAvailable(boolean[] available) { this.available = available; }
+    }
+}
@@ -0,0 +1,57 @@
+package com.operations.StageOps.model;
+
+import java.time.Instant;
+
+/**
+ * Represents a period during which a room is occupied, either by a booking
+ * (room assignments block the whole day) or by an event.
+ */
+public class RoomTimeRange {
+
+    /**
+     * Source of an occupied time range.
+     */
+    public enum Source { BOOKING, EVENT }
+
+    private int roomId;
+    private Instant start;
+    private Instant end;
+    private Source source;
+
+    /**
+     * Default constructor for RoomTimeRange.
+     */
+    public RoomTimeRange() {
+    }
+
+    /**
+     * Constructs a RoomTimeRange.
+     *
+     * @param roomId The ID of the occupied room.
+     * @param start  The start of the range (inclusive).
+     * @param end    The end of the range (exclusive).
+     * @param source Whether the range comes from a booking or an event.
+     */
+    public RoomTimeRange(int roomId, Instant start, Instant end, Source source) {
+        this.roomId = roomId;
+        this.start = start;
+        this.end = end;
+        this.source = source;
+    }
+
+    public int getRoomId() { return roomId; }
+
+    public void setRoomId(int roomId) { this.roomId = roomId; }
+
+    public Instant getStart() { return start; }
+
+    public void setStart(Instant start) { this.start = start; }
+
+    public Instant getEnd() { return end; }
+
+    public void setEnd(Instant end) { this.end = end; }
+
+    public Source getSource() { return source; }
+
+    public void setSource(Source source) { this.source = source; }
+}
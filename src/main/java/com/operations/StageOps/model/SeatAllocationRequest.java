@@ -0,0 +1,50 @@
+package com.operations.StageOps.model;
+
+/**
+ * What a party needs from the best-available seat allocator: a number of adjacent seats in one section,
+ * optionally with an accessible seat, without restricted-view seats, or in a preferred section.
+ */
+public class SeatAllocationRequest {
+
+    private int partySize;
+    private boolean accessible;
+    private boolean avoidRestricted;
+    private String preferredSection;
+
+    /**
+     * Default constructor for SeatAllocationRequest.
+     */
+    public SeatAllocationRequest() {
+    }
+
+    /**
+     * Constructs a SeatAllocationRequest.
+     *
+     * @param partySize        The number of adjacent seats needed.
+     * @param accessible       Whether the block must include at least one accessible seat.
+     * @param avoidRestricted  Whether the block must not include restricted-view seats.
+     * @param preferredSection The section to try first, or null for no preference.
+     */
+    public SeatAllocationRequest(int partySize, boolean accessible, boolean avoidRestricted, String preferredSection) {
+        this.partySize = partySize;
+        this.accessible = accessible;
+        this.avoidRestricted = avoidRestricted;
+        this.preferredSection = preferredSection;
+    }
+
+    public int getPartySize() { return partySize; }
+
+    public void setPartySize(int partySize) { this.partySize = partySize; }
+
+    public boolean isAccessible() { return accessible; }
+
+    public void setAccessible(boolean accessible) { this.accessible = accessible; }
+
+    public boolean isAvoidRestricted() { return avoidRestricted; }
+
+    public void setAvoidRestricted(boolean avoidRestricted) { this.avoidRestricted = avoidRestricted; }
+
+    public String getPreferredSection() { return preferredSection; }
+
+    public void setPreferredSection(String preferredSection) { this.preferredSection = preferredSection; }
+}
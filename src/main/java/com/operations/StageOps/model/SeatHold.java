@@ -0,0 +1,63 @@
+package com.operations.StageOps.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Seats of an event held for a group booking.
+ * <p>
+ * Held seats are reserved in {@code SeatEvents} under the hold's ID, with the time they were held in
+ * {@code reservation_time}. A hold that is neither confirmed nor released expires after
+ * {@code stageops.holds.ttl-ms}; its seats and tickets then become available again.
+ */
+public class SeatHold {
+
+    private String holdId;
+    private int eventId;
+    private List<String> seatIds;
+    private LocalDateTime heldAt;
+    private LocalDateTime expiresAt;
+
+    /**
+     * Default constructor for SeatHold.
+     */
+    public SeatHold() {
+    }
+
+    /**
+     * Constructs a SeatHold.
+     *
+     * @param holdId    The ID of the hold.
+     * @param eventId   The ID of the event.
+     * @param seatIds   The IDs of the held seats.
+     * @param heldAt    When the seats were held.
+     * @param expiresAt When the hold expires, or null if it is not known.
+     */
+    public SeatHold(String holdId, int eventId, List<String> seatIds, LocalDateTime heldAt, LocalDateTime expiresAt) {
+        this.holdId = holdId;
+        this.eventId = eventId;
+        this.seatIds = seatIds;
+        this.heldAt = heldAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getHoldId() { return holdId; }
+
+    public void setHoldId(String holdId) { this.holdId = holdId; }
+
+    public int getEventId() { return eventId; }
+
+    public void setEventId(int eventId) { this.eventId = eventId; }
+
+    public List<String> getSeatIds() { return seatIds; }
+
+    public void setSeatIds(List<String> seatIds) { this.seatIds = seatIds; }
+
+    public LocalDateTime getHeldAt() { return heldAt; }
+
+    public void setHeldAt(LocalDateTime heldAt) { this.heldAt = heldAt; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
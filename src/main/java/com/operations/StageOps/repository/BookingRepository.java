@@ -2,11 +2,14 @@ package com.operations.StageOps.repository;
 
 import com.operations.StageOps.model.Booking;
 import com.operations.StageOps.model.BookingRoomAssignment;
+import com.operations.StageOps.model.ChangeEvent;
+import com.operations.StageOps.util.ChangeFeed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
@@ -14,6 +17,8 @@ import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.LocalDate;
@@ -21,7 +26,10 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Repository
 public class BookingRepository {
@@ -29,8 +37,27 @@ public class BookingRepository {
     private final JdbcTemplate jdbcTemplate;
     private static final Logger logger = LoggerFactory.getLogger(BookingRepository.class);
 
-    public BookingRepository(JdbcTemplate jdbcTemplate) {
+    // Bookings joined with their room assignments; one row per assignment (or one row with NULLs if there are none)
+    private static final String BOOKING_WITH_ASSIGNMENTS_COLUMNS =
+            "SELECT b.booking_id, b.client_id, b.start_time, b.end_time, b.status, b.total_cost, " +
+            "bra.room_id, bra.date AS assignment_date ";
+    private static final String ASSIGNMENTS_JOIN =
+            "LEFT JOIN booking_room_assignments bra ON b.booking_id = bra.booking_id ";
+    private static final String BOOKING_WITH_ASSIGNMENTS_SQL =
+            BOOKING_WITH_ASSIGNMENTS_COLUMNS + "FROM bookings b " + ASSIGNMENTS_JOIN;
+    private static final String BOOKING_WITH_ASSIGNMENTS_ORDER = "ORDER BY b.booking_id, bra.date";
+    // One page of bookings by ID; the limit applies to bookings, not to joined assignment rows
+    private static final String BOOKING_PAGE_SQL = BOOKING_WITH_ASSIGNMENTS_COLUMNS +
+            "FROM (SELECT * FROM bookings WHERE booking_id > ? ORDER BY booking_id LIMIT ?) b " +
+            ASSIGNMENTS_JOIN + BOOKING_WITH_ASSIGNMENTS_ORDER;
+
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final ChangeFeed changeFeed;
+
+    public BookingRepository(JdbcTemplate jdbcTemplate, ChangeFeed changeFeed) {
         this.jdbcTemplate = jdbcTemplate;
+        this.revenueRollupRepository = new RevenueRollupRepository(jdbcTemplate);
+        this.changeFeed = changeFeed;
     }
 
     /**
@@ -115,6 +142,7 @@ public class BookingRepository {
                     );
                 }
 
+                changeFeed.publish(ChangeEvent.bookingChanged(ChangeEvent.BOOKING_CREATED, generatedBookingId));
                 return booking;
             } else {
                 throw new IllegalStateException("Failed to retrieve the generated booking ID.");
@@ -175,6 +203,7 @@ public class BookingRepository {
                 if (!booking.getRoomAssignments().isEmpty()) {
                     updateRevenueTracking(booking.getRoomAssignments().get(0).getRoomId(), booking.getBookingId(), booking.getTotalCost(), 0, 0);
                 }
+                changeFeed.publish(ChangeEvent.bookingChanged(ChangeEvent.BOOKING_UPDATED, booking.getBookingId()));
             }
 
             return rowsAffected;
@@ -199,6 +228,7 @@ public class BookingRepository {
         String sql = "INSERT INTO revenue_tracking (room_id, booking_id, total_revenue, ticket_sales, venue_hire) VALUES (?, ?, ?, ?, ?) " +
                 "ON DUPLICATE KEY UPDATE total_revenue = total_revenue + VALUES(total_revenue), ticket_sales = ticket_sales + VALUES(ticket_sales), venue_hire = venue_hire + VALUES(venue_hire)";
         jdbcTemplate.update(sql, roomId, bookingId, totalRevenue, ticketSales, venueHire);
+        revenueRollupRepository.applyBookingDelta(bookingId, ticketSales, venueHire, totalRevenue);
     }
 
 
@@ -265,55 +295,15 @@ public class BookingRepository {
 
     /**
      * Retrieves all bookings from the database.
+     * Bookings and their room assignments are loaded with a single join and stitched together in one pass.
      *
      * @return A list of all bookings, including room assignments.
      */
     public List<Booking> getAllBookings() {
-        String sql = "SELECT * FROM bookings";
-        String roomAssignmentsSql = "SELECT * FROM booking_room_assignments WHERE booking_id = ?";  // SQL to fetch room assignments for a specific booking
+        String sql = BOOKING_WITH_ASSIGNMENTS_SQL + BOOKING_WITH_ASSIGNMENTS_ORDER;
 
         try {
-            List<Booking> bookings = jdbcTemplate.query(sql, (rs, bookingRowNum) -> { // Renaming the rowNum variable here
-                // Retrieve the Timestamp values from the ResultSet
-                Timestamp startTime = rs.getTimestamp("start_time");
-                Timestamp endTime = rs.getTimestamp("end_time");
-
-                // Convert Timestamp to ZonedDateTime
-                ZonedDateTime startZonedDateTime = startTime.toInstant().atZone(ZoneId.systemDefault());
-                ZonedDateTime endZonedDateTime = endTime.toInstant().atZone(ZoneId.systemDefault());
-
-                // Retrieve booking details
-                int bookingId = rs.getInt("booking_id");
-                int clientId = rs.getInt("client_id");
-                String status = rs.getString("status");
-                double totalCost = rs.getDouble("total_cost");
-
-                // Fetch the room assignments for the current booking
-                List<BookingRoomAssignment> roomAssignments = jdbcTemplate.query(roomAssignmentsSql, new Object[]{bookingId}, (roomRs, roomRowNum) -> { // Renaming rowNum again here
-                    // Retrieve the timestamp from the database and convert to ZonedDateTime
-                    Timestamp assignmentTimestamp = roomRs.getTimestamp("date"); // Assuming the column is of type timestamp
-                    ZonedDateTime assignmentDateTime = assignmentTimestamp.toInstant().atZone(ZoneId.systemDefault());  // Convert to ZonedDateTime
-
-                    int roomId = roomRs.getInt("room_id");
-
-                    // Return a BookingRoomAssignment object
-                    return new BookingRoomAssignment(bookingId, assignmentDateTime, roomId);
-                });
-
-                // Return a new Booking object with the mapped values
-                return new Booking(
-                        bookingId,
-                        clientId,
-                        startZonedDateTime,
-                        endZonedDateTime,
-                        status,
-                        totalCost,
-                        roomAssignments // Add room assignments to the Booking object
-                );
-            });
-
-            return bookings;
-
+            return jdbcTemplate.query(sql, new BookingWithAssignmentsExtractor());
         } catch (DataAccessException e) {
             // Log the exception and rethrow
             logger.error("Error retrieving all bookings", e);
@@ -321,6 +311,41 @@ public class BookingRepository {
         }
     }
 
+    /**
+     * Retrieves one page of bookings, with their room assignments, ordered by ID and starting after the given booking ID.
+     *
+     * @param afterId The ID of the last booking of the previous page, or 0 for the first page.
+     * @param limit The maximum number of bookings to return.
+     * @return The bookings with an ID greater than afterId, in ID order.
+     */
+    public List<Booking> getBookingsPage(int afterId, int limit) {
+        return jdbcTemplate.query(BOOKING_PAGE_SQL, new BookingWithAssignmentsExtractor(), afterId, limit);
+    }
+
+    /**
+     * Passes every booking, with its room assignments, to the given action as it is read from the database.
+     * The joined rows arrive ordered by booking ID, so a booking is complete as soon as a row of the next one is read
+     * and only one booking is held in memory at a time.
+     *
+     * @param action Called once per booking.
+     */
+    public void forEachBooking(Consumer<Booking> action) {
+        Booking[] current = new Booking[1];
+        StreamingQueries.forEachRow(jdbcTemplate, BOOKING_WITH_ASSIGNMENTS_SQL + BOOKING_WITH_ASSIGNMENTS_ORDER, rs -> {
+            int bookingId = rs.getInt("booking_id");
+            if (current[0] == null || current[0].getBookingId() != bookingId) {
+                if (current[0] != null) {
+                    action.accept(current[0]);
+                }
+                current[0] = mapBooking(rs, bookingId);
+            }
+            addAssignment(current[0], rs);
+        });
+        if (current[0] != null) {
+            action.accept(current[0]);
+        }
+    }
+
     /**
      * Retrieves a booking by its ID.
      *
@@ -393,43 +418,27 @@ public class BookingRepository {
      */
     public int delete(int bookingId) {
         String sql = "DELETE FROM bookings WHERE booking_id = ?";
-        return jdbcTemplate.update(sql, bookingId);
+        int rowsAffected = jdbcTemplate.update(sql, bookingId);
+        if (rowsAffected > 0) {
+            changeFeed.publish(ChangeEvent.bookingChanged(ChangeEvent.BOOKING_DELETED, bookingId));
+        }
+        return rowsAffected;
     }
 
 
     /**
      * Retrieves all bookings for a specific room using the room assignments table.
+     * Each booking is returned with all of its room assignments, not only the one for the given room.
      *
      * @param roomId The room ID to retrieve bookings for.
      * @return A list of bookings for the specified room.
      */
     public List<Booking> getBookingsForRoom(int roomId) {
-        // SQL query to fetch all bookings for the specified room_id using booking_room_assignments
-        String sql = "SELECT b.booking_id, b.client_id, b.room_id, b.start_time, b.end_time, b.status, b.total_cost " +
-                "FROM bookings b " +
-                "JOIN booking_room_assignments bra ON b.booking_id = bra.booking_id " +
-                "WHERE bra.room_id = ?";
-
-        return jdbcTemplate.query(sql, new Object[]{roomId}, (rs, rowNum) -> {
-            // Retrieve the Timestamp values from the ResultSet
-            Timestamp startTime = rs.getTimestamp("start_time");
-            Timestamp endTime = rs.getTimestamp("end_time");
-
-            // Convert Timestamp to ZonedDateTime
-            ZonedDateTime startZonedDateTime = startTime.toInstant().atZone(ZoneId.systemDefault());
-            ZonedDateTime endZonedDateTime = endTime.toInstant().atZone(ZoneId.systemDefault());
-
-            // Return a new Booking object with the mapped values
-            return new Booking(
-                    rs.getInt("booking_id"),
-                    rs.getInt("client_id"),
-                    startZonedDateTime,
-                    endZonedDateTime,
-                    rs.getString("status"),
-                    rs.getDouble("total_cost"),
-                    new ArrayList<>()  // Initialize room assignments list (it can be populated later if needed)
-            );
-        });
+        String sql = BOOKING_WITH_ASSIGNMENTS_SQL +
+                "WHERE b.booking_id IN (SELECT booking_id FROM booking_room_assignments WHERE room_id = ?) " +
+                BOOKING_WITH_ASSIGNMENTS_ORDER;
+
+        return jdbcTemplate.query(sql, new Object[]{roomId}, new BookingWithAssignmentsExtractor());
     }
 
 
@@ -442,54 +451,69 @@ public class BookingRepository {
         ZonedDateTime currentDate = ZonedDateTime.now();
         Timestamp currentTimestamp = Timestamp.from(currentDate.toInstant());
 
-        // SQL query to retrieve bookings where the start time is after the current date
-        // We'll fetch booking details and later fetch room assignments separately
-        String sql = "SELECT booking_id, client_id, start_time, end_time, status, total_cost " +
-                "FROM bookings " +
-                "WHERE start_time > ?";
-
-        List<Booking> bookings = jdbcTemplate.query(sql, new Object[]{currentTimestamp}, (rs, rowNum) -> {
-            // Retrieve the Timestamp values from the ResultSet
-            Timestamp startTime = rs.getTimestamp("start_time");
-            Timestamp endTime = rs.getTimestamp("end_time");
-
-            // Convert Timestamp to ZonedDateTime
-            ZonedDateTime startZonedDateTime = startTime.toInstant().atZone(ZoneId.systemDefault());
-            ZonedDateTime endZonedDateTime = endTime.toInstant().atZone(ZoneId.systemDefault());
-
-            // Return a new Booking object with the mapped values, no room_id here
-            return new Booking(
-                    rs.getInt("booking_id"),
-                    rs.getInt("client_id"),
-                    startZonedDateTime,
-                    endZonedDateTime,
-                    rs.getString("status"),
-                    rs.getDouble("total_cost"),
-                    new ArrayList<>()  // Initialize room assignments list (it will be populated later)
-            );
-        });
+        // Bookings and their room assignments are fetched together in one query
+        String sql = BOOKING_WITH_ASSIGNMENTS_SQL +
+                "WHERE b.start_time > ? " +
+                BOOKING_WITH_ASSIGNMENTS_ORDER;
 
-        // For each booking, retrieve the room assignments (using booking_id)
-        for (Booking booking : bookings) {
-            String roomAssignmentsSql = "SELECT room_id, date FROM booking_room_assignments WHERE booking_id = ?";
+        return jdbcTemplate.query(sql, new Object[]{currentTimestamp}, new BookingWithAssignmentsExtractor());
+    }
 
-            List<BookingRoomAssignment> roomAssignments = jdbcTemplate.query(roomAssignmentsSql, new Object[]{booking.getBookingId()}, (rs, rowNum) -> {
-                // Retrieve the timestamp from the ResultSet
-                Timestamp assignmentTimestamp = rs.getTimestamp("date");
-                ZonedDateTime assignmentDateTime = assignmentTimestamp.toInstant().atZone(ZoneId.systemDefault());
 
-                // Retrieve the room_id
-                int roomId = rs.getInt("room_id");
+    /**
+     * Builds bookings from the rows of {@link #BOOKING_WITH_ASSIGNMENTS_SQL}.
+     * Each row holds one booking and at most one of its room assignments, so rows are grouped
+     * by booking ID and the assignments are appended to the booking they belong to.
+     */
+    private static class BookingWithAssignmentsExtractor implements ResultSetExtractor<List<Booking>> {
+        @Override
+        public List<Booking> extractData(ResultSet rs) throws SQLException {
+            Map<Integer, Booking> bookingsById = new LinkedHashMap<>();
 
-                // Return a new BookingRoomAssignment object
-                return new BookingRoomAssignment(booking.getBookingId(), assignmentDateTime, roomId);
-            });
+            while (rs.next()) {
+                int bookingId = rs.getInt("booking_id");
+                Booking booking = bookingsById.get(bookingId);
 
-            // Set the room assignments in the booking object
-            booking.setRoomAssignments(roomAssignments);
+                if (booking == null) {
+                    booking = mapBooking(rs, bookingId);
+                    bookingsById.put(bookingId, booking);
+                }
+                addAssignment(booking, rs);
+            }
+
+            return new ArrayList<>(bookingsById.values());
         }
+    }
 
-        return bookings;
+    /**
+     * Maps the booking columns of a {@link #BOOKING_WITH_ASSIGNMENTS_SQL} row to a booking with no assignments yet.
+     */
+    private static Booking mapBooking(ResultSet rs, int bookingId) throws SQLException {
+        // Convert Timestamp to ZonedDateTime
+        ZonedDateTime startZonedDateTime = rs.getTimestamp("start_time").toInstant().atZone(ZoneId.systemDefault());
+        ZonedDateTime endZonedDateTime = rs.getTimestamp("end_time").toInstant().atZone(ZoneId.systemDefault());
+
+        return new Booking(
+                bookingId,
+                rs.getInt("client_id"),
+                startZonedDateTime,
+                endZonedDateTime,
+                rs.getString("status"),
+                rs.getDouble("total_cost"),
+                new ArrayList<>()
+        );
+    }
+
+    /**
+     * Adds the room assignment of a {@link #BOOKING_WITH_ASSIGNMENTS_SQL} row, if it has one, to the booking.
+     */
+    private static void addAssignment(Booking booking, ResultSet rs) throws SQLException {
+        // A booking without assignments comes back with NULL assignment columns from the LEFT JOIN
+        Timestamp assignmentTimestamp = rs.getTimestamp("assignment_date");
+        if (assignmentTimestamp != null) {
+            ZonedDateTime assignmentDateTime = assignmentTimestamp.toInstant().atZone(ZoneId.systemDefault());
+            booking.getRoomAssignments().add(new BookingRoomAssignment(booking.getBookingId(), assignmentDateTime, rs.getInt("room_id")));
+        }
     }
 
 }
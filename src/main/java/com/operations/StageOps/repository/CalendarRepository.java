@@ -0,0 +1,166 @@
+package com.operations.StageOps.repository;
+
+import com.operations.StageOps.model.CalendarEntry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository reading the calendar: the events and booking days in a date window, with their room and layout names
+ * joined in, so that the calendar needs one request per window instead of a room and a layout lookup per entry.
+ */
+@Repository
+public class CalendarRepository {
+
+    // Events overlapping [start, end)
+    static final String EVENTS_SQL =
+            "SELECT e.event_id, e.event_name, e.client_id, e.start_time, e.end_time, e.room_id, r.room_name, " +
+            "e.layout_id, l.layout_name " +
+            "FROM events e " +
+            "LEFT JOIN rooms r ON r.room_id = e.room_id " +
+            "LEFT JOIN layouts l ON l.layout_id = e.layout_id " +
+            "WHERE e.end_time > ? AND e.start_time < ? " +
+            "ORDER BY e.start_time, e.event_id";
+
+    // Bookings overlapping [start, end), one row per room assignment inside the window (or one row with NULLs)
+    static final String BOOKINGS_SQL =
+            "SELECT b.booking_id, b.client_id, b.start_time, b.end_time, bra.date AS assignment_date, bra.room_id, " +
+            "r.room_name, r.current_layout_id, l.layout_name " +
+            "FROM bookings b " +
+            "LEFT JOIN booking_room_assignments bra ON bra.booking_id = b.booking_id AND bra.date >= ? AND bra.date < ? " +
+            "LEFT JOIN rooms r ON r.room_id = bra.room_id " +
+            "LEFT JOIN layouts l ON l.layout_id = r.current_layout_id " +
+            "WHERE b.end_time > ? AND b.start_time < ? " +
+            "ORDER BY b.booking_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CalendarRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Retrieves the events overlapping the window, and one entry per day of each booking inside the window,
+     * labelled with the room assigned for that day and the room's current layout. Days are calendar days of
+     * the server's time zone.
+     *
+     * @param startDate The first day of the window.
+     * @param endDate   The day after the last day of the window.
+     * @return The events, ordered by start, followed by the booking days, ordered by booking and day.
+     */
+    public List<CalendarEntry> getEntries(LocalDate startDate, LocalDate endDate) {
+        ZoneId zone = ZoneId.systemDefault();
+        Timestamp windowStart = Timestamp.valueOf(startDate.atStartOfDay());
+        Timestamp windowEnd = Timestamp.valueOf(endDate.atStartOfDay());
+
+        List<CalendarEntry> entries = new ArrayList<>();
+        jdbcTemplate.query(EVENTS_SQL, (RowCallbackHandler) rs -> entries.add(new CalendarEntry(
+                CalendarEntry.Type.EVENT,
+                rs.getInt("event_id"),
+                rs.getString("event_name"),
+                rs.getInt("client_id"),
+                getInteger(rs, "room_id"),
+                rs.getString("room_name"),
+                getInteger(rs, "layout_id"),
+                rs.getString("layout_name"),
+                rs.getTimestamp("start_time").toInstant(),
+                rs.getTimestamp("end_time").toInstant())), windowStart, windowEnd);
+
+        // Rows arrive grouped by booking; collect each booking's assignments, then expand it into days
+        Map<Integer, BookingRows> bookings = new LinkedHashMap<>();
+        jdbcTemplate.query(BOOKINGS_SQL, (RowCallbackHandler) rs -> {
+            BookingRows booking = bookings.get(rs.getInt("booking_id"));
+            if (booking == null) {
+                booking = new BookingRows(rs.getInt("booking_id"), rs.getInt("client_id"),
+                        rs.getTimestamp("start_time").toLocalDateTime(), rs.getTimestamp("end_time").toLocalDateTime());
+                bookings.put(booking.bookingId, booking);
+            }
+            Timestamp assignmentDate = rs.getTimestamp("assignment_date");
+            if (assignmentDate != null) {
+                booking.roomsByDay.put(assignmentDate.toLocalDateTime().toLocalDate(), new CalendarEntry(
+                        CalendarEntry.Type.BOOKING, booking.bookingId, null, booking.clientId,
+                        rs.getInt("room_id"), rs.getString("room_name"),
+                        getInteger(rs, "current_layout_id"), rs.getString("layout_name"), null, null));
+            }
+        }, windowStart, windowEnd, windowStart, windowEnd);
+
+        for (BookingRows booking : bookings.values()) {
+            entries.addAll(expandBookingDays(booking.bookingId, booking.clientId, booking.start, booking.end,
+                    booking.roomsByDay, startDate, endDate, zone));
+        }
+        return entries;
+    }
+
+    /**
+     * Splits a booking into one entry per calendar day inside the window. The first day starts at the booking's
+     * start, the last ends at its end, and the days in between run from midnight to 23:59:59.
+     *
+     * @param bookingId  The ID of the booking.
+     * @param clientId   The ID of the booking's client.
+     * @param start      The start of the booking.
+     * @param end        The end of the booking.
+     * @param roomsByDay The room assignment of each day, as entries carrying the room and layout.
+     * @param startDate  The first day of the window.
+     * @param endDate    The day after the last day of the window.
+     * @param zone       The time zone the days belong to.
+     * @return One entry per day, in order.
+     */
+    static List<CalendarEntry> expandBookingDays(int bookingId, int clientId, LocalDateTime start, LocalDateTime end,
+                                                 Map<LocalDate, CalendarEntry> roomsByDay,
+                                                 LocalDate startDate, LocalDate endDate, ZoneId zone) {
+        List<CalendarEntry> days = new ArrayList<>();
+        LocalDate firstDay = start.toLocalDate().isAfter(startDate) ? start.toLocalDate() : startDate;
+        for (LocalDate day = firstDay; !day.isAfter(end.toLocalDate()) && day.isBefore(endDate); day = day.plusDays(1)) {
+            LocalDateTime dayStart = day.equals(start.toLocalDate()) ? start : day.atStartOfDay();
+            LocalDateTime dayEnd = day.equals(end.toLocalDate()) ? end : day.atTime(23, 59, 59);
+            CalendarEntry room = roomsByDay.get(day);
+            days.add(new CalendarEntry(CalendarEntry.Type.BOOKING, bookingId, null, clientId,
+                    room != null ? room.getRoomId() : null,
+                    room != null ? room.getRoomName() : null,
+                    room != null ? room.getLayoutId() : null,
+                    room != null ? room.getLayoutName() : null,
+                    toInstant(dayStart, zone), toInstant(dayEnd, zone)));
+        }
+        return days;
+    }
+
+    private static Integer getInteger(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime, ZoneId zone) {
+        return dateTime.atZone(zone).toInstant();
+    }
+
+    /**
+     * A booking and the room assignments read for it.
+     */
+    private static final class BookingRows {
+        private final int bookingId;
+        private final int clientId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final Map<LocalDate, CalendarEntry> roomsByDay = new HashMap<>();
+
+        private BookingRows(int bookingId, int clientId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.clientId = clientId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.operations.StageOps.repository;
 
 import com.operations.StageOps.model.Client;
+import com.operations.StageOps.util.ReferenceCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Repository class for managing CRUD operations related to {@link Client} using JDBC.
@@ -18,6 +24,17 @@ public class ClientRepository {
 
     private final JdbcTemplate jdbcTemplate;
 
+    // Clients by ID; invalidated by update and delete
+    private final ReferenceCache<Integer, Client> clientCache = new ReferenceCache<>("clients", 1000, 300_000);
+
+    private static final RowMapper<Client> CLIENT_ROW_MAPPER = (rs, rowNum) -> new Client(
+            rs.getInt("client_id"),
+            rs.getString("name"),
+            rs.getString("address"),
+            rs.getString("email"),
+            rs.getString("telephone_number")
+    );
+
     /**
      * Constructor to initialize the ClientRepository with a JdbcTemplate.
      *
@@ -27,6 +44,19 @@ public class ClientRepository {
         this.jdbcTemplate = jdbcTemplate;
     }
 
+    @Autowired
+    void configureClientCache(@Value("${stageops.cache.clients.max-size:1000}") int maxSize,
+                              @Value("${stageops.cache.clients.ttl-ms:300000}") long ttlMs) {
+        clientCache.configure(maxSize, ttlMs);
+    }
+
+    /**
+     * @return the hit/miss statistics of the client cache.
+     */
+    public Map<String, Object> clientCacheStats() {
+        return clientCache.stats();
+    }
+
     /**
      * Saves a new client to the database.
      * Handles duplicate key violations (e.g., email or telephone number already exists).
@@ -55,19 +85,39 @@ public class ClientRepository {
     public List<Client> getAllClients() {
         String sql = "SELECT * FROM clients";
         try {
-            return jdbcTemplate.query(sql, (rs, rowNum) -> new Client(
-                    rs.getInt("client_id"),
-                    rs.getString("name"),
-                    rs.getString("address"),
-                    rs.getString("email"),
-                    rs.getString("telephone_number")
-            ));
+            return jdbcTemplate.query(sql, CLIENT_ROW_MAPPER);
         } catch (DataAccessException e) {
             System.err.println("Error retrieving clients: " + e.getMessage());
             return List.of(); // Return empty list on failure
         }
     }
 
+    /**
+     * Retrieves one page of clients ordered by ID, starting after the given client ID.
+     *
+     * @param afterId the ID of the last client of the previous page, or 0 for the first page.
+     * @param limit the maximum number of clients to return.
+     * @return the clients with an ID greater than afterId, in ID order; an empty list if a data access error occurs.
+     */
+    public List<Client> getClientsPage(int afterId, int limit) {
+        String sql = "SELECT * FROM clients WHERE client_id > ? ORDER BY client_id LIMIT ?";
+        try {
+            return jdbcTemplate.query(sql, CLIENT_ROW_MAPPER, afterId, limit);
+        } catch (DataAccessException e) {
+            System.err.println("Error retrieving clients: " + e.getMessage());
+            return List.of(); // Return empty list on failure
+        }
+    }
+
+    /**
+     * Passes every client to the given action as it is read from the database, without collecting them into a list.
+     *
+     * @param action called once per client.
+     */
+    public void forEachClient(Consumer<Client> action) {
+        StreamingQueries.forEachRow(jdbcTemplate, "SELECT * FROM clients ORDER BY client_id", CLIENT_ROW_MAPPER, action);
+    }
+
     /**
      * Retrieves a specific client by their ID.
      *
@@ -75,6 +125,10 @@ public class ClientRepository {
      * @return the client if found; null if no such client exists or a data error occurs.
      */
     public Client getClientById(int clientId) {
+        return clientCache.get(clientId, this::loadClientById);
+    }
+
+    private Client loadClientById(int clientId) {
         String sql = "SELECT * FROM clients WHERE client_id = ?";
         try {
             return jdbcTemplate.queryForObject(sql, new Object[]{clientId}, (rs, rowNum) -> new Client(
@@ -106,6 +160,7 @@ public class ClientRepository {
             int rowsAffected = jdbcTemplate.update(sql,
                     client.getName(), client.getAddress(), client.getEmail(),
                     client.getTelephoneNumber(), client.getClientId());
+            clientCache.invalidate(client.getClientId());
 
             if (rowsAffected > 0) {
                 return getClientById(client.getClientId());
@@ -131,7 +186,9 @@ public class ClientRepository {
     public int delete(int clientId) {
         String sql = "DELETE FROM clients WHERE client_id = ?";
         try {
-            return jdbcTemplate.update(sql, clientId);
+            int rows = jdbcTemplate.update(sql, clientId);
+            clientCache.invalidate(clientId);
+            return rows;
         } catch (DataAccessException e) {
             System.err.println("Error deleting client with ID " + clientId + ": " + e.getMessage());
             return 0;
@@ -1,8 +1,10 @@
 package com.operations.StageOps.repository;
 
+import com.operations.StageOps.model.ChangeEvent;
 import com.operations.StageOps.model.Event;
 import com.operations.StageOps.model.LayoutConfiguration;
 import com.operations.StageOps.model.Seating;
+import com.operations.StageOps.util.ChangeFeed;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
@@ -17,6 +19,7 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Repository
@@ -25,17 +28,26 @@ public class EventRepository {
     private final JdbcTemplate jdbcTemplate;
     private final LayoutRepository layoutRepository;
     private final SeatingRepository seatingRepository;
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final RoomRepository roomRepository;
+    private final ChangeFeed changeFeed;
 
     /**
      * Constructor to initialize the EventRepository with JdbcTemplate and other dependencies.
      *
      * @param jdbcTemplate The JdbcTemplate instance for database operations.
      * @param seatingRepository The repository to handle seating operations.
+     * @param roomRepository The repository whose cached room is dropped when an event changes the room's layout.
+     * @param changeFeed The feed created, updated and deleted events and ticket counter changes are published on.
      */
-    public EventRepository(JdbcTemplate jdbcTemplate, SeatingRepository seatingRepository) {
+    public EventRepository(JdbcTemplate jdbcTemplate, SeatingRepository seatingRepository, RoomRepository roomRepository,
+                           ChangeFeed changeFeed) {
         this.jdbcTemplate = jdbcTemplate;
         this.layoutRepository = new LayoutRepository(jdbcTemplate);
         this.seatingRepository = seatingRepository;
+        this.revenueRollupRepository = new RevenueRollupRepository(jdbcTemplate);
+        this.roomRepository = roomRepository;
+        this.changeFeed = changeFeed;
     }
 
     /**
@@ -93,6 +105,7 @@ public class EventRepository {
             // Associate event with the room layout
             String updateRoomSql = "UPDATE rooms SET current_layout_id = ? WHERE room_id = ?";
             jdbcTemplate.update(updateRoomSql, event.getLayoutId(), event.getRoomId());
+            roomRepository.invalidateCachedRoom(event.getRoomId());
 
             // Save seat-event associations using the eventId we just inserted
             List<Seating> seats = seatingRepository.getAllSeatsByRoom(event.getRoomId());
@@ -101,13 +114,14 @@ public class EventRepository {
 
             // Update revenue tracking
             updateRevenueTracking(event.getRoomId(), event.getEventId(), event.getTotalRevenue(), event.getTicketsSold(), 0);
+            changeFeed.publish(ChangeEvent.eventChanged(ChangeEvent.EVENT_CREATED, event.getEventId()));
         }
 
         return event;
     }
 
     /**
-     * Method to update the revenue tracking table.
+     * Method to update the revenue tracking table and the revenue rollups.
      *
      * @param roomId The room ID.
      * @param eventId The event ID.
@@ -119,6 +133,7 @@ public class EventRepository {
         String sql = "INSERT INTO revenue_tracking (room_id, event_id, total_revenue, ticket_sales, venue_hire) VALUES (?, ?, ?, ?, ?) " +
                 "ON DUPLICATE KEY UPDATE total_revenue = total_revenue + VALUES(total_revenue), ticket_sales = ticket_sales + VALUES(ticket_sales), venue_hire = venue_hire + VALUES(venue_hire)";
         jdbcTemplate.update(sql, roomId, eventId, totalRevenue, ticketsSold, venueHire);
+        revenueRollupRepository.applyEventDelta(eventId, ticketsSold, venueHire, totalRevenue);
     }
 
     /**
@@ -131,6 +146,28 @@ public class EventRepository {
         return jdbcTemplate.query(sql, new EventRowMapper());
     }
 
+    /**
+     * Get one page of events ordered by ID, starting after the given event ID.
+     * Paging on the primary key keeps every page a single index range scan, however far in it starts.
+     *
+     * @param afterId The ID of the last event of the previous page, or 0 for the first page.
+     * @param limit The maximum number of events to return.
+     * @return The events with an ID greater than afterId, in ID order.
+     */
+    public List<Event> getEventsPage(int afterId, int limit) {
+        String sql = "SELECT * FROM events WHERE event_id > ? ORDER BY event_id LIMIT ?";
+        return jdbcTemplate.query(sql, new EventRowMapper(), afterId, limit);
+    }
+
+    /**
+     * Pass every event to the given action as it is read from the database, without collecting them into a list.
+     *
+     * @param action Called once per event.
+     */
+    public void forEachEvent(Consumer<Event> action) {
+        StreamingQueries.forEachRow(jdbcTemplate, "SELECT * FROM events ORDER BY event_id", new EventRowMapper(), action);
+    }
+
     /**
      * Get a specific event by its ID.
      *
@@ -173,11 +210,81 @@ public class EventRepository {
         if (rowsAffected > 0) {
             // Update revenue tracking for the event
             updateRevenueTracking(event.getRoomId(), event.getEventId(), event.getTotalRevenue(), event.getTicketsSold(), 0);
+            changeFeed.publish(ChangeEvent.eventChanged(ChangeEvent.EVENT_UPDATED, event.getEventId()));
+        }
+
+        return rowsAffected;
+    }
+
+    /**
+     * Atomically adjust the ticket counters of an event with relative SQL updates, so concurrent
+     * sales, holds and refunds cannot overwrite each other's changes. The update is guarded so
+     * that neither counter can drop below zero; if the guard fails, nothing is changed.
+     * Any change to tickets sold or revenue is also added to the event's revenue tracking row.
+     *
+     * @param eventId The ID of the event.
+     * @param soldDelta The change in tickets sold (negative for refunds).
+     * @param availableDelta The change in tickets available (negative for sales and holds).
+     * @param revenueDelta The change in total revenue (negative for refunds).
+     * @return 1 if the counters were updated, 0 if the event does not exist or the guard failed.
+     */
+    public int adjustTicketCounters(int eventId, int soldDelta, int availableDelta, double revenueDelta) {
+        String sql = "UPDATE events SET tickets_sold = tickets_sold + ?, tickets_available = tickets_available + ?, " +
+                "total_revenue = total_revenue + ? " +
+                "WHERE event_id = ? AND tickets_sold + ? >= 0 AND tickets_available + ? >= 0";
+        int rowsAffected = jdbcTemplate.update(sql, soldDelta, availableDelta, revenueDelta, eventId, soldDelta, availableDelta);
+
+        if (rowsAffected > 0 && (soldDelta != 0 || revenueDelta != 0)) {
+            String revenueSql = "INSERT INTO revenue_tracking (room_id, event_id, total_revenue, ticket_sales, venue_hire) " +
+                    "SELECT room_id, event_id, ?, ?, 0 FROM events WHERE event_id = ? " +
+                    "ON DUPLICATE KEY UPDATE revenue_tracking.total_revenue = revenue_tracking.total_revenue + VALUES(total_revenue), " +
+                    "revenue_tracking.ticket_sales = revenue_tracking.ticket_sales + VALUES(ticket_sales)";
+            jdbcTemplate.update(revenueSql, revenueDelta, soldDelta, eventId);
+            revenueRollupRepository.applyEventDelta(eventId, soldDelta, 0, revenueDelta);
+        }
+        if (rowsAffected > 0) {
+            changeFeed.publish(ChangeEvent.ticketsChanged(eventId, soldDelta, availableDelta));
         }
 
         return rowsAffected;
     }
 
+    /**
+     * Record the sale of tickets for an event.
+     *
+     * @param eventId The ID of the event.
+     * @param ticketCount The number of tickets sold.
+     * @param revenue The revenue of the sale.
+     * @return 1 if the counters were updated, 0 if not enough tickets are available.
+     */
+    public int recordTicketSales(int eventId, int ticketCount, double revenue) {
+        return adjustTicketCounters(eventId, ticketCount, -ticketCount, revenue);
+    }
+
+    /**
+     * Record the refund of tickets for an event; the seats become available again.
+     *
+     * @param eventId The ID of the event.
+     * @param ticketCount The number of tickets refunded.
+     * @param amount The amount refunded.
+     * @return 1 if the counters were updated, 0 if more tickets would be refunded than were sold.
+     */
+    public int recordTicketRefund(int eventId, int ticketCount, double amount) {
+        return adjustTicketCounters(eventId, -ticketCount, ticketCount, -amount);
+    }
+
+    /**
+     * Take tickets out of (positive count) or put them back into (negative count) the available pool
+     * of an event without selling them, e.g. for group holds.
+     *
+     * @param eventId The ID of the event.
+     * @param ticketCount The number of tickets to hold, or a negative number to release held tickets.
+     * @return 1 if the counters were updated, 0 if not enough tickets are available.
+     */
+    public int holdTickets(int eventId, int ticketCount) {
+        return adjustTicketCounters(eventId, 0, -ticketCount, 0);
+    }
+
     /**
      * Delete an event by its ID.
      *
@@ -186,7 +293,11 @@ public class EventRepository {
      */
     public int delete(int eventId) {
         String sql = "DELETE FROM events WHERE event_id = ?";
-        return jdbcTemplate.update(sql, eventId);
+        int rowsAffected = jdbcTemplate.update(sql, eventId);
+        if (rowsAffected > 0) {
+            changeFeed.publish(ChangeEvent.eventChanged(ChangeEvent.EVENT_DELETED, eventId));
+        }
+        return rowsAffected;
     }
 
     /**
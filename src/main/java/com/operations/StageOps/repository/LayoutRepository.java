@@ -3,15 +3,44 @@ package com.operations.StageOps.repository;
 import com.operations.StageOps.model.LayoutConfiguration;
 import com.operations.StageOps.model.Seating;
 import com.operations.StageOps.model.Section;
+import com.operations.StageOps.util.ReferenceCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Repository
 public class LayoutRepository {
 
     private final JdbcTemplate jdbcTemplate;
+    private ApplicationEventPublisher eventPublisher;
+
+    // Layouts by ID with their sections and seats; invalidated by save, update and delete, and per room when
+    // the room's seats change
+    private final ReferenceCache<Integer, LayoutConfiguration> layoutCache = new ReferenceCache<>("layouts", 200, 300_000);
+
+    // Maps a row of the 'layouts' table; sections are attached separately
+    private static final RowMapper<LayoutConfiguration> LAYOUT_ROW_MAPPER = (rs, rowNum) -> new LayoutConfiguration(
+            rs.getInt("layout_id"),
+            rs.getString("layout_name"),
+            rs.getInt("max_capacity"),
+            rs.getInt("room_id"),
+            rs.getString("layout_type")
+    );
 
     /**
      * Constructor to initialize the LayoutRepository with JdbcTemplate.
@@ -22,6 +51,35 @@ public class LayoutRepository {
         this.jdbcTemplate = jdbcTemplate;
     }
 
+    @Autowired
+    void configureLayoutCache(@Value("${stageops.cache.layouts.max-size:200}") int maxSize,
+                              @Value("${stageops.cache.layouts.ttl-ms:300000}") long ttlMs) {
+        layoutCache.configure(maxSize, ttlMs);
+    }
+
+    @Autowired
+    void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Drop the cached layouts of rooms whose seats changed; each cached layout holds the seats of its room.
+     * Runs after the change commits, or straight away outside a transaction.
+     *
+     * @param event The rooms whose seats changed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatingChanged(SeatingRepository.SeatingChangedEvent event) {
+        layoutCache.invalidateIf(layout -> event.getRoomIds().contains(layout.getRoomId()));
+    }
+
+    /**
+     * @return The hit/miss statistics of the layout cache.
+     */
+    public Map<String, Object> layoutCacheStats() {
+        return layoutCache.stats();
+    }
+
     /**
      * Save a new layout configuration along with its sections and associated seats.
      *
@@ -38,17 +96,24 @@ public class LayoutRepository {
             String sectionSql = "INSERT INTO sections (section_name, section_type, layout_id) VALUES (?, ?, ?)";
             jdbcTemplate.update(sectionSql, section.getSectionName(), section.getSectionType(), layout.getLayoutId());
 
-            // Associating existing seats with sections by updating the 'seating' table
+            // Associating existing seats with sections by updating the 'seating' table, one UPDATE per section name
+            Map<String, List<String>> seatIdsBySectionName = new LinkedHashMap<>();
             for (Seating seat : section.getSeats()) {
-                String updateSeatSql = "UPDATE seating SET section_name = ? WHERE seat_id = ?";
-                jdbcTemplate.update(updateSeatSql, seat.getSectionName(), seat.getSeatId());
+                seatIdsBySectionName.computeIfAbsent(seat.getSectionName(), name -> new ArrayList<>()).add(seat.getSeatId());
             }
+            seatIdsBySectionName.forEach((sectionName, seatIds) ->
+                    SeatingRepository.assignSection(jdbcTemplate, sectionName, seatIds));
         }
 
         // Insert into room_layouts table to associate the room with the layout
         String roomLayoutSql = "INSERT INTO room_layouts (room_id, layout_id) VALUES (?, ?)";
         jdbcTemplate.update(roomLayoutSql, layout.getRoomId(), layout.getLayoutId());
 
+        layoutCache.invalidate(layout.getLayoutId());
+        if (eventPublisher != null) { // Not set on instances created outside the Spring context
+            // The seats were moved into this layout's sections, which the other layouts of the room show too
+            eventPublisher.publishEvent(new SeatingRepository.SeatingChangedEvent(this, Set.of(layout.getRoomId())));
+        }
         return layout.getLayoutId(); // Return the layout ID
     }
 
@@ -59,18 +124,42 @@ public class LayoutRepository {
      */
     public List<LayoutConfiguration> getAllLayouts() {
         String sql = "SELECT * FROM layouts";
-        return jdbcTemplate.query(sql, (rs, rowNum) -> {
-            int layoutId = rs.getInt("layout_id");
-            LayoutConfiguration layout = new LayoutConfiguration(
-                    layoutId,
-                    rs.getString("layout_name"),
-                    rs.getInt("max_capacity"),
-                    rs.getInt("room_id"),
-                    rs.getString("layout_type")
-            );
-            layout.setSections(findSectionsByLayoutId(layoutId)); // Fetch sections for this layout
-            return layout;
-        });
+        List<LayoutConfiguration> layouts = jdbcTemplate.query(sql, LAYOUT_ROW_MAPPER);
+        attachSectionsAndSeats(layouts); // Fetch sections and seats for all layouts at once
+        return layouts;
+    }
+
+    /**
+     * Get one page of layouts ordered by ID, starting after the given layout ID, including their sections and seats.
+     *
+     * @param afterId The ID of the last layout of the previous page, or 0 for the first page.
+     * @param limit The maximum number of layouts to return.
+     * @return The layouts with an ID greater than afterId, in ID order.
+     */
+    public List<LayoutConfiguration> getLayoutsPage(int afterId, int limit) {
+        String sql = "SELECT * FROM layouts WHERE layout_id > ? ORDER BY layout_id LIMIT ?";
+        List<LayoutConfiguration> layouts = jdbcTemplate.query(sql, LAYOUT_ROW_MAPPER, afterId, limit);
+        attachSectionsAndSeats(layouts); // Fetch sections and seats for the page at once
+        return layouts;
+    }
+
+    /**
+     * Pass every layout, with its sections and seats, to the given action without loading all layouts at once.
+     * Each layout needs its sections and seats attached, so layouts are read in keyset pages of
+     * {@link StreamingQueries#FETCH_SIZE} and each page is handed on before the next one is read.
+     *
+     * @param action Called once per layout.
+     */
+    public void forEachLayout(Consumer<LayoutConfiguration> action) {
+        int afterId = 0;
+        List<LayoutConfiguration> page;
+        do {
+            page = getLayoutsPage(afterId, StreamingQueries.FETCH_SIZE);
+            page.forEach(action);
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getLayoutId();
+            }
+        } while (page.size() == StreamingQueries.FETCH_SIZE);
     }
 
     /**
@@ -80,18 +169,16 @@ public class LayoutRepository {
      * @return The layout configuration with its sections and seats.
      */
     public LayoutConfiguration getLayoutById(int layoutId) {
+        return layoutCache.get(layoutId, this::loadLayoutById);
+    }
+
+    private LayoutConfiguration loadLayoutById(int layoutId) {
         String sql = "SELECT * FROM layouts WHERE layout_id = ?";
-        return jdbcTemplate.queryForObject(sql, new Object[]{layoutId}, (rs, rowNum) -> {
-            LayoutConfiguration layout = new LayoutConfiguration(
-                    rs.getInt("layout_id"),
-                    rs.getString("layout_name"),
-                    rs.getInt("max_capacity"),
-                    rs.getInt("room_id"),
-                    rs.getString("layout_type")
-            );
-            layout.setSections(findSectionsByLayoutId(layoutId)); // Fetch sections for this layout
-            return layout;
-        });
+        LayoutConfiguration layout = jdbcTemplate.queryForObject(sql, new Object[]{layoutId}, LAYOUT_ROW_MAPPER);
+        if (layout != null) {
+            attachSectionsAndSeats(List.of(layout)); // Fetch sections for this layout
+        }
+        return layout;
     }
 
     /**
@@ -103,18 +190,14 @@ public class LayoutRepository {
     public LayoutConfiguration update(LayoutConfiguration layout) {
         String sql = "UPDATE layouts SET layout_name = ?, max_capacity = ?, room_id = ?, layout_type = ? WHERE layout_id = ?";
         int rowsAffected = jdbcTemplate.update(sql, layout.getLayoutName(), layout.getMaxCapacity(), layout.getRoomId(), layout.getLayoutType(), layout.getLayoutId());
+        layoutCache.invalidate(layout.getLayoutId());
 
         if (rowsAffected > 0) {
             String selectSql = "SELECT * FROM layouts WHERE layout_id = ?";
-            LayoutConfiguration updatedLayout = jdbcTemplate.queryForObject(selectSql, new Object[]{layout.getLayoutId()},
-                    (rs, rowNum) -> new LayoutConfiguration(
-                            rs.getInt("layout_id"),
-                            rs.getString("layout_name"),
-                            rs.getInt("max_capacity"),
-                            rs.getInt("room_id"),
-                            rs.getString("layout_type")
-                    ));
-            updatedLayout.setSections(findSectionsByLayoutId(layout.getLayoutId())); // Fetch sections for the updated layout
+            LayoutConfiguration updatedLayout = jdbcTemplate.queryForObject(selectSql, new Object[]{layout.getLayoutId()}, LAYOUT_ROW_MAPPER);
+            if (updatedLayout != null) {
+                attachSectionsAndSeats(List.of(updatedLayout)); // Fetch sections for the updated layout
+            }
             return updatedLayout;
         }
         return null;
@@ -128,54 +211,99 @@ public class LayoutRepository {
      */
     public int delete(int layoutId) {
         String sql = "DELETE FROM layouts WHERE layout_id = ?";
-        return jdbcTemplate.update(sql, layoutId);
+        int rows = jdbcTemplate.update(sql, layoutId);
+        layoutCache.invalidate(layoutId);
+        return rows;
     }
 
     /**
      * Fetch layouts for a specific room, including sections and associated seats.
+     * The whole layout -> section -> seat graph is built with three queries regardless of its size.
      *
      * @param roomId The ID of the room to fetch layouts for.
      * @return A list of layout configurations for the specified room.
      */
     public List<LayoutConfiguration> findLayoutsByRoomId(int roomId) {
         String sql = "SELECT * FROM layouts WHERE room_id = ?";
-        return jdbcTemplate.query(sql, new Object[]{roomId}, (rs, rowNum) -> {
-            int layoutId = rs.getInt("layout_id");
-            LayoutConfiguration layout = new LayoutConfiguration(
-                    layoutId,
-                    rs.getString("layout_name"),
-                    rs.getInt("max_capacity"),
-                    rs.getInt("room_id"),
-                    rs.getString("layout_type")
-            );
-            layout.setSections(findSectionsByLayoutId(layoutId)); // Fetch sections for this layout
-            return layout;
-        });
+        List<LayoutConfiguration> layouts = jdbcTemplate.query(sql, new Object[]{roomId}, LAYOUT_ROW_MAPPER);
+        attachSectionsAndSeats(layouts); // Fetch sections and seats for these layouts
+        return layouts;
     }
 
     /**
-     * Fetch sections associated with a specific layout by its ID.
+     * Loads the sections of the given layouts and the seats of their rooms in two set-based queries,
+     * then attaches them in memory. Seats are bucketed by (room, section name) so that a section only
+     * receives seats from the room its layout belongs to.
      *
-     * @param layoutId The ID of the layout to fetch sections for.
-     * @return A list of sections belonging to the layout.
+     * @param layouts The layouts to populate; each gets its sections list replaced.
      */
-    private List<Section> findSectionsByLayoutId(int layoutId) {
-        String sql = "SELECT * FROM sections WHERE layout_id = ?";
-        return jdbcTemplate.query(sql, new Object[]{layoutId}, (rs, rowNum) -> {
-            int sectionId = rs.getInt("section_id");
-            String sectionName = rs.getString("section_name");
+    private void attachSectionsAndSeats(List<LayoutConfiguration> layouts) {
+        if (layouts.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, LayoutConfiguration> layoutsById = new LinkedHashMap<>();
+        Set<Integer> roomIds = new LinkedHashSet<>();
+        for (LayoutConfiguration layout : layouts) {
+            layout.setSections(new ArrayList<>());
+            layoutsById.put(layout.getLayoutId(), layout);
+            roomIds.add(layout.getRoomId());
+        }
+
+        // 1. All sections of these layouts, grouped by layout ID
+        Map<Integer, List<Section>> sectionsByLayout = new HashMap<>();
+        String sectionSql = "SELECT * FROM sections WHERE layout_id IN (" + placeholders(layoutsById.size()) + ")";
+        jdbcTemplate.query(sectionSql, layoutsById.keySet().toArray(), (RowCallbackHandler) rs -> {
+            int layoutId = rs.getInt("layout_id");
             Section section = new Section(
-                    sectionId,
-                    sectionName,
+                    rs.getInt("section_id"),
+                    rs.getString("section_name"),
                     rs.getString("section_type"),
                     layoutId
             );
+            sectionsByLayout.computeIfAbsent(layoutId, id -> new ArrayList<>()).add(section);
+        });
 
-            // Fetch the seats for the section
-            section.setSeats(findSeatsBySectionId(sectionName)); // Set the seats for this section
-
-            return section;
+        // 2. All seats of the rooms involved, bucketed by room and then by section name
+        Map<Integer, Map<String, List<Seating>>> seatsByRoomAndSection = new HashMap<>();
+        String seatSql = "SELECT * FROM seating WHERE room_id IN (" + placeholders(roomIds.size()) + ")";
+        jdbcTemplate.query(seatSql, roomIds.toArray(), (RowCallbackHandler) rs -> {
+            String sectionName = rs.getString("section_name");
+            if (sectionName == null) {
+                return; // Seat not assigned to any section
+            }
+            Seating seat = new Seating(
+                    rs.getString("seat_id"),
+                    rs.getInt("room_id"),
+                    rs.getInt("seat_number"),
+                    rs.getBoolean("is_accessible"),
+                    rs.getBoolean("is_restricted"),
+                    sectionName
+            );
+            seatsByRoomAndSection
+                    .computeIfAbsent(seat.getRoomId(), id -> new HashMap<>())
+                    .computeIfAbsent(sectionName, name -> new ArrayList<>())
+                    .add(seat);
         });
+
+        // 3. Stitch the graph together
+        for (LayoutConfiguration layout : layoutsById.values()) {
+            Map<String, List<Seating>> roomSeats = seatsByRoomAndSection.getOrDefault(layout.getRoomId(), Map.of());
+            for (Section section : sectionsByLayout.getOrDefault(layout.getLayoutId(), List.of())) {
+                section.setSeats(new ArrayList<>(roomSeats.getOrDefault(section.getSectionName(), List.of())));
+                layout.getSections().add(section);
+            }
+        }
+    }
+
+    /**
+     * Builds a comma separated list of JDBC placeholders for an IN clause.
+     *
+     * @param count The number of placeholders.
+     * @return A string such as "?, ?, ?".
+     */
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
     }
 
     /**
@@ -0,0 +1,161 @@
+package com.operations.StageOps.repository;
+
+import com.operations.StageOps.model.PdfJob;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Repository for the {@code pdf_jobs} table, which records every background PDF job so that jobs survive a restart.
+ */
+@Repository
+public class PdfJobRepository {
+
+    static final String INSERT_SQL =
+            "INSERT INTO pdf_jobs (job_type, document_ids, status, attempts, documents, created_at) VALUES (?, ?, ?, 0, 0, ?)";
+
+    private static final RowMapper<PdfJob> JOB_ROW_MAPPER = (rs, rowNum) -> new PdfJob(
+            rs.getInt("job_id"),
+            rs.getString("job_type"),
+            parseIds(rs.getString("document_ids")),
+            rs.getString("status"),
+            rs.getInt("attempts"),
+            rs.getInt("documents"),
+            parseIds(rs.getString("failed_ids")),
+            rs.getString("error_message"),
+            toLocalDateTime(rs.getTimestamp("created_at")),
+            toLocalDateTime(rs.getTimestamp("started_at")),
+            toLocalDateTime(rs.getTimestamp("completed_at"))
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PdfJobRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Records a new queued job.
+     *
+     * @param jobType     {@link PdfJob#INVOICE} or {@link PdfJob#CONTRACT}.
+     * @param documentIds The IDs of the invoices or contracts to render.
+     * @return The ID of the new job.
+     */
+    public int createJob(String jobType, List<Integer> documentIds) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, jobType);
+            ps.setString(2, joinIds(documentIds));
+            ps.setString(3, PdfJob.QUEUED);
+            ps.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().intValue();
+    }
+
+    /**
+     * Retrieves a job by its ID.
+     *
+     * @param jobId The ID of the job.
+     * @return The job, or null if there is no job with that ID.
+     */
+    public PdfJob getJobById(int jobId) {
+        String sql = "SELECT * FROM pdf_jobs WHERE job_id = ?";
+        try {
+            return jdbcTemplate.queryForObject(sql, JOB_ROW_MAPPER, jobId);
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Retrieves the IDs of the jobs that are queued or were running, oldest first.
+     *
+     * @return The IDs of the unfinished jobs.
+     */
+    public List<Integer> getUnfinishedJobIds() {
+        String sql = "SELECT job_id FROM pdf_jobs WHERE status IN (?, ?) ORDER BY job_id";
+        return jdbcTemplate.queryForList(sql, Integer.class, PdfJob.QUEUED, PdfJob.RUNNING);
+    }
+
+    /**
+     * Claims a queued job for an attempt: marks it running and counts the attempt.
+     *
+     * @param jobId The ID of the job.
+     * @return 1 if the job was claimed, 0 if it was not queued.
+     */
+    public int markRunning(int jobId) {
+        String sql = "UPDATE pdf_jobs SET status = ?, attempts = attempts + 1, started_at = ? WHERE job_id = ? AND status = ?";
+        return jdbcTemplate.update(sql, PdfJob.RUNNING, Timestamp.valueOf(LocalDateTime.now()), jobId, PdfJob.QUEUED);
+    }
+
+    /**
+     * Puts a job back in the queue after a failed attempt, recording what has been rendered so far.
+     *
+     * @param jobId        The ID of the job.
+     * @param documents    The number of documents rendered so far.
+     * @param failedIds    The IDs the next attempt should render.
+     * @param errorMessage Why the attempt failed.
+     * @return The number of rows affected.
+     */
+    public int markQueued(int jobId, int documents, List<Integer> failedIds, String errorMessage) {
+        String sql = "UPDATE pdf_jobs SET status = ?, documents = ?, failed_ids = ?, error_message = ? WHERE job_id = ?";
+        return jdbcTemplate.update(sql, PdfJob.QUEUED, documents, joinIds(failedIds), errorMessage, jobId);
+    }
+
+    /**
+     * Marks a job as finished.
+     *
+     * @param jobId        The ID of the job.
+     * @param status       {@link PdfJob#COMPLETED} or {@link PdfJob#FAILED}.
+     * @param documents    The number of documents rendered.
+     * @param failedIds    The IDs that could not be rendered.
+     * @param errorMessage Why the last attempt failed, or null.
+     * @return The number of rows affected.
+     */
+    public int markFinished(int jobId, String status, int documents, List<Integer> failedIds, String errorMessage) {
+        String sql = "UPDATE pdf_jobs SET status = ?, documents = ?, failed_ids = ?, error_message = ?, completed_at = ? WHERE job_id = ?";
+        return jdbcTemplate.update(sql, status, documents, joinIds(failedIds), errorMessage,
+                Timestamp.valueOf(LocalDateTime.now()), jobId);
+    }
+
+    /**
+     * Puts the jobs that were running when the application stopped back in the queue.
+     *
+     * @return The number of jobs requeued.
+     */
+    public int requeueRunningJobs() {
+        String sql = "UPDATE pdf_jobs SET status = ? WHERE status = ?";
+        return jdbcTemplate.update(sql, PdfJob.QUEUED, PdfJob.RUNNING);
+    }
+
+    static String joinIds(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return null;
+        }
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    static List<Integer> parseIds(String ids) {
+        if (ids == null || ids.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(ids.split(",")).map(String::trim).map(Integer::valueOf).toList();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
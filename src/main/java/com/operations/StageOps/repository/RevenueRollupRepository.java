@@ -0,0 +1,183 @@
+package com.operations.StageOps.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository for the pre-aggregated revenue rollups.
+ * <p>
+ * {@code revenue_daily} holds one row per (day, room) and {@code revenue_monthly} one row per (year, month, room),
+ * each with the summed ticket sales, venue hire and total revenue of the matching {@code revenue_tracking} rows.
+ * Every write to {@code revenue_tracking} applies the same delta to both rollups, so revenue reports read a
+ * handful of buckets instead of aggregating the whole table. {@link #rebuild()} recomputes both from scratch.
+ */
+@Repository
+public class RevenueRollupRepository {
+
+    private static final String DAILY_UPSERT_SUFFIX =
+            "ON DUPLICATE KEY UPDATE revenue_daily.ticket_sales = revenue_daily.ticket_sales + VALUES(ticket_sales), " +
+            "revenue_daily.venue_hire = revenue_daily.venue_hire + VALUES(venue_hire), " +
+            "revenue_daily.total_revenue = revenue_daily.total_revenue + VALUES(total_revenue)";
+    private static final String MONTHLY_UPSERT_SUFFIX =
+            "ON DUPLICATE KEY UPDATE revenue_monthly.ticket_sales = revenue_monthly.ticket_sales + VALUES(ticket_sales), " +
+            "revenue_monthly.venue_hire = revenue_monthly.venue_hire + VALUES(venue_hire), " +
+            "revenue_monthly.total_revenue = revenue_monthly.total_revenue + VALUES(total_revenue)";
+
+    static final String DAILY_DELTA_SQL =
+            "INSERT INTO revenue_daily (revenue_day, room_id, ticket_sales, venue_hire, total_revenue) VALUES (?, ?, ?, ?, ?) " +
+            DAILY_UPSERT_SUFFIX;
+    static final String MONTHLY_DELTA_SQL =
+            "INSERT INTO revenue_monthly (revenue_year, revenue_month, room_id, ticket_sales, venue_hire, total_revenue) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " + MONTHLY_UPSERT_SUFFIX;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RevenueRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds a revenue delta to the daily and monthly buckets of a room.
+     *
+     * @param day the booking date the revenue belongs to.
+     * @param roomId the room the revenue belongs to.
+     * @param ticketSales the change in ticket sales.
+     * @param venueHire the change in venue hire.
+     * @param totalRevenue the change in total revenue.
+     */
+    public void applyDelta(LocalDate day, int roomId, double ticketSales, double venueHire, double totalRevenue) {
+        jdbcTemplate.update(DAILY_DELTA_SQL, day, roomId, ticketSales, venueHire, totalRevenue);
+        jdbcTemplate.update(MONTHLY_DELTA_SQL, day.getYear(), day.getMonthValue(), roomId, ticketSales, venueHire, totalRevenue);
+    }
+
+    /**
+     * Adds a revenue delta to the buckets of the revenue_tracking row of an event, using the booking date
+     * and room stored on that row. Does nothing if the event has no dated revenue row.
+     *
+     * @param eventId the event whose revenue changed.
+     * @param ticketSales the change in ticket sales.
+     * @param venueHire the change in venue hire.
+     * @param totalRevenue the change in total revenue.
+     */
+    public void applyEventDelta(int eventId, double ticketSales, double venueHire, double totalRevenue) {
+        applyRowDelta("event_id", eventId, ticketSales, venueHire, totalRevenue);
+    }
+
+    /**
+     * Adds a revenue delta to the buckets of the revenue_tracking row of a booking, using the booking date
+     * and room stored on that row. Does nothing if the booking has no dated revenue row.
+     *
+     * @param bookingId the booking whose revenue changed.
+     * @param ticketSales the change in ticket sales.
+     * @param venueHire the change in venue hire.
+     * @param totalRevenue the change in total revenue.
+     */
+    public void applyBookingDelta(int bookingId, double ticketSales, double venueHire, double totalRevenue) {
+        applyRowDelta("booking_id", bookingId, ticketSales, venueHire, totalRevenue);
+    }
+
+    private void applyRowDelta(String keyColumn, int key, double ticketSales, double venueHire, double totalRevenue) {
+        String rowFilter = "FROM revenue_tracking WHERE " + keyColumn + " = ? AND booking_date IS NOT NULL LIMIT 1 ";
+        jdbcTemplate.update("INSERT INTO revenue_daily (revenue_day, room_id, ticket_sales, venue_hire, total_revenue) " +
+                "SELECT DATE(booking_date), COALESCE(room_id, 0), ?, ?, ? " + rowFilter + DAILY_UPSERT_SUFFIX,
+                ticketSales, venueHire, totalRevenue, key);
+        jdbcTemplate.update("INSERT INTO revenue_monthly (revenue_year, revenue_month, room_id, ticket_sales, venue_hire, total_revenue) " +
+                "SELECT YEAR(booking_date), MONTH(booking_date), COALESCE(room_id, 0), ?, ?, ? " + rowFilter + MONTHLY_UPSERT_SUFFIX,
+                ticketSales, venueHire, totalRevenue, key);
+    }
+
+    /**
+     * Recomputes both rollups from revenue_tracking. Should run inside a transaction so readers never
+     * see the rollups empty.
+     *
+     * @return the number of daily buckets written.
+     */
+    public int rebuild() {
+        jdbcTemplate.update("DELETE FROM revenue_daily");
+        jdbcTemplate.update("DELETE FROM revenue_monthly");
+        int days = jdbcTemplate.update("INSERT INTO revenue_daily (revenue_day, room_id, ticket_sales, venue_hire, total_revenue) " +
+                "SELECT DATE(booking_date), COALESCE(room_id, 0), " +
+                "COALESCE(SUM(ticket_sales), 0), COALESCE(SUM(venue_hire), 0), COALESCE(SUM(total_revenue), 0) " +
+                "FROM revenue_tracking WHERE booking_date IS NOT NULL " +
+                "GROUP BY DATE(booking_date), COALESCE(room_id, 0)");
+        jdbcTemplate.update("INSERT INTO revenue_monthly (revenue_year, revenue_month, room_id, ticket_sales, venue_hire, total_revenue) " +
+                "SELECT YEAR(revenue_day), MONTH(revenue_day), room_id, SUM(ticket_sales), SUM(venue_hire), SUM(total_revenue) " +
+                "FROM revenue_daily GROUP BY YEAR(revenue_day), MONTH(revenue_day), room_id");
+        return days;
+    }
+
+    /**
+     * Retrieves the total revenue between two dates from the daily rollup.
+     *
+     * @param from the first day (inclusive).
+     * @param to the last day (exclusive).
+     * @return the total revenue, 0 if there is none.
+     */
+    public double sumDailyRevenue(LocalDate from, LocalDate to) {
+        String sql = "SELECT COALESCE(SUM(total_revenue), 0) FROM revenue_daily WHERE revenue_day >= ? AND revenue_day < ?";
+        Double result = jdbcTemplate.queryForObject(sql, Double.class, from, to);
+        return result != null ? result : 0.0;
+    }
+
+    /**
+     * Retrieves the total revenue of a month, or of a whole year when {@code month} is null, from the monthly rollup.
+     *
+     * @param year the year (e.g., 2025).
+     * @param month the month (1-12), or null for the whole year.
+     * @return the total revenue, 0 if there is none.
+     */
+    public double sumMonthlyRevenue(int year, Integer month) {
+        Double result;
+        if (month == null) {
+            result = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(SUM(total_revenue), 0) FROM revenue_monthly WHERE revenue_year = ?", Double.class, year);
+        } else {
+            result = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(SUM(total_revenue), 0) FROM revenue_monthly WHERE revenue_year = ? AND revenue_month = ?",
+                    Double.class, year, month);
+        }
+        return result != null ? result : 0.0;
+    }
+
+    /**
+     * Retrieves the total revenue for each month of a year.
+     *
+     * @param year the year (e.g., 2025).
+     * @return a list of maps with "month" and "total_revenue", ordered by month.
+     */
+    public List<Map<String, Object>> getMonthlyTotals(int year) {
+        String sql = "SELECT revenue_month AS month, SUM(total_revenue) AS total_revenue " +
+                "FROM revenue_monthly WHERE revenue_year = ? GROUP BY revenue_month ORDER BY revenue_month";
+        return jdbcTemplate.queryForList(sql, year);
+    }
+
+    /**
+     * Retrieves the total revenue for each day of a month.
+     *
+     * @param month the month (1-12).
+     * @param year the year (e.g., 2025).
+     * @return a list of maps with "day" and "total_revenue", ordered by day.
+     */
+    public List<Map<String, Object>> getDailyTotals(int month, int year) {
+        LocalDate start = LocalDate.of(year, month, 1);
+        String sql = "SELECT EXTRACT(DAY FROM revenue_day) AS day, SUM(total_revenue) AS total_revenue " +
+                "FROM revenue_daily WHERE revenue_day >= ? AND revenue_day < ? " +
+                "GROUP BY revenue_day ORDER BY revenue_day";
+        return jdbcTemplate.queryForList(sql, start, start.plusMonths(1));
+    }
+
+    /**
+     * Retrieves the total revenue for each year.
+     *
+     * @return a list of maps with "year" and "total_revenue", ordered by year.
+     */
+    public List<Map<String, Object>> getYearlyTotals() {
+        String sql = "SELECT revenue_year AS year, SUM(total_revenue) AS total_revenue " +
+                "FROM revenue_monthly GROUP BY revenue_year ORDER BY revenue_year";
+        return jdbcTemplate.queryForList(sql);
+    }
+}
@@ -2,23 +2,67 @@ package com.operations.StageOps.repository;
 
 import com.operations.StageOps.model.RevenueTracking;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @Repository
 public class RevenueTrackingRepository {
 
+    /**
+     * Date filters are half-open ranges on the raw booking_date column ({@code >= start AND < end}) rather than
+     * DATE()/EXTRACT() expressions, so MySQL can use the booking_date indexes from the V1 migration.
+     */
+    static final String SUM_REVENUE_BETWEEN_SQL =
+            "SELECT SUM(total_revenue) FROM revenue_tracking WHERE booking_date >= ? AND booking_date < ?";
+    static final String ENTRIES_BETWEEN_SQL =
+            "SELECT * FROM revenue_tracking WHERE booking_date >= ? AND booking_date < ?";
+    static final String MONTHLY_TOTALS_BETWEEN_SQL = "SELECT " +
+            "EXTRACT(MONTH FROM booking_date) AS month, " +
+            "SUM(total_revenue) AS total_revenue " +
+            "FROM revenue_tracking " +
+            "WHERE booking_date >= ? AND booking_date < ? " +
+            "GROUP BY EXTRACT(MONTH FROM booking_date) " +
+            "ORDER BY month";
+    static final String DAILY_TOTALS_BETWEEN_SQL = "SELECT " +
+            "EXTRACT(DAY FROM booking_date) AS day, " +
+            "SUM(total_revenue) AS total_revenue " +
+            "FROM revenue_tracking " +
+            "WHERE booking_date >= ? AND booking_date < ? " +
+            "GROUP BY EXTRACT(DAY FROM booking_date) " +
+            "ORDER BY day";
+
+    // Maps a row of revenue_tracking for the list endpoints
+    private static final RowMapper<RevenueTracking> ENTRY_ROW_MAPPER = (rs, rowNum) -> {
+        RevenueTracking revenueTracking = new RevenueTracking();
+        revenueTracking.setRevenueId(rs.getInt("revenue_id"));
+        revenueTracking.setRoomId(rs.getInt("room_id"));
+        revenueTracking.setEventId(rs.getInt("event_id"));
+        revenueTracking.setBookingId(rs.getInt("booking_id"));
+        revenueTracking.setTotalRevenue(rs.getDouble("total_revenue"));
+        revenueTracking.setTicketSales(rs.getDouble("ticket_sales"));
+        revenueTracking.setVenueHire(rs.getDouble("venue_hire"));
+        java.sql.Date bookingDate = rs.getDate("booking_date");
+        revenueTracking.setBookingDate(bookingDate != null ? bookingDate.toLocalDate() : null);
+        revenueTracking.setStatus(rs.getString("status"));
+        return revenueTracking;
+    };
+
     private final JdbcTemplate jdbcTemplate;
+    private final RevenueRollupRepository revenueRollupRepository;
 
     public RevenueTrackingRepository(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
+        this.revenueRollupRepository = new RevenueRollupRepository(jdbcTemplate);
     }
 
     /**
-     * Saves a revenue tracking record in the database.
+     * Saves a revenue tracking record in the database and adds it to the daily/monthly revenue rollups.
      *
      * @param revenueTracking the revenue tracking record to save.
      * @return the number of rows affected by the insert.
@@ -26,9 +70,14 @@ public class RevenueTrackingRepository {
     public int save(RevenueTracking revenueTracking) {
         String sql = "INSERT INTO revenue_tracking (room_id, event_id, booking_id, booking_date, ticket_sales, venue_hire, total_revenue, status) " +
                 "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        return jdbcTemplate.update(sql, revenueTracking.getRoomId(), revenueTracking.getEventId(), revenueTracking.getBookingId(),
+        int rowsAffected = jdbcTemplate.update(sql, revenueTracking.getRoomId(), revenueTracking.getEventId(), revenueTracking.getBookingId(),
                 revenueTracking.getBookingDate(), revenueTracking.getTicketSales(), revenueTracking.getVenueHire(),
                 revenueTracking.getTotalRevenue(), revenueTracking.getStatus());
+        if (rowsAffected > 0 && revenueTracking.getBookingDate() != null) {
+            revenueRollupRepository.applyDelta(revenueTracking.getBookingDate(), revenueTracking.getRoomId(),
+                    revenueTracking.getTicketSales(), revenueTracking.getVenueHire(), revenueTracking.getTotalRevenue());
+        }
+        return rowsAffected;
     }
 
     /**
@@ -61,19 +110,73 @@ public class RevenueTrackingRepository {
      */
     public List<RevenueTracking> getAllRevenueTrackingEntries() {
         String sql = "SELECT * FROM revenue_tracking";
-        return jdbcTemplate.query(sql, new Object[]{}, (rs, rowNum) -> {
-            RevenueTracking revenueTracking = new RevenueTracking();
-            revenueTracking.setRevenueId(rs.getInt("revenue_id"));
-            revenueTracking.setRoomId(rs.getInt("room_id"));
-            revenueTracking.setEventId(rs.getInt("event_id"));
-            revenueTracking.setBookingId(rs.getInt("booking_id"));
-            revenueTracking.setTotalRevenue(rs.getDouble("total_revenue"));
-            revenueTracking.setTicketSales(rs.getDouble("ticket_sales"));
-            revenueTracking.setVenueHire(rs.getDouble("venue_hire"));
-            revenueTracking.setBookingDate(rs.getDate("booking_date").toLocalDate());
-            revenueTracking.setStatus(rs.getString("status"));
-            return revenueTracking;
-        });
+        return jdbcTemplate.query(sql, new Object[]{}, ENTRY_ROW_MAPPER);
+    }
+
+    /**
+     * Retrieves one page of revenue tracking records ordered by ID, starting after the given record ID.
+     *
+     * @param afterId the ID of the last record of the previous page, or 0 for the first page.
+     * @param limit the maximum number of records to return.
+     * @return the records with an ID greater than afterId, in ID order.
+     */
+    public List<RevenueTracking> getRevenueTrackingEntriesPage(int afterId, int limit) {
+        String sql = "SELECT * FROM revenue_tracking WHERE revenue_id > ? ORDER BY revenue_id LIMIT ?";
+        return jdbcTemplate.query(sql, ENTRY_ROW_MAPPER, afterId, limit);
+    }
+
+    /**
+     * Passes every revenue tracking record to the given action as it is read from the database,
+     * without collecting them into a list.
+     *
+     * @param action called once per record.
+     */
+    public void forEachRevenueTrackingEntry(Consumer<RevenueTracking> action) {
+        StreamingQueries.forEachRow(jdbcTemplate, "SELECT * FROM revenue_tracking ORDER BY revenue_id", ENTRY_ROW_MAPPER, action);
+    }
+
+    /**
+     * Counts the revenue tracking records with a booking date in [startDate, endDate).
+     *
+     * @param startDate the first date to include, or null for no lower bound.
+     * @param endDate the first date after the range, or null for no upper bound.
+     * @return the number of matching records.
+     */
+    public int countRevenueTrackingEntriesBetween(LocalDate startDate, LocalDate endDate) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT COUNT(*) FROM revenue_tracking" + bookingDateFilter(startDate, endDate, params);
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, params.toArray());
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Passes the revenue tracking records with a booking date in [startDate, endDate) to the given action in
+     * booking date order, as they are read from a forward-only cursor. Memory use does not depend on the number of rows.
+     *
+     * @param startDate the first date to include, or null for no lower bound.
+     * @param endDate the first date after the range, or null for no upper bound.
+     * @param action called once per record.
+     */
+    public void forEachRevenueTrackingEntryBetween(LocalDate startDate, LocalDate endDate, Consumer<RevenueTracking> action) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT * FROM revenue_tracking" + bookingDateFilter(startDate, endDate, params) + " ORDER BY booking_date, revenue_id";
+        StreamingQueries.forEachRow(jdbcTemplate, sql, ENTRY_ROW_MAPPER, action, params.toArray());
+    }
+
+    /**
+     * Builds the WHERE clause for an optional half-open booking date range and adds its parameters.
+     */
+    private static String bookingDateFilter(LocalDate startDate, LocalDate endDate, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (startDate != null) {
+            conditions.add("booking_date >= ?");
+            params.add(startDate);
+        }
+        if (endDate != null) {
+            conditions.add("booking_date < ?");
+            params.add(endDate);
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
     }
 
     /**
@@ -83,8 +186,8 @@ public class RevenueTrackingRepository {
      * @return the total revenue for that date.
      */
     public double getTotalRevenueByDate(String date) {
-        String sql = "SELECT SUM(total_revenue) FROM revenue_tracking WHERE DATE(booking_date) = ?";
-        return jdbcTemplate.queryForObject(sql, new Object[]{date}, Double.class);
+        LocalDate day = LocalDate.parse(date);
+        return jdbcTemplate.queryForObject(SUM_REVENUE_BETWEEN_SQL, new Object[]{day, day.plusDays(1)}, Double.class);
     }
 
     /**
@@ -95,8 +198,8 @@ public class RevenueTrackingRepository {
      * @return the total revenue for that month and year.
      */
     public double getTotalRevenueByMonth(int month, int year) {
-        String sql = "SELECT SUM(total_revenue) FROM revenue_tracking WHERE EXTRACT(MONTH FROM booking_date) = ? AND EXTRACT(YEAR FROM booking_date) = ?";
-        return jdbcTemplate.queryForObject(sql, new Object[]{month, year}, Double.class);
+        LocalDate start = LocalDate.of(year, month, 1);
+        return jdbcTemplate.queryForObject(SUM_REVENUE_BETWEEN_SQL, new Object[]{start, start.plusMonths(1)}, Double.class);
     }
 
     /**
@@ -106,8 +209,8 @@ public class RevenueTrackingRepository {
      * @return the total revenue for that year.
      */
     public double getTotalRevenueByYear(int year) {
-        String sql = "SELECT SUM(total_revenue) FROM revenue_tracking WHERE EXTRACT(YEAR FROM booking_date) = ?";
-        return jdbcTemplate.queryForObject(sql, new Object[]{year}, Double.class);
+        LocalDate start = LocalDate.of(year, 1, 1);
+        return jdbcTemplate.queryForObject(SUM_REVENUE_BETWEEN_SQL, new Object[]{start, start.plusYears(1)}, Double.class);
     }
 
     /**
@@ -175,8 +278,8 @@ public class RevenueTrackingRepository {
      * @return a list of revenue tracking records for that day.
      */
     public List<RevenueTracking> getRevenueTrackingEntriesByDay(String date) {
-        String sql = "SELECT * FROM revenue_tracking WHERE DATE(booking_date) = ?";
-        return jdbcTemplate.query(sql, new Object[]{date}, (rs, rowNum) -> {
+        LocalDate day = LocalDate.parse(date);
+        return jdbcTemplate.query(ENTRIES_BETWEEN_SQL, new Object[]{day, day.plusDays(1)}, (rs, rowNum) -> {
             RevenueTracking revenueTracking = new RevenueTracking();
             revenueTracking.setRevenueId(rs.getInt("revenue_id"));
             revenueTracking.setRoomId(rs.getInt("room_id"));
@@ -199,8 +302,8 @@ public class RevenueTrackingRepository {
      * @return a list of revenue tracking records for that month and year.
      */
     public List<RevenueTracking> getRevenueTrackingEntriesByMonth(int month, int year) {
-        String sql = "SELECT * FROM revenue_tracking WHERE EXTRACT(MONTH FROM booking_date) = ? AND EXTRACT(YEAR FROM booking_date) = ?";
-        return jdbcTemplate.query(sql, new Object[]{month, year}, (rs, rowNum) -> {
+        LocalDate start = LocalDate.of(year, month, 1);
+        return jdbcTemplate.query(ENTRIES_BETWEEN_SQL, new Object[]{start, start.plusMonths(1)}, (rs, rowNum) -> {
             RevenueTracking revenueTracking = new RevenueTracking();
             revenueTracking.setRevenueId(rs.getInt("revenue_id"));
             revenueTracking.setRoomId(rs.getInt("room_id"));
@@ -222,8 +325,8 @@ public class RevenueTrackingRepository {
      * @return a list of revenue tracking records for that year.
      */
     public List<RevenueTracking> getRevenueTrackingEntriesByYear(int year) {
-        String sql = "SELECT * FROM revenue_tracking WHERE EXTRACT(YEAR FROM booking_date) = ?";
-        return jdbcTemplate.query(sql, new Object[]{year}, (rs, rowNum) -> {
+        LocalDate start = LocalDate.of(year, 1, 1);
+        return jdbcTemplate.query(ENTRIES_BETWEEN_SQL, new Object[]{start, start.plusYears(1)}, (rs, rowNum) -> {
             RevenueTracking revenueTracking = new RevenueTracking();
             revenueTracking.setRevenueId(rs.getInt("revenue_id"));
             revenueTracking.setRoomId(rs.getInt("room_id"));
@@ -242,12 +345,13 @@ public class RevenueTrackingRepository {
      * Retrieves revenue tracking records within a specific date range.
      *
      * @param startDate the start date (in 'YYYY-MM-DD' format).
-     * @param endDate the end date (in 'YYYY-MM-DD' format).
+     * @param endDate the end date (in 'YYYY-MM-DD' format), inclusive.
      * @return a list of revenue tracking records within that range.
      */
     public List<RevenueTracking> getRevenueTrackingEntriesByDateRange(String startDate, String endDate) {
-        String sql = "SELECT * FROM revenue_tracking WHERE booking_date BETWEEN ? AND ?";
-        return jdbcTemplate.query(sql, new Object[]{startDate, endDate}, (rs, rowNum) -> {
+        LocalDate start = LocalDate.parse(startDate);
+        LocalDate end = LocalDate.parse(endDate).plusDays(1);
+        return jdbcTemplate.query(ENTRIES_BETWEEN_SQL, new Object[]{start, end}, (rs, rowNum) -> {
             RevenueTracking revenueTracking = new RevenueTracking();
             revenueTracking.setRevenueId(rs.getInt("revenue_id"));
             revenueTracking.setRoomId(rs.getInt("room_id"));
@@ -269,14 +373,8 @@ public class RevenueTrackingRepository {
      * @return a list of maps containing month and total revenue for that year.
      */
     public List<Map<String, Object>> getTotalRevenueYear(int year) {
-        String sql = "SELECT " +
-                "EXTRACT(MONTH FROM booking_date) AS month, " +
-                "SUM(total_revenue) AS total_revenue " +
-                "FROM revenue_tracking " +
-                "WHERE EXTRACT(YEAR FROM booking_date) = ? " +
-                "GROUP BY EXTRACT(MONTH FROM booking_date) " +
-                "ORDER BY month";
-        return jdbcTemplate.queryForList(sql, year);
+        LocalDate start = LocalDate.of(year, 1, 1);
+        return jdbcTemplate.queryForList(MONTHLY_TOTALS_BETWEEN_SQL, start, start.plusYears(1));
     }
 
     /**
@@ -287,15 +385,8 @@ public class RevenueTrackingRepository {
      * @return a list of maps containing day and total revenue for that month and year.
      */
     public List<Map<String, Object>> getTotalRevenueByMonthAndYear(int month, int year) {
-        String sql = "SELECT " +
-                "EXTRACT(DAY FROM booking_date) AS day, " +
-                "SUM(total_revenue) AS total_revenue " +
-                "FROM revenue_tracking " +
-                "WHERE EXTRACT(MONTH FROM booking_date) = ? " +
-                "AND EXTRACT(YEAR FROM booking_date) = ? " +
-                "GROUP BY EXTRACT(DAY FROM booking_date) " +
-                "ORDER BY day";
-        return jdbcTemplate.queryForList(sql, month, year);
+        LocalDate start = LocalDate.of(year, month, 1);
+        return jdbcTemplate.queryForList(DAILY_TOTALS_BETWEEN_SQL, start, start.plusMonths(1));
     }
 
     /**
@@ -317,12 +408,11 @@ public class RevenueTrackingRepository {
      * Calculates the total revenue for a given week between the start and end date.
      *
      * @param startOfWeek the start date of the week.
-     * @param endOfWeek the end date of the week.
+     * @param endOfWeek the end date of the week, inclusive.
      * @return the total revenue for that week.
      */
     public double sumRevenueByDateBetween(LocalDate startOfWeek, LocalDate endOfWeek) {
-        String sql = "SELECT SUM(total_revenue) FROM revenue_tracking WHERE booking_date BETWEEN ? AND ?";
-        Double result = jdbcTemplate.queryForObject(sql, Double.class, startOfWeek, endOfWeek);
+        Double result = jdbcTemplate.queryForObject(SUM_REVENUE_BETWEEN_SQL, Double.class, startOfWeek, endOfWeek.plusDays(1));
         return (result != null) ? result : 0.0;
     }
 }
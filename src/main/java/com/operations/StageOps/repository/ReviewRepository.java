@@ -1,10 +1,15 @@
 package com.operations.StageOps.repository;
 
 import com.operations.StageOps.model.Review;
+import com.operations.StageOps.model.ReviewDto;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Repository class for interacting with the reviews table in the database.
@@ -15,6 +20,44 @@ public class ReviewRepository {
 
     private final JdbcTemplate jdbcTemplate;
 
+    // Reviews with the names of their event and client, newest first; review_id breaks ties between equal dates
+    private static final String REVIEW_FEED_SQL =
+            "SELECT r.review_id, r.client_id, r.event_id, r.booking_id, r.rating, r.review_text, r.review_date, " +
+            "e.event_name, c.name AS client_name " +
+            "FROM review r " +
+            "LEFT JOIN events e ON e.event_id = r.event_id " +
+            "LEFT JOIN clients c ON c.client_id = r.client_id ";
+    private static final String REVIEW_FEED_AFTER_CURSOR =
+            "WHERE r.review_date < ? OR (r.review_date = ? AND r.review_id < ?) ";
+    private static final String REVIEW_FEED_ORDER = "ORDER BY r.review_date DESC, r.review_id DESC LIMIT ?";
+
+    private static final RowMapper<Review> REVIEW_ROW_MAPPER = (rs, rowNum) -> {
+        Review review = new Review();
+        review.setReviewId(rs.getInt("review_id"));
+        review.setClientId(rs.getInt("client_id"));
+        review.setEventId(rs.getInt("event_id"));
+        review.setBookingId(rs.getInt("booking_id"));
+        review.setRating(rs.getInt("rating"));
+        review.setReviewText(rs.getString("review_text"));
+        review.setReviewDate(rs.getDate("review_date"));
+        return review;
+    };
+
+    private static final RowMapper<ReviewDto> REVIEW_FEED_ROW_MAPPER = (rs, rowNum) -> {
+        ReviewDto review = new ReviewDto();
+        review.setReviewId(rs.getInt("review_id"));
+        review.setClientId(rs.getInt("client_id"));
+        review.setEventId(rs.getInt("event_id"));
+        review.setBookingId(rs.getInt("booking_id"));
+        review.setRating(rs.getInt("rating"));
+        review.setReviewText(rs.getString("review_text"));
+        Timestamp reviewDate = rs.getTimestamp("review_date");
+        review.setReviewDate(reviewDate != null ? reviewDate.toLocalDateTime().toString() : null);
+        review.setEventName(rs.getString("event_name"));
+        review.setClientName(rs.getString("client_name"));
+        return review;
+    };
+
     /**
      * Constructor for ReviewRepository.
      *
@@ -61,17 +104,28 @@ public class ReviewRepository {
      */
     public List<Review> getAllReviews() {
         String sql = "SELECT * FROM review";
-        return jdbcTemplate.query(sql, (rs, rowNum) -> {
-            Review review = new Review();
-            review.setReviewId(rs.getInt("review_id"));
-            review.setClientId(rs.getInt("client_id"));
-            review.setEventId(rs.getInt("event_id"));
-            review.setBookingId(rs.getInt("booking_id"));
-            review.setRating(rs.getInt("rating"));
-            review.setReviewText(rs.getString("review_text"));
-            review.setReviewDate(rs.getDate("review_date"));
-            return review;
-        });
+        return jdbcTemplate.query(sql, REVIEW_ROW_MAPPER);
+    }
+
+    /**
+     * Retrieves one page of reviews ordered by ID, starting after the given review ID.
+     *
+     * @param afterId the ID of the last review of the previous page, or 0 for the first page
+     * @param limit   the maximum number of reviews to return
+     * @return the reviews with an ID greater than afterId, in ID order
+     */
+    public List<Review> getReviewsPage(int afterId, int limit) {
+        String sql = "SELECT * FROM review WHERE review_id > ? ORDER BY review_id LIMIT ?";
+        return jdbcTemplate.query(sql, REVIEW_ROW_MAPPER, afterId, limit);
+    }
+
+    /**
+     * Passes every review to the given action as it is read from the database, without collecting them into a list.
+     *
+     * @param action called once per review
+     */
+    public void forEachReview(Consumer<Review> action) {
+        StreamingQueries.forEachRow(jdbcTemplate, "SELECT * FROM review ORDER BY review_id", REVIEW_ROW_MAPPER, action);
     }
 
     /**
@@ -208,4 +262,24 @@ public class ReviewRepository {
             return review;
         });
     }
+
+    /**
+     * Retrieves one page of the review feed: reviews with their event and client names joined in, newest first.
+     * Pages are keyed on (review_date, review_id) rather than an offset, so each page is a single index range scan
+     * no matter how deep the reader has scrolled. Pass the date and ID of the last review of the previous page to
+     * get the next one, or null for the first page.
+     *
+     * @param beforeDate the review date of the last review already shown, or null for the first page
+     * @param beforeId   the ID of the last review already shown; only used together with beforeDate
+     * @param limit      the maximum number of reviews to return
+     * @return a list of reviews older than the cursor, newest first
+     */
+    public List<ReviewDto> getReviewFeed(LocalDateTime beforeDate, int beforeId, int limit) {
+        if (beforeDate == null) {
+            return jdbcTemplate.query(REVIEW_FEED_SQL + REVIEW_FEED_ORDER, REVIEW_FEED_ROW_MAPPER, limit);
+        }
+        Timestamp cursor = Timestamp.valueOf(beforeDate);
+        return jdbcTemplate.query(REVIEW_FEED_SQL + REVIEW_FEED_AFTER_CURSOR + REVIEW_FEED_ORDER, REVIEW_FEED_ROW_MAPPER,
+                cursor, cursor, beforeId, limit);
+    }
 }
@@ -1,15 +1,23 @@
 package com.operations.StageOps.repository;
 
 import com.operations.StageOps.model.Room;
+import com.operations.StageOps.model.RoomTimeRange;
+import com.operations.StageOps.util.ReferenceCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 
 import java.sql.Date;
 import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Repository class for interacting with the rooms table in the database.
@@ -20,6 +28,9 @@ public class RoomRepository {
 
     private final JdbcTemplate jdbcTemplate;
 
+    // Rooms by ID; invalidated by updateRoom and deleteRoom
+    private final ReferenceCache<Integer, Room> roomCache = new ReferenceCache<>("rooms", 500, 300_000);
+
     /**
      * Constructor for RoomRepository.
      *
@@ -29,6 +40,28 @@ public class RoomRepository {
         this.jdbcTemplate = jdbcTemplate;
     }
 
+    @Autowired
+    void configureRoomCache(@Value("${stageops.cache.rooms.max-size:500}") int maxSize,
+                            @Value("${stageops.cache.rooms.ttl-ms:300000}") long ttlMs) {
+        roomCache.configure(maxSize, ttlMs);
+    }
+
+    /**
+     * Drop a room from the cache after another repository changed its row, e.g. its current layout.
+     *
+     * @param roomId the ID of the room
+     */
+    public void invalidateCachedRoom(int roomId) {
+        roomCache.invalidate(roomId);
+    }
+
+    /**
+     * @return the hit/miss statistics of the room cache
+     */
+    public Map<String, Object> roomCacheStats() {
+        return roomCache.stats();
+    }
+
     /**
      * Saves a new room in the database.
      *
@@ -66,6 +99,10 @@ public class RoomRepository {
      * @return the Room object with the specified ID, including layout configuration and rates
      */
     public Room getRoomById(int roomId) {
+        return roomCache.get(roomId, this::loadRoomById);
+    }
+
+    private Room loadRoomById(int roomId) {
         String sql = "SELECT * FROM rooms WHERE room_id = ?";
         Room room = jdbcTemplate.queryForObject(sql, new Object[]{roomId}, (rs, rowNum) -> {
             Room r = new Room();
@@ -160,6 +197,7 @@ public class RoomRepository {
             jdbcTemplate.update(layoutSql, room.getRoomId(), layoutId);
         }
 
+        roomCache.invalidate(room.getRoomId());
         return rows;
     }
 
@@ -176,7 +214,9 @@ public class RoomRepository {
 
         // Then delete the room itself
         String sql = "DELETE FROM rooms WHERE room_id = ?";
-        return jdbcTemplate.update(sql, roomId);
+        int rows = jdbcTemplate.update(sql, roomId);
+        roomCache.invalidate(roomId);
+        return rows;
     }
 
     /**
@@ -248,4 +288,80 @@ public class RoomRepository {
 
         return availableRooms;
     }
+
+    /**
+     * Retrieves the name of every room in one query, without the rates and layouts {@link #getAllRooms()} loads.
+     *
+     * @return room names by room ID, in ascending ID order
+     */
+    public Map<Integer, String> getRoomNames() {
+        Map<Integer, String> names = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT room_id, room_name FROM rooms ORDER BY room_id",
+                (RowCallbackHandler) rs -> names.put(rs.getInt("room_id"), rs.getString("room_name")));
+        return names;
+    }
+
+    /**
+     * Retrieves the IDs of all rooms.
+     *
+     * @return a list of all room IDs
+     */
+    public List<Integer> getAllRoomIds() {
+        return jdbcTemplate.queryForList("SELECT room_id FROM rooms", Integer.class);
+    }
+
+    /**
+     * Retrieves the IDs of the rooms used by an event.
+     *
+     * @param eventId the ID of the event
+     * @return the room IDs, or an empty list if the event does not exist
+     */
+    public List<Integer> getRoomIdsForEvent(int eventId) {
+        return jdbcTemplate.queryForList("SELECT room_id FROM events WHERE event_id = ?", Integer.class, eventId);
+    }
+
+    /**
+     * Retrieves the IDs of the rooms assigned to a booking.
+     *
+     * @param bookingId the ID of the booking
+     * @return the distinct room IDs, or an empty list if the booking has no room assignments
+     */
+    public List<Integer> getRoomIdsForBooking(int bookingId) {
+        return jdbcTemplate.queryForList("SELECT DISTINCT room_id FROM booking_room_assignments WHERE booking_id = ?",
+                Integer.class, bookingId);
+    }
+
+    /**
+     * Retrieves every period during which rooms are occupied, using one query for booking room
+     * assignments and one for events. A room assignment occupies its whole calendar day.
+     *
+     * @param roomId the ID of the room to load, or null to load all rooms
+     * @return the occupied time ranges
+     */
+    public List<RoomTimeRange> getOccupiedTimeRanges(Integer roomId) {
+        List<RoomTimeRange> ranges = new ArrayList<>();
+        ZoneId zone = ZoneId.systemDefault();
+        Object[] params = roomId == null ? new Object[]{} : new Object[]{roomId};
+        String roomFilter = roomId == null ? "" : " AND room_id = ?";
+
+        String assignmentSql = "SELECT room_id, date FROM booking_room_assignments WHERE date IS NOT NULL" + roomFilter;
+        jdbcTemplate.query(assignmentSql, params, (RowCallbackHandler) rs -> {
+            LocalDate day = rs.getTimestamp("date").toLocalDateTime().toLocalDate();
+            ranges.add(new RoomTimeRange(
+                    rs.getInt("room_id"),
+                    day.atStartOfDay(zone).toInstant(),
+                    day.plusDays(1).atStartOfDay(zone).toInstant(),
+                    RoomTimeRange.Source.BOOKING));
+        });
+
+        String eventSql = "SELECT room_id, start_time, end_time FROM events " +
+                "WHERE start_time IS NOT NULL AND end_time IS NOT NULL" + roomFilter;
+        jdbcTemplate.query(eventSql, params, (RowCallbackHandler) rs -> ranges.add(new RoomTimeRange(
+                rs.getInt("room_id"),
+                rs.getTimestamp("start_time").toInstant(),
+                rs.getTimestamp("end_time").toInstant(),
+                RoomTimeRange.Source.EVENT)));
+
+        return ranges;
+    }
 }
@@ -1,10 +1,25 @@
 package com.operations.StageOps.repository;
 
+import com.operations.StageOps.model.ChangeEvent;
+import com.operations.StageOps.model.SeatHold;
 import com.operations.StageOps.model.Seating;
+import com.operations.StageOps.util.ChangeFeed;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Repository class for interacting with the seating table in the database.
@@ -13,15 +28,26 @@ import java.util.List;
 @Repository
 public class SeatingRepository {
 
+    static final String INSERT_SEAT_SQL =
+            "INSERT INTO seating (seat_id, room_id, seat_number, is_accessible, is_restricted, section_name) VALUES (?, ?, ?, ?, ?, ?)";
+    // Seats sent to the database per JDBC batch
+    static final int SEAT_BATCH_SIZE = 1000;
+
     private final JdbcTemplate jdbcTemplate;
+    private final ChangeFeed changeFeed;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Constructor for SeatingRepository.
      *
-     * @param jdbcTemplate the JdbcTemplate object for executing SQL queries
+     * @param jdbcTemplate   the JdbcTemplate object for executing SQL queries
+     * @param changeFeed     the feed seat reservations, releases and seat updates are published on
+     * @param eventPublisher publishes a {@link SeatingChangedEvent} when seats are added, changed or removed
      */
-    public SeatingRepository(JdbcTemplate jdbcTemplate) {
+    public SeatingRepository(JdbcTemplate jdbcTemplate, ChangeFeed changeFeed, ApplicationEventPublisher eventPublisher) {
         this.jdbcTemplate = jdbcTemplate;
+        this.changeFeed = changeFeed;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -31,9 +57,70 @@ public class SeatingRepository {
      * @return the number of rows affected in the database
      */
     public int save(Seating seating) {
-        String sql = "INSERT INTO seating (seat_id, room_id, seat_number, is_accessible, is_restricted, section_name) VALUES (?, ?, ?, ?, ?, ?)";
-        return jdbcTemplate.update(sql, seating.getSeatId(), seating.getRoomId(), seating.getSeatNumber(),
+        int rows = jdbcTemplate.update(INSERT_SEAT_SQL, seating.getSeatId(), seating.getRoomId(), seating.getSeatNumber(),
                 seating.isAccessible(), seating.isRestricted(), seating.getSectionName());
+        seatingChanged(Set.of(seating.getRoomId()));
+        return rows;
+    }
+
+    /**
+     * Saves many seats, possibly across several rooms, with JDBC batches of {@value #SEAT_BATCH_SIZE} statements.
+     * With the driver's rewriteBatchedStatements each batch goes to the server as one multi-row INSERT. Run it
+     * inside a transaction to insert all seats or none.
+     *
+     * @param seats the seats to be saved
+     * @return the number of seats saved
+     */
+    public int saveAll(List<Seating> seats) {
+        jdbcTemplate.batchUpdate(INSERT_SEAT_SQL, seats, SEAT_BATCH_SIZE, (ps, seating) -> {
+            ps.setString(1, seating.getSeatId());
+            ps.setInt(2, seating.getRoomId());
+            ps.setInt(3, seating.getSeatNumber());
+            ps.setBoolean(4, seating.isAccessible());
+            ps.setBoolean(5, seating.isRestricted());
+            ps.setString(6, seating.getSectionName());
+        });
+        Set<Integer> roomIds = new LinkedHashSet<>();
+        seats.forEach(seating -> roomIds.add(seating.getRoomId()));
+        seatingChanged(roomIds);
+        // Rewritten batches report SUCCESS_NO_INFO per row, so count the seats instead; a failed row throws
+        return seats.size();
+    }
+
+    /**
+     * Puts many seats in a section, with one UPDATE per {@value #SEAT_BATCH_SIZE} seats instead of one per seat.
+     *
+     * @param sectionName the section the seats belong to
+     * @param seatIds     the IDs of the seats
+     * @return the number of rows affected in the database
+     */
+    public int assignSection(String sectionName, List<String> seatIds) {
+        Set<Integer> roomIds = new LinkedHashSet<>();
+        for (int from = 0; from < seatIds.size(); from += SEAT_BATCH_SIZE) {
+            List<String> chunk = seatIds.subList(from, Math.min(from + SEAT_BATCH_SIZE, seatIds.size()));
+            roomIds.addAll(jdbcTemplate.queryForList("SELECT DISTINCT room_id FROM seating WHERE seat_id IN (" +
+                    String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")", Integer.class, chunk.toArray()));
+        }
+        int updated = assignSection(jdbcTemplate, sectionName, seatIds);
+        seatingChanged(roomIds);
+        return updated;
+    }
+
+    // Shared with LayoutRepository.save, which assigns the seats of each section it saves
+    static int assignSection(JdbcTemplate jdbcTemplate, String sectionName, List<String> seatIds) {
+        int updated = 0;
+        for (int from = 0; from < seatIds.size(); from += SEAT_BATCH_SIZE) {
+            List<String> chunk = seatIds.subList(from, Math.min(from + SEAT_BATCH_SIZE, seatIds.size()));
+            String sql = "UPDATE seating SET section_name = ? WHERE seat_id IN (" +
+                    String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            Object[] params = new Object[chunk.size() + 1];
+            params[0] = sectionName;
+            for (int i = 0; i < chunk.size(); i++) {
+                params[i + 1] = chunk.get(i);
+            }
+            updated += jdbcTemplate.update(sql, params);
+        }
+        return updated;
     }
 
     /**
@@ -83,9 +170,17 @@ public class SeatingRepository {
      * @return the number of rows affected in the database
      */
     public int update(Seating seating) {
+        // The seat may be moved to another room, which changes the seating of both
+        Set<Integer> roomIds = new LinkedHashSet<>(roomIdsOfSeat(seating.getSeatId()));
+        roomIds.add(seating.getRoomId());
         String sql = "UPDATE seating SET seat_id = ?, room_id = ?, seat_number = ?, is_accessible = ?, is_restricted = ?, section_name = ? WHERE seat_id = ?";
-        return jdbcTemplate.update(sql, seating.getSeatId(), seating.getRoomId(), seating.getSeatNumber(),
+        int rows = jdbcTemplate.update(sql, seating.getSeatId(), seating.getRoomId(), seating.getSeatNumber(),
                 seating.isAccessible(), seating.isRestricted(), seating.getSectionName(), seating.getSeatId());
+        if (rows > 0) {
+            changeFeed.publish(ChangeEvent.seatingUpdated(seating));
+            seatingChanged(roomIds);
+        }
+        return rows;
     }
 
     /**
@@ -95,8 +190,23 @@ public class SeatingRepository {
      * @return the number of rows affected in the database
      */
     public int delete(int seatId) {
+        List<Integer> roomIds = roomIdsOfSeat(seatId);
         String sql = "DELETE FROM seating WHERE seat_id = ?";
-        return jdbcTemplate.update(sql, seatId);
+        int rows = jdbcTemplate.update(sql, seatId);
+        if (rows > 0) {
+            seatingChanged(new LinkedHashSet<>(roomIds));
+        }
+        return rows;
+    }
+
+    private List<Integer> roomIdsOfSeat(Object seatId) {
+        return jdbcTemplate.queryForList("SELECT room_id FROM seating WHERE seat_id = ?", Integer.class, seatId);
+    }
+
+    private void seatingChanged(Set<Integer> roomIds) {
+        if (!roomIds.isEmpty()) {
+            eventPublisher.publishEvent(new SeatingChangedEvent(this, roomIds));
+        }
     }
 
     /**
@@ -125,6 +235,218 @@ public class SeatingRepository {
         for (String seatId : seatIds) {
             jdbcTemplate.update(sql, seatId, eventId);
         }
+        if (!seatIds.isEmpty()) {
+            changeFeed.publish(ChangeEvent.seatsChanged(ChangeEvent.SEATS_RESERVED, eventId, seatIds));
+        }
+    }
+
+    /**
+     * Marks a single seat as reserved for an event, but only if it is not already reserved.
+     * The guard in the WHERE clause makes the check and the write a single atomic statement.
+     *
+     * @param eventId the event ID associated with the reservation
+     * @param seatId  the ID of the seat to be reserved
+     * @return 1 if the seat was reserved by this call, 0 if it was already reserved or is not part of the event
+     */
+    public int reserveSeatIfAvailable(int eventId, String seatId) {
+        String sql = "UPDATE SeatEvents SET reserved = true, reservation_time = NOW() " +
+                "WHERE event_id = ? AND seat_id = ? AND (reserved = false OR reserved IS NULL)";
+        int rows = jdbcTemplate.update(sql, eventId, seatId);
+        if (rows > 0) {
+            changeFeed.publish(ChangeEvent.seatsChanged(ChangeEvent.SEATS_RESERVED, eventId, List.of(seatId)));
+        }
+        return rows;
+    }
+
+    /**
+     * Retrieves the reservation state of a set of seats for an event in a single query.
+     * Seats that have no SeatEvents row for the event are not part of the event and are absent from the result.
+     *
+     * @param eventId the event ID
+     * @param seatIds the seat IDs to look up
+     * @return a map of seat ID to its reserved flag, for the seats that belong to the event
+     */
+    public Map<String, Boolean> getSeatReservationStates(int eventId, List<String> seatIds) {
+        Map<String, Boolean> states = new HashMap<>();
+        if (seatIds.isEmpty()) {
+            return states;
+        }
+
+        String sql = "SELECT seat_id, reserved FROM SeatEvents WHERE event_id = ? AND seat_id IN (" +
+                String.join(", ", Collections.nCopies(seatIds.size(), "?")) + ")";
+        Object[] params = new Object[seatIds.size() + 1];
+        params[0] = eventId;
+        for (int i = 0; i < seatIds.size(); i++) {
+            params[i + 1] = seatIds.get(i);
+        }
+
+        jdbcTemplate.query(sql, params, (RowCallbackHandler) rs -> states.put(rs.getString("seat_id"), rs.getBoolean("reserved")));
+        return states;
+    }
+
+    /**
+     * Marks several seats as reserved for an event in one JDBC batch. Each statement only reserves
+     * a seat that is still free, so the returned counts show which seats were actually reserved.
+     *
+     * @param eventId the event ID associated with the reservation
+     * @param seatIds the IDs of the seats to be reserved
+     * @return the update count per seat, in the same order as {@code seatIds} (1 = reserved, 0 = not reserved)
+     */
+    public int[] reserveSeatsIfAvailable(int eventId, List<String> seatIds) {
+        String sql = "UPDATE SeatEvents SET reserved = true, reservation_time = NOW() " +
+                "WHERE event_id = ? AND seat_id = ? AND (reserved = false OR reserved IS NULL)";
+        List<Object[]> batchArgs = new ArrayList<>(seatIds.size());
+        for (String seatId : seatIds) {
+            batchArgs.add(new Object[]{eventId, seatId});
+        }
+        int[] counts = jdbcTemplate.batchUpdate(sql, batchArgs);
+
+        // A rewritten batch may report SUCCESS_NO_INFO (-2) instead of 1; only 0 means the seat was taken
+        List<String> reserved = new ArrayList<>(seatIds.size());
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                reserved.add(seatIds.get(i));
+            }
+        }
+        if (!reserved.isEmpty()) {
+            changeFeed.publish(ChangeEvent.seatsChanged(ChangeEvent.SEATS_RESERVED, eventId, reserved));
+        }
+        return counts;
+    }
+
+    /**
+     * Releases a reserved seat for an event so that it can be sold again.
+     *
+     * @param eventId the event ID associated with the reservation
+     * @param seatId  the ID of the seat to be released
+     * @return the number of rows affected in the database
+     */
+    public int releaseSeat(int eventId, String seatId) {
+        String sql = "UPDATE SeatEvents SET reserved = false, hold_id = NULL WHERE event_id = ? AND seat_id = ? AND reserved = true";
+        int rows = jdbcTemplate.update(sql, eventId, seatId);
+        if (rows > 0) {
+            changeFeed.publish(ChangeEvent.seatsChanged(ChangeEvent.SEATS_RELEASED, eventId, List.of(seatId)));
+        }
+        return rows;
+    }
+
+    /**
+     * Holds several free seats for an event in one JDBC batch: each seat is reserved under the hold's ID, with
+     * the hold time in {@code reservation_time}, but only if it is still free.
+     *
+     * @param eventId the event ID associated with the hold
+     * @param seatIds the IDs of the seats to hold
+     * @param holdId  the ID of the hold
+     * @param heldAt  when the seats are held; the hold expires a fixed time after this
+     * @return the update count per seat, in the same order as {@code seatIds} (0 = not held)
+     */
+    public int[] holdSeatsIfAvailable(int eventId, List<String> seatIds, String holdId, LocalDateTime heldAt) {
+        String sql = "UPDATE SeatEvents SET reserved = true, reservation_time = ?, hold_id = ? " +
+                "WHERE event_id = ? AND seat_id = ? AND (reserved = false OR reserved IS NULL)";
+        Timestamp heldAtTimestamp = Timestamp.valueOf(heldAt);
+        List<Object[]> batchArgs = new ArrayList<>(seatIds.size());
+        for (String seatId : seatIds) {
+            batchArgs.add(new Object[]{heldAtTimestamp, holdId, eventId, seatId});
+        }
+        int[] counts = jdbcTemplate.batchUpdate(sql, batchArgs);
+
+        List<String> held = new ArrayList<>(seatIds.size());
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                held.add(seatIds.get(i));
+            }
+        }
+        if (!held.isEmpty()) {
+            changeFeed.publish(ChangeEvent.seatsChanged(ChangeEvent.SEATS_RESERVED, eventId, held));
+        }
+        return counts;
+    }
+
+    /**
+     * Retrieves a hold with the seats it still holds.
+     *
+     * @param holdId the ID of the hold
+     * @return the hold, without an expiry time, or null if it holds no seats
+     */
+    public SeatHold getHold(String holdId) {
+        List<SeatHold> holds = findHolds(List.of(holdId), false);
+        return holds.isEmpty() ? null : holds.get(0);
+    }
+
+    /**
+     * Retrieves holds with the seats they still hold and locks those rows until the transaction ends, so the
+     * holds cannot be released or confirmed twice.
+     *
+     * @param holdIds the IDs of the holds
+     * @return the holds that still hold seats, without expiry times
+     */
+    public List<SeatHold> lockHolds(List<String> holdIds) {
+        return findHolds(holdIds, true);
+    }
+
+    /**
+     * Retrieves the IDs of holds whose seats were held before a given time, oldest first.
+     *
+     * @param heldBefore the hold time before which a hold has expired
+     * @param limit      the maximum number of IDs to return
+     * @return the IDs of the expired holds
+     */
+    public List<String> findExpiredHoldIds(LocalDateTime heldBefore, int limit) {
+        String sql = "SELECT hold_id FROM SeatEvents WHERE hold_id IS NOT NULL AND reservation_time < ? " +
+                "GROUP BY hold_id ORDER BY MIN(reservation_time) LIMIT ?";
+        return jdbcTemplate.queryForList(sql, String.class, Timestamp.valueOf(heldBefore), limit);
+    }
+
+    /**
+     * Releases every seat of several holds in one statement, so the seats can be sold again.
+     *
+     * @param holds the holds, as returned by {@link #lockHolds(List)}
+     * @return the number of seats released
+     */
+    public int releaseHolds(List<SeatHold> holds) {
+        if (holds.isEmpty()) {
+            return 0;
+        }
+        String sql = "UPDATE SeatEvents SET reserved = false, hold_id = NULL WHERE reserved = true AND hold_id IN (" +
+                String.join(", ", Collections.nCopies(holds.size(), "?")) + ")";
+        int rows = jdbcTemplate.update(sql, holds.stream().map(SeatHold::getHoldId).toArray());
+        for (SeatHold hold : holds) {
+            changeFeed.publish(ChangeEvent.seatsChanged(ChangeEvent.SEATS_RELEASED, hold.getEventId(), hold.getSeatIds()));
+        }
+        return rows;
+    }
+
+    /**
+     * Turns a hold into a permanent reservation: its seats stay reserved but no longer expire.
+     *
+     * @param holdId the ID of the hold
+     * @return the number of seats confirmed
+     */
+    public int confirmHold(String holdId) {
+        String sql = "UPDATE SeatEvents SET hold_id = NULL WHERE hold_id = ?";
+        return jdbcTemplate.update(sql, holdId);
+    }
+
+    private List<SeatHold> findHolds(List<String> holdIds, boolean forUpdate) {
+        if (holdIds.isEmpty()) {
+            return List.of();
+        }
+        String sql = "SELECT hold_id, event_id, seat_id, reservation_time FROM SeatEvents WHERE reserved = true AND hold_id IN (" +
+                String.join(", ", Collections.nCopies(holdIds.size(), "?")) + ") ORDER BY hold_id, seat_id" +
+                (forUpdate ? " FOR UPDATE" : "");
+        Map<String, SeatHold> holds = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, holdIds.toArray(), (RowCallbackHandler) rs -> {
+            String holdId = rs.getString("hold_id");
+            SeatHold hold = holds.get(holdId);
+            if (hold == null) {
+                Timestamp heldAt = rs.getTimestamp("reservation_time");
+                hold = new SeatHold(holdId, rs.getInt("event_id"), new ArrayList<>(),
+                        heldAt != null ? heldAt.toLocalDateTime() : null, null);
+                holds.put(holdId, hold);
+            }
+            hold.getSeatIds().add(rs.getString("seat_id"));
+        });
+        return new ArrayList<>(holds.values());
     }
 
     /**
@@ -172,4 +494,26 @@ public class SeatingRepository {
                 rs.getString("section_name")
         ));
     }
+
+    /**
+     * Published when seats of some rooms are added, changed, removed or moved to another section, so that caches
+     * holding those seats, such as the layout cache, can drop them. Listeners should act after commit, or a reload
+     * could cache the old rows again.
+     */
+    public static class SeatingChangedEvent extends ApplicationEvent {
+
+        private final Set<Integer> roomIds;
+
+        public SeatingChangedEvent(Object source, Set<Integer> roomIds) {
+            super(source);
+            this.roomIds = Set.copyOf(roomIds);
+        }
+
+        /**
+         * @return the IDs of the rooms whose seats changed
+         */
+        public Set<Integer> getRoomIds() {
+            return roomIds;
+        }
+    }
 }
@@ -0,0 +1,62 @@
+package com.operations.StageOps.repository;
+
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * Runs queries whose rows are handed to a callback as the ResultSet is read rather than collected into a list.
+ * The statement is forward-only with a fetch size, which (with Connector/J's useCursorFetch) makes MySQL send the
+ * result in batches of {@link #FETCH_SIZE} rows instead of buffering all of it in the driver.
+ */
+final class StreamingQueries {
+
+    static final int FETCH_SIZE = 500;
+
+    private StreamingQueries() {
+    }
+
+    /**
+     * Run a query and pass every row to {@code handler} while the ResultSet is open.
+     *
+     * @param jdbcTemplate The JdbcTemplate to run the query with.
+     * @param sql The query.
+     * @param handler Called once per row.
+     * @param args The query parameters, if any.
+     */
+    static void forEachRow(JdbcTemplate jdbcTemplate, String sql, RowCallbackHandler handler, Object... args) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            new ArgumentPreparedStatementSetter(args).setValues(ps);
+            return ps;
+        }, handler);
+    }
+
+    /**
+     * Run a query, map every row and pass it to {@code action} while the ResultSet is open.
+     *
+     * @param jdbcTemplate The JdbcTemplate to run the query with.
+     * @param sql The query.
+     * @param rowMapper Maps a row to an object.
+     * @param action Called once per mapped row.
+     * @param args The query parameters, if any.
+     * @param <T> The type of the mapped rows.
+     */
+    static <T> void forEachRow(JdbcTemplate jdbcTemplate, String sql, RowMapper<T> rowMapper, Consumer<? super T> action, Object... args) {
+        forEachRow(jdbcTemplate, sql, new RowCallbackHandler() {
+            private int rowNum;
+
+            @Override
+            public void processRow(ResultSet rs) throws SQLException {
+                action.accept(rowMapper.mapRow(rs, rowNum++));
+            }
+        }, args);
+    }
+}
@@ -2,10 +2,13 @@ package com.operations.StageOps.repository;
 
 import com.operations.StageOps.model.Ticket;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Repository class for interacting with the tickets table in the database.
@@ -16,6 +19,9 @@ public class TicketRepository {
 
     private final JdbcTemplate jdbcTemplate;
 
+    private static final RowMapper<Ticket> TICKET_ROW_MAPPER = (rs, rowNum) -> new Ticket(rs.getInt("ticket_id"), rs.getInt("event_id"),
+            rs.getString("seat_id"), rs.getDouble("price"), rs.getString("ticket_status"), rs.getDate("sale_date"));
+
     /**
      * Constructor for TicketRepository.
      *
@@ -37,6 +43,22 @@ public class TicketRepository {
                 ticket.getTicketStatus(), ticket.getSaleDate());
     }
 
+    /**
+     * Saves several tickets in one JDBC batch.
+     *
+     * @param tickets the tickets to be saved
+     * @return the number of rows affected per ticket, in the same order as {@code tickets}
+     */
+    public int[] saveAll(List<Ticket> tickets) {
+        String sql = "INSERT INTO tickets (event_id, seat_id, price, ticket_status, sale_date) VALUES (?, ?, ?, ?, ?)";
+        List<Object[]> batchArgs = new ArrayList<>(tickets.size());
+        for (Ticket ticket : tickets) {
+            batchArgs.add(new Object[]{ticket.getEventId(), ticket.getSeatId(), ticket.getPrice(),
+                    ticket.getTicketStatus(), ticket.getSaleDate()});
+        }
+        return jdbcTemplate.batchUpdate(sql, batchArgs);
+    }
+
     /**
      * Retrieves all tickets in the database.
      *
@@ -44,8 +66,28 @@ public class TicketRepository {
      */
     public List<Ticket> getAllTickets() {
         String sql = "SELECT * FROM tickets";
-        return jdbcTemplate.query(sql, (rs, rowNum) -> new Ticket(rs.getInt("ticket_id"), rs.getInt("event_id"),
-                rs.getString("seat_id"), rs.getDouble("price"), rs.getString("ticket_status"), rs.getDate("sale_date")));
+        return jdbcTemplate.query(sql, TICKET_ROW_MAPPER);
+    }
+
+    /**
+     * Retrieves one page of tickets ordered by ID, starting after the given ticket ID.
+     *
+     * @param afterId the ID of the last ticket of the previous page, or 0 for the first page
+     * @param limit the maximum number of tickets to return
+     * @return the tickets with an ID greater than afterId, in ID order
+     */
+    public List<Ticket> getTicketsPage(int afterId, int limit) {
+        String sql = "SELECT * FROM tickets WHERE ticket_id > ? ORDER BY ticket_id LIMIT ?";
+        return jdbcTemplate.query(sql, TICKET_ROW_MAPPER, afterId, limit);
+    }
+
+    /**
+     * Passes every ticket to the given action as it is read from the database, without collecting them into a list.
+     *
+     * @param action called once per ticket
+     */
+    public void forEachTicket(Consumer<Ticket> action) {
+        StreamingQueries.forEachRow(jdbcTemplate, "SELECT * FROM tickets ORDER BY ticket_id", TICKET_ROW_MAPPER, action);
     }
 
     /**
@@ -5,12 +5,16 @@ import com.operations.StageOps.model.Booking;
 import com.operations.StageOps.model.Invoice;
 import com.operations.StageOps.repository.BookingRepository;
 import com.operations.StageOps.repository.InvoiceRepository;
+import com.operations.StageOps.repository.RoomRepository;
+import com.operations.StageOps.util.Paging;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service class for managing bookings.
@@ -21,17 +25,25 @@ public class BookingService {
 
     private final BookingRepository bookingRepository;
     private InvoiceRepository invoiceRepository;
+    private final RoomRepository roomRepository;
+    private final RoomAvailabilityService roomAvailabilityService;
 
 
     /**
      * Constructor to initialize BookingService with a BookingRepository.
      *
      * @param bookingRepository The repository to interact with the booking data.
+     * @param invoiceRepository The repository used to create invoices for new bookings.
+     * @param roomRepository The repository used to look up the rooms of a booking.
+     * @param roomAvailabilityService The in-memory room availability index, refreshed when bookings change.
      */
     @Autowired
-    public BookingService(BookingRepository bookingRepository, InvoiceRepository invoiceRepository) {
+    public BookingService(BookingRepository bookingRepository, InvoiceRepository invoiceRepository,
+                          RoomRepository roomRepository, RoomAvailabilityService roomAvailabilityService) {
         this.bookingRepository = bookingRepository;
         this.invoiceRepository = invoiceRepository;
+        this.roomRepository = roomRepository;
+        this.roomAvailabilityService = roomAvailabilityService;
     }
 
 
@@ -47,6 +59,7 @@ public class BookingService {
         Booking savedBooking = bookingRepository.save(booking);
 
         int bookingId = savedBooking.getBookingId();
+        roomAvailabilityService.refreshRooms(roomIdsOf(booking));
 
         // Step 2: Create an invoice for this booking
         Invoice invoice = new Invoice();
@@ -72,6 +85,28 @@ public class BookingService {
         return bookingRepository.getAllBookings();
     }
 
+    /**
+     * Retrieve a page of bookings with their room assignments. Pages are keyed on the booking ID, so a page
+     * always holds complete bookings however many rooms each one has.
+     *
+     * @param afterId The ID of the last booking of the previous page, or 0 for the first page.
+     * @param limit The requested number of bookings; the default if null, capped at {@link Paging#MAX_PAGE_SIZE}.
+     * @return The bookings with an ID above afterId, in ID order.
+     */
+    public List<Booking> getBookingsPage(int afterId, Integer limit) {
+        return bookingRepository.getBookingsPage(afterId, Paging.limit(limit));
+    }
+
+    /**
+     * Pass every booking, with its room assignments, to the given action as its rows are read. Only the booking
+     * being assembled is held in memory.
+     *
+     * @param action Called once per booking.
+     */
+    public void forEachBooking(Consumer<Booking> action) {
+        bookingRepository.forEachBooking(action);
+    }
+
     /**
      * Retrieves a booking by its ID from the repository.
      *
@@ -90,7 +125,12 @@ public class BookingService {
      * @return The number of rows affected by the update operation.
      */
     public int updateBooking(Booking booking) {
-        return bookingRepository.update(booking);
+        // Refresh both the rooms the booking used to occupy and the ones it occupies now
+        List<Integer> roomIds = new ArrayList<>(roomRepository.getRoomIdsForBooking(booking.getBookingId()));
+        int updated = bookingRepository.update(booking);
+        roomIds.addAll(roomIdsOf(booking));
+        roomAvailabilityService.refreshRooms(roomIds);
+        return updated;
     }
 
 
@@ -101,7 +141,10 @@ public class BookingService {
      * @return The number of rows affected by the delete operation.
      */
     public int deleteBooking(int bookingId) {
-        return bookingRepository.delete(bookingId);
+        List<Integer> roomIds = roomRepository.getRoomIdsForBooking(bookingId);
+        int deleted = bookingRepository.delete(bookingId);
+        roomAvailabilityService.refreshRooms(roomIds);
+        return deleted;
     }
 
     /**
@@ -122,4 +165,12 @@ public class BookingService {
     public List<Booking> getUpcomingBookings() {
         return bookingRepository.getUpcomingBookings();
     }
+
+    private static List<Integer> roomIdsOf(Booking booking) {
+        List<Integer> roomIds = new ArrayList<>();
+        if (booking.getRoomAssignments() != null) {
+            booking.getRoomAssignments().forEach(assignment -> roomIds.add(assignment.getRoomId()));
+        }
+        return roomIds;
+    }
 }
@@ -22,8 +22,11 @@ public class BoxOfficeService implements IBoxOfficeService {
     private BookingRepository bookingRepository;
     private ContractRepository contractRepository;
     private RoomRepository roomRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final TicketService ticketService;
+    private final RoomAvailabilityService roomAvailabilityService;
 
-    public BoxOfficeService(TicketRepository ticketRepository, EventRepository eventRepository, SeatingRepository seatingRepository, JdbcTemplate jdbcTemplate, BookingRepository bookingRepository, LayoutRepository layoutRepository, ContractRepository contractRepository, RoomRepository roomRepository) {
+    public BoxOfficeService(TicketRepository ticketRepository, EventRepository eventRepository, SeatingRepository seatingRepository, JdbcTemplate jdbcTemplate, BookingRepository bookingRepository, LayoutRepository layoutRepository, ContractRepository contractRepository, RoomRepository roomRepository, SeatInventoryService seatInventoryService, TicketService ticketService, RoomAvailabilityService roomAvailabilityService) {
         this.jdbcTemplate = jdbcTemplate;
         this.eventRepository = eventRepository;
         this.ticketRepository = ticketRepository;
@@ -32,38 +35,21 @@ public class BoxOfficeService implements IBoxOfficeService {
         this.seatingRepository = seatingRepository;
         this.contractRepository = contractRepository;
         this.roomRepository = roomRepository;
+        this.seatInventoryService = seatInventoryService;
+        this.ticketService = ticketService;
+        this.roomAvailabilityService = roomAvailabilityService;
     }
 
     // Implement the methods from IBoxOfficeService interface here
 
+    /**
+     * Save a ticket order. All seats are validated, reserved and sold in a single transaction.
+     *
+     * @param tickets The tickets of the order.
+     */
     @Override
     public void saveTickets(List<Ticket> tickets) {
-        for (Ticket ticket : tickets) {
-            // Check if the seat is already reserved for the event
-            String checkSql = "SELECT COUNT(*) FROM SeatEvents WHERE event_id = ? AND seat_id = ? AND reserved = true";
-            int reservedCount = jdbcTemplate.queryForObject(checkSql, new Object[]{ticket.getEventId(), ticket.getSeatId()}, Integer.class);
-
-            if (reservedCount > 0) {
-                throw new IllegalArgumentException("Seat " + ticket.getSeatId() + " is already reserved for this event.");
-            }
-
-            // Mark the seat as reserved for the event in SeatEvents table
-            String insertSql = "INSERT INTO SeatEvents (seat_id, event_id, reserved, reservation_time) " +
-                    "VALUES (?, ?, true, NOW()) " +
-                    "ON DUPLICATE KEY UPDATE reserved = true, reservation_time = NOW()";
-
-            jdbcTemplate.update(insertSql, ticket.getSeatId(), ticket.getEventId());
-
-            // Update the event's ticket sales and revenue
-            Event event = eventRepository.getEventById(ticket.getEventId());
-            event.setTicketsSold(event.getTicketsSold() + 1);
-            event.setTicketsAvailable(event.getTicketsAvailable() - 1);
-            event.setTotalRevenue(event.getTotalRevenue() + ticket.getPrice());
-            eventRepository.update(event);
-
-            // Save the ticket
-            ticketRepository.save(ticket);
-        }
+        ticketService.saveTickets(tickets);
     }
 
 
@@ -132,6 +118,7 @@ public class BoxOfficeService implements IBoxOfficeService {
             throw new RuntimeException("Event could not be saved or the eventId is invalid.");
         }
         int eventId = savedEvent.getEventId();
+        roomAvailabilityService.refreshRoom(savedEvent.getRoomId());
 
         // Log event save success
         System.out.println("Saved event with ID: " + eventId);
@@ -165,6 +152,8 @@ public class BoxOfficeService implements IBoxOfficeService {
         Event existingEvent = eventRepository.getEventById(eventId);
 
         if (existingEvent != null) {
+            int previousRoomId = existingEvent.getRoomId();
+
             // Update fields
             existingEvent.setEventName(updatedEvent.getEventName());
             existingEvent.setEventDate(updatedEvent.getEventDate());
@@ -179,6 +168,8 @@ public class BoxOfficeService implements IBoxOfficeService {
 
             // Save the updated event back to the database
             eventRepository.update(existingEvent);
+            seatInventoryService.evict(eventId);
+            roomAvailabilityService.refreshRooms(List.of(previousRoomId, existingEvent.getRoomId()));
         }
 
         return existingEvent;
@@ -192,7 +183,11 @@ public class BoxOfficeService implements IBoxOfficeService {
      */
     @Override
     public int deleteEvent(int eventId) {
-        return eventRepository.delete(eventId);
+        seatInventoryService.evict(eventId);
+        List<Integer> roomIds = roomRepository.getRoomIdsForEvent(eventId);
+        int deleted = eventRepository.delete(eventId);
+        roomAvailabilityService.refreshRooms(roomIds);
+        return deleted;
     }
 
 
@@ -227,8 +222,8 @@ public class BoxOfficeService implements IBoxOfficeService {
      */
     @Override
     public List<Seating> getAvailableSeats(int eventId) {
-        // Fetch the available seats using the repository method
-        return eventRepository.getAvailableSeatsForEvent(eventId);
+        // Served from the in-memory seat inventory
+        return seatInventoryService.getAvailableSeats(eventId);
     }
 
 
@@ -240,7 +235,7 @@ public class BoxOfficeService implements IBoxOfficeService {
      */
     @Override
     public List<Seating> getSeatsForEvent(int eventId) {
-        return eventRepository.getSeatsForEvent(eventId);
+        return seatInventoryService.getSeatsForEvent(eventId);
     }
 
     /**
@@ -254,7 +249,7 @@ public class BoxOfficeService implements IBoxOfficeService {
      * @return True if the room is available, false otherwise.
      */
     public boolean isRoomAvailableForTimePeriod(int roomId, LocalDate startDate, LocalDate endDate, ZonedDateTime eventStartTime, ZonedDateTime eventEndTime) {
-        return roomRepository.isRoomAvailableForTimePeriod(roomId, startDate, endDate, eventStartTime, eventEndTime);
+        return roomAvailabilityService.isRoomAvailableForTimePeriod(roomId, startDate, endDate, eventStartTime, eventEndTime);
     }
 
     /**
@@ -267,7 +262,7 @@ public class BoxOfficeService implements IBoxOfficeService {
      * @return A list of available room IDs.
      */
     public List<Integer> getAvailableRooms(LocalDate startDate, LocalDate endDate, ZonedDateTime eventStartTime, ZonedDateTime eventEndTime) {
-        return roomRepository.getAvailableRooms(startDate, endDate, eventStartTime, eventEndTime);
+        return roomAvailabilityService.getAvailableRooms(startDate, endDate, eventStartTime, eventEndTime);
     }
 
 }
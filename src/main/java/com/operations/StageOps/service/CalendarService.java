@@ -0,0 +1,51 @@
+package com.operations.StageOps.service;
+
+import com.operations.StageOps.model.CalendarEntry;
+import com.operations.StageOps.repository.CalendarRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Service reading the calendar one date window at a time.
+ */
+@Service
+public class CalendarService {
+
+    /**
+     * Upper bound on the number of days in one window, to keep responses bounded.
+     */
+    static final int MAX_WINDOW_DAYS = 400;
+
+    private final CalendarRepository calendarRepository;
+
+    /**
+     * Constructor for CalendarService.
+     *
+     * @param calendarRepository The repository reading events and booking days with their room and layout names.
+     */
+    public CalendarService(CalendarRepository calendarRepository) {
+        this.calendarRepository = calendarRepository;
+    }
+
+    /**
+     * Get the events and booking days between two dates.
+     *
+     * @param startDate The first day of the window.
+     * @param endDate   The last day of the window (inclusive).
+     * @return The calendar entries overlapping the window.
+     * @throws IllegalArgumentException If the end is before the start or the window is longer than 400 days.
+     */
+    public List<CalendarEntry> getEntries(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate must not be before startDate.");
+        }
+        long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (days > MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("Requested window has " + days + " days; the maximum is " + MAX_WINDOW_DAYS + ".");
+        }
+        return calendarRepository.getEntries(startDate, endDate.plusDays(1));
+    }
+}
@@ -2,9 +2,11 @@ package com.operations.StageOps.service;
 
 import com.operations.StageOps.model.Client;
 import com.operations.StageOps.repository.ClientRepository;
+import com.operations.StageOps.util.Paging;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 
 /**
@@ -44,6 +46,27 @@ public class ClientService {
         return clientRepository.getAllClients();
     }
 
+    /**
+     * Retrieve the clients with an ID above afterId, lowest ID first.
+     *
+     * @param afterId The ID of the last client already shown, or 0 to start at the beginning.
+     * @param limit The requested number of clients; the default if null, capped at {@link Paging#MAX_PAGE_SIZE}.
+     * @return The next clients, or an empty list if there are none left or they could not be read.
+     */
+    public List<Client> getClientsPage(int afterId, Integer limit) {
+        return clientRepository.getClientsPage(afterId, Paging.limit(limit));
+    }
+
+    /**
+     * Stream all clients in ID order to the given action, e.g. to write them out as a JSON array, reading them
+     * from a cursor rather than loading the whole table.
+     *
+     * @param action Called once per client.
+     */
+    public void forEachClient(Consumer<Client> action) {
+        clientRepository.forEachClient(action);
+    }
+
     /**
      * Retrieves a client by their ID.
      *
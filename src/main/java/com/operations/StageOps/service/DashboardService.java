@@ -0,0 +1,141 @@
+package com.operations.StageOps.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.operations.StageOps.model.*;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the dashboard summary.
+ * <p>
+ * The figures are independent queries, so they run in parallel on virtual threads. The result is cached for
+ * {@code stageops.dashboard.summary-ttl-ms}; while it is being computed, concurrent callers wait for that
+ * one computation instead of starting their own.
+ */
+@Service
+public class DashboardService {
+
+    private static final TypeReference<List<EventDto>> EVENT_LIST = new TypeReference<>() {};
+
+    // Number of most recent reviews shown on the dashboard
+    private static final int DASHBOARD_REVIEW_COUNT = 50;
+
+    private final EventService eventService;
+    private final TicketService ticketService;
+    private final RevenueTrackingService revenueTrackingService;
+    private final RoomService roomService;
+    private final ReviewService reviewService;
+    private final ObjectMapper objectMapper;
+    private final long ttlNanos;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Object lock = new Object();
+    private DashboardSummary cached;
+    private long cachedAt;
+    private CompletableFuture<DashboardSummary> inFlight;
+
+    /**
+     * Constructor for DashboardService.
+     *
+     * @param eventService           The service used for event figures and upcoming events.
+     * @param ticketService          The service used for ticket figures.
+     * @param revenueTrackingService The service used for revenue figures.
+     * @param roomService            The service used for room availability.
+     * @param reviewService          The service used for reviews.
+     * @param objectMapper           Converts models to the DTOs the dashboard uses.
+     * @param ttlMs                  How long a computed summary is served from cache, in milliseconds.
+     */
+    public DashboardService(EventService eventService, TicketService ticketService, RevenueTrackingService revenueTrackingService,
+                            RoomService roomService, ReviewService reviewService, ObjectMapper objectMapper,
+                            @Value("${stageops.dashboard.summary-ttl-ms:5000}") long ttlMs) {
+        this.eventService = eventService;
+        this.ticketService = ticketService;
+        this.revenueTrackingService = revenueTrackingService;
+        this.roomService = roomService;
+        this.reviewService = reviewService;
+        this.objectMapper = objectMapper;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    }
+
+    /**
+     * Get the dashboard summary, computing it if the cached one is older than the TTL.
+     *
+     * @return The dashboard summary.
+     */
+    public DashboardSummary getSummary() {
+        CompletableFuture<DashboardSummary> computation;
+        synchronized (lock) {
+            if (cached != null && System.nanoTime() - cachedAt < ttlNanos) {
+                return cached;
+            }
+            computation = inFlight;
+            if (computation == null) {
+                // Published before the work starts: a computation finishing at once must still find and clear it
+                CompletableFuture<DashboardSummary> started = new CompletableFuture<>();
+                inFlight = started;
+                computation = started;
+                CompletableFuture.supplyAsync(this::computeSummary, executor)
+                        .whenComplete((summary, error) -> {
+                            synchronized (lock) {
+                                if (error == null) {
+                                    cached = summary;
+                                    cachedAt = System.nanoTime();
+                                }
+                                inFlight = null;
+                            }
+                            if (error == null) {
+                                started.complete(summary);
+                            } else {
+                                started.completeExceptionally(error);
+                            }
+                        });
+            }
+        }
+        try {
+            return computation.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private DashboardSummary computeSummary() {
+        LocalDate startOfWeek = LocalDate.now().with(DayOfWeek.MONDAY);
+        LocalDate endOfWeek = startOfWeek.plusDays(6);
+        LocalDate today = LocalDate.now();
+
+        CompletableFuture<Integer> events = CompletableFuture.supplyAsync(
+                () -> eventService.getTotalEventsForWeek(startOfWeek, endOfWeek), executor);
+        CompletableFuture<Double> revenue = CompletableFuture.supplyAsync(
+                () -> revenueTrackingService.getTotalRevenueForWeek(startOfWeek, endOfWeek), executor);
+        CompletableFuture<Integer> ticketsSold = CompletableFuture.supplyAsync(
+                () -> ticketService.getTotalTicketsSoldForWeek(startOfWeek, endOfWeek), executor);
+        CompletableFuture<RoomAvailabilityMatrix> roomAvailability = CompletableFuture.supplyAsync(
+                () -> roomService.getAvailabilityMatrix(today, today, 60), executor);
+        CompletableFuture<List<ReviewDto>> reviews = CompletableFuture.supplyAsync(
+                () -> reviewService.getReviewFeed(null, 0, DASHBOARD_REVIEW_COUNT), executor);
+        CompletableFuture<List<EventDto>> upcomingEvents = CompletableFuture.supplyAsync(
+                () -> objectMapper.convertValue(eventService.getUpcomingEvents(), EVENT_LIST), executor);
+
+        return new DashboardSummary(events.join(), revenue.join(), ticketsSold.join(),
+                roomAvailability.join(), reviews.join(), upcomingEvents.join());
+    }
+}
@@ -3,6 +3,8 @@ package com.operations.StageOps.service;
 
 import com.operations.StageOps.model.*;
 import com.operations.StageOps.repository.*;
+import com.operations.StageOps.util.Paging;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,6 +16,7 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service class responsible for handling operations related to events.
@@ -27,6 +30,9 @@ public class EventService {
     private ContractRepository contractRepository;
     private RoomRepository roomRepository;
     private ClientRepository clientRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final RoomAvailabilityService roomAvailabilityService;
+    private final SeatHoldService seatHoldService;
 
     /**
      * Constructor for EventService.
@@ -36,14 +42,21 @@ public class EventService {
      * @param contractRepository The repository used to interact with contract data.
      * @param roomRepository The repository used to interact with room data.
      * @param clientRepository The repository used to interact with client data.
+     * @param seatInventoryService The in-memory seat inventory used for seat availability and holds.
+     * @param roomAvailabilityService The in-memory room availability index, refreshed when events change.
+     * @param seatHoldService The service holding seats for group bookings until the holds expire or are confirmed.
      */
     public EventService(EventRepository eventRepository, SeatingRepository seatingRepository, ContractRepository contractRepository,
-                        RoomRepository roomRepository, ClientRepository clientRepository) {
+                        RoomRepository roomRepository, ClientRepository clientRepository, SeatInventoryService seatInventoryService,
+                        RoomAvailabilityService roomAvailabilityService, SeatHoldService seatHoldService) {
         this.eventRepository = eventRepository;
         this.seatingRepository = seatingRepository;
         this.contractRepository = contractRepository;
         this.roomRepository = roomRepository;
         this.clientRepository = clientRepository;
+        this.seatInventoryService = seatInventoryService;
+        this.roomAvailabilityService = roomAvailabilityService;
+        this.seatHoldService = seatHoldService;
     }
 
     /**
@@ -63,6 +76,7 @@ public class EventService {
             throw new RuntimeException("Event could not be saved or the eventId is invalid.");
         }
         int eventId = savedEvent.getEventId();
+        roomAvailabilityService.refreshRoom(savedEvent.getRoomId());
 
         // Log event save success
         System.out.println("Saved event with ID: " + eventId);
@@ -205,6 +219,28 @@ public class EventService {
         return eventRepository.getAllEvents();
     }
 
+    /**
+     * Retrieve the events with an ID above afterId, lowest ID first. The client requests the next page by passing
+     * the ID of the last event it received.
+     *
+     * @param afterId The ID of the last event received, or 0 for the first page.
+     * @param limit The requested number of events; the default if null, capped at {@link Paging#MAX_PAGE_SIZE}.
+     * @return The next events; fewer than the limit on the last page.
+     */
+    public List<Event> getEventsPage(int afterId, Integer limit) {
+        return eventRepository.getEventsPage(afterId, Paging.limit(limit));
+    }
+
+    /**
+     * Hand every event to the given action in ID order while the rows are read from the database, so memory use
+     * does not grow with the number of events.
+     *
+     * @param action Called once per event.
+     */
+    public void forEachEvent(Consumer<Event> action) {
+        eventRepository.forEachEvent(action);
+    }
+
     /**
      * Retrieve an event by its ID.
      *
@@ -227,6 +263,8 @@ public class EventService {
         Event existingEvent = eventRepository.getEventById(eventId);
 
         if (existingEvent != null) {
+            int previousRoomId = existingEvent.getRoomId();
+
             // Update fields
             existingEvent.setEventName(updatedEvent.getEventName());
             existingEvent.setEventDate(updatedEvent.getEventDate());
@@ -241,6 +279,8 @@ public class EventService {
 
             // Save the updated event back to the database
             eventRepository.update(existingEvent);
+            seatInventoryService.evict(eventId);
+            roomAvailabilityService.refreshRooms(List.of(previousRoomId, existingEvent.getRoomId()));
         }
 
         return existingEvent;
@@ -253,8 +293,8 @@ public class EventService {
      * @return A list of available seats for the specified event.
      */
     public List<Seating> getAvailableSeats(int eventId) {
-        // Fetch the available seats using the repository method
-        return eventRepository.getAvailableSeatsForEvent(eventId);
+        // Served from the in-memory seat inventory
+        return seatInventoryService.getAvailableSeats(eventId);
     }
 
     /**
@@ -264,7 +304,7 @@ public class EventService {
      * @return A list of all seats for the specified event.
      */
     public List<Seating> getSeatsForEvent(int eventId) {
-        return eventRepository.getSeatsForEvent(eventId);
+        return seatInventoryService.getSeatsForEvent(eventId);
     }
 
     /**
@@ -274,7 +314,11 @@ public class EventService {
      * @return The number of rows affected (1 if the event is deleted, 0 otherwise).
      */
     public int deleteEvent(int eventId) {
-        return eventRepository.delete(eventId);
+        seatInventoryService.evict(eventId);
+        List<Integer> roomIds = roomRepository.getRoomIdsForEvent(eventId);
+        int deleted = eventRepository.delete(eventId);
+        roomAvailabilityService.refreshRooms(roomIds);
+        return deleted;
     }
 
     /**
@@ -328,6 +372,7 @@ public class EventService {
 
         // Proceed with event creation
         Event result = eventRepository.save(event);
+        roomAvailabilityService.refreshRoom(result.getRoomId());
 
         return result.getEventId() > 0 ? "Event scheduled successfully for marketing!" : "Error scheduling event for marketing.";
     }
@@ -339,7 +384,7 @@ public class EventService {
      * @param eventId The ID of the event for which seats are being held.
      * @param groupSize The size of the group booking.
      * @param seatIds A list of seat IDs to be held.
-     * @return A success or error message indicating the result.
+     * @return A success message with the hold's ID and expiry time, or an error message.
      */
     public String holdSeatsForGroupBooking(int eventId, int groupSize, List<String> seatIds) {
         // Ensure the group size is at least 12
@@ -347,20 +392,43 @@ public class EventService {
             return "Error: Group booking must be for at least 12 people.";
         }
 
-        // Get a list of seat IDs that are already reserved for this event
-        List<String> reservedSeatIds = seatingRepository.getReservedSeatsForEvent(eventId);
-
-        // Check if any requested seat is already reserved
-        for (String seatId : seatIds) {
-            if (reservedSeatIds.contains(seatId)) {
-                return "Error: Some of the requested seats are already reserved.";
-            }
+        // Hold the seats and take them out of the event's available tickets until the hold expires
+        SeatHold hold;
+        try {
+            hold = seatHoldService.holdSeats(eventId, seatIds);
+        } catch (IllegalArgumentException e) {
+            return "Error: Some of the requested seats are already reserved.";
+        } catch (IllegalStateException e) {
+            return "Error: Not enough tickets available to hold these seats.";
         }
 
-        // Mark the seats as reserved for this event
-        seatingRepository.updateSeatsAsReserved(seatIds, eventId);
+        return "Seats held successfully for group booking. Hold " + hold.getHoldId() + " expires at " + hold.getExpiresAt() + ".";
+    }
 
-        return "Seats held successfully for group booking.";
+    /**
+     * Find the best block of adjacent free seats for a party, without reserving it.
+     *
+     * @param eventId The ID of the event.
+     * @param request The party size and constraints.
+     * @return The seats of the block, or an empty list if no block fits.
+     * @throws IllegalArgumentException If the party size is not positive.
+     */
+    public List<Seating> findBestAvailableSeats(int eventId, SeatAllocationRequest request) {
+        return seatInventoryService.findBestAvailable(eventId, request);
+    }
+
+    /**
+     * Hold the best block of adjacent free seats for a party until the hold expires or is confirmed.
+     *
+     * @param eventId The ID of the event.
+     * @param request The party size and constraints.
+     * @return The hold, or null if no block fits.
+     * @throws IllegalArgumentException    If the party size is not positive.
+     * @throws IllegalStateException       If the event does not have enough tickets available.
+     * @throws ConcurrencyFailureException If concurrent claims kept taking the chosen seats; a retry may succeed.
+     */
+    public SeatHold holdBestAvailableSeats(int eventId, SeatAllocationRequest request) {
+        return seatHoldService.holdBestAvailable(eventId, request);
     }
 
     public int getTotalEventsForWeek(LocalDate startOfWeek, LocalDate endOfWeek) {
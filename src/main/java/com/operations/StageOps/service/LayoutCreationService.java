@@ -8,6 +8,7 @@ import com.operations.StageOps.repository.SeatingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -39,10 +40,13 @@ public class LayoutCreationService {
     }
 
     /**
-     * Generate a layout configuration for a meeting room
+     * Generate a layout configuration for a meeting room.
+     * The seats are sectioned in memory and written with one UPDATE per section, all in one transaction.
      * @param roomId ID of the room for which the layout is being created
+     * @return The saved layout, with its sections and their seats
      */
-    public void createLayoutForRoom(int roomId) {
+    @Transactional
+    public LayoutConfiguration createLayoutForRoom(int roomId) {
         // Step 1: Fetch seats already created for the room
         List<Seating> seats = seatingRepository.findByRoomId(roomId);  // Assuming there's a method to fetch seats by room ID
 
@@ -54,8 +58,9 @@ public class LayoutCreationService {
                 2, "presentation" + roomId, seats.size(), roomId, "presentation");
         layout.setSections(sections);
 
-        // Step 4: Save the layout configuration
+        // Step 4: Save the layout configuration; this also stores each seat's section
         layoutRepository.save(layout);
+        return layout;
     }
 
     /**
@@ -110,8 +115,7 @@ public class LayoutCreationService {
             for (int j = 0; j < seatsPerSection && seatIndex < seats.size(); j++, seatIndex++) {
                 Seating seat = seats.get(seatIndex);
                 if (seat.getRoomId() == roomId) {
-                    seat.setSectionName(sectionName);  // Assign this seat to the current section
-                    seatingRepository.update(seat); // Save the updated seat with section information
+                    seat.setSectionName(sectionName);  // Assign this seat to the current section; saved with the layout
                     sectionSeats.add(seat);
                 }
             }
@@ -4,9 +4,11 @@ package com.operations.StageOps.service;
 import com.operations.StageOps.model.LayoutConfiguration;
 import com.operations.StageOps.model.Seating;
 import com.operations.StageOps.repository.LayoutRepository;
+import com.operations.StageOps.util.Paging;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service class responsible for managing layout configurations associated with rooms.
@@ -55,6 +57,28 @@ public class LayoutService {
         return layoutRepository.getAllLayouts();
     }
 
+    /**
+     * Retrieve a page of layout configurations, each with its sections and seats, starting after a layout ID.
+     * The sections and seats of the whole page are loaded together.
+     *
+     * @param afterId The ID of the last layout of the previous page, or 0 for the first page.
+     * @param limit The requested page size; the default if null, capped at {@link Paging#MAX_PAGE_SIZE}.
+     * @return The layouts with an ID above afterId, in ID order.
+     */
+    public List<LayoutConfiguration> getLayoutsPage(int afterId, Integer limit) {
+        return layoutRepository.getLayoutsPage(afterId, Paging.limit(limit));
+    }
+
+    /**
+     * Pass every layout configuration, with its sections and seats, to the given action. Layouts are read in
+     * keyset pages, and each page is handed on before the next is read, so only one page is held in memory.
+     *
+     * @param action Called once per layout.
+     */
+    public void forEachLayout(Consumer<LayoutConfiguration> action) {
+        layoutRepository.forEachLayout(action);
+    }
+
     /**
      * Fetch a layout configuration by its ID.
      *
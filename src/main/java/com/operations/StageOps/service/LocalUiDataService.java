@@ -0,0 +1,207 @@
+package com.operations.StageOps.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.operations.StageOps.Interfaces.IUiDataService;
+import com.operations.StageOps.model.*;
+import com.operations.StageOps.repository.ContractRepository;
+import com.operations.StageOps.repository.InvoiceRepository;
+import com.operations.StageOps.util.ChangeFeed;
+import com.operations.StageOps.util.ProgressListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * UI data access for a JavaFX client running in the same JVM as the Spring context.
+ * <p>
+ * Calls the services and repositories behind the REST endpoints directly. Where a screen uses a UI-side type
+ * (e.g. {@link EventDto}) the model is converted in memory with the application's {@link ObjectMapper}, so the
+ * values match what the REST API would return without writing or parsing any JSON text.
+ */
+@Service
+@ConditionalOnProperty(name = "stageops.ui.mode", havingValue = "local", matchIfMissing = true)
+public class LocalUiDataService implements IUiDataService {
+
+    private static final TypeReference<List<RevenueTrackingDTO>> REVENUE_ENTRY_LIST = new TypeReference<>() {};
+    private static final TypeReference<List<Map<String, Object>>> ROW_LIST = new TypeReference<>() {};
+
+    // Longest awaitPdfJob waits, like the cap on the remote /await
+    private static final int PDF_AWAIT_SECONDS = 25;
+
+    private final EventService eventService;
+    private final RevenueTrackingService revenueTrackingService;
+    private final RoomService roomService;
+    private final BookingService bookingService;
+    private final ClientService clientService;
+    private final ContractRepository contractRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final DashboardService dashboardService;
+    private final RevenueCsvExportService revenueCsvExportService;
+    private final PdfJobService pdfJobService;
+    private final CalendarService calendarService;
+    private final ChangeFeed changeFeed;
+    private final ObjectMapper objectMapper;
+
+    public LocalUiDataService(EventService eventService, RevenueTrackingService revenueTrackingService,
+                              RoomService roomService, BookingService bookingService, ClientService clientService,
+                              ContractRepository contractRepository, InvoiceRepository invoiceRepository, DashboardService dashboardService,
+                              RevenueCsvExportService revenueCsvExportService, PdfJobService pdfJobService,
+                              CalendarService calendarService, ChangeFeed changeFeed, ObjectMapper objectMapper) {
+        this.eventService = eventService;
+        this.revenueTrackingService = revenueTrackingService;
+        this.roomService = roomService;
+        this.bookingService = bookingService;
+        this.clientService = clientService;
+        this.contractRepository = contractRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.dashboardService = dashboardService;
+        this.revenueCsvExportService = revenueCsvExportService;
+        this.pdfJobService = pdfJobService;
+        this.calendarService = calendarService;
+        this.changeFeed = changeFeed;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public DashboardSummary getDashboardSummary() {
+        return dashboardService.getSummary();
+    }
+
+    @Override
+    public EventDto getEvent(int eventId) {
+        return objectMapper.convertValue(eventService.getEventById(eventId), EventDto.class);
+    }
+
+    @Override
+    public List<Seating> getSeatsForEvent(int eventId) {
+        return eventService.getSeatsForEvent(eventId);
+    }
+
+    @Override
+    public double getTotalRevenueForDate(LocalDate date) {
+        return revenueTrackingService.getTotalRevenueByDate(date.toString());
+    }
+
+    @Override
+    public List<Map<String, Object>> getMonthlyRevenue(int year) {
+        return objectMapper.convertValue(revenueTrackingService.getMonthlyRevenue(year), ROW_LIST);
+    }
+
+    @Override
+    public List<Map<String, Object>> getDailyRevenue(int month, int year) {
+        return objectMapper.convertValue(revenueTrackingService.getDailyRevenue(month, year), ROW_LIST);
+    }
+
+    @Override
+    public List<Map<String, Object>> getLifetimeRevenue() {
+        return objectMapper.convertValue(revenueTrackingService.getLifetimeRevenueByYear(), ROW_LIST);
+    }
+
+    @Override
+    public List<RevenueTrackingDTO> getRevenueEntriesByYear(int year) {
+        return objectMapper.convertValue(revenueTrackingService.getRevenueTrackingEntriesByYear(year), REVENUE_ENTRY_LIST);
+    }
+
+    @Override
+    public List<RevenueTrackingDTO> getRevenueEntriesByMonth(int year, int month) {
+        return objectMapper.convertValue(revenueTrackingService.getRevenueTrackingEntriesByMonth(month, year), REVENUE_ENTRY_LIST);
+    }
+
+    @Override
+    public List<RevenueTrackingDTO> getAllRevenueEntries() {
+        return objectMapper.convertValue(revenueTrackingService.getAllRevenueTrackingEntries(), REVENUE_ENTRY_LIST);
+    }
+
+    @Override
+    public void exportRevenueCsv(LocalDate startDate, LocalDate endDate, boolean gzip, Path target, ProgressListener progress) {
+        try (OutputStream out = Files.newOutputStream(target)) {
+            revenueCsvExportService.writeCsv(startDate, endDate, out, gzip, progress);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public List<CalendarEntry> getCalendarEntries(LocalDate startDate, LocalDate endDate) {
+        return calendarService.getEntries(startDate, endDate);
+    }
+
+    @Override
+    public List<Booking> getAllBookings() {
+        return bookingService.getAllBookings();
+    }
+
+    @Override
+    public boolean createBooking(Booking booking) {
+        return bookingService.saveBooking(booking) > 0;
+    }
+
+    @Override
+    public List<Room> getAllRooms() {
+        return roomService.getAllRooms();
+    }
+
+    @Override
+    public Room getRoom(int roomId) {
+        return roomService.getRoomById(roomId);
+    }
+
+    @Override
+    public List<Client> getAllClients() {
+        return clientService.getAllClients();
+    }
+
+    @Override
+    public boolean createClient(Client client) {
+        return clientService.saveClient(client) > 0;
+    }
+
+    @Override
+    public List<Contract> getContractsByClient(int clientId) {
+        return contractRepository.getContractsByClientId(clientId);
+    }
+
+    @Override
+    public List<Invoice> getInvoicesByClient(int clientId) {
+        return invoiceRepository.getInvoicesByClientId(clientId);
+    }
+
+    @Override
+    public PdfJob submitPdfJob(String jobType, List<Integer> documentIds) {
+        return pdfJobService.submit(jobType, documentIds);
+    }
+
+    @Override
+    public PdfJob awaitPdfJob(int jobId) {
+        // Time out a copy: the future itself is shared with every other caller waiting on the job
+        PdfJob job = pdfJobService.awaitCompletion(jobId).copy()
+                .completeOnTimeout(null, PDF_AWAIT_SECONDS, TimeUnit.SECONDS)
+                .join();
+        return job != null ? job : pdfJobService.getJob(jobId);
+    }
+
+    @Override
+    public void downloadPdfJobResult(int jobId, Path target) {
+        try (OutputStream out = Files.newOutputStream(target)) {
+            pdfJobService.writeResult(pdfJobService.getJob(jobId), out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public AutoCloseable subscribeChanges(List<String> topics, Consumer<ChangeEvent> listener) {
+        return changeFeed.subscribe(topics, null, listener);
+    }
+}
@@ -4,6 +4,7 @@ import com.operations.StageOps.Interfaces.IMarketingService;
 import com.operations.StageOps.model.Booking;
 import com.operations.StageOps.model.Contract;
 import com.operations.StageOps.model.Event;
+import com.operations.StageOps.model.SeatHold;
 import com.operations.StageOps.repository.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,14 +22,20 @@ public class MarketingService  implements IMarketingService {
     private final BookingRepository bookingRepository;
     private ContractRepository contractRepository;
     private final RoomRepository roomRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final RoomAvailabilityService roomAvailabilityService;
+    private final SeatHoldService seatHoldService;
 
 
-    public MarketingService(EventRepository eventRepository, SeatingRepository seatingRepository, BookingRepository bookingRepository, ContractRepository contractRepository, RoomRepository roomRepository) {
+    public MarketingService(EventRepository eventRepository, SeatingRepository seatingRepository, BookingRepository bookingRepository, ContractRepository contractRepository, RoomRepository roomRepository, SeatInventoryService seatInventoryService, RoomAvailabilityService roomAvailabilityService, SeatHoldService seatHoldService) {
         this.eventRepository = eventRepository;
         this.seatingRepository = seatingRepository;
         this.bookingRepository = bookingRepository;
         this.contractRepository = contractRepository;
         this.roomRepository = roomRepository;
+        this.seatInventoryService = seatInventoryService;
+        this.roomAvailabilityService = roomAvailabilityService;
+        this.seatHoldService = seatHoldService;
     }
 
     /**
@@ -64,6 +71,7 @@ public class MarketingService  implements IMarketingService {
 
         // Proceed with event creation
         Event result = eventRepository.save(event);
+        roomAvailabilityService.refreshRoom(result.getRoomId());
 
         return result.getEventId() > 0 ? "Event scheduled successfully for marketing!" : "Error scheduling event for marketing.";
     }
@@ -74,7 +82,7 @@ public class MarketingService  implements IMarketingService {
      * @param eventId The ID of the event for which seats are being held.
      * @param groupSize The size of the group booking.
      * @param seatIds A list of seat IDs to be held.
-     * @return A success or error message indicating the result.
+     * @return A success message with the hold's ID and expiry time, or an error message.
      */
     @Override
     public String holdSeatsForGroupBooking(int eventId, int groupSize, List<String> seatIds) {
@@ -83,20 +91,17 @@ public class MarketingService  implements IMarketingService {
             return "Error: Group booking must be for at least 12 people.";
         }
 
-        // Get a list of seat IDs that are already reserved for this event
-        List<String> reservedSeatIds = seatingRepository.getReservedSeatsForEvent(eventId);
-
-        // Check if any requested seat is already reserved
-        for (String seatId : seatIds) {
-            if (reservedSeatIds.contains(seatId)) {
-                return "Error: Some of the requested seats are already reserved.";
-            }
+        // Hold the seats and take them out of the event's available tickets until the hold expires
+        SeatHold hold;
+        try {
+            hold = seatHoldService.holdSeats(eventId, seatIds);
+        } catch (IllegalArgumentException e) {
+            return "Error: Some of the requested seats are already reserved.";
+        } catch (IllegalStateException e) {
+            return "Error: Not enough tickets available to hold these seats.";
         }
 
-        // Mark the seats as reserved for this event
-        seatingRepository.updateSeatsAsReserved(seatIds, eventId);
-
-        return "Seats held successfully for group booking.";
+        return "Seats held successfully for group booking. Hold " + hold.getHoldId() + " expires at " + hold.getExpiresAt() + ".";
     }
 
 
@@ -152,6 +157,7 @@ public class MarketingService  implements IMarketingService {
             throw new RuntimeException("Event could not be saved or the eventId is invalid.");
         }
         int eventId = savedEvent.getEventId();
+        roomAvailabilityService.refreshRoom(savedEvent.getRoomId());
 
         // Log event save success
         System.out.println("Saved event with ID: " + eventId);
@@ -185,6 +191,8 @@ public class MarketingService  implements IMarketingService {
         Event existingEvent = eventRepository.getEventById(eventId);
 
         if (existingEvent != null) {
+            int previousRoomId = existingEvent.getRoomId();
+
             // Update fields
             existingEvent.setEventName(updatedEvent.getEventName());
             existingEvent.setEventDate(updatedEvent.getEventDate());
@@ -199,6 +207,8 @@ public class MarketingService  implements IMarketingService {
 
             // Save the updated event back to the database
             eventRepository.update(existingEvent);
+            seatInventoryService.evict(eventId);
+            roomAvailabilityService.refreshRooms(List.of(previousRoomId, existingEvent.getRoomId()));
         }
 
         return existingEvent;
@@ -212,7 +222,11 @@ public class MarketingService  implements IMarketingService {
      */
     @Override
     public int deleteEvent(int eventId) {
-        return eventRepository.delete(eventId);
+        seatInventoryService.evict(eventId);
+        List<Integer> roomIds = roomRepository.getRoomIdsForEvent(eventId);
+        int deleted = eventRepository.delete(eventId);
+        roomAvailabilityService.refreshRooms(roomIds);
+        return deleted;
     }
 
     /**
@@ -226,7 +240,7 @@ public class MarketingService  implements IMarketingService {
      * @return True if the room is available, false otherwise.
      */
     public boolean isRoomAvailableForTimePeriod(int roomId, LocalDate startDate, LocalDate endDate, ZonedDateTime eventStartTime, ZonedDateTime eventEndTime) {
-        return roomRepository.isRoomAvailableForTimePeriod(roomId, startDate, endDate, eventStartTime, eventEndTime);
+        return roomAvailabilityService.isRoomAvailableForTimePeriod(roomId, startDate, endDate, eventStartTime, eventEndTime);
     }
 
     /**
@@ -239,6 +253,6 @@ public class MarketingService  implements IMarketingService {
      * @return A list of available room IDs.
      */
     public List<Integer> getAvailableRooms(LocalDate startDate, LocalDate endDate, ZonedDateTime eventStartTime, ZonedDateTime eventEndTime) {
-        return roomRepository.getAvailableRooms(startDate, endDate, eventStartTime, eventEndTime);
+        return roomAvailabilityService.getAvailableRooms(startDate, endDate, eventStartTime, eventEndTime);
     }
 }
@@ -0,0 +1,278 @@
+package com.operations.StageOps.service;
+
+import com.operations.StageOps.model.Client;
+import com.operations.StageOps.model.Contract;
+import com.operations.StageOps.model.Invoice;
+import com.operations.StageOps.model.PdfBatchResult;
+import com.operations.StageOps.repository.ContractRepository;
+import com.operations.StageOps.repository.InvoiceRepository;
+import com.operations.StageOps.util.PdfGenerator;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Renders many invoices or contracts at once, e.g. at month-end.
+ * <p>
+ * Documents are rendered in parallel on a fixed pool of {@code stageops.pdf.batch-threads} threads, since
+ * rendering is CPU-bound. Output goes either to one file per document in a directory or to a ZIP stream; for a
+ * ZIP, at most two documents per thread are held in memory and entries are written in the order the IDs were given.
+ * A document that fails to render is reported in the result and does not stop the rest of the batch.
+ */
+@Service
+public class PdfBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfBatchService.class);
+
+    // Owner named on contracts that do not have one
+    private static final String DEFAULT_OWNER_NAME = "StageOps Lancaster";
+
+    private final InvoiceRepository invoiceRepository;
+    private final ContractRepository contractRepository;
+    private final ClientService clientService;
+    private final ExecutorService executor;
+    private final int window;
+
+    /**
+     * Constructor for PdfBatchService.
+     *
+     * @param invoiceRepository  The repository invoices are read from.
+     * @param contractRepository The repository contracts are read from.
+     * @param clientService      The service used to look up the client named on each document.
+     * @param threads            The number of documents rendered at the same time.
+     */
+    public PdfBatchService(InvoiceRepository invoiceRepository, ContractRepository contractRepository, ClientService clientService,
+                           @Value("${stageops.pdf.batch-threads:4}") int threads) {
+        this.invoiceRepository = invoiceRepository;
+        this.contractRepository = contractRepository;
+        this.clientService = clientService;
+        int poolSize = Math.max(1, threads);
+        this.executor = Executors.newFixedThreadPool(poolSize);
+        this.window = poolSize * 2;
+    }
+
+    /**
+     * Write one PDF per invoice, named {@code invoice_<id>.pdf}, to the given directory.
+     *
+     * @param invoiceIds The IDs of the invoices to render.
+     * @param directory  The directory the files are written to; created if it does not exist.
+     * @return The number of documents written, the IDs that failed and the throughput.
+     * @throws IOException If the directory cannot be created.
+     */
+    public PdfBatchResult writeInvoicesToDirectory(List<Integer> invoiceIds, Path directory) throws IOException {
+        return writeToDirectory("invoices", invoiceIds, directory, invoiceRenderer());
+    }
+
+    /**
+     * Write one PDF per invoice, named {@code invoice_<id>.pdf}, to a ZIP archive on the given stream.
+     * The archive is finished but the stream is not closed.
+     *
+     * @param invoiceIds The IDs of the invoices to render.
+     * @param out        Where the archive is written.
+     * @return The number of documents written, the IDs that failed and the throughput.
+     * @throws IOException If writing to the stream fails.
+     */
+    public PdfBatchResult writeInvoicesZip(List<Integer> invoiceIds, OutputStream out) throws IOException {
+        return writeZip("invoices", invoiceIds, out, invoiceRenderer());
+    }
+
+    /**
+     * Write one PDF per contract, named {@code contract_<id>.pdf}, to the given directory.
+     *
+     * @param contractIds The IDs of the contracts to render.
+     * @param directory   The directory the files are written to; created if it does not exist.
+     * @return The number of documents written, the IDs that failed and the throughput.
+     * @throws IOException If the directory cannot be created.
+     */
+    public PdfBatchResult writeContractsToDirectory(List<Integer> contractIds, Path directory) throws IOException {
+        return writeToDirectory("contracts", contractIds, directory, contractRenderer());
+    }
+
+    /**
+     * Write one PDF per contract, named {@code contract_<id>.pdf}, to a ZIP archive on the given stream.
+     * The archive is finished but the stream is not closed.
+     *
+     * @param contractIds The IDs of the contracts to render.
+     * @param out         Where the archive is written.
+     * @return The number of documents written, the IDs that failed and the throughput.
+     * @throws IOException If writing to the stream fails.
+     */
+    public PdfBatchResult writeContractsZip(List<Integer> contractIds, OutputStream out) throws IOException {
+        return writeZip("contracts", contractIds, out, contractRenderer());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private PdfBatchResult writeToDirectory(String kind, List<Integer> ids, Path directory, Renderer renderer) throws IOException {
+        Files.createDirectories(directory);
+        long start = System.nanoTime();
+
+        List<Future<Boolean>> futures = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            futures.add(executor.submit(() -> {
+                Path target = directory.resolve(renderer.fileName(id));
+                try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(target))) {
+                    renderer.render(id, file);
+                } catch (Exception e) {
+                    // Do not leave a truncated PDF behind
+                    Files.deleteIfExists(target);
+                    throw e;
+                }
+                return Boolean.TRUE;
+            }));
+        }
+
+        List<Integer> failedIds = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (await(futures.get(i), ids.get(i)) == null) {
+                failedIds.add(ids.get(i));
+            }
+        }
+        return finish(kind, ids.size() - failedIds.size(), failedIds, start);
+    }
+
+    private PdfBatchResult writeZip(String kind, List<Integer> ids, OutputStream out, Renderer renderer) throws IOException {
+        long start = System.nanoTime();
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        Deque<Future<byte[]>> pending = new ArrayDeque<>();
+        List<Integer> failedIds = new ArrayList<>();
+        int written = 0;
+
+        // Keep up to `window` documents rendering ahead of the one being written
+        int next = 0;
+        int current = 0;
+        try {
+            while (current < ids.size()) {
+                while (next < ids.size() && pending.size() < window) {
+                    int id = ids.get(next++);
+                    pending.add(executor.submit(() -> {
+                        ByteArrayOutputStream pdf = new ByteArrayOutputStream(16 * 1024);
+                        renderer.render(id, pdf);
+                        return pdf.toByteArray();
+                    }));
+                }
+                int id = ids.get(current++);
+                byte[] pdf = await(pending.poll(), id);
+                if (pdf == null) {
+                    failedIds.add(id);
+                    continue;
+                }
+                zip.putNextEntry(new ZipEntry(renderer.fileName(id)));
+                zip.write(pdf);
+                zip.closeEntry();
+                written++;
+            }
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+        zip.finish();
+        zip.flush();
+        return finish(kind, written, failedIds, start);
+    }
+
+    // Waits for one document; returns null if it failed
+    private static <T> T await(Future<T> future, int id) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rendering document " + id, e);
+        } catch (ExecutionException e) {
+            logger.warn("Failed to render document {}", id, e.getCause());
+            return null;
+        }
+    }
+
+    private static PdfBatchResult finish(String kind, int documents, List<Integer> failedIds, long start) {
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        PdfBatchResult result = new PdfBatchResult(documents, Collections.unmodifiableList(failedIds), elapsedMillis);
+        logger.info("Rendered {} {} in {} ms ({} documents/s), {} failed",
+                documents, kind, elapsedMillis, String.format("%.1f", result.getDocumentsPerSecond()), failedIds.size());
+        return result;
+    }
+
+    private Renderer invoiceRenderer() {
+        Map<Integer, Client> clients = new ConcurrentHashMap<>();
+        return new Renderer() {
+            @Override
+            public String fileName(int id) {
+                return "invoice_" + id + ".pdf";
+            }
+
+            @Override
+            public void render(int id, OutputStream out) throws Exception {
+                Invoice invoice = invoiceRepository.getInvoiceById(id);
+                if (invoice == null) {
+                    throw new IllegalArgumentException("Invoice " + id + " not found");
+                }
+                Client client = clients.computeIfAbsent(invoice.getClientId(), clientService::getClientById);
+                if (client == null) {
+                    throw new IllegalArgumentException("Client " + invoice.getClientId() + " of invoice " + id + " not found");
+                }
+                PdfGenerator.generateSingleInvoicePdf(invoice, client.getName(), client.getAddress(), out);
+            }
+        };
+    }
+
+    private Renderer contractRenderer() {
+        Map<Integer, Client> clients = new ConcurrentHashMap<>();
+        return new Renderer() {
+            @Override
+            public String fileName(int id) {
+                return "contract_" + id + ".pdf";
+            }
+
+            @Override
+            public void render(int id, OutputStream out) throws Exception {
+                Contract contract = contractRepository.getContractById(id);
+                if (contract == null) {
+                    throw new IllegalArgumentException("Contract " + id + " not found");
+                }
+                String ownerName = contract.getOwnerName() != null ? contract.getOwnerName() : DEFAULT_OWNER_NAME;
+                String renterName = contract.getRenterName();
+                if (renterName == null) {
+                    Client client = clients.computeIfAbsent(contract.getClientId(), clientService::getClientById);
+                    if (client == null) {
+                        throw new IllegalArgumentException("Client " + contract.getClientId() + " of contract " + id + " not found");
+                    }
+                    renterName = client.getName();
+                }
+                PdfGenerator.generateSingleContractPdf(contract, ownerName, renterName, out);
+            }
+        };
+    }
+
+    /**
+     * Loads one document by ID and renders it. The client lookups of a batch are shared between its documents.
+     */
+    private interface Renderer {
+        String fileName(int id);
+
+        void render(int id, OutputStream out) throws Exception;
+    }
+}
@@ -0,0 +1,283 @@
+package com.operations.StageOps.service;
+
+import com.operations.StageOps.model.PdfBatchResult;
+import com.operations.StageOps.model.PdfJob;
+import com.operations.StageOps.repository.PdfJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Runs invoice and contract PDF rendering in the background.
+ * <p>
+ * A submitted job is recorded in {@code pdf_jobs} and returned straight away; callers poll {@link #getJob(int)} or
+ * wait on {@link #awaitCompletion(int)}, then read the result with {@link #writeResult(PdfJob, OutputStream)}.
+ * At most {@code stageops.pdf.jobs.max-concurrent} jobs run at a time, each rendering through {@link PdfBatchService}'s
+ * bounded pool, so a large export cannot take every database connection from box-office requests. An attempt
+ * in which documents fail is retried for just those documents, after {@code stageops.pdf.jobs.retry-delay-ms}
+ * times the attempt number, up to {@code stageops.pdf.jobs.max-attempts} attempts. Jobs that were queued or
+ * running when the application stopped are resumed on startup.
+ */
+@Service
+public class PdfJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfJobService.class);
+
+    private final PdfJobRepository pdfJobRepository;
+    private final PdfBatchService pdfBatchService;
+    private final Path outputDir;
+    private final int maxAttempts;
+    private final long retryDelayMs;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor();
+    private final Map<Integer, CompletableFuture<PdfJob>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for PdfJobService.
+     *
+     * @param pdfJobRepository The repository jobs are recorded in.
+     * @param pdfBatchService  Renders the documents of a job.
+     * @param outputDir        The directory the rendered files are kept in, one subdirectory per job.
+     * @param maxConcurrent    The maximum number of jobs running at the same time.
+     * @param maxAttempts      The maximum number of attempts per job.
+     * @param retryDelayMs     The delay before the first retry, in milliseconds; later retries wait longer.
+     */
+    public PdfJobService(PdfJobRepository pdfJobRepository, PdfBatchService pdfBatchService,
+                         @Value("${stageops.pdf.jobs.output-dir:./pdf-jobs}") String outputDir,
+                         @Value("${stageops.pdf.jobs.max-concurrent:1}") int maxConcurrent,
+                         @Value("${stageops.pdf.jobs.max-attempts:3}") int maxAttempts,
+                         @Value("${stageops.pdf.jobs.retry-delay-ms:5000}") long retryDelayMs) {
+        this.pdfJobRepository = pdfJobRepository;
+        this.pdfBatchService = pdfBatchService;
+        this.outputDir = Path.of(outputDir);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelayMs = retryDelayMs;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, maxConcurrent));
+    }
+
+    /**
+     * Queue a job rendering the given invoices or contracts.
+     *
+     * @param jobType     {@link PdfJob#INVOICE} or {@link PdfJob#CONTRACT}.
+     * @param documentIds The IDs of the invoices or contracts to render.
+     * @return The queued job.
+     * @throws IllegalArgumentException If the job type is unknown or there are no IDs.
+     */
+    public PdfJob submit(String jobType, List<Integer> documentIds) {
+        if (!PdfJob.INVOICE.equals(jobType) && !PdfJob.CONTRACT.equals(jobType)) {
+            throw new IllegalArgumentException("Unknown PDF job type: " + jobType);
+        }
+        if (documentIds == null || documentIds.isEmpty()) {
+            throw new IllegalArgumentException("A PDF job needs at least one document ID");
+        }
+        int jobId = pdfJobRepository.createJob(jobType, documentIds);
+        executor.execute(() -> run(jobId));
+        return pdfJobRepository.getJobById(jobId);
+    }
+
+    /**
+     * Get the current state of a job.
+     *
+     * @param jobId The ID of the job.
+     * @return The job, or null if there is no job with that ID.
+     */
+    public PdfJob getJob(int jobId) {
+        return pdfJobRepository.getJobById(jobId);
+    }
+
+    /**
+     * Get a future that completes with the job once it has completed or failed.
+     *
+     * @param jobId The ID of the job.
+     * @return The future, already complete if the job has finished; completes with null if there is no such job.
+     */
+    public CompletableFuture<PdfJob> awaitCompletion(int jobId) {
+        PdfJob job = pdfJobRepository.getJobById(jobId);
+        if (job == null || job.isFinished()) {
+            return CompletableFuture.completedFuture(job);
+        }
+        CompletableFuture<PdfJob> waiter = waiters.computeIfAbsent(jobId, id -> new CompletableFuture<>());
+        // The job may have finished between the read above and registering the waiter
+        PdfJob current = pdfJobRepository.getJobById(jobId);
+        if (current != null && current.isFinished()) {
+            complete(current);
+        }
+        return waiter;
+    }
+
+    /**
+     * @param job A finished job.
+     * @return Whether the result of the job is a ZIP archive rather than a single PDF.
+     */
+    public boolean isZipResult(PdfJob job) {
+        return job.getDocumentIds().size() > 1;
+    }
+
+    /**
+     * @param job A finished job.
+     * @return The file name to offer the result of the job under.
+     */
+    public String resultFileName(PdfJob job) {
+        return isZipResult(job) ? "pdf_job_" + job.getJobId() + ".zip" : documentFileName(job, job.getDocumentIds().get(0));
+    }
+
+    /**
+     * Write the result of a completed job: the PDF for a single document, otherwise a ZIP of the rendered documents
+     * in the order they were requested. The stream is flushed but not closed.
+     *
+     * @param job A completed job.
+     * @param out Where the result is written.
+     * @throws IOException If reading the rendered files or writing to the stream fails.
+     * @throws IllegalStateException If the job has not completed.
+     */
+    public void writeResult(PdfJob job, OutputStream out) throws IOException {
+        if (!PdfJob.COMPLETED.equals(job.getStatus())) {
+            throw new IllegalStateException("PDF job " + job.getJobId() + " is " + job.getStatus());
+        }
+        Path directory = jobDirectory(job.getJobId());
+        if (!isZipResult(job)) {
+            Files.copy(directory.resolve(documentFileName(job, job.getDocumentIds().get(0))), out);
+            out.flush();
+            return;
+        }
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        for (int id : job.getDocumentIds()) {
+            Path file = directory.resolve(documentFileName(job, id));
+            if (Files.exists(file)) {
+                zip.putNextEntry(new ZipEntry(file.getFileName().toString()));
+                Files.copy(file, zip);
+                zip.closeEntry();
+            }
+        }
+        zip.finish();
+        zip.flush();
+    }
+
+    /**
+     * Resume the jobs that were queued or running when the application last stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        try {
+            pdfJobRepository.requeueRunningJobs();
+            for (int jobId : pdfJobRepository.getUnfinishedJobIds()) {
+                executor.execute(() -> run(jobId));
+            }
+        } catch (RuntimeException e) {
+            logger.error("Failed to resume unfinished PDF jobs", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private void run(int jobId) {
+        try {
+            if (pdfJobRepository.markRunning(jobId) == 0) {
+                return; // not queued, e.g. already picked up by another attempt
+            }
+            PdfJob job = pdfJobRepository.getJobById(jobId);
+
+            // A retry only renders the documents that failed last time
+            boolean retryingFailed = !job.getFailedIds().isEmpty();
+            List<Integer> pending = retryingFailed ? job.getFailedIds() : job.getDocumentIds();
+            int alreadyRendered = retryingFailed ? job.getDocuments() : 0;
+
+            int rendered = alreadyRendered;
+            List<Integer> failedIds = pending;
+            String errorMessage;
+            try {
+                PdfBatchResult result = PdfJob.INVOICE.equals(job.getJobType())
+                        ? pdfBatchService.writeInvoicesToDirectory(pending, jobDirectory(jobId))
+                        : pdfBatchService.writeContractsToDirectory(pending, jobDirectory(jobId));
+                rendered += result.getDocuments();
+                failedIds = result.getFailedIds();
+                errorMessage = failedIds.isEmpty() ? null : failedIds.size() + " document(s) failed to render";
+            } catch (IOException | RuntimeException e) {
+                logger.warn("PDF job {} attempt {} failed", jobId, job.getAttempts(), e);
+                errorMessage = messageOf(e);
+            }
+
+            if (failedIds.isEmpty()) {
+                pdfJobRepository.markFinished(jobId, PdfJob.COMPLETED, rendered, failedIds, null);
+            } else if (job.getAttempts() < maxAttempts) {
+                pdfJobRepository.markQueued(jobId, rendered, failedIds, errorMessage);
+                retryScheduler.schedule(() -> executor.execute(() -> run(jobId)),
+                        retryDelayMs * job.getAttempts(), TimeUnit.MILLISECONDS);
+                return;
+            } else {
+                // Out of attempts: whatever was rendered is still the result
+                pdfJobRepository.markFinished(jobId, rendered > 0 ? PdfJob.COMPLETED : PdfJob.FAILED,
+                        rendered, failedIds, errorMessage);
+            }
+            complete(pdfJobRepository.getJobById(jobId));
+        } catch (RuntimeException e) {
+            logger.error("Failed to record the state of PDF job {}", jobId, e);
+            fail(jobId, e);
+        }
+    }
+
+    // Ends a job whose state could not be recorded, so that nobody waits on it forever
+    private void fail(int jobId, RuntimeException cause) {
+        PdfJob job = null;
+        try {
+            pdfJobRepository.markFinished(jobId, PdfJob.FAILED, 0, List.of(), messageOf(cause));
+            job = pdfJobRepository.getJobById(jobId);
+        } catch (RuntimeException e) {
+            // The job table is unreachable; the job stays running and is resumed on the next startup
+            logger.warn("Failed to mark PDF job {} as failed", jobId, e);
+        }
+        if (job != null && job.isFinished()) {
+            complete(job);
+            return;
+        }
+        CompletableFuture<PdfJob> waiter = waiters.remove(jobId);
+        if (waiter != null) {
+            waiter.completeExceptionally(cause);
+        }
+    }
+
+    private void complete(PdfJob job) {
+        CompletableFuture<PdfJob> waiter = waiters.remove(job.getJobId());
+        if (waiter != null) {
+            waiter.complete(job);
+        }
+    }
+
+    private static String messageOf(Exception e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    private Path jobDirectory(int jobId) {
+        return outputDir.resolve(Integer.toString(jobId));
+    }
+
+    // Matches the file names PdfBatchService gives each document, e.g. invoice_12.pdf
+    private static String documentFileName(PdfJob job, int documentId) {
+        return job.getJobType().toLowerCase(Locale.ROOT) + "_" + documentId + ".pdf";
+    }
+}
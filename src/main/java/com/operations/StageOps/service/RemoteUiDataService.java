@@ -0,0 +1,310 @@
+package com.operations.StageOps.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.operations.StageOps.Interfaces.IUiDataService;
+import com.operations.StageOps.model.*;
+import com.operations.StageOps.util.ProgressListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * UI data access for a JavaFX client talking to a StageOps server in another process
+ * ({@code stageops.ui.mode=remote}). Every call goes to the REST API at {@code stageops.ui.api-base-url}.
+ */
+@Service
+@ConditionalOnProperty(name = "stageops.ui.mode", havingValue = "remote")
+public class RemoteUiDataService implements IUiDataService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RemoteUiDataService.class);
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> ROW_LIST = new ParameterizedTypeReference<>() {};
+    // Wait between reconnects to the change feed after a failure, doubling up to the maximum
+    private static final long MIN_RECONNECT_DELAY_MS = 1_000;
+    private static final long MAX_RECONNECT_DELAY_MS = 30_000;
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+
+    public RemoteUiDataService(RestTemplateBuilder restTemplateBuilder, ObjectMapper objectMapper,
+                               @Value("${stageops.ui.api-base-url:http://localhost:8080}") String apiBaseUrl) {
+        this.restTemplate = restTemplateBuilder.rootUri(apiBaseUrl).build();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public DashboardSummary getDashboardSummary() {
+        return restTemplate.getForObject("/api/dashboard/summary", DashboardSummary.class);
+    }
+
+    @Override
+    public EventDto getEvent(int eventId) {
+        return restTemplate.getForObject("/api/events/{id}", EventDto.class, eventId);
+    }
+
+    @Override
+    public List<Seating> getSeatsForEvent(int eventId) {
+        return listOf(restTemplate.getForObject("/api/events/{id}/seats", Seating[].class, eventId));
+    }
+
+    @Override
+    public double getTotalRevenueForDate(LocalDate date) {
+        Double total = restTemplate.getForObject("/api/revenue/total/daily/{date}", Double.class, date);
+        return total != null ? total : 0.0;
+    }
+
+    @Override
+    public List<Map<String, Object>> getMonthlyRevenue(int year) {
+        return rows("/api/revenue/monthly/{year}", year);
+    }
+
+    @Override
+    public List<Map<String, Object>> getDailyRevenue(int month, int year) {
+        return rows("/api/revenue/daily/{month}/{year}", month, year);
+    }
+
+    @Override
+    public List<Map<String, Object>> getLifetimeRevenue() {
+        return rows("/api/revenue/lifetime");
+    }
+
+    @Override
+    public List<RevenueTrackingDTO> getRevenueEntriesByYear(int year) {
+        return listOf(restTemplate.getForObject("/api/revenue/entries/yearly/{year}", RevenueTrackingDTO[].class, year));
+    }
+
+    @Override
+    public List<RevenueTrackingDTO> getRevenueEntriesByMonth(int year, int month) {
+        return listOf(restTemplate.getForObject("/api/revenue/entries/monthly/{year}/{month}", RevenueTrackingDTO[].class, year, month));
+    }
+
+    @Override
+    public List<RevenueTrackingDTO> getAllRevenueEntries() {
+        return listOf(restTemplate.getForObject("/api/revenue/entries/lifetime", RevenueTrackingDTO[].class));
+    }
+
+    @Override
+    public void exportRevenueCsv(LocalDate startDate, LocalDate endDate, boolean gzip, Path target, ProgressListener progress) {
+        // The server does not report a row count, so progress is indeterminate until the download completes
+        progress.update(0, -1);
+        restTemplate.execute("/api/revenue/export/csv?startDate={start}&endDate={end}&gzip={gzip}", HttpMethod.GET, null, response -> {
+            try (OutputStream out = Files.newOutputStream(target)) {
+                response.getBody().transferTo(out);
+            }
+            return null;
+        }, startDate != null ? startDate : "", endDate != null ? endDate : "", gzip);
+    }
+
+    @Override
+    public List<CalendarEntry> getCalendarEntries(LocalDate startDate, LocalDate endDate) {
+        return listOf(restTemplate.getForObject("/api/calendar/entries?startDate={start}&endDate={end}",
+                CalendarEntry[].class, startDate, endDate));
+    }
+
+    @Override
+    public List<Booking> getAllBookings() {
+        return listOf(restTemplate.getForObject("/booking/all", Booking[].class));
+    }
+
+    @Override
+    public boolean createBooking(Booking booking) {
+        return "Booking created successfully!".equals(restTemplate.postForObject("/booking/create", booking, String.class));
+    }
+
+    @Override
+    public List<Room> getAllRooms() {
+        return listOf(restTemplate.getForObject("/api/rooms", Room[].class));
+    }
+
+    @Override
+    public Room getRoom(int roomId) {
+        return restTemplate.getForObject("/api/rooms/{id}", Room.class, roomId);
+    }
+
+    @Override
+    public List<Client> getAllClients() {
+        return listOf(restTemplate.getForObject("/api/clients", Client[].class));
+    }
+
+    @Override
+    public boolean createClient(Client client) {
+        return "Client created successfully!".equals(restTemplate.postForObject("/api/clients", client, String.class));
+    }
+
+    @Override
+    public List<Contract> getContractsByClient(int clientId) {
+        return listOf(restTemplate.getForObject("/api/contracts/client/{id}", Contract[].class, clientId));
+    }
+
+    @Override
+    public List<Invoice> getInvoicesByClient(int clientId) {
+        return listOf(restTemplate.getForObject("/api/invoices/client/{id}", Invoice[].class, clientId));
+    }
+
+    @Override
+    public PdfJob submitPdfJob(String jobType, List<Integer> documentIds) {
+        PdfJob request = new PdfJob();
+        request.setJobType(jobType);
+        request.setDocumentIds(documentIds);
+        return restTemplate.postForObject("/api/pdf-jobs", request, PdfJob.class);
+    }
+
+    @Override
+    public PdfJob awaitPdfJob(int jobId) {
+        // Each call waits on the server for up to 20 seconds, so this loop only repeats for long jobs
+        PdfJob job;
+        do {
+            job = restTemplate.getForObject("/api/pdf-jobs/{id}/await", PdfJob.class, jobId);
+        } while (job != null && !job.isFinished());
+        return job;
+    }
+
+    @Override
+    public void downloadPdfJobResult(int jobId, Path target) {
+        restTemplate.execute("/api/pdf-jobs/{id}/result", HttpMethod.GET, null, response -> {
+            try (OutputStream out = Files.newOutputStream(target)) {
+                response.getBody().transferTo(out);
+            }
+            return null;
+        }, jobId);
+    }
+
+    @Override
+    public AutoCloseable subscribeChanges(List<String> topics, Consumer<ChangeEvent> listener) {
+        ChangeStream stream = new ChangeStream(String.join(",", topics), listener);
+        Thread.ofVirtual().name("change-stream").start(stream::run);
+        return stream;
+    }
+
+    private List<Map<String, Object>> rows(String url, Object... uriVariables) {
+        List<Map<String, Object>> rows = restTemplate.exchange(url, HttpMethod.GET, null, ROW_LIST, uriVariables).getBody();
+        return rows != null ? rows : List.of();
+    }
+
+    private static <T> List<T> listOf(T[] items) {
+        return items != null ? List.of(items) : List.of();
+    }
+
+    /**
+     * Reads {@code /api/changes} as a server-sent event stream and reconnects when it ends, sending the number of
+     * the last change received so the server replays what was missed.
+     */
+    private final class ChangeStream implements AutoCloseable {
+        private final String topics;
+        private final Consumer<ChangeEvent> listener;
+        private volatile boolean closed;
+        private volatile InputStream body;
+        private String lastEventId;
+
+        private ChangeStream(String topics, Consumer<ChangeEvent> listener) {
+            this.topics = topics;
+            this.listener = listener;
+        }
+
+        private void run() {
+            long delayMs = MIN_RECONNECT_DELAY_MS;
+            while (!closed) {
+                try {
+                    restTemplate.execute("/api/changes?topics={topics}", HttpMethod.GET, request -> {
+                        request.getHeaders().setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+                        if (lastEventId != null) {
+                            request.getHeaders().set("Last-Event-ID", lastEventId);
+                        }
+                    }, response -> {
+                        read(response.getBody());
+                        return null;
+                    }, topics);
+                    // The server ends every stream after its timeout; reconnect straight away
+                    delayMs = MIN_RECONNECT_DELAY_MS;
+                    continue;
+                } catch (RuntimeException e) {
+                    if (closed) {
+                        return;
+                    }
+                    logger.debug("Change feed for {} disconnected, reconnecting in {} ms", topics, delayMs, e);
+                }
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                delayMs = Math.min(delayMs * 2, MAX_RECONNECT_DELAY_MS);
+            }
+        }
+
+        private void read(InputStream in) throws IOException {
+            body = in;
+            if (closed) {
+                in.close();
+                return;
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String id = null;
+            StringBuilder data = new StringBuilder();
+            String line;
+            while (!closed && (line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    // A blank line ends the event
+                    if (!data.isEmpty()) {
+                        dispatch(data.toString());
+                    }
+                    if (id != null) {
+                        lastEventId = id;
+                    }
+                    id = null;
+                    data.setLength(0);
+                } else if (line.startsWith("id:")) {
+                    id = line.substring(3).trim();
+                } else if (line.startsWith("data:")) {
+                    if (!data.isEmpty()) {
+                        data.append('\n');
+                    }
+                    data.append(line.substring(5).trim());
+                }
+            }
+        }
+
+        private void dispatch(String json) throws IOException {
+            ChangeEvent change = objectMapper.readValue(json, ChangeEvent.class);
+            try {
+                listener.accept(change);
+            } catch (RuntimeException e) {
+                logger.debug("Closing change feed subscription to {}", topics, e);
+                close();
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            InputStream in = body;
+            if (in != null) {
+                try {
+                    // Unblocks the read in progress
+                    in.close();
+                } catch (IOException ignored) {
+                    // Already closed
+                }
+            }
+        }
+    }
+}
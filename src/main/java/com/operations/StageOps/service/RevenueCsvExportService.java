@@ -0,0 +1,121 @@
+package com.operations.StageOps.service;
+
+import com.operations.StageOps.model.RevenueTracking;
+import com.operations.StageOps.repository.RevenueTrackingRepository;
+import com.operations.StageOps.util.ProgressListener;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports revenue tracking records as CSV.
+ * <p>
+ * Rows are read from a forward-only cursor and written straight to a buffered writer, optionally gzip-compressed,
+ * so memory use stays the same however many rows are exported.
+ */
+@Service
+public class RevenueCsvExportService {
+
+    private static final String HEADER = "Revenue ID,Room ID,Event ID,Booking ID,Total Revenue,Ticket Sales,Venue Hire,Booking Date,Status";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Rows written between two progress updates
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    private final RevenueTrackingRepository revenueTrackingRepository;
+
+    /**
+     * Constructor for RevenueCsvExportService.
+     *
+     * @param revenueTrackingRepository The repository the records are read from.
+     */
+    public RevenueCsvExportService(RevenueTrackingRepository revenueTrackingRepository) {
+        this.revenueTrackingRepository = revenueTrackingRepository;
+    }
+
+    /**
+     * Write the revenue tracking records with a booking date between startDate and endDate (both inclusive) as CSV.
+     * The stream is flushed (and the gzip trailer written) but not closed.
+     *
+     * @param startDate The first booking date to export, or null for no lower bound.
+     * @param endDate The last booking date to export, or null for no upper bound.
+     * @param out Where the CSV is written.
+     * @param gzip Whether to gzip-compress the output.
+     * @param progress Told the number of rows written so far and the total, every 1000 rows and at the end.
+     * @return The number of rows written, excluding the header.
+     * @throws IOException If writing to the stream fails.
+     */
+    public long writeCsv(LocalDate startDate, LocalDate endDate, OutputStream out, boolean gzip, ProgressListener progress) throws IOException {
+        LocalDate endExclusive = endDate != null ? endDate.plusDays(1) : null;
+        long total = revenueTrackingRepository.countRevenueTrackingEntriesBetween(startDate, endExclusive);
+        progress.update(0, total);
+
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzipStream != null ? gzipStream : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(HEADER);
+        writer.write('\n');
+
+        long[] written = {0};
+        try {
+            revenueTrackingRepository.forEachRevenueTrackingEntryBetween(startDate, endExclusive, entry -> {
+                try {
+                    writeRow(writer, entry);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (++written[0] % PROGRESS_INTERVAL == 0) {
+                    progress.update(written[0], Math.max(total, written[0]));
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.flush();
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+        out.flush();
+        progress.update(written[0], written[0]);
+        return written[0];
+    }
+
+    private static void writeRow(Writer writer, RevenueTracking entry) throws IOException {
+        writer.write(Integer.toString(entry.getRevenueId()));
+        writer.write(',');
+        writer.write(Integer.toString(entry.getRoomId()));
+        writer.write(',');
+        writer.write(Integer.toString(entry.getEventId()));
+        writer.write(',');
+        writer.write(Integer.toString(entry.getBookingId()));
+        writer.write(',');
+        writer.write(Double.toString(entry.getTotalRevenue()));
+        writer.write(',');
+        writer.write(Double.toString(entry.getTicketSales()));
+        writer.write(',');
+        writer.write(Double.toString(entry.getVenueHire()));
+        writer.write(',');
+        writer.write(entry.getBookingDate() != null ? entry.getBookingDate().toString() : "");
+        writer.write(',');
+        writer.write(csvField(entry.getStatus()));
+        writer.write('\n');
+    }
+
+    // Quotes a text field if it contains a separator, quote or line break
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
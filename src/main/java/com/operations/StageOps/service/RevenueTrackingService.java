@@ -1,29 +1,37 @@
 package com.operations.StageOps.service;
 
 import com.operations.StageOps.model.RevenueTracking;
+import com.operations.StageOps.repository.RevenueRollupRepository;
 import com.operations.StageOps.repository.RevenueTrackingRepository;
+import com.operations.StageOps.util.Paging;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Service class responsible for managing revenue tracking records.
  * Provides various methods to fetch, save, and calculate revenue data based on different time frames (daily, monthly, yearly).
+ * Totals and chart series are read from the pre-aggregated daily/monthly rollups rather than from revenue_tracking.
  */
 @Service
 public class RevenueTrackingService {
 
     private final RevenueTrackingRepository revenueTrackingRepository;
+    private final RevenueRollupRepository revenueRollupRepository;
 
     /**
      * Constructor to inject the RevenueTrackingRepository dependency.
      *
      * @param revenueTrackingRepository The repository that handles data operations for revenue tracking.
+     * @param revenueRollupRepository The repository for the daily/monthly revenue rollups.
      */
-    public RevenueTrackingService(RevenueTrackingRepository revenueTrackingRepository) {
+    public RevenueTrackingService(RevenueTrackingRepository revenueTrackingRepository, RevenueRollupRepository revenueRollupRepository) {
         this.revenueTrackingRepository = revenueTrackingRepository;
+        this.revenueRollupRepository = revenueRollupRepository;
     }
 
     /**
@@ -46,6 +54,27 @@ public class RevenueTrackingService {
         return revenueTrackingRepository.getAllRevenueTrackingEntries();
     }
 
+    /**
+     * Retrieve a page of revenue tracking records for the revenue report, starting after a record ID.
+     *
+     * @param afterId The revenue ID of the last record of the previous page, or 0 for the first page.
+     * @param limit The requested page size; the default if null, capped at {@link Paging#MAX_PAGE_SIZE}.
+     * @return The records with a revenue ID above afterId, in revenue ID order.
+     */
+    public List<RevenueTracking> getRevenueTrackingEntriesPage(int afterId, Integer limit) {
+        return revenueTrackingRepository.getRevenueTrackingEntriesPage(afterId, Paging.limit(limit));
+    }
+
+    /**
+     * Pass all revenue tracking records, in revenue ID order, to the given action straight from the result set.
+     * Use {@link #getRevenueTrackingEntriesPage} when the records have to be returned instead.
+     *
+     * @param action Called once per record.
+     */
+    public void forEachRevenueTrackingEntry(Consumer<RevenueTracking> action) {
+        revenueTrackingRepository.forEachRevenueTrackingEntry(action);
+    }
+
     /**
      * Get revenue tracking record by its ID.
      *
@@ -63,7 +92,8 @@ public class RevenueTrackingService {
      * @return The total revenue for the specified date.
      */
     public double getTotalRevenueByDate(String date) {
-        return revenueTrackingRepository.getTotalRevenueByDate(date);
+        LocalDate day = LocalDate.parse(date);
+        return revenueRollupRepository.sumDailyRevenue(day, day.plusDays(1));
     }
 
     /**
@@ -74,7 +104,7 @@ public class RevenueTrackingService {
      * @return The total revenue for the given month and year.
      */
     public double getTotalRevenueByMonth(int month, int year) {
-        return revenueTrackingRepository.getTotalRevenueByMonth(month, year);
+        return revenueRollupRepository.sumMonthlyRevenue(year, month);
     }
 
     /**
@@ -84,7 +114,7 @@ public class RevenueTrackingService {
      * @return The total revenue for the given year.
      */
     public double getTotalRevenueByYear(int year) {
-        return revenueTrackingRepository.getTotalRevenueByYear(year);
+        return revenueRollupRepository.sumMonthlyRevenue(year, null);
     }
 
     /**
@@ -159,7 +189,7 @@ public class RevenueTrackingService {
      * @return List of maps containing month and total revenue for each month of the year
      */
     public List<Map<String, Object>> getMonthlyRevenue(int year) {
-        return revenueTrackingRepository.getTotalRevenueYear(year);
+        return revenueRollupRepository.getMonthlyTotals(year);
     }
 
     /**
@@ -170,7 +200,7 @@ public class RevenueTrackingService {
      * @return List of maps containing day and total revenue for each day in the month
      */
     public List<Map<String, Object>> getDailyRevenue(int month, int year) {
-        return revenueTrackingRepository.getTotalRevenueByMonthAndYear(month, year);
+        return revenueRollupRepository.getDailyTotals(month, year);
     }
 
     /**
@@ -179,7 +209,7 @@ public class RevenueTrackingService {
      * @return List of maps containing year and total revenue for each year
      */
     public List<Map<String, Object>> getLifetimeRevenueByYear() {
-        return revenueTrackingRepository.getLifetimeRevenueByYear();
+        return revenueRollupRepository.getYearlyTotals();
     }
 
     /**
@@ -190,7 +220,18 @@ public class RevenueTrackingService {
      * @return The total revenue for the week.
      */
     public double getTotalRevenueForWeek(LocalDate startOfWeek, LocalDate endOfWeek) {
-        return revenueTrackingRepository.sumRevenueByDateBetween(startOfWeek, endOfWeek);
+        return revenueRollupRepository.sumDailyRevenue(startOfWeek, endOfWeek.plusDays(1));
+    }
+
+    /**
+     * Rebuild the daily/monthly revenue rollups from revenue_tracking, e.g. after rows were corrected by hand.
+     * Runs in one transaction, so readers keep seeing the old rollups until the rebuild commits.
+     *
+     * @return The number of daily buckets written.
+     */
+    @Transactional
+    public int rebuildRevenueRollups() {
+        return revenueRollupRepository.rebuild();
     }
 
 }
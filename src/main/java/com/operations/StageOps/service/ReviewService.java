@@ -2,10 +2,14 @@ package com.operations.StageOps.service;
 
 
 import com.operations.StageOps.model.Review;
+import com.operations.StageOps.model.ReviewDto;
 import com.operations.StageOps.repository.ReviewRepository;
+import com.operations.StageOps.util.Paging;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service class responsible for managing reviews.
@@ -14,6 +18,9 @@ import java.util.List;
 @Service
 public class ReviewService {
 
+    // Largest page the review feed returns, whatever the caller asks for
+    private static final int MAX_FEED_PAGE_SIZE = 100;
+
     private final ReviewRepository reviewRepository;
 
 
@@ -45,6 +52,26 @@ public class ReviewService {
         return reviewRepository.getAllReviews();
     }
 
+    /**
+     * Retrieve up to limit reviews with an ID above afterId, in ID order.
+     *
+     * @param afterId The ID of the last review of the previous page, or 0 for the first page.
+     * @param limit The requested page size; the default if null, capped at {@link Paging#MAX_PAGE_SIZE}.
+     * @return The page of reviews.
+     */
+    public List<Review> getReviewsPage(int afterId, Integer limit) {
+        return reviewRepository.getReviewsPage(afterId, Paging.limit(limit));
+    }
+
+    /**
+     * Feed every review to the given action as the rows arrive, in ID order, instead of returning them all at once.
+     *
+     * @param action Called once per review.
+     */
+    public void forEachReview(Consumer<Review> action) {
+        reviewRepository.forEachReview(action);
+    }
+
     /**
      * Get a review by its ID.
      *
@@ -111,4 +138,15 @@ public class ReviewService {
         return reviewRepository.getReviewsByBookingId(bookingId);
     }
 
+    /**
+     * Get one page of the review feed, newest first, with the event and client names filled in.
+     *
+     * @param beforeDate The date of the last review of the previous page, or null for the first page.
+     * @param beforeId   The ID of the last review of the previous page.
+     * @param limit      The page size; capped at 100.
+     * @return The reviews older than the given review.
+     */
+    public List<ReviewDto> getReviewFeed(LocalDateTime beforeDate, int beforeId, int limit) {
+        return reviewRepository.getReviewFeed(beforeDate, beforeId, Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE)));
+    }
 }
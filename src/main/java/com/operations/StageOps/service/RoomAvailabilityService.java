@@ -0,0 +1,302 @@
+package com.operations.StageOps.service;
+
+import com.operations.StageOps.model.RoomTimeRange;
+import com.operations.StageOps.repository.RoomRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory room availability engine.
+ * <p>
+ * Keeps, per room, a sorted interval index of the periods occupied by bookings and by events.
+ * The index is loaded from the database on first use and refreshed per room when bookings or
+ * events change, so availability questions are answered without querying the database.
+ * <p>
+ * Booking room assignments block their whole calendar day; events block their exact start/end times.
+ */
+@Service
+public class RoomAvailabilityService {
+
+    private final RoomRepository roomRepository;
+    private final Map<Integer, RoomIntervals> rooms = new ConcurrentHashMap<>();
+    private final Object loadLock = new Object();
+    private volatile boolean loaded;
+
+    /**
+     * Constructor for RoomAvailabilityService.
+     *
+     * @param roomRepository The repository used to load rooms and their occupied time ranges.
+     */
+    public RoomAvailabilityService(RoomRepository roomRepository) {
+        this.roomRepository = roomRepository;
+    }
+
+    /**
+     * Check if a room is available for a specific time period. The room must have no booking on any day
+     * from {@code startDate} to {@code endDate} (inclusive) and no event overlapping
+     * [{@code eventStartTime}, {@code eventEndTime}).
+     *
+     * @param roomId The ID of the room to check.
+     * @param startDate The start date of the time period.
+     * @param endDate The end date of the time period.
+     * @param eventStartTime The start time of the event.
+     * @param eventEndTime The end time of the event.
+     * @return True if the room is available, false otherwise (including unknown rooms).
+     */
+    public boolean isRoomAvailableForTimePeriod(int roomId, LocalDate startDate, LocalDate endDate, ZonedDateTime eventStartTime, ZonedDateTime eventEndTime) {
+        ensureLoaded();
+        RoomIntervals intervals = rooms.get(roomId);
+        return intervals != null && intervals.isFree(dayStart(startDate), dayStart(endDate.plusDays(1)),
+                eventStartTime.toInstant().toEpochMilli(), eventEndTime.toInstant().toEpochMilli());
+    }
+
+    /**
+     * Get the rooms available for a specific time period in one in-memory pass.
+     * See {@link #isRoomAvailableForTimePeriod} for what "available" means.
+     *
+     * @param startDate The start date of the time period.
+     * @param endDate The end date of the time period.
+     * @param eventStartTime The start time of the event.
+     * @param eventEndTime The end time of the event.
+     * @return A list of available room IDs, in ascending order.
+     */
+    public List<Integer> getAvailableRooms(LocalDate startDate, LocalDate endDate, ZonedDateTime eventStartTime, ZonedDateTime eventEndTime) {
+        ensureLoaded();
+        long dayWindowStart = dayStart(startDate);
+        long dayWindowEnd = dayStart(endDate.plusDays(1));
+        long start = eventStartTime.toInstant().toEpochMilli();
+        long end = eventEndTime.toInstant().toEpochMilli();
+
+        List<Integer> availableRooms = new ArrayList<>();
+        rooms.forEach((roomId, intervals) -> {
+            if (intervals.isFree(dayWindowStart, dayWindowEnd, start, end)) {
+                availableRooms.add(roomId);
+            }
+        });
+        availableRooms.sort(Comparator.naturalOrder());
+        return availableRooms;
+    }
+
+    /**
+     * Check if a room is free for the whole of [{@code start}, {@code end}), i.e. no booking day
+     * and no event overlaps that window.
+     *
+     * @param roomId The ID of the room to check.
+     * @param start The start of the window (inclusive).
+     * @param end The end of the window (exclusive).
+     * @return True if the room is free, false otherwise (including unknown rooms).
+     */
+    public boolean isRoomFree(int roomId, Instant start, Instant end) {
+        ensureLoaded();
+        RoomIntervals intervals = rooms.get(roomId);
+        long s = start.toEpochMilli();
+        long e = end.toEpochMilli();
+        return intervals != null && intervals.isFree(s, e, s, e);
+    }
+
+    /**
+     * Check, for each of {@code slotCount} consecutive slots of {@code slotMillis} starting at {@code start},
+     * whether a room is free for the whole slot.
+     *
+     * @param roomId The ID of the room to check.
+     * @param start The start of the first slot.
+     * @param slotMillis The length of each slot in milliseconds.
+     * @param slotCount The number of slots.
+     * @return One flag per slot; all false for an unknown room.
+     */
+    public boolean[] getFreeSlots(int roomId, Instant start, long slotMillis, int slotCount) {
+        ensureLoaded();
+        boolean[] free = new boolean[slotCount];
+        RoomIntervals intervals = rooms.get(roomId);
+        if (intervals == null) {
+            return free;
+        }
+        long slotStart = start.toEpochMilli();
+        for (int i = 0; i < slotCount; i++, slotStart += slotMillis) {
+            long slotEnd = slotStart + slotMillis;
+            free[i] = intervals.isFree(slotStart, slotEnd, slotStart, slotEnd);
+        }
+        return free;
+    }
+
+    /**
+     * Get the IDs of all known rooms, in ascending order.
+     *
+     * @return The room IDs.
+     */
+    public List<Integer> getRoomIds() {
+        ensureLoaded();
+        List<Integer> roomIds = new ArrayList<>(rooms.keySet());
+        roomIds.sort(Comparator.naturalOrder());
+        return roomIds;
+    }
+
+    /**
+     * Reload the occupied time ranges of the given rooms. When called inside a transaction the reload is
+     * deferred until after commit, so the index never reflects changes that are rolled back.
+     *
+     * @param roomIds The IDs of the rooms whose bookings or events changed.
+     */
+    public void refreshRooms(Collection<Integer> roomIds) {
+        List<Integer> ids = new ArrayList<>(roomIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reloadRooms(ids);
+                }
+            });
+        } else {
+            reloadRooms(ids);
+        }
+    }
+
+    /**
+     * Reload the occupied time ranges of a single room.
+     *
+     * @param roomId The ID of the room whose bookings or events changed.
+     */
+    public void refreshRoom(int roomId) {
+        refreshRooms(List.of(roomId));
+    }
+
+    /**
+     * Drop the whole index so that it is rebuilt on next use, e.g. after rooms are added or removed.
+     */
+    public void invalidate() {
+        synchronized (loadLock) {
+            loaded = false;
+            rooms.clear();
+        }
+    }
+
+    private void reloadRooms(List<Integer> roomIds) {
+        synchronized (loadLock) {
+            if (!loaded) {
+                return; // Not built yet; the initial load will pick up the change
+            }
+            for (Integer roomId : roomIds) {
+                if (roomId == null || !rooms.containsKey(roomId)) {
+                    continue;
+                }
+                rooms.put(roomId, RoomIntervals.of(roomRepository.getOccupiedTimeRanges(roomId)));
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (loadLock) {
+            if (loaded) {
+                return;
+            }
+            Map<Integer, List<RoomTimeRange>> rangesByRoom = new HashMap<>();
+            for (Integer roomId : roomRepository.getAllRoomIds()) {
+                rangesByRoom.put(roomId, new ArrayList<>());
+            }
+            for (RoomTimeRange range : roomRepository.getOccupiedTimeRanges(null)) {
+                List<RoomTimeRange> roomRanges = rangesByRoom.get(range.getRoomId());
+                if (roomRanges != null) {
+                    roomRanges.add(range);
+                }
+            }
+            rooms.clear();
+            rangesByRoom.forEach((roomId, ranges) -> rooms.put(roomId, RoomIntervals.of(ranges)));
+            loaded = true;
+        }
+    }
+
+    private static long dayStart(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * The booking and event intervals of one room. Immutable; replaced as a whole on refresh.
+     */
+    private static final class RoomIntervals {
+        private final IntervalIndex bookings;
+        private final IntervalIndex events;
+
+        private RoomIntervals(IntervalIndex bookings, IntervalIndex events) {
+            this.bookings = bookings;
+            this.events = events;
+        }
+
+        static RoomIntervals of(List<RoomTimeRange> ranges) {
+            List<long[]> bookingRanges = new ArrayList<>();
+            List<long[]> eventRanges = new ArrayList<>();
+            for (RoomTimeRange range : ranges) {
+                long[] interval = {range.getStart().toEpochMilli(), range.getEnd().toEpochMilli()};
+                if (range.getSource() == RoomTimeRange.Source.BOOKING) {
+                    bookingRanges.add(interval);
+                } else {
+                    eventRanges.add(interval);
+                }
+            }
+            return new RoomIntervals(IntervalIndex.of(bookingRanges), IntervalIndex.of(eventRanges));
+        }
+
+        boolean isFree(long bookingWindowStart, long bookingWindowEnd, long eventWindowStart, long eventWindowEnd) {
+            return !bookings.overlaps(bookingWindowStart, bookingWindowEnd)
+                    && !events.overlaps(eventWindowStart, eventWindowEnd);
+        }
+    }
+
+    /**
+     * Sorted interval array with a running maximum of end times, which answers
+     * "does any interval overlap [start, end)?" with one binary search.
+     */
+    private static final class IntervalIndex {
+        private final long[] starts;
+        private final long[] maxEnds;
+
+        private IntervalIndex(long[] starts, long[] maxEnds) {
+            this.starts = starts;
+            this.maxEnds = maxEnds;
+        }
+
+        static IntervalIndex of(List<long[]> intervals) {
+            intervals.sort(Comparator.comparingLong(interval -> interval[0]));
+            long[] starts = new long[intervals.size()];
+            long[] maxEnds = new long[intervals.size()];
+            long maxEnd = Long.MIN_VALUE;
+            for (int i = 0; i < intervals.size(); i++) {
+                starts[i] = intervals.get(i)[0];
+                maxEnd = Math.max(maxEnd, intervals.get(i)[1]);
+                maxEnds[i] = maxEnd;
+            }
+            return new IntervalIndex(starts, maxEnds);
+        }
+
+        boolean overlaps(long start, long end) {
+            // Last interval that starts before the window ends
+            int index = Arrays.binarySearch(starts, end);
+            int last = index >= 0 ? lowerBound(index, end) - 1 : -index - 2;
+            // Any of those intervals overlaps iff the furthest end among them is after the window start
+            return last >= 0 && maxEnds[last] > start;
+        }
+
+        private int lowerBound(int found, long value) {
+            while (found > 0 && starts[found - 1] == value) {
+                found--;
+            }
+            return found;
+        }
+    }
+}
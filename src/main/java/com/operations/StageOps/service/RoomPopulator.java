@@ -4,7 +4,11 @@ import com.operations.StageOps.model.Seating;
 import com.operations.StageOps.repository.SeatingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -19,18 +23,31 @@ public class RoomPopulator {
 
     /**
      * Create seats for a given room based on room ID and capacity.
-     * Checks if the seat already exists before inserting.
+     * The seats are numbered 1 to capacity and inserted in one transaction.
      * @param roomId The room ID for which to create the seats
      * @param capacity The total capacity of the room (number of seats)
+     * @return The number of seats created
      */
-    public void createSeatsForRoom(int roomId, int capacity) {
-        for (int i = 1; i <= capacity; i++) {
-            String seatId = generateUniqueSeatId();
-
+    @Transactional
+    public int createSeatsForRoom(int roomId, int capacity) {
+        return createSeatsForRooms(Map.of(roomId, capacity));
+    }
 
-            // If not found, save the new seat
-            seatingRepository.save(new Seating(seatId, roomId, i, false, false, ""));
-        }
+    /**
+     * Create seats for several rooms at once, numbered 1 to the room's capacity in each room.
+     * All seats are inserted with batched statements in one transaction, so either every room gets its seats or none does.
+     * @param capacityByRoom The capacity of each room, by room ID
+     * @return The number of seats created
+     */
+    @Transactional
+    public int createSeatsForRooms(Map<Integer, Integer> capacityByRoom) {
+        List<Seating> seats = new ArrayList<>(capacityByRoom.values().stream().mapToInt(Integer::intValue).sum());
+        capacityByRoom.forEach((roomId, capacity) -> {
+            for (int i = 1; i <= capacity; i++) {
+                seats.add(new Seating(generateUniqueSeatId(), roomId, i, false, false, ""));
+            }
+        });
+        return seatingRepository.saveAll(seats);
     }
 
     /**
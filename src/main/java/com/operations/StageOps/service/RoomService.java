@@ -2,12 +2,17 @@ package com.operations.StageOps.service;
 
 
 import com.operations.StageOps.model.Room;
+import com.operations.StageOps.model.RoomAvailabilityMatrix;
 import com.operations.StageOps.repository.RoomRepository;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service class for managing room operations.
@@ -16,15 +21,23 @@ import java.util.List;
 @Service
 public class RoomService {
 
+    /**
+     * Upper bound on the number of slots in an availability matrix, to keep responses bounded.
+     */
+    static final int MAX_MATRIX_SLOTS = 5000;
+
     private final RoomRepository roomRepository;
+    private final RoomAvailabilityService roomAvailabilityService;
 
     /**
      * Constructor for RoomService, injecting the RoomRepository dependency.
      *
      * @param roomRepository The repository responsible for room data operations.
+     * @param roomAvailabilityService The in-memory index answering availability queries.
      */
-    public RoomService(RoomRepository roomRepository) {
+    public RoomService(RoomRepository roomRepository, RoomAvailabilityService roomAvailabilityService) {
         this.roomRepository = roomRepository;
+        this.roomAvailabilityService = roomAvailabilityService;
     }
 
     /**
@@ -34,7 +47,9 @@ public class RoomService {
      * @return The result of the save operation (e.g., affected rows or room ID).
      */
     public int saveRoom(Room room) {
-        return roomRepository.save(room);
+        int result = roomRepository.save(room);
+        roomAvailabilityService.invalidate();
+        return result;
     }
 
 
@@ -76,6 +91,7 @@ public class RoomService {
      */
     public void deleteRoom(int roomId) {
         roomRepository.deleteRoom(roomId);
+        roomAvailabilityService.invalidate();
     }
 
     /**
@@ -89,7 +105,7 @@ public class RoomService {
      * @return True if the room is available, false otherwise.
      */
     public boolean isRoomAvailableForTimePeriod(int roomId, LocalDate startDate, LocalDate endDate, ZonedDateTime eventStartTime, ZonedDateTime eventEndTime) {
-        return roomRepository.isRoomAvailableForTimePeriod(roomId, startDate, endDate, eventStartTime, eventEndTime);
+        return roomAvailabilityService.isRoomAvailableForTimePeriod(roomId, startDate, endDate, eventStartTime, eventEndTime);
     }
 
     /**
@@ -102,7 +118,41 @@ public class RoomService {
      * @return A list of available room IDs.
      */
     public List<Integer> getAvailableRooms(LocalDate startDate, LocalDate endDate, ZonedDateTime eventStartTime, ZonedDateTime eventEndTime) {
-        return roomRepository.getAvailableRooms(startDate, endDate, eventStartTime, eventEndTime);
+        return roomAvailabilityService.getAvailableRooms(startDate, endDate, eventStartTime, eventEndTime);
     }
 
+    /**
+     * Build the availability of every room over equally sized time slots, from the start of
+     * {@code startDate} to the end of {@code endDate}, in one pass over the in-memory availability index.
+     *
+     * @param startDate The first day of the matrix.
+     * @param endDate The last day of the matrix (inclusive).
+     * @param slotMinutes The length of each slot in minutes; must divide a day evenly.
+     * @return The room × slot availability matrix.
+     * @throws IllegalArgumentException If the range or slot length is invalid or yields too many slots.
+     */
+    public RoomAvailabilityMatrix getAvailabilityMatrix(LocalDate startDate, LocalDate endDate, int slotMinutes) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate must not be before startDate.");
+        }
+        if (slotMinutes <= 0 || (24 * 60) % slotMinutes != 0) {
+            throw new IllegalArgumentException("slotMinutes must be a positive divisor of 1440.");
+        }
+
+        ZoneId zone = ZoneId.systemDefault();
+        ZonedDateTime start = startDate.atStartOfDay(zone);
+        ZonedDateTime end = endDate.plusDays(1).atStartOfDay(zone);
+        long slotMillis = Duration.ofMinutes(slotMinutes).toMillis();
+        long slotCount = Duration.between(start, end).toMillis() / slotMillis;
+        if (slotCount > MAX_MATRIX_SLOTS) {
+            throw new IllegalArgumentException("Requested range has " + slotCount + " slots; the maximum is " + MAX_MATRIX_SLOTS + ".");
+        }
+
+        List<RoomAvailabilityMatrix.RoomSlots> rows = new ArrayList<>();
+        for (Map.Entry<Integer, String> room : roomRepository.getRoomNames().entrySet()) {
+            boolean[] available = roomAvailabilityService.getFreeSlots(room.getKey(), start.toInstant(), slotMillis, (int) slotCount);
+            rows.add(new RoomAvailabilityMatrix.RoomSlots(room.getKey(), room.getValue(), available));
+        }
+        return new RoomAvailabilityMatrix(start, end, slotMinutes, rows);
+    }
 }
@@ -0,0 +1,259 @@
+package com.operations.StageOps.service;
+
+import com.operations.StageOps.model.SeatAllocationRequest;
+import com.operations.StageOps.model.SeatHold;
+import com.operations.StageOps.repository.EventRepository;
+import com.operations.StageOps.repository.SeatingRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timed seat holds for group bookings.
+ * <p>
+ * A hold reserves its seats and takes them out of the event's available tickets, like a sale, but only for
+ * {@code stageops.holds.ttl-ms}: unless it is confirmed first, a reaper running every
+ * {@code stageops.holds.reaper-interval-ms} releases it, {@code stageops.holds.reaper-batch-size} holds per
+ * transaction. Seats are claimed in the in-memory seat inventory first, so a conflicting hold or sale is rejected
+ * without reading the event's reserved seats.
+ */
+@Service
+public class SeatHoldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatHoldService.class);
+
+    private final SeatingRepository seatingRepository;
+    private final EventRepository eventRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlMs;
+    private final long reaperIntervalMs;
+    private final int reaperBatchSize;
+    private final ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "seat-hold-reaper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructor for SeatHoldService.
+     *
+     * @param seatingRepository    The repository the held seats are recorded in.
+     * @param eventRepository      The repository holding the events' ticket counters.
+     * @param seatInventoryService The in-memory seat inventory.
+     * @param transactionTemplate  Runs each batch of expired holds in its own transaction.
+     * @param ttlMs                How long a hold lasts, in milliseconds.
+     * @param reaperIntervalMs     How often expired holds are released, in milliseconds.
+     * @param reaperBatchSize      The number of expired holds released per transaction.
+     */
+    public SeatHoldService(SeatingRepository seatingRepository, EventRepository eventRepository,
+                           SeatInventoryService seatInventoryService, TransactionTemplate transactionTemplate,
+                           @Value("${stageops.holds.ttl-ms:86400000}") long ttlMs,
+                           @Value("${stageops.holds.reaper-interval-ms:60000}") long reaperIntervalMs,
+                           @Value("${stageops.holds.reaper-batch-size:100}") int reaperBatchSize) {
+        this.seatingRepository = seatingRepository;
+        this.eventRepository = eventRepository;
+        this.seatInventoryService = seatInventoryService;
+        this.transactionTemplate = transactionTemplate;
+        this.ttlMs = ttlMs;
+        this.reaperIntervalMs = reaperIntervalMs;
+        this.reaperBatchSize = Math.max(1, reaperBatchSize);
+    }
+
+    /**
+     * Hold seats of an event. Either every seat is held or none is.
+     *
+     * @param eventId The ID of the event.
+     * @param seatIds The IDs of the seats to hold.
+     * @return The hold, with its ID and expiry time.
+     * @throws IllegalArgumentException If a seat is listed twice, is already reserved or is not part of the event.
+     * @throws IllegalStateException    If the event does not have enough tickets available.
+     */
+    @Transactional
+    public SeatHold holdSeats(int eventId, List<String> seatIds) {
+        Set<String> uniqueSeatIds = new LinkedHashSet<>(seatIds);
+        if (uniqueSeatIds.size() != seatIds.size()) {
+            throw new IllegalArgumentException("The hold contains the same seat more than once.");
+        }
+        if (seatIds.isEmpty()) {
+            throw new IllegalArgumentException("A hold needs at least one seat.");
+        }
+
+        // Fast in-memory claim; released automatically if this transaction rolls back
+        seatInventoryService.claimSeatsInMemory(eventId, seatIds);
+        return persistHold(eventId, seatIds);
+    }
+
+    /**
+     * Hold the best block of adjacent free seats for a party, as chosen by the seat inventory's best-available
+     * allocator.
+     *
+     * @param eventId The ID of the event.
+     * @param request The party size and constraints.
+     * @return The hold, or null if no block of free seats fits the request.
+     * @throws IllegalArgumentException    If the party size is not positive or a chosen seat was taken by another instance.
+     * @throws IllegalStateException       If the event does not have enough tickets available.
+     * @throws ConcurrencyFailureException If concurrent claims kept taking the chosen seats; a retry may succeed.
+     */
+    @Transactional
+    public SeatHold holdBestAvailable(int eventId, SeatAllocationRequest request) {
+        // Claimed in memory as a unit; released automatically if this transaction rolls back
+        List<String> seatIds = seatInventoryService.claimBestAvailable(eventId, request);
+        if (seatIds.isEmpty()) {
+            return null;
+        }
+        return persistHold(eventId, seatIds);
+    }
+
+    // Writes a hold of seats already claimed in memory; must run inside a transaction
+    private SeatHold persistHold(int eventId, List<String> seatIds) {
+        String holdId = UUID.randomUUID().toString();
+        LocalDateTime heldAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        int[] heldCounts = seatingRepository.holdSeatsIfAvailable(eventId, seatIds, holdId, heldAt);
+        for (int i = 0; i < heldCounts.length; i++) {
+            if (heldCounts[i] == 0) {
+                // Reserved by another instance: the rollback clears the claim, so reload what the database has
+                seatInventoryService.evictAfterTransaction(eventId);
+                throw new IllegalArgumentException("Seat " + seatIds.get(i) + " is already reserved for this event.");
+            }
+        }
+
+        if (eventRepository.holdTickets(eventId, seatIds.size()) == 0) {
+            throw new IllegalStateException("Not enough tickets available to hold these seats.");
+        }
+        return new SeatHold(holdId, eventId, List.copyOf(seatIds), heldAt, expiryOf(heldAt));
+    }
+
+    /**
+     * Get a hold that has not been released or confirmed.
+     *
+     * @param holdId The ID of the hold.
+     * @return The hold, or null if it no longer holds any seats.
+     */
+    public SeatHold getHold(String holdId) {
+        SeatHold hold = seatingRepository.getHold(holdId);
+        if (hold != null && hold.getHeldAt() != null) {
+            hold.setExpiresAt(expiryOf(hold.getHeldAt()));
+        }
+        return hold;
+    }
+
+    /**
+     * Release a hold before it expires; its seats and tickets become available again.
+     *
+     * @param holdId The ID of the hold.
+     * @return True if the hold was released, false if it no longer holds any seats.
+     */
+    @Transactional
+    public boolean releaseHold(String holdId) {
+        return release(List.of(holdId)) > 0;
+    }
+
+    /**
+     * Confirm a hold: its seats stay reserved and its tickets stay out of the available pool, and it no longer expires.
+     *
+     * @param holdId The ID of the hold.
+     * @return True if the hold was confirmed, false if it no longer holds any seats.
+     */
+    @Transactional
+    public boolean confirmHold(String holdId) {
+        return seatingRepository.confirmHold(holdId) > 0;
+    }
+
+    /**
+     * Release every hold that has expired, a batch at a time, each batch in its own transaction.
+     *
+     * @return The number of holds released.
+     */
+    public int releaseExpiredHolds() {
+        int released = 0;
+        while (true) {
+            LocalDateTime heldBefore = LocalDateTime.now().minus(ttlMs, ChronoUnit.MILLIS);
+            List<String> holdIds = seatingRepository.findExpiredHoldIds(heldBefore, reaperBatchSize);
+            if (holdIds.isEmpty()) {
+                return released;
+            }
+            Integer batch = transactionTemplate.execute(status -> release(holdIds));
+            if (batch == null || batch == 0) {
+                return released; // Confirmed or released meanwhile
+            }
+            released += batch;
+            if (holdIds.size() < reaperBatchSize) {
+                return released;
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startReaper() {
+        reaper.scheduleWithFixedDelay(() -> {
+            try {
+                int released = releaseExpiredHolds();
+                if (released > 0) {
+                    logger.info("Released {} expired seat holds", released);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Failed to release expired seat holds", e);
+            }
+        }, 0, reaperIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reaper.shutdownNow();
+    }
+
+    /**
+     * Releases the seats and tickets of holds; must run inside a transaction.
+     *
+     * @return The number of holds released.
+     */
+    private int release(List<String> holdIds) {
+        // Locks the held seats, so a hold released here cannot be confirmed or released again at the same time
+        List<SeatHold> holds = seatingRepository.lockHolds(holdIds);
+        if (holds.isEmpty()) {
+            return 0;
+        }
+        seatingRepository.releaseHolds(holds);
+        for (SeatHold hold : holds) {
+            eventRepository.holdTickets(hold.getEventId(), -hold.getSeatIds().size());
+        }
+
+        Runnable releaseInMemory = () -> holds.forEach(hold ->
+                seatInventoryService.releaseInMemory(hold.getEventId(), hold.getSeatIds()));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    releaseInMemory.run();
+                }
+            });
+        } else {
+            releaseInMemory.run();
+        }
+        return holds.size();
+    }
+
+    private LocalDateTime expiryOf(LocalDateTime heldAt) {
+        return heldAt.plus(ttlMs, ChronoUnit.MILLIS);
+    }
+}
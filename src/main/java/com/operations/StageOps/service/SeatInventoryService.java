@@ -0,0 +1,569 @@
+package com.operations.StageOps.service;
+
+import com.operations.StageOps.model.SeatAllocationRequest;
+import com.operations.StageOps.model.Seating;
+import com.operations.StageOps.repository.EventRepository;
+import com.operations.StageOps.repository.SeatingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory seat inventory for events.
+ * <p>
+ * Each event gets one bitset indexed by seat ordinal, where a set bit means the seat is reserved.
+ * The inventory is loaded from SeatEvents the first time an event is accessed, and again after the seats of the
+ * event's room change (see {@link #onSeatingChanged}). Seats are claimed and released with compare-and-set on
+ * the bitset, and every change is written through to the database.
+ * Availability reads are answered from memory without touching the database.
+ * <p>
+ * The seats are also indexed by section, in seat number order, with a count of free seats per section, so the
+ * best-available allocator finds a block of adjacent seats by scanning only the sections that have room for the
+ * party, without a database round trip.
+ */
+@Service
+public class SeatInventoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatInventoryService.class);
+    // Searches made for a block when other claims keep taking the seats found
+    private static final int MAX_CLAIM_ATTEMPTS = 5;
+
+    private final EventRepository eventRepository;
+    private final SeatingRepository seatingRepository;
+    private final Map<Integer, EventSeats> inventories = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for SeatInventoryService.
+     *
+     * @param eventRepository   The repository used to load the seats of an event.
+     * @param seatingRepository The repository used to write seat reservations through to the database.
+     */
+    public SeatInventoryService(EventRepository eventRepository, SeatingRepository seatingRepository) {
+        this.eventRepository = eventRepository;
+        this.seatingRepository = seatingRepository;
+    }
+
+    /**
+     * Retrieve all available (unreserved) seats for an event.
+     *
+     * @param eventId The ID of the event.
+     * @return A list of available seats, each with status "available".
+     */
+    public List<Seating> getAvailableSeats(int eventId) {
+        return inventoryFor(eventId).snapshot(false);
+    }
+
+    /**
+     * Retrieve all seats for an event with their reserved/available status.
+     *
+     * @param eventId The ID of the event.
+     * @return A list of all seats for the event.
+     */
+    public List<Seating> getSeatsForEvent(int eventId) {
+        return inventoryFor(eventId).snapshot(true);
+    }
+
+    /**
+     * Check whether a seat is currently reserved for an event.
+     *
+     * @param eventId The ID of the event.
+     * @param seatId  The ID of the seat.
+     * @return True if the seat is reserved, false if it is free.
+     * @throws IllegalArgumentException If the seat is not part of the event.
+     */
+    public boolean isReserved(int eventId, String seatId) {
+        EventSeats seats = inventoryContaining(eventId, seatId);
+        return seats.isSet(seats.ordinals.get(seatId));
+    }
+
+    /**
+     * Claim a seat for an event. The seat is first claimed in memory and then marked as reserved in the
+     * database; if the database reports that the seat was already taken (e.g. by another instance),
+     * the claim fails and the seat stays reserved in memory.
+     *
+     * @param eventId The ID of the event.
+     * @param seatId  The ID of the seat to claim.
+     * @return True if this call reserved the seat, false if it was already reserved.
+     * @throws IllegalArgumentException If the seat is not part of the event.
+     */
+    public boolean claimSeat(int eventId, String seatId) {
+        EventSeats seats = inventoryContaining(eventId, seatId);
+        int ordinal = seats.ordinals.get(seatId);
+
+        if (!seats.trySet(ordinal)) {
+            return false;
+        }
+
+        try {
+            return seatingRepository.reserveSeatIfAvailable(eventId, seatId) > 0;
+        } catch (RuntimeException e) {
+            // The reservation was not persisted, so undo the in-memory claim
+            seats.tryClear(ordinal);
+            throw e;
+        }
+    }
+
+    /**
+     * Claim several seats for an event as a unit. If any seat cannot be claimed, the seats already
+     * claimed by this call are released again before the exception is thrown.
+     *
+     * @param eventId The ID of the event.
+     * @param seatIds The IDs of the seats to claim.
+     * @throws IllegalArgumentException If a seat is already reserved or is not part of the event.
+     */
+    public void claimSeats(int eventId, List<String> seatIds) {
+        List<String> claimed = new ArrayList<>();
+        try {
+            for (String seatId : seatIds) {
+                if (!claimSeat(eventId, seatId)) {
+                    throw new IllegalArgumentException("Seat " + seatId + " is already reserved for this event.");
+                }
+                claimed.add(seatId);
+            }
+        } catch (RuntimeException e) {
+            releaseSeats(eventId, claimed);
+            throw e;
+        }
+    }
+
+    /**
+     * Claim several seats in memory only, for a caller that writes the reservation to the database itself
+     * (e.g. in one batch). Nothing is claimed if any seat is already reserved. When called inside a
+     * transaction, the claims are released again automatically if that transaction does not commit.
+     *
+     * @param eventId The ID of the event.
+     * @param seatIds The IDs of the seats to claim.
+     * @throws IllegalArgumentException If a seat is already reserved or is not part of the event.
+     */
+    public void claimSeatsInMemory(int eventId, List<String> seatIds) {
+        List<String> claimed = new ArrayList<>();
+        for (String seatId : seatIds) {
+            EventSeats seats;
+            try {
+                seats = inventoryContaining(eventId, seatId);
+            } catch (IllegalArgumentException e) {
+                releaseInMemory(eventId, claimed);
+                throw e;
+            }
+            if (!seats.trySet(seats.ordinals.get(seatId))) {
+                releaseInMemory(eventId, claimed);
+                throw new IllegalArgumentException("Seat " + seatId + " is already reserved for this event.");
+            }
+            claimed.add(seatId);
+        }
+
+        releaseIfRolledBack(eventId, claimed);
+    }
+
+    /**
+     * Find the best block of adjacent free seats for a party, without claiming it. Seats are adjacent when they
+     * are in the same section and have consecutive seat numbers. The preferred section is used if it has a block;
+     * otherwise the block closest to the middle of its section wins, earlier sections (by name) breaking ties.
+     *
+     * @param eventId The ID of the event.
+     * @param request The party size and constraints.
+     * @return The seats of the block with status "available", or an empty list if no block fits.
+     * @throws IllegalArgumentException If the party size is not positive.
+     */
+    public List<Seating> findBestAvailable(int eventId, SeatAllocationRequest request) {
+        checkPartySize(request);
+        EventSeats seats = inventoryFor(eventId);
+        int[] block = seats.findBestBlock(request);
+        if (block == null) {
+            return List.of();
+        }
+        List<Seating> result = new ArrayList<>(block.length);
+        for (int ordinal : block) {
+            result.add(seats.copyOf(ordinal, false));
+        }
+        return result;
+    }
+
+    /**
+     * Find the best block of adjacent free seats for a party, as {@link #findBestAvailable}, and claim it in memory
+     * as a unit, for a caller that writes the reservation to the database itself. If another claim takes one of
+     * the seats first, the search is repeated. When called inside a transaction, the claims are released again
+     * automatically if that transaction does not commit.
+     *
+     * @param eventId The ID of the event.
+     * @param request The party size and constraints.
+     * @return The IDs of the claimed seats, in seat number order, or an empty list if no block fits.
+     * @throws IllegalArgumentException    If the party size is not positive.
+     * @throws ConcurrencyFailureException If concurrent claims took a seat of every block found; a retry may succeed.
+     */
+    public List<String> claimBestAvailable(int eventId, SeatAllocationRequest request) {
+        checkPartySize(request);
+        EventSeats seats = inventoryFor(eventId);
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            int[] block = seats.findBestBlock(request);
+            if (block == null) {
+                return List.of();
+            }
+            if (seats.trySetAll(block)) {
+                List<String> claimed = new ArrayList<>(block.length);
+                for (int ordinal : block) {
+                    claimed.add(seats.seats.get(ordinal).getSeatId());
+                }
+                releaseIfRolledBack(eventId, claimed);
+                return claimed;
+            }
+        }
+        // Not the same as no block fitting: free blocks were found, but lost to other claims every time
+        throw new ConcurrencyFailureException("Seats of event " + eventId + " are being claimed concurrently; try again.");
+    }
+
+    /**
+     * Clear the in-memory claims of several seats without touching the database.
+     *
+     * @param eventId The ID of the event.
+     * @param seatIds The IDs of the seats to clear.
+     */
+    public void releaseInMemory(int eventId, List<String> seatIds) {
+        EventSeats seats = inventories.get(eventId);
+        if (seats == null) {
+            return; // Not loaded; it will be rebuilt from the database on next access
+        }
+        for (String seatId : seatIds) {
+            Integer ordinal = seats.ordinals.get(seatId);
+            if (ordinal != null) {
+                seats.tryClear(ordinal);
+            }
+        }
+    }
+
+    /**
+     * Release a reserved seat for an event, in memory and in the database.
+     *
+     * @param eventId The ID of the event.
+     * @param seatId  The ID of the seat to release.
+     * @return True if the seat was reserved and has been released, false if it was already free.
+     * @throws IllegalArgumentException If the seat is not part of the event.
+     */
+    public boolean releaseSeat(int eventId, String seatId) {
+        EventSeats seats = inventoryContaining(eventId, seatId);
+        int ordinal = seats.ordinals.get(seatId);
+
+        seatingRepository.releaseSeat(eventId, seatId);
+        return seats.tryClear(ordinal);
+    }
+
+    /**
+     * Release several seats for an event. Failures are logged and do not stop the remaining releases.
+     *
+     * @param eventId The ID of the event.
+     * @param seatIds The IDs of the seats to release.
+     */
+    public void releaseSeats(int eventId, List<String> seatIds) {
+        for (String seatId : seatIds) {
+            try {
+                releaseSeat(eventId, seatId);
+            } catch (RuntimeException e) {
+                logger.error("Failed to release seat {} for event {}", seatId, eventId, e);
+            }
+        }
+    }
+
+    /**
+     * Drop the cached inventory of an event so that it is reloaded from the database on next access.
+     * Should be called when the seats of an event change outside this service (e.g. the event is deleted).
+     *
+     * @param eventId The ID of the event.
+     */
+    public void evict(int eventId) {
+        inventories.remove(eventId);
+    }
+
+    /**
+     * Drop the cached inventory of an event once the current transaction has completed, e.g. because the database
+     * reported a seat as reserved that the inventory had as free. Outside a transaction it is dropped straight away.
+     *
+     * @param eventId The ID of the event.
+     */
+    public void evictAfterTransaction(int eventId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Runs after the rollback hooks of claims made earlier in the transaction, which would clear the seat
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(eventId);
+                }
+            });
+        } else {
+            evict(eventId);
+        }
+    }
+
+    /**
+     * Drop the cached inventories of the events in rooms whose seats changed, e.g. a seat's section, accessibility
+     * or restricted view was edited or a layout re-sectioned the room. Runs after the change commits, or straight
+     * away outside a transaction.
+     *
+     * @param event The rooms whose seats changed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatingChanged(SeatingRepository.SeatingChangedEvent event) {
+        inventories.values().removeIf(seats -> seats.isInAnyRoom(event.getRoomIds()));
+    }
+
+    private void releaseIfRolledBack(int eventId, List<String> claimed) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        releaseInMemory(eventId, claimed);
+                    }
+                }
+            });
+        }
+    }
+
+    private static void checkPartySize(SeatAllocationRequest request) {
+        if (request.getPartySize() < 1) {
+            throw new IllegalArgumentException("The party size must be at least 1.");
+        }
+    }
+
+    private EventSeats inventoryFor(int eventId) {
+        return inventories.computeIfAbsent(eventId, id -> new EventSeats(eventRepository.getSeatsForEvent(id)));
+    }
+
+    /**
+     * Returns the inventory of an event that contains the given seat, reloading it once in case
+     * seats were added to the event after it was first loaded.
+     */
+    private EventSeats inventoryContaining(int eventId, String seatId) {
+        EventSeats seats = inventoryFor(eventId);
+        if (!seats.ordinals.containsKey(seatId)) {
+            evict(eventId);
+            seats = inventoryFor(eventId);
+            if (!seats.ordinals.containsKey(seatId)) {
+                throw new IllegalArgumentException("Seat " + seatId + " is not part of event " + eventId + ".");
+            }
+        }
+        return seats;
+    }
+
+    /**
+     * A candidate block: a run of seats within one section, and how far its middle is from the section's middle.
+     */
+    private record Block(int section, int start, int end, double offCentre) {
+    }
+
+    /**
+     * The seats of one event, a bitset of which of them are reserved, and the seats of each section in seat
+     * number order with the number of free seats in it.
+     */
+    private static final class EventSeats {
+        private final List<Seating> seats;
+        private final Set<Integer> roomIds = new HashSet<>();
+        private final Map<String, Integer> ordinals;
+        private final AtomicLongArray reserved;
+        private final String[] sectionNames;
+        private final int[][] sectionOrdinals;
+        // accessibleBefore[s][i]: accessible seats among the first i seats of section s
+        private final int[][] accessibleBefore;
+        private final int[] sectionOf;
+        private final AtomicIntegerArray freeSeats;
+
+        EventSeats(List<Seating> loadedSeats) {
+            this.seats = new ArrayList<>(loadedSeats);
+            this.ordinals = new HashMap<>(seats.size() * 2);
+            this.reserved = new AtomicLongArray((seats.size() + 63) / 64);
+            this.sectionOf = new int[seats.size()];
+
+            Map<String, List<Integer>> bySection = new TreeMap<>();
+            for (int i = 0; i < seats.size(); i++) {
+                Seating seat = seats.get(i);
+                ordinals.put(seat.getSeatId(), i);
+                roomIds.add(seat.getRoomId());
+                bySection.computeIfAbsent(Objects.toString(seat.getSectionName(), ""), k -> new ArrayList<>()).add(i);
+            }
+            this.sectionNames = bySection.keySet().toArray(new String[0]);
+            this.sectionOrdinals = new int[sectionNames.length][];
+            this.accessibleBefore = new int[sectionNames.length][];
+            this.freeSeats = new AtomicIntegerArray(sectionNames.length);
+            for (int s = 0; s < sectionNames.length; s++) {
+                int[] section = bySection.get(sectionNames[s]).stream()
+                        .sorted(Comparator.comparingInt(i -> seats.get(i).getSeatNumber()))
+                        .mapToInt(Integer::intValue).toArray();
+                sectionOrdinals[s] = section;
+                accessibleBefore[s] = new int[section.length + 1];
+                for (int i = 0; i < section.length; i++) {
+                    sectionOf[section[i]] = s;
+                    accessibleBefore[s][i + 1] = accessibleBefore[s][i] + (seats.get(section[i]).isAccessible() ? 1 : 0);
+                }
+                freeSeats.set(s, section.length);
+            }
+
+            for (int i = 0; i < seats.size(); i++) {
+                if ("reserved".equals(seats.get(i).getStatus())) {
+                    trySet(i);
+                }
+            }
+        }
+
+        boolean isInAnyRoom(Set<Integer> changedRoomIds) {
+            return changedRoomIds.stream().anyMatch(roomIds::contains);
+        }
+
+        /**
+         * @return The ordinals of the best block for the request, or null if no block fits.
+         */
+        int[] findBestBlock(SeatAllocationRequest request) {
+            int preferred = request.getPreferredSection() != null
+                    ? Arrays.asList(sectionNames).indexOf(request.getPreferredSection()) : -1;
+            Block best = preferred >= 0 ? bestBlockInSection(preferred, request) : null;
+            if (best == null) {
+                for (int s = 0; s < sectionNames.length; s++) {
+                    if (s == preferred) {
+                        continue;
+                    }
+                    Block block = bestBlockInSection(s, request);
+                    if (block != null && (best == null || block.offCentre() < best.offCentre())) {
+                        best = block;
+                    }
+                }
+            }
+            return best != null ? Arrays.copyOfRange(sectionOrdinals[best.section()], best.start(), best.end() + 1) : null;
+        }
+
+        private Block bestBlockInSection(int s, SeatAllocationRequest request) {
+            int size = request.getPartySize();
+            // Skips full sections without looking at their seats
+            if (freeSeats.get(s) < size) {
+                return null;
+            }
+            int[] section = sectionOrdinals[s];
+            double middle = (section.length - 1) / 2.0;
+            Block best = null;
+            int runStart = 0;
+            for (int i = 0; i < section.length; i++) {
+                Seating seat = seats.get(section[i]);
+                if (isSet(section[i]) || (request.isAvoidRestricted() && seat.isRestricted())) {
+                    runStart = i + 1;
+                    continue;
+                }
+                if (i > runStart && seat.getSeatNumber() != seats.get(section[i - 1]).getSeatNumber() + 1) {
+                    runStart = i; // A gap in the seat numbers
+                }
+                int start = i - size + 1;
+                if (start < runStart) {
+                    continue;
+                }
+                if (request.isAccessible() && accessibleBefore[s][i + 1] == accessibleBefore[s][start]) {
+                    continue;
+                }
+                double offCentre = Math.abs((start + i) / 2.0 - middle);
+                if (best == null || offCentre < best.offCentre()) {
+                    best = new Block(s, start, i, offCentre);
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Atomically sets the bits of several seats as a unit.
+         *
+         * @return True if every bit was clear and this call set them all; otherwise no bit is changed.
+         */
+        boolean trySetAll(int[] block) {
+            for (int i = 0; i < block.length; i++) {
+                if (!trySet(block[i])) {
+                    for (int j = 0; j < i; j++) {
+                        tryClear(block[j]);
+                    }
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean isSet(int ordinal) {
+            return (reserved.get(ordinal >>> 6) & (1L << ordinal)) != 0;
+        }
+
+        /**
+         * Atomically sets the bit for a seat.
+         *
+         * @return True if the bit was clear and this call set it.
+         */
+        boolean trySet(int ordinal) {
+            int index = ordinal >>> 6;
+            long mask = 1L << ordinal;
+            while (true) {
+                long word = reserved.get(index);
+                if ((word & mask) != 0) {
+                    return false;
+                }
+                if (reserved.compareAndSet(index, word, word | mask)) {
+                    freeSeats.decrementAndGet(sectionOf[ordinal]);
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Atomically clears the bit for a seat.
+         *
+         * @return True if the bit was set and this call cleared it.
+         */
+        boolean tryClear(int ordinal) {
+            int index = ordinal >>> 6;
+            long mask = 1L << ordinal;
+            while (true) {
+                long word = reserved.get(index);
+                if ((word & mask) == 0) {
+                    return false;
+                }
+                if (reserved.compareAndSet(index, word, word & ~mask)) {
+                    freeSeats.incrementAndGet(sectionOf[ordinal]);
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Copies the seats with their current status, so callers cannot modify the cached seats.
+         *
+         * @param includeReserved Whether reserved seats are included.
+         */
+        List<Seating> snapshot(boolean includeReserved) {
+            List<Seating> result = new ArrayList<>(seats.size());
+            for (int i = 0; i < seats.size(); i++) {
+                boolean isReserved = isSet(i);
+                if (isReserved && !includeReserved) {
+                    continue;
+                }
+                result.add(copyOf(i, isReserved));
+            }
+            return result;
+        }
+
+        Seating copyOf(int ordinal, boolean isReserved) {
+            Seating seat = seats.get(ordinal);
+            Seating copy = new Seating(seat.getSeatId(), seat.getRoomId(), seat.getSeatNumber(),
+                    seat.isAccessible(), seat.isRestricted(), seat.getSectionName());
+            copy.setStatus(isReserved ? "reserved" : "available");
+            return copy;
+        }
+    }
+}
@@ -1,61 +1,99 @@
 package com.operations.StageOps.service;
 
 
-import com.operations.StageOps.model.Event;
 import com.operations.StageOps.model.Ticket;
 import com.operations.StageOps.repository.EventRepository;
 import com.operations.StageOps.repository.SeatingRepository;
 import com.operations.StageOps.repository.TicketRepository;
+import com.operations.StageOps.util.Paging;
+import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 public class TicketService {
 
     private final TicketRepository ticketRepository;
     private final EventRepository eventRepository;
+    private final SeatingRepository seatingRepository;
     private JdbcTemplate jdbcTemplate;
+    private final SeatInventoryService seatInventoryService;
 
-    public TicketService(TicketRepository ticketRepository, EventRepository eventRepository, SeatingRepository seatingRepository, JdbcTemplate jdbcTemplate) {
+    public TicketService(TicketRepository ticketRepository, EventRepository eventRepository, SeatingRepository seatingRepository, JdbcTemplate jdbcTemplate, SeatInventoryService seatInventoryService) {
         this.ticketRepository = ticketRepository;
         this.eventRepository = eventRepository;
+        this.seatingRepository = seatingRepository;
         this.jdbcTemplate = jdbcTemplate;
+        this.seatInventoryService = seatInventoryService;
     }
 
     // Save a new ticket
     // Save a new ticket (reserve a seat) and update the event's available seats and revenue
-    // Save multiple tickets (reserve multiple seats)
+    // Save multiple tickets (reserve multiple seats) as one order in a single transaction:
+    // per event, one IN (...) validation query, one reservation batch and one relative counter update,
+    // then one batch insert for all tickets.
+    @Transactional
     public void saveTickets(List<Ticket> tickets) {
-        for (Ticket ticket : tickets) {
-            // Check if the seat is already reserved for the event
-            String checkSql = "SELECT COUNT(*) FROM SeatEvents WHERE event_id = ? AND seat_id = ? AND reserved = true";
-            int reservedCount = jdbcTemplate.queryForObject(checkSql, new Object[]{ticket.getEventId(), ticket.getSeatId()}, Integer.class);
+        if (tickets == null || tickets.isEmpty()) {
+            return;
+        }
 
-            if (reservedCount > 0) {
-                throw new IllegalArgumentException("Seat " + ticket.getSeatId() + " is already reserved for this event.");
-            }
+        // Group the order by event, keeping the order in which the events appear
+        Map<Integer, List<Ticket>> ticketsByEvent = tickets.stream()
+                .collect(Collectors.groupingBy(Ticket::getEventId, LinkedHashMap::new, Collectors.toList()));
 
-            // Mark the seat as reserved for the event in SeatEvents table
-            String insertSql = "INSERT INTO SeatEvents (seat_id, event_id, reserved, reservation_time) " +
-                    "VALUES (?, ?, true, NOW()) " +
-                    "ON DUPLICATE KEY UPDATE reserved = true, reservation_time = NOW()";
+        for (Map.Entry<Integer, List<Ticket>> entry : ticketsByEvent.entrySet()) {
+            int eventId = entry.getKey();
+            List<Ticket> eventTickets = entry.getValue();
+            List<String> seatIds = eventTickets.stream().map(Ticket::getSeatId).collect(Collectors.toList());
 
-            jdbcTemplate.update(insertSql, ticket.getSeatId(), ticket.getEventId());
+            if (new HashSet<>(seatIds).size() != seatIds.size()) {
+                throw new IllegalArgumentException("The order contains the same seat more than once for event " + eventId + ".");
+            }
+
+            // Fast in-memory claim; released automatically if this transaction rolls back
+            seatInventoryService.claimSeatsInMemory(eventId, seatIds);
+
+            // Validate all seats against the database in one query
+            Map<String, Boolean> states = seatingRepository.getSeatReservationStates(eventId, seatIds);
+            for (String seatId : seatIds) {
+                Boolean reserved = states.get(seatId);
+                if (reserved == null) {
+                    throw new IllegalArgumentException("Seat " + seatId + " is not part of event " + eventId + ".");
+                }
+                if (reserved) {
+                    throw new IllegalArgumentException("Seat " + seatId + " is already reserved for this event.");
+                }
+            }
 
-            // Update the event's ticket sales and revenue
-            Event event = eventRepository.getEventById(ticket.getEventId());
-            event.setTicketsSold(event.getTicketsSold() + 1);
-            event.setTicketsAvailable(event.getTicketsAvailable() - 1);
-            event.setTotalRevenue(event.getTotalRevenue() + ticket.getPrice());
-            eventRepository.update(event);
+            // Reserve all seats in one batch; a zero count means another order got there first
+            int[] reservedCounts = seatingRepository.reserveSeatsIfAvailable(eventId, seatIds);
+            for (int i = 0; i < reservedCounts.length; i++) {
+                if (reservedCounts[i] == 0) {
+                    throw new IllegalArgumentException("Seat " + seatIds.get(i) + " is already reserved for this event.");
+                }
+            }
 
-            // Save the ticket
-            ticketRepository.save(ticket);
+            // Update the event's ticket sales and revenue with a single delta
+            double orderRevenue = eventTickets.stream().mapToDouble(Ticket::getPrice).sum();
+            if (eventRepository.recordTicketSales(eventId, eventTickets.size(), orderRevenue) == 0) {
+                throw new IllegalStateException("Not enough tickets available for event " + eventId + ".");
+            }
         }
+
+        // Save all tickets in one batch
+        ticketRepository.saveAll(tickets);
     }
+
     public int getTotalTicketsSoldForWeek(LocalDate startOfWeek, LocalDate endOfWeek) {
         return ticketRepository.countBySaleDateBetween(startOfWeek, endOfWeek);
     }
@@ -66,6 +104,16 @@ public class TicketService {
         return ticketRepository.getAllTickets();
     }
 
+    // Get one page of tickets by ID; limit defaults to Paging.DEFAULT_PAGE_SIZE and is capped at Paging.MAX_PAGE_SIZE
+    public List<Ticket> getTicketsPage(int afterId, Integer limit) {
+        return ticketRepository.getTicketsPage(afterId, Paging.limit(limit));
+    }
+
+    // Pass every ticket to the action as it is read, without building a list
+    public void forEachTicket(Consumer<Ticket> action) {
+        ticketRepository.forEachTicket(action);
+    }
+
     // Get ticket by ID
     public Ticket getTicketById(int ticketId) {
         return ticketRepository.getTicketById(ticketId);
@@ -76,6 +124,26 @@ public class TicketService {
         return ticketRepository.update(ticket);
     }
 
+    // Refund a ticket: delete it, release its seat and take the sale off the event's counters
+    @Transactional
+    public boolean refundTicket(int ticketId) {
+        Ticket ticket;
+        try {
+            ticket = ticketRepository.getTicketById(ticketId);
+        } catch (EmptyResultDataAccessException e) {
+            return false;
+        }
+        if (ticketRepository.delete(ticketId) == 0) {
+            return false;
+        }
+
+        if (eventRepository.recordTicketRefund(ticket.getEventId(), 1, ticket.getPrice()) == 0) {
+            throw new IllegalStateException("Event " + ticket.getEventId() + " has no sold tickets to refund.");
+        }
+        seatInventoryService.releaseSeat(ticket.getEventId(), ticket.getSeatId());
+        return true;
+    }
+
     // Delete ticket
     public int deleteTicket(int ticketId) {
         return ticketRepository.delete(ticketId);
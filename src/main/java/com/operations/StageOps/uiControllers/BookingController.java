@@ -1,16 +1,12 @@
 package com.operations.StageOps.uiControllers;
 
+import com.operations.StageOps.Interfaces.IUiDataService;
 import com.operations.StageOps.model.*;
 import javafx.beans.property.*;
-import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.*;
 import java.util.*;
@@ -48,10 +44,20 @@ public class BookingController {
     @FXML
     private VBox roomSelectionVBox;
 
-    private RestTemplate restTemplate = new RestTemplate();
-    private String apiUrl = "http://localhost:8080/booking"; // Replace with your actual API URL
+    private final IUiDataService uiDataService;
+    private final UiTaskExecutor uiTasks;
     private final double roomRatePerNight = 100.0; // Assume a room rate of 100.0 per night
-    private final String BASE_URL = "http://localhost:8080/api";
+
+    /**
+     * Constructor for the BookingController.
+     *
+     * @param uiDataService The service used to load and save UI data.
+     * @param uiTasks       The executor that runs loads in the background.
+     */
+    public BookingController(IUiDataService uiDataService, UiTaskExecutor uiTasks) {
+        this.uiDataService = uiDataService;
+        this.uiTasks = uiTasks;
+    }
 
     /**
      * Initializes the BookingController.
@@ -115,82 +121,44 @@ public class BookingController {
     }
 
     /**
-     * Loads bookings from the API and updates the UI.
+     * Loads bookings and updates the UI.
      */
     public void loadBookings() {
-        Task<List<BookingDTO>> task = new Task<>() {
-            @Override
-            protected List<BookingDTO> call() {
-                try {
-                    // Send GET request to fetch all bookings from the API (replace with actual API URL)
-                    ResponseEntity<List<BookingDTO>> response = restTemplate.exchange(
-                            apiUrl + "/all", HttpMethod.GET, null,
-                            new ParameterizedTypeReference<List<BookingDTO>>() {}
-                    );
-                    return response.getBody();
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    return Collections.emptyList();
-                }
-            }
-        };
-
-        // When the bookings are successfully fetched, update the TableView
-        task.setOnSucceeded(event -> {
-            List<BookingDTO> bookings = task.getValue();
-            if (bookings != null) {
-                bookingsTable.getItems().clear();
-                bookingsTable.getItems().addAll(bookings);
-            } else {
-                showErrorAlert("Error", "Failed to load bookings. Please try again.");
+        uiTasks.load(this, "bookings", () -> {
+            // Fetch all bookings and convert them to BookingDTO
+            List<BookingDTO> bookings = new ArrayList<>();
+            for (Booking booking : uiDataService.getAllBookings()) {
+                bookings.add(new BookingDTO(booking.getBookingId(), booking.getClientId(), booking.getStartTime(),
+                        booking.getEndTime(), booking.getStatus(), booking.getTotalCost(),
+                        booking.getRoomAssignments() != null ? booking.getRoomAssignments() : List.of()));
             }
+            return bookings;
+        }, bookings -> {
+            // When the bookings are successfully fetched, update the TableView
+            bookingsTable.getItems().setAll(bookings);
+        }, e -> {
+            e.printStackTrace();
+            showErrorAlert("Error", "Failed to load bookings. Please try again.");
         });
-
-        // If the task fails, show an error
-        task.setOnFailed(event -> showErrorAlert("Error", "Failed to load bookings. Please try again."));
-
-        // Run the task in a new thread to prevent blocking the UI thread
-        new Thread(task).start();
     }
 
 
     /**
-     * Fetches available rooms from the API.
+     * Fetches available rooms.
      */
     private void fetchRooms() {
-        Task<List<Room>> task = new Task<>() {
-            @Override
-            protected List<Room> call() {
-                try {
-                    // Fetch rooms from the server (replace with actual API URL and endpoint)
-                    return Arrays.asList(restTemplate.getForObject(BASE_URL + "/rooms", Room[].class));
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    return null;
-                }
-            }
-        };
-
-        // When rooms are successfully fetched, update the ComboBox
-        task.setOnSucceeded(event -> {
-            List<Room> rooms = task.getValue();
-            if (rooms != null) {
-                roomNames.clear();
-                roomIdMap.clear();
-                for (Room room : rooms) {
-                    roomNames.add(room.getRoomName());
-                    roomIdMap.put(room.getRoomName(), room.getRoomId());
-                }
-            } else {
-                showErrorAlert("Error", "Failed to fetch rooms. Please try again.");
+        uiTasks.load(this, "rooms", uiDataService::getAllRooms, rooms -> {
+            // When rooms are successfully fetched, update the room names
+            roomNames.clear();
+            roomIdMap.clear();
+            for (Room room : rooms) {
+                roomNames.add(room.getRoomName());
+                roomIdMap.put(room.getRoomName(), room.getRoomId());
             }
+        }, e -> {
+            e.printStackTrace();
+            showErrorAlert("Error", "Failed to fetch rooms. Please try again.");
         });
-
-        // If the task fails, show an error
-        task.setOnFailed(event -> showErrorAlert("Error", "Failed to fetch rooms. Please try again."));
-
-        // Run the task in a new thread to prevent blocking the UI thread
-        new Thread(task).start();
     }
 
     // Display error alert
@@ -250,9 +218,8 @@ public class BookingController {
             }
 
             Booking booking = new Booking(0, clientId, startTime, endTime, status, totalCost, roomAssignments);
-            // Send POST request to create the booking
-            String response = restTemplate.postForObject(apiUrl + "/create", booking, String.class);
-            System.out.println(response);
+            // Create the booking
+            System.out.println(uiDataService.createBooking(booking) ? "Booking created successfully!" : "Error creating booking!");
 
         } catch (Exception e) {
             System.out.println("Error creating booking: " + e.getMessage());
@@ -366,32 +333,16 @@ public class BookingController {
 
 
     private void fetchClients() {
-        Task<List<Client>> task = new Task<>() {
-            @Override
-            protected List<Client> call() {
-                try {
-                    return Arrays.asList(restTemplate.getForObject(BASE_URL + "/clients", Client[].class));
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    return Collections.emptyList();
-                }
-            }
-        };
-
-        task.setOnSucceeded(event -> {
-            List<Client> clients = task.getValue();
-            if (clients != null) {
-                for (Client client : clients) {
-                    String displayName = "Name: " + client.getName() + " Cid:" + "(" + client.getClientId() + ")";
-                    clientComboBox.getItems().add(displayName);
-                    clientNameToIdMap.put(displayName, client.getClientId());
-                }
-            } else {
-                showErrorAlert("Error", "Failed to load clients.");
+        uiTasks.load(this, "clients", uiDataService::getAllClients, clients -> {
+            for (Client client : clients) {
+                String displayName = "Name: " + client.getName() + " Cid:" + "(" + client.getClientId() + ")";
+                clientComboBox.getItems().add(displayName);
+                clientNameToIdMap.put(displayName, client.getClientId());
             }
+        }, e -> {
+            e.printStackTrace();
+            showErrorAlert("Error", "Failed to load clients.");
         });
-
-        new Thread(task).start();
     }
 
 
@@ -400,8 +351,7 @@ public class BookingController {
     // Helper method to get room details by ID
     private Room getRoomDetails(int roomId) {
         try {
-            String url = BASE_URL + "/rooms/" + roomId; // Fetch room by ID
-            return restTemplate.getForObject(url, Room.class); // Make the GET request to fetch the room
+            return uiDataService.getRoom(roomId); // Fetch room by ID
         } catch (Exception e) {
             showErrorAlert("Error", "Error fetching room details.");
             return null;
@@ -0,0 +1,166 @@
+package com.operations.StageOps.uiControllers;
+
+import com.calendarfx.model.Calendar;
+import com.calendarfx.model.CalendarSource;
+import com.calendarfx.model.Entry;
+import com.calendarfx.model.LoadEvent;
+import com.calendarfx.view.CalendarView;
+import com.operations.StageOps.Interfaces.IUiDataService;
+import com.operations.StageOps.model.CalendarEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fills a {@link CalendarView} with the events and booking days of the dates it shows.
+ * <p>
+ * CalendarFX fires a {@link LoadEvent} with the visible range whenever the user moves the view. The range is
+ * loaded a month at a time, together with the month before and after it so that paging does not wait on the
+ * server. Loaded months are kept for {@code stageops.ui.calendar-cache-ttl-ms}, also across visits to the
+ * calendar tab; within one view a month is only added once. Everything except the fetch itself runs on the
+ * JavaFX thread.
+ */
+@Component
+public class CalendarRangeLoader {
+
+    // Months loaded on either side of the visible range
+    private static final int PREFETCH_MONTHS = 1;
+
+    private final IUiDataService uiDataService;
+    private final UiTaskExecutor uiTasks;
+    private final long cacheTtlMs;
+    private final Map<YearMonth, LoadedMonth> months = new HashMap<>();
+    private final Set<YearMonth> pending = new HashSet<>();
+    private ViewState view;
+
+    /**
+     * Constructor for CalendarRangeLoader.
+     *
+     * @param uiDataService The data service the calendar entries are read from.
+     * @param uiTasks       Runs the fetches in the background.
+     * @param cacheTtlMs    How long a loaded month is shown without fetching it again, in milliseconds.
+     */
+    public CalendarRangeLoader(IUiDataService uiDataService, UiTaskExecutor uiTasks,
+                               @Value("${stageops.ui.calendar-cache-ttl-ms:60000}") long cacheTtlMs) {
+        this.uiDataService = uiDataService;
+        this.uiTasks = uiTasks;
+        this.cacheTtlMs = cacheTtlMs;
+    }
+
+    /**
+     * Add the events and bookings calendars to a new calendar view and load whatever range it shows from now on.
+     * A view attached earlier stops receiving entries.
+     *
+     * @param calendarView The calendar view.
+     */
+    public void attach(CalendarView calendarView) {
+        Calendar eventCalendar = new Calendar("Events");
+        eventCalendar.setReadOnly(true);
+        Calendar bookingCalendar = new Calendar("Bookings");
+        bookingCalendar.setStyle(Calendar.Style.STYLE2);
+        bookingCalendar.setReadOnly(true);
+
+        CalendarSource calendarSource = new CalendarSource("Schedules");
+        calendarSource.getCalendars().addAll(eventCalendar, bookingCalendar);
+        calendarView.getCalendarSources().add(calendarSource);
+
+        ViewState state = new ViewState(eventCalendar, bookingCalendar);
+        view = state;
+        // Loads of an earlier view were cancelled when it was left, so they will not clear their pending flag
+        pending.clear();
+        calendarView.addEventHandler(LoadEvent.LOAD, event -> {
+            if (view == state) {
+                load(state, event.getStartDate(), event.getEndDate());
+            }
+        });
+        load(state, calendarView.getDate(), calendarView.getDate());
+    }
+
+    private void load(ViewState state, LocalDate startDate, LocalDate endDate) {
+        YearMonth last = YearMonth.from(endDate).plusMonths(PREFETCH_MONTHS);
+        for (YearMonth month = YearMonth.from(startDate).minusMonths(PREFETCH_MONTHS); !month.isAfter(last); month = month.plusMonths(1)) {
+            if (state.shownMonths.contains(month)) {
+                continue;
+            }
+            LoadedMonth loaded = months.get(month);
+            if (loaded != null && System.currentTimeMillis() - loaded.loadedAt < cacheTtlMs) {
+                show(state, month, loaded.entries);
+            } else if (pending.add(month)) {
+                fetch(month);
+            }
+        }
+    }
+
+    private void fetch(YearMonth month) {
+        uiTasks.load(this, "calendar-" + month,
+                () -> uiDataService.getCalendarEntries(month.atDay(1), month.atEndOfMonth()),
+                entries -> {
+                    pending.remove(month);
+                    months.put(month, new LoadedMonth(entries, System.currentTimeMillis()));
+                    if (view != null && !view.shownMonths.contains(month)) {
+                        show(view, month, entries);
+                    }
+                },
+                e -> {
+                    pending.remove(month);
+                    e.printStackTrace();
+                });
+    }
+
+    private void show(ViewState state, YearMonth month, List<CalendarEntry> entries) {
+        state.shownMonths.add(month);
+        ZoneId zone = ZoneId.systemDefault();
+        for (CalendarEntry calendarEntry : entries) {
+            // Entries spanning a month boundary are returned for both months
+            if (!state.shownKeys.add(key(calendarEntry))) {
+                continue;
+            }
+            Entry<CalendarEntry> entry = new Entry<>(title(calendarEntry));
+            entry.setUserObject(calendarEntry);
+            entry.setInterval(calendarEntry.getStart().atZone(zone).toLocalDateTime(),
+                    calendarEntry.getEnd().atZone(zone).toLocalDateTime());
+            (calendarEntry.getType() == CalendarEntry.Type.EVENT ? state.eventCalendar : state.bookingCalendar).addEntry(entry);
+        }
+    }
+
+    private static String key(CalendarEntry entry) {
+        return entry.getType() == CalendarEntry.Type.EVENT
+                ? "E" + entry.getId()
+                : "B" + entry.getId() + "@" + entry.getStart();
+    }
+
+    private static String title(CalendarEntry entry) {
+        String roomName = entry.getRoomName() != null ? entry.getRoomName() : "Room Not Found";
+        String layoutName = entry.getLayoutName() != null ? entry.getLayoutName() : "Layout Not Found";
+        if (entry.getType() == CalendarEntry.Type.EVENT) {
+            return entry.getName() + " - layout: " + layoutName + " - room: " + roomName;
+        }
+        return "Booking: " + entry.getClientId() + " -Room: " + roomName + " - Layout: " + layoutName;
+    }
+
+    private record LoadedMonth(List<CalendarEntry> entries, long loadedAt) {
+    }
+
+    /**
+     * The calendars of the view currently attached, and what has been added to them.
+     */
+    private static final class ViewState {
+        private final Calendar eventCalendar;
+        private final Calendar bookingCalendar;
+        private final Set<YearMonth> shownMonths = new HashSet<>();
+        private final Set<String> shownKeys = new HashSet<>();
+
+        private ViewState(Calendar eventCalendar, Calendar bookingCalendar) {
+            this.eventCalendar = eventCalendar;
+            this.bookingCalendar = bookingCalendar;
+        }
+    }
+}
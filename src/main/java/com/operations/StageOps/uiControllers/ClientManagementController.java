@@ -1,10 +1,7 @@
 package com.operations.StageOps.uiControllers;
 
+import com.operations.StageOps.Interfaces.IUiDataService;
 import com.operations.StageOps.model.*;
-import com.operations.StageOps.util.PdfGenerator;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -15,17 +12,7 @@ import javafx.scene.input.MouseEvent;
 import javafx.stage.FileChooser;
 
 import java.io.File;
-import java.io.IOException;
-import java.math.BigDecimal;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.ZonedDateTime;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -83,13 +70,13 @@ public class ClientManagementController {
     @FXML
     private TableColumn<InvoiceDTO, String> invoiceStatusColumn;
 
-    private final HttpClient httpClient = HttpClient.newHttpClient();
-    private final ObjectMapper objectMapper = new ObjectMapper()
-            .registerModule(new JavaTimeModule())
-            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-    private static final String BASE_URL = "http://localhost:8080/api/clients";
-    private static final String CONTRACT_URL = "http://localhost:8080/api/contracts";
-    private static final String INVOICE_URL = "http://localhost:8080/api/invoices";
+    private final IUiDataService uiDataService;
+    private final UiTaskExecutor uiTasks;
+
+    public ClientManagementController(IUiDataService uiDataService, UiTaskExecutor uiTasks) {
+        this.uiDataService = uiDataService;
+        this.uiTasks = uiTasks;
+    }
 
     /**
      * Initializes the controller and populates the client table.
@@ -236,161 +223,89 @@ public class ClientManagementController {
     }
 
     /**
-     * Send a request to create a new client via API.
+     * Create a new client.
      */
     private void sendCreateRequest(Client client) {
         try {
-            String requestBody = objectMapper.writeValueAsString(client);
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(BASE_URL))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(requestBody))
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
+            if (uiDataService.createClient(client)) {
                 // Reload the client table after successful creation
                 loadClients();
             } else {
                 showErrorMessage("Error creating Client!");
             }
-        } catch (IOException | InterruptedException e) {
+        } catch (Exception e) {
             showErrorMessage("Error communicating with server!");
         }
     }
 
     private void loadContractsByClient(int clientId) {
-        try {
-            // Construct the URL to fetch the contracts by client ID
-            String url = CONTRACT_URL + "/client/" + clientId;
-            HttpRequest request = HttpRequest.newBuilder().uri(URI.create(url)).GET().build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            // Check if the response status code is 200 (OK)
-            if (response.statusCode() == 200) {
-                // Deserialize the response into a generic list (ignoring extra fields)
-                List<Map<String, Object>> contractsMap = objectMapper.readValue(response.body(),
-                        objectMapper.getTypeFactory().constructCollectionType(List.class, Map.class));
-
-                // Convert the list of maps into ContractDTO objects
-                List<ContractDTO> dtos = contractsMap.stream()
-                        .map(map -> {
-                            // Filter out any unwanted fields (like "endTime")
-                            map.remove("endTime");
-
-                            // Handle numeric fields correctly
-                            BigDecimal totalAmount = getBigDecimalValue(map.get("totalAmount"));
-                            BigDecimal initialAmount = getBigDecimalValue(map.get("initialAmount"));
-                            BigDecimal finalAmount = getBigDecimalValue(map.get("finalAmount"));
-                            BigDecimal depositAmount = getBigDecimalValue(map.get("depositAmount"));
-
-                            // Now create ContractDTO from map
-                            return new ContractDTO(
-                                    (Integer) map.get("contractId"),
-                                    (Integer) map.get("clientId"),
-                                    (Integer) map.get("eventId"),
-                                    (String) map.get("terms"),
-                                    (String) map.get("status"),
-                                    ZonedDateTime.parse((String) map.get("contractDate")),
-                                    (String) map.get("venueAddress"),
-                                    (String) map.get("eventDescription"),
-                                    LocalDateTime.parse((String) map.get("startDateTime")),
-                                    LocalDateTime.parse((String) map.get("endDateTime")),
-                                    totalAmount,
-                                    initialAmount,
-                                    finalAmount,
-                                    LocalDate.parse((String) map.get("finalPaymentDate")),
-                                    (Integer) map.get("gracePeriod"),
-                                    (String) map.get("lateFee"),
-                                    depositAmount,
-                                    (Integer) map.get("depositReturnDays"),
-                                    (Integer) map.get("cancellationNoticeDays"),
-                                    (String) map.get("cancellationFee"),
-                                    (String) map.get("ownerName"),
-                                    (String) map.get("renterName")
-                            );
-                        })
-                        .collect(Collectors.toList());
-
-                // Set the items for the contracts table view
-                contractsTable.setItems(FXCollections.observableArrayList(dtos));
-            }
-        } catch (Exception e) {
+        // Selecting another client supersedes a pending load
+        uiTasks.load(this, "contracts", () -> {
+            // Convert the client's contracts into ContractDTO objects
+            return uiDataService.getContractsByClient(clientId).stream()
+                    .map(contract -> new ContractDTO(
+                            contract.getContractId(),
+                            contract.getClientId(),
+                            contract.getEventId(),
+                            contract.getTerms(),
+                            contract.getStatus(),
+                            contract.getContractDate(),
+                            contract.getVenueAddress(),
+                            contract.getEventDescription(),
+                            contract.getStartDateTime(),
+                            contract.getEndDateTime(),
+                            contract.getTotalAmount(),
+                            contract.getInitialAmount(),
+                            contract.getFinalAmount(),
+                            contract.getFinalPaymentDate(),
+                            contract.getGracePeriod(),
+                            contract.getLateFee(),
+                            contract.getDepositAmount(),
+                            contract.getDepositReturnDays(),
+                            contract.getCancellationNoticeDays(),
+                            contract.getCancellationFee(),
+                            contract.getOwnerName(),
+                            contract.getRenterName()
+                    ))
+                    .collect(Collectors.toList());
+        }, dtos -> {
+            // Set the items for the contracts table view
+            contractsTable.setItems(FXCollections.observableArrayList(dtos));
+        }, e -> {
             System.out.println(e.getMessage());
             showErrorMessage("Error loading contracts for client.");
-        }
-    }
-
-    // Helper method to safely convert a value to BigDecimal
-    private BigDecimal getBigDecimalValue(Object value) {
-        if (value instanceof String) {
-            return new BigDecimal((String) value);
-        } else if (value instanceof Number) {
-            return new BigDecimal(((Number) value).doubleValue());
-        } else {
-            return BigDecimal.ZERO; // Or handle it based on your requirements
-        }
+        });
     }
 
-
-
     private void loadInvoicesByClient(int clientId) {
-        try {
-            String url = INVOICE_URL + "/client/" + clientId;
-            HttpRequest request = HttpRequest.newBuilder().uri(URI.create(url)).GET().build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                List<Invoice> invoices = objectMapper.readValue(response.body(),
-                        objectMapper.getTypeFactory().constructCollectionType(List.class, Invoice.class));
-
-                List<InvoiceDTO> dtos = invoices.stream()
-                        .map(i -> new InvoiceDTO(
-                                i.getInvoiceId(),
-                                i.getBookingId(),  // Add bookingId here
-                                i.getClientId(),
-                                i.getTotalAmount(),  // Add totalAmount here
-                                i.getStatus(),
-                                i.getIssueDate(),  // Add issueDate here
-                                i.getDueDate()  // Add dueDate here
-                        ))
-                        .collect(Collectors.toList());
-
-                invoicesTable.setItems(FXCollections.observableArrayList(dtos));
-            }
-        } catch (Exception e) {
-            showErrorMessage("Error loading invoices for client." + e.getMessage());
-        }
+        uiTasks.load(this, "invoices", () -> {
+            return uiDataService.getInvoicesByClient(clientId).stream()
+                    .map(i -> new InvoiceDTO(
+                            i.getInvoiceId(),
+                            i.getBookingId(),  // Add bookingId here
+                            i.getClientId(),
+                            i.getTotalAmount(),  // Add totalAmount here
+                            i.getStatus(),
+                            i.getIssueDate(),  // Add issueDate here
+                            i.getDueDate()  // Add dueDate here
+                    ))
+                    .collect(Collectors.toList());
+        }, dtos -> invoicesTable.setItems(FXCollections.observableArrayList(dtos)),
+                e -> showErrorMessage("Error loading invoices for client." + e.getMessage()));
     }
 
     /**
-     * Load all clients from the API and convert them to ClientDTO.
+     * Load all clients and convert them to ClientDTO.
      */
     private void loadClients() {
-        try {
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(BASE_URL))
-                    .GET()
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                List<Client> clients = objectMapper.readValue(response.body(),
-                        objectMapper.getTypeFactory().constructCollectionType(List.class, Client.class));
-
-                // Convert Client models to ClientDTO
-                List<ClientDTO> clientDTOs = clients.stream()
-                        .map(client -> new ClientDTO(client.getClientId(), client.getName(),
-                                client.getAddress(), client.getEmail(), client.getTelephoneNumber()))
-                        .collect(Collectors.toList());
-
-                clientsTable.setItems(FXCollections.observableArrayList(clientDTOs));
-            }
-        } catch (IOException | InterruptedException e) {
-            showErrorMessage("Error loading clients!" + e.getMessage());
-        }
+        uiTasks.load(this, "clients", () -> {
+            // Convert Client models to ClientDTO
+            return uiDataService.getAllClients().stream()
+                    .map(client -> new ClientDTO(client.getClientId(), client.getName(),
+                            client.getAddress(), client.getEmail(), client.getTelephoneNumber()))
+                    .collect(Collectors.toList());
+        }, clientDTOs -> clientsTable.setItems(FXCollections.observableArrayList(clientDTOs)),
+                e -> showErrorMessage("Error loading clients!" + e.getMessage()));
     }
 
     /**
@@ -431,38 +346,17 @@ public class ClientManagementController {
             return;
         }
 
-        try {
-            // Fetch complete invoice data from API if needed
-            String url = INVOICE_URL + "/" + invoiceDTO.getInvoiceId();
-            HttpRequest request = HttpRequest.newBuilder().uri(URI.create(url)).GET().build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                Invoice invoice = objectMapper.readValue(response.body(), Invoice.class);
-
-                // Let user choose where to save the PDF
-                FileChooser fileChooser = new FileChooser();
-                fileChooser.setTitle("Save Invoice PDF");
-                fileChooser.setInitialFileName("invoice_" + invoice.getInvoiceId() + ".pdf");
-                fileChooser.getExtensionFilters().add(
-                        new FileChooser.ExtensionFilter("PDF Files", "*.pdf")
-                );
-                File file = fileChooser.showSaveDialog(null);
-
-                if (file != null) {
-                    // Generate PDF with the complete invoice data
-                    PdfGenerator.generateSingleInvoicePdf(invoice, selectedClient.getName(),selectedClient.getAddress() , file.getAbsolutePath());
-
-                    // Ask user if they want to open the PDF
-                    if (showConfirmationDialog("PDF Generated",
-                            "PDF has been generated successfully.")) {
-                    }
-                }
-            } else {
-                showErrorMessage("Failed to fetch invoice details.");
-            }
-        } catch (Exception e) {
-            showErrorMessage("Failed to generate PDF: " + e.getMessage());
+        // Let user choose where to save the PDF
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Save Invoice PDF");
+        fileChooser.setInitialFileName("invoice_" + invoiceDTO.getInvoiceId() + ".pdf");
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("PDF Files", "*.pdf")
+        );
+        File file = fileChooser.showSaveDialog(null);
+
+        if (file != null) {
+            generatePdf("invoicePdf", PdfJob.INVOICE, invoiceDTO.getInvoiceId(), file);
         }
     }
 
@@ -476,39 +370,41 @@ public class ClientManagementController {
             return;
         }
 
-        try {
-            // Fetch complete contract data from API if needed
-            String url = CONTRACT_URL + "/" + contractDTO.getContractId();
-            HttpRequest request = HttpRequest.newBuilder().uri(URI.create(url)).GET().build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                Contract contract = objectMapper.readValue(response.body(), Contract.class);
-
-                // Let user choose where to save the PDF
-                FileChooser fileChooser = new FileChooser();
-                fileChooser.setTitle("Save Contract PDF");
-                fileChooser.setInitialFileName("contract_" + contract.getContractId() + ".pdf");
-                fileChooser.getExtensionFilters().add(
-                        new FileChooser.ExtensionFilter("PDF Files", "*.pdf")
-                );
-                File file = fileChooser.showSaveDialog(null);
-
-                if (file != null) {
-                    // Generate PDF with the complete contract data
-                    PdfGenerator.generateSingleContractPdf(contract,"StageOps Lancaster", selectedClient.getName(), file.getAbsolutePath());
-
-                    // Ask user if they want to open the PDF
-                    if (showConfirmationDialog("PDF Generated",
-                            "PDF has been generated successfully.")) {
-                    }
-                }
+        // Let user choose where to save the PDF
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Save Contract PDF");
+        fileChooser.setInitialFileName("contract_" + contractDTO.getContractId() + ".pdf");
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("PDF Files", "*.pdf")
+        );
+        File file = fileChooser.showSaveDialog(null);
+
+        if (file != null) {
+            generatePdf("contractPdf", PdfJob.CONTRACT, contractDTO.getContractId(), file);
+        }
+    }
+
+    /**
+     * Renders one invoice or contract through the background PDF job queue and saves it to the chosen file,
+     * without blocking the JavaFX thread.
+     */
+    private void generatePdf(String key, String jobType, int documentId, File file) {
+        uiTasks.load(this, key, () -> {
+            PdfJob job = uiDataService.submitPdfJob(jobType, List.of(documentId));
+            job = uiDataService.awaitPdfJob(job.getJobId());
+            if (PdfJob.COMPLETED.equals(job.getStatus())) {
+                uiDataService.downloadPdfJobResult(job.getJobId(), file.toPath());
+            }
+            return job;
+        }, job -> {
+            if (PdfJob.COMPLETED.equals(job.getStatus())) {
+                showConfirmationDialog("PDF Generated", "PDF has been generated successfully.");
+            } else if (!job.isFinished()) {
+                showErrorMessage("The PDF is taking longer than expected to generate. Please try again later.");
             } else {
-                showErrorMessage("Failed to fetch contract details.");
+                showErrorMessage("Failed to generate PDF: " + job.getErrorMessage());
             }
-        } catch (Exception e) {
-            showErrorMessage("Failed to generate PDF: " + e.getMessage());
-        }
+        }, e -> showErrorMessage("Failed to generate PDF: " + e.getMessage()));
     }
 
 
@@ -1,5 +1,7 @@
 package com.operations.StageOps.uiControllers;
 
+import com.operations.StageOps.Interfaces.IUiDataService;
+import com.operations.StageOps.model.ChangeEvent;
 import com.operations.StageOps.model.EventDto;
 import com.operations.StageOps.model.Seating;
 import javafx.fxml.FXML;
@@ -15,7 +17,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-public class EventDetailsController {
+/**
+ * Shows an event and its seats in a modal window. While the window is open, seats reserved or released and ticket
+ * counter changes are applied as they are committed, instead of only showing what was true when it was opened.
+ */
+public class EventDetailsController implements AutoCloseable {
+
+    private static final String RESERVED_STYLE = "-fx-padding: 10; -fx-background-color: #D32F2F; -fx-text-fill: white; -fx-font-size: 12px; -fx-border-radius: 5;";
+    private static final String AVAILABLE_STYLE = "-fx-padding: 10; -fx-background-color: #4CAF50; -fx-text-fill: white; -fx-font-size: 12px; -fx-border-radius: 5;";
 
     @FXML private Label nameLabel, dateLabel, startLabel, endLabel, roomLabel, layoutLabel,
             ticketsAvailableLabel, ticketsSoldLabel, eventTypeLabel, revenueLabel, roomLayoutInfo;
@@ -25,6 +34,17 @@ public class EventDetailsController {
     @FXML private VBox seatKey;
 
     private Map<String, Seating> selectedSeats = new HashMap<>();
+    private final Map<String, Button> seatButtons = new HashMap<>();
+    private final IUiDataService uiDataService;
+    private final UiTaskExecutor uiTasks;
+    private AutoCloseable changes;
+    private int ticketsAvailable;
+    private int ticketsSold;
+
+    public EventDetailsController(IUiDataService uiDataService, UiTaskExecutor uiTasks) {
+        this.uiDataService = uiDataService;
+        this.uiTasks = uiTasks;
+    }
 
     public void setEventDetails(EventDto event, List<Seating> availableSeats) {
         nameLabel.setText("Event: " + event.getEventName());
@@ -33,8 +53,7 @@ public class EventDetailsController {
         endLabel.setText("End Time: " + event.getEndTime());
         roomLabel.setText("Room ID: " + event.getRoomId());
         layoutLabel.setText("Layout ID: " + event.getLayoutId());
-        ticketsAvailableLabel.setText("Tickets Available: " + event.getTicketsAvailable());
-        ticketsSoldLabel.setText("Tickets Sold: " + event.getTicketsSold());
+        showTicketCounts(event.getTicketsAvailable(), event.getTicketsSold());
         eventTypeLabel.setText("Event Type: " + event.getEventType());
         revenueLabel.setText("Total Revenue: $" + event.getTotalRevenue());
         roomLayoutInfo.setText("Room and Layout Details: " + event.getRoomId() + " - " + event.getLayoutId());
@@ -55,16 +74,9 @@ public class EventDetailsController {
             int col = 0;
             for (Seating seat : seatsBySection.get(section)) {
                 Button seatButton = new Button("Seat " + seat.getSectionName() + "-" + seat.getSeatNumber());
-                String seatId = seat.getSeatId();
-
-                if (seat.getStatus().equals("reserved")) {
-                    seatButton.setStyle("-fx-padding: 10; -fx-background-color: #D32F2F; -fx-text-fill: white; -fx-font-size: 12px; -fx-border-radius: 5;");
-                    seatButton.setDisable(true);
-                } else {
-                    seatButton.setStyle("-fx-padding: 10; -fx-background-color: #4CAF50; -fx-text-fill: white; -fx-font-size: 12px; -fx-border-radius: 5;");
-
-                    seatButton.setOnMouseClicked((MouseEvent e) -> showSeatDetailsDialog(seat));
-                }
+                seatButton.setOnMouseClicked((MouseEvent e) -> showSeatDetailsDialog(seat));
+                showSeatState(seatButton, seat.getStatus().equals("reserved"));
+                seatButtons.put(seat.getSeatId(), seatButton);
 
                 seatGrid.add(seatButton, col++, row);
             }
@@ -76,6 +88,77 @@ public class EventDetailsController {
             Stage stage = (Stage) closeButton.getScene().getWindow();
             stage.close();
         });
+
+        int eventId = event.getEventId();
+        changes = uiDataService.subscribeChanges(List.of("seats/" + eventId, "events/" + eventId),
+                change -> uiTasks.runOnFxThread(() -> applyChange(eventId, change)));
+    }
+
+    /**
+     * Stop receiving changes; called when the window has been closed.
+     */
+    @Override
+    public void close() {
+        uiTasks.cancelAll(this);
+        if (changes != null) {
+            try {
+                changes.close();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            changes = null;
+        }
+    }
+
+    private void applyChange(int eventId, ChangeEvent change) {
+        if (changes == null) {
+            return; // Closed while the change was queued
+        }
+        switch (change.getType()) {
+            case ChangeEvent.SEATS_RESERVED, ChangeEvent.SEATS_RELEASED -> {
+                boolean reserved = ChangeEvent.SEATS_RESERVED.equals(change.getType());
+                for (String seatId : change.getSeatIds()) {
+                    Button seatButton = seatButtons.get(seatId);
+                    if (seatButton != null) {
+                        showSeatState(seatButton, reserved);
+                    }
+                }
+            }
+            case ChangeEvent.EVENT_TICKETS ->
+                    showTicketCounts(ticketsAvailable + change.getAvailableDelta(), ticketsSold + change.getSoldDelta());
+            case ChangeEvent.EVENT_UPDATED, ChangeEvent.RESYNC -> reload(eventId);
+            default -> {
+            }
+        }
+    }
+
+    // Changes were missed or the event was edited, so read the seats and counters again
+    private void reload(int eventId) {
+        uiTasks.load(this, "seats", () -> uiDataService.getSeatsForEvent(eventId), seats -> {
+            for (Seating seat : seats) {
+                Button seatButton = seatButtons.get(seat.getSeatId());
+                if (seatButton != null) {
+                    showSeatState(seatButton, "reserved".equals(seat.getStatus()));
+                }
+            }
+        });
+        uiTasks.load(this, "event", () -> uiDataService.getEvent(eventId), event -> {
+            if (event != null) {
+                showTicketCounts(event.getTicketsAvailable(), event.getTicketsSold());
+            }
+        });
+    }
+
+    private void showTicketCounts(int available, int sold) {
+        ticketsAvailable = available;
+        ticketsSold = sold;
+        ticketsAvailableLabel.setText("Tickets Available: " + available);
+        ticketsSoldLabel.setText("Tickets Sold: " + sold);
+    }
+
+    private static void showSeatState(Button seatButton, boolean reserved) {
+        seatButton.setStyle(reserved ? RESERVED_STYLE : AVAILABLE_STYLE);
+        seatButton.setDisable(reserved);
     }
 
     private void showSeatDetailsDialog(Seating seat) {
@@ -5,10 +5,8 @@ import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
-import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDate;
@@ -50,6 +48,11 @@ public class EventManagementController {
     private String BASE_URL = "http://localhost:8080/api/"; // Replace with actual API URL
     private Map<String, Integer> roomIdMap = new HashMap<>();  // To store room names and their corresponding IDs
     private Map<String,Integer> layoutIdMap = new HashMap<>(); // To store layout IDs and their corresponding names
+    private final UiTaskExecutor uiTasks;
+
+    public EventManagementController(UiTaskExecutor uiTasks) {
+        this.uiTasks = uiTasks;
+    }
 
     @FXML
     public void initialize() {
@@ -77,74 +80,33 @@ public class EventManagementController {
 
     // Fetch rooms method (you already have it)
     private void fetchRooms() {
-        Task<List<Room>> task = new Task<>() {
-            @Override
-            protected List<Room> call() {
-                try {
-                    // Fetch rooms from the server (replace with actual API URL and endpoint)
-                    return Arrays.asList(restTemplate.getForObject(BASE_URL + "/rooms", Room[].class));
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    return null;
-                }
-            }
-        };
-
-        task.setOnSucceeded(event -> {
-            List<Room> rooms = task.getValue();
-            if (rooms != null) {
-                roomIdComboBox.getItems().clear();
-                for (Room room : rooms) {
-                    roomIdComboBox.getItems().add(room.getRoomName());
-                    roomIdMap.put(room.getRoomName(), room.getRoomId());
-                }
-            } else {
-                showErrorAlert("Error", "Failed to fetch rooms. Please try again.");
+        uiTasks.load(this, "rooms", () -> Arrays.asList(restTemplate.getForObject(BASE_URL + "/rooms", Room[].class)), rooms -> {
+            roomIdComboBox.getItems().clear();
+            for (Room room : rooms) {
+                roomIdComboBox.getItems().add(room.getRoomName());
+                roomIdMap.put(room.getRoomName(), room.getRoomId());
             }
+        }, e -> {
+            e.printStackTrace();
+            showErrorAlert("Error", "Failed to fetch rooms. Please try again.");
         });
-
-        task.setOnFailed(event -> showErrorAlert("Error", "Failed to fetch rooms. Please try again."));
-
-        new Thread(task).start();
     }
 
     // Fetch layouts based on the selected room
     private void fetchLayoutsForRoom(Integer roomId) {
-        Task<List<LayoutConfiguration>> task = new Task<>() {
-            @Override
-            protected List<LayoutConfiguration> call() {
-                try {
-                    // Fetch layouts for the specific room using the room ID
-                    String url = BASE_URL + "/layouts/rooms/" + roomId;
-                    // Assuming the response contains a list of Layout objects, where each has a name and ID.
-                    LayoutConfiguration[] layoutsArray = restTemplate.getForObject(url, LayoutConfiguration[].class);
-                    return Arrays.asList(layoutsArray);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    return null;
-                }
-            }
-        };
-
-        task.setOnSucceeded(event -> {
-            List<LayoutConfiguration> layouts = task.getValue();
-            if (layouts != null) {
-                layoutIdComboBox.getItems().clear();
-                for (LayoutConfiguration layout : layouts) {
-                    // Add only the layout names to the ComboBox
-                    layoutIdComboBox.getItems().add(layout.getLayoutName());
-                    // Optionally store the layout object with its ID in a map for easy access
-                    layoutIdMap.put(layout.getLayoutName(), layout.getLayoutId());
-                }
-            } else {
-                showErrorAlert("Error", "Failed to fetch layouts. Please try again.");
+        // Fetch layouts for the specific room; selecting another room supersedes a pending fetch
+        uiTasks.load(this, "layouts", () -> Arrays.asList(restTemplate.getForObject(BASE_URL + "/layouts/rooms/" + roomId, LayoutConfiguration[].class)), layouts -> {
+            layoutIdComboBox.getItems().clear();
+            for (LayoutConfiguration layout : layouts) {
+                // Add only the layout names to the ComboBox
+                layoutIdComboBox.getItems().add(layout.getLayoutName());
+                // Optionally store the layout object with its ID in a map for easy access
+                layoutIdMap.put(layout.getLayoutName(), layout.getLayoutId());
             }
+        }, e -> {
+            e.printStackTrace();
+            showErrorAlert("Error", "Failed to fetch layouts. Please try again.");
         });
-
-        task.setOnFailed(event -> showErrorAlert("Error", "Failed to fetch layouts. Please try again."));
-
-        // Run the task in a new thread to prevent blocking the UI thread
-        new Thread(task).start();
     }
     private void showErrorAlert(String title, String message) {
         Alert alert = new Alert(Alert.AlertType.ERROR);
@@ -249,48 +211,27 @@ public class EventManagementController {
     }
 
     private void fetchClients() {
-        Task<List<Client>> task = new Task<>() {
-            @Override
-            protected List<Client> call() {
-                try {
-                    return Arrays.asList(restTemplate.getForObject(BASE_URL + "/clients", Client[].class));
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    return Collections.emptyList();
-                }
-            }
-        };
-
-        task.setOnSucceeded(event -> {
-            List<Client> clients = task.getValue();
-            if (clients != null) {
-                for (Client client : clients) {
-                    String displayName = "Name: " + client.getName() + " Cid:" + "(" + client.getClientId() + ")";
-                    clientComboBox.getItems().add(displayName);
-                    clientNameToIdMap.put(displayName, client.getClientId());
-                }
-            } else {
-                showErrorAlert("Error", "Failed to load clients.");
+        uiTasks.load(this, "clients", () -> Arrays.asList(restTemplate.getForObject(BASE_URL + "/clients", Client[].class)), clients -> {
+            for (Client client : clients) {
+                String displayName = "Name: " + client.getName() + " Cid:" + "(" + client.getClientId() + ")";
+                clientComboBox.getItems().add(displayName);
+                clientNameToIdMap.put(displayName, client.getClientId());
             }
+        }, e -> {
+            e.printStackTrace();
+            showErrorAlert("Error", "Failed to load clients.");
         });
-
-        new Thread(task).start();
     }
 
 
 
     public void loadEvents() {
-        try {
-            ResponseEntity<EventDto[]> responseEntity = restTemplate.getForEntity(apiUrl + "/all", EventDto[].class);
-            EventDto[] eventsArray = responseEntity.getBody();
-
+        uiTasks.load(this, "events", () -> restTemplate.getForObject(apiUrl + "/all", EventDto[].class), eventsArray -> {
             if (eventsArray != null) {
                 eventsTable.setItems(FXCollections.observableArrayList(eventsArray)); // Correctly populating the table
             } else {
                 System.out.println("No events found.");
             }
-        } catch (Exception e) {
-            System.out.println("Error loading events: " + e.getMessage());
-        }
+        }, e -> System.out.println("Error loading events: " + e.getMessage()));
     }
 }
@@ -1,10 +1,7 @@
 package com.operations.StageOps.uiControllers;
 
+import com.operations.StageOps.Interfaces.IUiDataService;
 import com.operations.StageOps.model.RevenueTrackingDTO;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -13,16 +10,8 @@ import javafx.scene.chart.PieChart;
 import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.nio.file.Path;
 import java.time.LocalDate;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -36,15 +25,19 @@ public class RevenueDashboardController {
     @FXML private TableColumn<RevenueTrackingDTO, LocalDate> colBookingDate;
     @FXML private TableColumn<RevenueTrackingDTO, String> colStatus;
     @FXML private Button btnGenerateReport;
+    @FXML private ProgressBar exportProgressBar;
     @FXML private ComboBox<String> timePeriodComboBox;
 
     private final ObservableList<RevenueTrackingDTO> revenueData = FXCollections.observableArrayList();
-    private final HttpClient httpClient = HttpClient.newHttpClient();
-    private final ObjectMapper objectMapper = new ObjectMapper();  // Use Jackson
+    private final IUiDataService uiDataService;
+    private final UiTaskExecutor uiTasks;
+
+    public RevenueDashboardController(IUiDataService uiDataService, UiTaskExecutor uiTasks) {
+        this.uiDataService = uiDataService;
+        this.uiTasks = uiTasks;
+    }
 
     public void initialize() {
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);  // Ignore unknown properties
         loadCharts("Monthly"); // Default chart to Monthly
         fetchRevenueData("Monthly");
         initializeTableColumns();
@@ -63,35 +56,25 @@ public class RevenueDashboardController {
     }
 
     private void loadCharts(String period) {
-        try {
-            // Determine the appropriate API URL based on the selected time period
-            String apiUrl = "http://localhost:8080/api/revenue";
-            switch (period) {
-                case "Daily":
-                    apiUrl += "/daily/3/2025"; // Example: specific month (3) and year (2025)
-                    break;
-                case "Yearly":
-                    apiUrl += "/lifetime"; // Example: specific year
-                    break;
-                case "Monthly":
-                default:
-                    apiUrl += "/monthly/2025"; // Example: specific year (2025)
-                    break;
-            }
-
-            // Send HTTP request
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(apiUrl))
-                    .GET()
-                    .build();
-
-            // Send the request and get the response body as a string
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        // Fetch in the background; picking another period supersedes a pending load
+        uiTasks.load(this, "charts", () -> fetchRevenueTotals(period), revenueDataFromApi -> showCharts(revenueDataFromApi, period));
+    }
 
-            // Deserialize the response into a list of revenue data
-            String responseBody = response.body();
-            List<Map<String, Object>> revenueDataFromApi = objectMapper.readValue(responseBody, new TypeReference<List<Map<String, Object>>>() {});
+    private List<Map<String, Object>> fetchRevenueTotals(String period) {
+        // Fetch the revenue totals for the selected time period
+        switch (period) {
+            case "Daily":
+                return uiDataService.getDailyRevenue(3, 2025); // Example: specific month (3) and year (2025)
+            case "Yearly":
+                return uiDataService.getLifetimeRevenue();
+            case "Monthly":
+            default:
+                return uiDataService.getMonthlyRevenue(2025); // Example: specific year (2025)
+        }
+    }
 
+    private void showCharts(List<Map<String, Object>> revenueDataFromApi, String period) {
+        try {
             // Create a series for the bar chart (Revenue by selected period)
             XYChart.Series<String, Number> series = new XYChart.Series<>();
             series.setName(period + " Revenue");
@@ -181,60 +164,25 @@ public class RevenueDashboardController {
     }
 
     private void fetchRevenueData(String period) {
-        try {
-            // Fetch data based on the selected period (Daily, Monthly, or Yearly)
-            String apiUrl = "http://localhost:8080/api/revenue/entries/";
+        // Fetch data based on the selected period (Daily, Monthly, or Yearly) in the background
+        uiTasks.load(this, "entries", () -> {
             switch (period) {
                 case "Daily":
-                    apiUrl += "monthly/2025/3";  // Adjust date format as needed
-                    break;
+                    return uiDataService.getRevenueEntriesByMonth(2025, 3);  // Adjust month as needed
                 case "Yearly":
-                    apiUrl += "lifetime";      // Adjust year if needed
-                    break;
+                    return uiDataService.getAllRevenueEntries();
                 case "Monthly":
                 default:
-                    apiUrl += "yearly/2025";  // Adjust month as needed
-                    break;
+                    return uiDataService.getRevenueEntriesByYear(2025);  // Adjust year as needed
             }
-
-            // Send HTTP request
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(apiUrl))
-                    .GET()
-                    .build();
-
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
-            // Handle the response body
-            String responseBody = response.body();
-
-            List<RevenueTrackingDTO> revenueDataFromApi;
-            if (responseBody.startsWith("[")) {
-                // Response is an array, directly deserialize into an array of RevenueTrackingDTO
-                revenueDataFromApi = Arrays.asList(objectMapper.readValue(responseBody, RevenueTrackingDTO[].class));
-            } else {
-                // Handle if the response is wrapped in an object (e.g., { "data": [...] })
-                Map<String, Object> responseMap = objectMapper.readValue(responseBody, new TypeReference<Map<String, Object>>() {});
-                if (responseMap.containsKey("")) {
-                    List<RevenueTrackingDTO> revenues = Arrays.asList(
-                            objectMapper.readValue(objectMapper.writeValueAsString(responseMap.get("data")), RevenueTrackingDTO[].class)
-                    );
-                    revenueDataFromApi = revenues;
-                } else {
-                    System.err.println("");
-                    return;
-                }
-            }
-
+        }, revenueDataFromApi -> {
             // Set data for the table
             revenueData.setAll(revenueDataFromApi);
             revenueTable.setItems(revenueData);
-
-
-        } catch (Exception e) {
+        }, e -> {
             e.printStackTrace();
             System.err.println("Error fetching revenue data: " + e.getMessage());
-        }
+        });
     }
 
     private void initializeTableColumns() {
@@ -259,31 +207,42 @@ public class RevenueDashboardController {
     }
 
     private void generateCSVReport() {
-        try {
-            // Specify the file path and name
-            File file = new File("revenue_report.csv");
-            BufferedWriter writer = new BufferedWriter(new FileWriter(file));
-
-            // Write the CSV headers
-            writer.write("Revenue ID,Room ID,Event ID,Booking ID,Total Revenue,Ticket Sales,Venue Hire,Booking Date,Status\n");
-
-            // Write the data rows
-            for (RevenueTrackingDTO revenue : revenueData) {
-                writer.write(revenue.getRevenueId() + "," +
-                        revenue.getRoomId() + "," +
-                        revenue.getEventId() + "," +
-                        revenue.getBookingId() + "," +
-                        revenue.getTotalRevenue() + "," +
-                        revenue.getTicketSales() + "," +
-                        revenue.getVenueHire() + "," +
-                        revenue.getBookingDate() + "," +
-                        revenue.getStatus() + "\n");
-            }
-
-            writer.close();
+        // Export the entries of the selected period in the background; the rows are streamed to the file,
+        // never held in memory, and the progress bar follows the number of rows written
+        LocalDate[] range = reportRange(timePeriodComboBox.getValue());
+        Path file = Path.of("revenue_report.csv");
+
+        btnGenerateReport.setDisable(true);
+        exportProgressBar.setProgress(0);
+        exportProgressBar.setVisible(true);
+
+        uiTasks.load(this, "csvExport", () -> {
+            uiDataService.exportRevenueCsv(range[0], range[1], false, file, (done, total) ->
+                    uiTasks.runOnFxThread(() -> exportProgressBar.setProgress(
+                            total > 0 ? (double) done / total : ProgressBar.INDETERMINATE_PROGRESS)));
+            return file;
+        }, exported -> {
+            btnGenerateReport.setDisable(false);
+            exportProgressBar.setProgress(1);
             showConfirmation("CSV Report Generated", "The revenue report has been successfully generated as CSV.");
-        } catch (IOException e) {
+        }, e -> {
             e.printStackTrace();
+            btnGenerateReport.setDisable(false);
+            exportProgressBar.setVisible(false);
+            showConfirmation("CSV Report Failed", "The revenue report could not be generated: " + e.getMessage());
+        });
+    }
+
+    // The booking date range (inclusive) of the entries shown for a period, matching fetchRevenueData
+    private LocalDate[] reportRange(String period) {
+        switch (period) {
+            case "Daily":
+                return new LocalDate[]{LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31)};
+            case "Yearly":
+                return new LocalDate[]{null, null};
+            case "Monthly":
+            default:
+                return new LocalDate[]{LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)};
         }
     }
 
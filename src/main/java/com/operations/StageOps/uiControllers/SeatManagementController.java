@@ -1,8 +1,9 @@
 package com.operations.StageOps.uiControllers;
 
+import com.operations.StageOps.Interfaces.IUiDataService;
+import com.operations.StageOps.model.ChangeEvent;
 import com.operations.StageOps.model.Room;
 import com.operations.StageOps.model.Seating;
-import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -16,7 +17,7 @@ import org.springframework.web.client.RestTemplate;
 
 import java.util.*;
 
-public class SeatManagementController {
+public class SeatManagementController implements AutoCloseable {
 
     @FXML
     private ComboBox<String> roomSelectionComboBox;
@@ -30,6 +31,15 @@ public class SeatManagementController {
 
     private final Map<String, Integer> roomIdMap = new HashMap<>();
     private final List<Seating> seatList = new ArrayList<>();
+    private final UiTaskExecutor uiTasks;
+    private final IUiDataService uiDataService;
+    private AutoCloseable seatingChanges; // Seat updates of the selected room
+    private Integer selectedRoomId;
+
+    public SeatManagementController(UiTaskExecutor uiTasks, IUiDataService uiDataService) {
+        this.uiTasks = uiTasks;
+        this.uiDataService = uiDataService;
+    }
 
     @FXML
     public void initialize() {
@@ -38,7 +48,9 @@ public class SeatManagementController {
         roomSelectionComboBox.setOnAction(event -> {
             String selectedRoom = roomSelectionComboBox.getValue();
             if (selectedRoom != null) {
-                fetchSeats(roomIdMap.get(selectedRoom)); // Fetch seats for selected room
+                int roomId = roomIdMap.get(selectedRoom);
+                fetchSeats(roomId); // Fetch seats for selected room
+                watchSeating(roomId);
             }
         });
 
@@ -46,40 +58,71 @@ public class SeatManagementController {
     }
 
     private void fetchRooms() {
-        Task<List<Room>> task = new Task<>() {
-            @Override
-            protected List<Room> call() {
-                return Arrays.asList(restTemplate.getForObject(BASE_URL + "/rooms", Room[].class));
-            }
-        };
-
-        task.setOnSucceeded(event -> {
-            List<Room> rooms = task.getValue();
+        uiTasks.load(this, "rooms", () -> Arrays.asList(restTemplate.getForObject(BASE_URL + "/rooms", Room[].class)), rooms -> {
             roomSelectionComboBox.getItems().clear();
             for (Room room : rooms) {
                 roomSelectionComboBox.getItems().add(room.getRoomName());
                 roomIdMap.put(room.getRoomName(), room.getRoomId());
             }
         });
-
-        new Thread(task).start();
     }
 
     private void fetchSeats(int roomId) {
-        Task<List<Seating>> task = new Task<>() {
-            @Override
-            protected List<Seating> call() {
-                return Arrays.asList(restTemplate.getForObject(BASE_URL + "/seating/room/" + roomId, Seating[].class));
-            }
-        };
-
-        task.setOnSucceeded(event -> {
+        // Selecting another room supersedes a pending fetch, so a slow response never overwrites a newer room
+        uiTasks.load(this, "seats", () -> Arrays.asList(restTemplate.getForObject(BASE_URL + "/seating/room/" + roomId, Seating[].class)), seats -> {
             seatList.clear();
-            seatList.addAll(task.getValue());
+            seatList.addAll(seats);
             displaySeats();
         });
+    }
+
+    // Apply seats saved elsewhere to the selected room as they are committed
+    private void watchSeating(int roomId) {
+        closeSeatingChanges();
+        selectedRoomId = roomId;
+        seatingChanges = uiDataService.subscribeChanges(List.of("rooms/" + roomId + "/seating"),
+                change -> uiTasks.runOnFxThread(() -> applyChange(roomId, change)));
+    }
+
+    private void applyChange(int roomId, ChangeEvent change) {
+        if (selectedRoomId == null || selectedRoomId != roomId) {
+            return; // Another room was selected while the change was queued
+        }
+        if (ChangeEvent.RESYNC.equals(change.getType())) {
+            fetchSeats(roomId);
+        } else if (ChangeEvent.SEATING_UPDATED.equals(change.getType())) {
+            for (Seating updated : change.getSeats()) {
+                for (int i = 0; i < seatList.size(); i++) {
+                    Seating seat = seatList.get(i);
+                    if (seat.getSeatId().equals(updated.getSeatId())) {
+                        // The update does not carry the status shown here
+                        updated.setStatus(seat.getStatus());
+                        seatList.set(i, updated);
+                    }
+                }
+            }
+            displaySeats();
+        }
+    }
 
-        new Thread(task).start();
+    /**
+     * Stop receiving seat updates; called when the screen is left.
+     */
+    @Override
+    public void close() {
+        closeSeatingChanges();
+        selectedRoomId = null;
+    }
+
+    private void closeSeatingChanges() {
+        if (seatingChanges != null) {
+            try {
+                seatingChanges.close();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            seatingChanges = null;
+        }
     }
 
     private void displaySeats() {
@@ -241,11 +284,8 @@ public class SeatManagementController {
         alert.setContentText("Seat availability has been updated.");
         alert.showAndWait();
 
-        // Refresh seat data
-        String selectedRoom = roomSelectionComboBox.getValue();
-        if (selectedRoom != null) {
-            fetchSeats(roomIdMap.get(selectedRoom));
-        }
+        // The saved seats are already in seatList; other clients' changes arrive through the change feed
+        displaySeats();
     }
 
 }
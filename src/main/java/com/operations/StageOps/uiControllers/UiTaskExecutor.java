@@ -0,0 +1,167 @@
+package com.operations.StageOps.uiControllers;
+
+import jakarta.annotation.PreDestroy;
+import javafx.application.Platform;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Shared background executor for the JavaFX screens.
+ * <p>
+ * Loads run on virtual threads, at most {@code stageops.ui.max-in-flight-loads} at a time. Every load belongs to
+ * an owner (the screen's controller) and has a key: starting a load with the same owner and key supersedes the
+ * previous one, and {@link #cancelAll(Object)} cancels every load of a screen when the user leaves it. A cancelled
+ * load that has not started yet is skipped; one that is already running is not interrupted (interrupting a virtual
+ * thread blocked on a socket closes the socket, which would break pooled connections) but its result is dropped.
+ * <p>
+ * Results are applied through {@link #runOnFxThread(Runnable)}, which queues UI updates and applies everything
+ * queued so far in a single {@link Platform#runLater} call.
+ */
+@Component
+public class UiTaskExecutor {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore inFlight;
+    private final Map<Object, Map<String, Load>> loadsByOwner = new ConcurrentHashMap<>();
+    private final Queue<Runnable> pendingUpdates = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    /**
+     * Constructor for UiTaskExecutor.
+     *
+     * @param maxInFlightLoads The maximum number of loads running at the same time.
+     */
+    public UiTaskExecutor(@Value("${stageops.ui.max-in-flight-loads:8}") int maxInFlightLoads) {
+        this.inFlight = new Semaphore(maxInFlightLoads);
+    }
+
+    /**
+     * Run {@code work} in the background and pass its result to {@code onSuccess} on the JavaFX thread.
+     * Any load of the same owner and key that is still pending is cancelled.
+     *
+     * @param owner The screen the load belongs to, usually its controller.
+     * @param key Identifies the load within the screen.
+     * @param work The blocking work, e.g. a data service call.
+     * @param onSuccess Applies the result to the UI; runs on the JavaFX thread.
+     * @param onFailure Reports a failure in the UI; runs on the JavaFX thread.
+     * @param <T> The type of the result.
+     */
+    public <T> void load(Object owner, String key, Callable<T> work, Consumer<T> onSuccess, Consumer<Exception> onFailure) {
+        Load load = new Load();
+        // Put inside compute, so a finish() emptying and removing the owner's map cannot drop this load
+        loadsByOwner.compute(owner, (o, loads) -> {
+            if (loads == null) {
+                loads = new ConcurrentHashMap<>();
+            }
+            Load previous = loads.put(key, load);
+            if (previous != null) {
+                previous.cancelled = true;
+            }
+            return loads;
+        });
+        executor.execute(() -> run(owner, key, load, work, onSuccess, onFailure));
+    }
+
+    /**
+     * Same as {@link #load(Object, String, Callable, Consumer, Consumer)}, printing failures instead of showing them.
+     */
+    public <T> void load(Object owner, String key, Callable<T> work, Consumer<T> onSuccess) {
+        load(owner, key, work, onSuccess, Exception::printStackTrace);
+    }
+
+    /**
+     * Cancel every pending load of a screen, e.g. when the user switches to another tab.
+     *
+     * @param owner The screen whose loads should be cancelled.
+     */
+    public void cancelAll(Object owner) {
+        Map<String, Load> loads = loadsByOwner.remove(owner);
+        if (loads != null) {
+            loads.values().forEach(load -> load.cancelled = true);
+        }
+    }
+
+    /**
+     * Queue a UI update. Updates queued before the JavaFX thread gets to them are applied together in one
+     * {@link Platform#runLater} call.
+     *
+     * @param update The update to apply on the JavaFX thread.
+     */
+    public void runOnFxThread(Runnable update) {
+        pendingUpdates.add(update);
+        if (drainScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::drainUpdates);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> void run(Object owner, String key, Load load, Callable<T> work, Consumer<T> onSuccess, Consumer<Exception> onFailure) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(owner, key, load);
+            return;
+        }
+        try {
+            if (load.cancelled) {
+                finish(owner, key, load);
+                return;
+            }
+            T result = work.call();
+            runOnFxThread(() -> complete(owner, key, load, () -> onSuccess.accept(result)));
+        } catch (Exception e) {
+            runOnFxThread(() -> complete(owner, key, load, () -> onFailure.accept(e)));
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private void complete(Object owner, String key, Load load, Runnable callback) {
+        if (!load.cancelled) {
+            callback.run();
+        }
+        finish(owner, key, load);
+    }
+
+    private void finish(Object owner, String key, Load load) {
+        loadsByOwner.computeIfPresent(owner, (o, loads) -> {
+            loads.remove(key, load);
+            return loads.isEmpty() ? null : loads;
+        });
+    }
+
+    private void drainUpdates() {
+        drainScheduled.set(false);
+        Runnable update;
+        while ((update = pendingUpdates.poll()) != null) {
+            try {
+                update.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * One submitted load; only its cancellation flag is needed.
+     */
+    private static final class Load {
+        private volatile boolean cancelled;
+    }
+}
@@ -0,0 +1,214 @@
+package com.operations.StageOps.util;
+
+import com.operations.StageOps.model.ChangeEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * In-process bus for {@link ChangeEvent}s: the repositories publish what they changed, and the change feed endpoint
+ * and the in-process UI subscribe to topics.
+ * <p>
+ * A change published inside a transaction is only delivered after the transaction commits, so subscribers never
+ * see a change that is rolled back. Changes are numbered on a single dispatcher thread and handed to each
+ * subscription's own queue, which a sender thread of that subscription drains in order, so a slow subscriber
+ * only delays itself. A subscriber that falls {@code stageops.changes.subscriber-queue-size} changes behind has
+ * its backlog dropped and receives a {@link ChangeEvent#RESYNC} per topic instead. The last
+ * {@code stageops.changes.replay-size} changes are kept, so a subscriber that reconnects with the number of the
+ * last change it saw receives what it missed; if that is no longer available it receives a
+ * {@link ChangeEvent#RESYNC} instead.
+ */
+@Component
+public class ChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeed.class);
+
+    // Queued in place of a subscriber's dropped backlog; its sender turns it into a resync per topic
+    private static final ChangeEvent BACKLOG_DROPPED = ChangeEvent.resync("");
+
+    private final int replaySize;
+    private final int queueSize;
+    private final Deque<ChangeEvent> recent = new ArrayDeque<>(); // only touched on the dispatcher thread
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long lastSequence; // only touched on the dispatcher thread
+
+    /**
+     * Constructor for ChangeFeed.
+     *
+     * @param replaySize The number of recent changes kept for subscribers that reconnect.
+     * @param queueSize  The number of changes a subscriber may fall behind before its backlog is dropped.
+     */
+    public ChangeFeed(@Value("${stageops.changes.replay-size:1000}") int replaySize,
+                      @Value("${stageops.changes.subscriber-queue-size:256}") int queueSize) {
+        this.replaySize = Math.max(0, replaySize);
+        this.queueSize = Math.max(1, queueSize);
+    }
+
+    /**
+     * Publish a change. Inside a transaction the change is held back until the transaction commits and dropped
+     * if it rolls back.
+     *
+     * @param change The change.
+     */
+    public void publish(ChangeEvent change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatcher.execute(() -> dispatch(change));
+                }
+            });
+        } else {
+            dispatcher.execute(() -> dispatch(change));
+        }
+    }
+
+    /**
+     * Subscribe to the changes on some topics and the topics below them. The listener is called in order on a
+     * thread of this subscription; if it throws, the subscription is closed.
+     *
+     * @param topics        The topics, e.g. {@code seats/12} or {@code events}.
+     * @param afterSequence The number of the last change the subscriber saw before reconnecting, or null.
+     * @param listener      Receives the changes.
+     * @return The subscription; close it to stop receiving changes.
+     */
+    public Subscription subscribe(Collection<String> topics, Long afterSequence, Consumer<ChangeEvent> listener) {
+        Subscription subscription = new Subscription(List.copyOf(topics), listener);
+        subscription.sender.start();
+        // Registered on the dispatcher thread, so no change falls between the replay and the first live delivery
+        dispatcher.execute(() -> {
+            if (subscription.closed) {
+                return;
+            }
+            if (afterSequence != null) {
+                replay(subscription, afterSequence);
+            }
+            subscriptions.add(subscription);
+        });
+        return subscription;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscriptions.forEach(Subscription::close);
+    }
+
+    private void dispatch(ChangeEvent change) {
+        change.setSequence(++lastSequence);
+        change.setTimestamp(Instant.now());
+        if (replaySize > 0) {
+            recent.addLast(change);
+            if (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+        }
+        for (Subscription subscription : subscriptions) {
+            if (subscription.matches(change.getTopic())) {
+                subscription.enqueue(change);
+            }
+        }
+    }
+
+    private void replay(Subscription subscription, long afterSequence) {
+        long oldestKept = recent.isEmpty() ? lastSequence + 1 : recent.peekFirst().getSequence();
+        if (afterSequence > lastSequence || afterSequence + 1 < oldestKept) {
+            // Missed changes were dropped, or the sequence belongs to before a restart
+            subscription.enqueue(BACKLOG_DROPPED);
+            return;
+        }
+        for (ChangeEvent change : recent) {
+            if (change.getSequence() > afterSequence && subscription.matches(change.getTopic())) {
+                subscription.enqueue(change);
+            }
+        }
+    }
+
+    /**
+     * A subscription to some topics.
+     */
+    public final class Subscription implements AutoCloseable {
+        private final List<String> topics;
+        private final Consumer<ChangeEvent> listener;
+        private final BlockingQueue<ChangeEvent> queue = new ArrayBlockingQueue<>(queueSize);
+        // Created before it is started, so close() can always interrupt it
+        private final Thread sender;
+        private volatile boolean closed;
+
+        private Subscription(List<String> topics, Consumer<ChangeEvent> listener) {
+            this.topics = topics;
+            this.listener = listener;
+            this.sender = Thread.ofVirtual().name("change-feed-subscriber").unstarted(this::send);
+        }
+
+        // Only called on the dispatcher thread, so the queue cannot fill up again between the clear and the offer
+        private void enqueue(ChangeEvent change) {
+            if (!queue.offer(change)) {
+                logger.debug("Change feed subscriber to {} fell {} changes behind, sending a resync",
+                        topics, queueSize);
+                queue.clear();
+                queue.offer(BACKLOG_DROPPED);
+            }
+        }
+
+        private void send() {
+            try {
+                while (!closed) {
+                    ChangeEvent change = queue.take();
+                    if (change == BACKLOG_DROPPED) {
+                        for (String topic : topics) {
+                            listener.accept(ChangeEvent.resync(topic));
+                        }
+                    } else {
+                        listener.accept(change);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Closed
+            } catch (RuntimeException e) {
+                // Usually a client that has disconnected
+                logger.debug("Closing change feed subscription to {}", topics, e);
+                close();
+            }
+        }
+
+        private boolean matches(String topic) {
+            for (String subscribed : topics) {
+                if (topic.equals(subscribed) || topic.startsWith(subscribed + "/")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            subscriptions.remove(this);
+            if (sender != Thread.currentThread()) {
+                sender.interrupt();
+            }
+        }
+    }
+}
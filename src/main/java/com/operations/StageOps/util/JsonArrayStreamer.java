@@ -0,0 +1,61 @@
+package com.operations.StageOps.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes a JSON array to the response one element at a time with Jackson's streaming generator,
+ * so a list endpoint can send rows as they are read from the database instead of building the whole list first.
+ */
+@Component
+public class JsonArrayStreamer {
+
+    /**
+     * Something that can hand its rows to a callback one by one, e.g. a service's {@code forEach...} method.
+     *
+     * @param <T> The type of the rows.
+     */
+    @FunctionalInterface
+    public interface RowSource<T> {
+        void forEach(Consumer<T> action);
+    }
+
+    private final ObjectMapper objectMapper;
+
+    public JsonArrayStreamer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Build a response that streams the rows of {@code source} as a JSON array.
+     * The rows are read when the response body is written, not when this method is called.
+     *
+     * @param source The rows to write.
+     * @param <T> The type of the rows.
+     * @return A 200 response with a streaming JSON body.
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(RowSource<T> source) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                source.forEach(row -> {
+                    try {
+                        generator.writeObject(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
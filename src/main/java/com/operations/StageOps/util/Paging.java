@@ -0,0 +1,27 @@
+package com.operations.StageOps.util;
+
+/**
+ * Page size limits for the keyset-paginated list endpoints.
+ */
+public final class Paging {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private Paging() {
+    }
+
+    /**
+     * Turn a requested page size into the one actually used: the default if none was given,
+     * otherwise the request clamped to between 1 and {@link #MAX_PAGE_SIZE}.
+     *
+     * @param limit The requested page size, or null.
+     * @return The page size to query with.
+     */
+    public static int limit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+}
@@ -4,14 +4,45 @@ import com.operations.StageOps.model.Contract;
 import com.operations.StageOps.model.Invoice;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.BufferedOutputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
+/**
+ * Renders invoices and contracts as PDF.
+ * <p>
+ * Fonts, colours and the parsed logo are created once and shared. Fonts and colours are never modified after
+ * construction, so the generators can run on several threads at once; every document gets its own copy of the logo
+ * because iText scales and positions the image it is given.
+ */
 public class PdfGenerator {
 
+    private static final Logger logger = LoggerFactory.getLogger(PdfGenerator.class);
+
+    private static final String LOGO_RESOURCE = "/static/StageOpsLogo.png";
+    private static final String LOGO_FILE = "./src/main/resources/static/StageOpsLogo.png";
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final Font HEADER_FONT = new Font(Font.FontFamily.HELVETICA, 16, Font.BOLD, BaseColor.DARK_GRAY);
+    private static final Font NOTE_FONT = new Font(Font.FontFamily.HELVETICA, 10, Font.ITALIC, BaseColor.GRAY);
+    private static final Font TABLE_HEADER_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
+    private static final Font TEXT_FONT = new Font(Font.FontFamily.HELVETICA, 12);
+    private static final Font SMALL_TEXT_FONT = new Font(Font.FontFamily.HELVETICA, 11);
+    private static final Font SMALL_BOLD_FONT = new Font(Font.FontFamily.HELVETICA, 11, Font.BOLD);
+    private static final Font TITLE_FONT = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD);
+    private static final Font SECTION_FONT = new Font(Font.FontFamily.HELVETICA, 14, Font.BOLD);
+
     /**
      * Generates a PDF for all invoices of a client
      */
@@ -21,16 +52,13 @@ public class PdfGenerator {
         document.open();
 
         // Add header
-        Font headerFont = new Font(Font.FontFamily.HELVETICA, 16, Font.BOLD, BaseColor.DARK_GRAY);
-        Paragraph header = new Paragraph("Client Invoices Summary", headerFont);
+        Paragraph header = new Paragraph("Client Invoices Summary", HEADER_FONT);
         header.setAlignment(Element.ALIGN_CENTER);
         document.add(header);
         document.add(Chunk.NEWLINE);
 
         // Add generation timestamp
-        Font timestampFont = new Font(Font.FontFamily.HELVETICA, 10, Font.ITALIC, BaseColor.GRAY);
-        Paragraph timestamp = new Paragraph("Generated on: " +
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")), timestampFont);
+        Paragraph timestamp = new Paragraph("Generated on: " + LocalDateTime.now().format(TIMESTAMP_FORMAT), NOTE_FONT);
         document.add(timestamp);
         document.add(Chunk.NEWLINE);
 
@@ -39,17 +67,15 @@ public class PdfGenerator {
         table.setWidthPercentage(100);
 
         // Add headers to table
-        Font tableHeader = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
-        table.addCell(new PdfPCell(new Phrase("Invoice ID", tableHeader)));
-        table.addCell(new PdfPCell(new Phrase("Client ID", tableHeader)));
-        table.addCell(new PdfPCell(new Phrase("Status", tableHeader)));
+        table.addCell(new PdfPCell(new Phrase("Invoice ID", TABLE_HEADER_FONT)));
+        table.addCell(new PdfPCell(new Phrase("Client ID", TABLE_HEADER_FONT)));
+        table.addCell(new PdfPCell(new Phrase("Status", TABLE_HEADER_FONT)));
 
         // Add data rows
-        Font tableData = new Font(Font.FontFamily.HELVETICA, 12);
         for (Invoice invoice : invoices) {
-            table.addCell(new Phrase(String.valueOf(invoice.getInvoiceId()), tableData));
-            table.addCell(new Phrase(String.valueOf(invoice.getClientId()), tableData));
-            table.addCell(new Phrase(invoice.getStatus(), tableData));
+            table.addCell(new Phrase(String.valueOf(invoice.getInvoiceId()), TEXT_FONT));
+            table.addCell(new Phrase(String.valueOf(invoice.getClientId()), TEXT_FONT));
+            table.addCell(new Phrase(invoice.getStatus(), TEXT_FONT));
         }
 
         document.add(table);
@@ -65,25 +91,39 @@ public class PdfGenerator {
     private static final BaseColor LIGHT_GREY = new BaseColor(211, 211, 211); // RGB for #D3D3D3
 
     public static void generateSingleInvoicePdf(Invoice invoice, String clientName, String clientAddress, String filePath) throws Exception {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(filePath))) {
+            generateSingleInvoicePdf(invoice, clientName, clientAddress, out);
+        }
+    }
+
+    /**
+     * Generates a PDF for a single invoice and writes it to the given stream, which is left open.
+     */
+    public static void generateSingleInvoicePdf(Invoice invoice, String clientName, String clientAddress, OutputStream out) throws Exception {
         Document document = new Document(PageSize.A4, 50, 50, 50, 50);
-        PdfWriter.getInstance(document, new FileOutputStream(filePath));
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
         document.open();
 
         // Add logo
-        Image logo = Image.getInstance("./src/main/resources/static/StageOpsLogo.png");
+        Image cachedLogo = LogoHolder.LOGO;
+        if (cachedLogo == null) {
+            throw new IOException("Company logo not found: " + LOGO_RESOURCE);
+        }
+        Image logo = Image.getInstance(cachedLogo);
         logo.scaleToFit(80, 80);
         logo.setAlignment(Image.ALIGN_LEFT);
         document.add(logo);
 
         // Add company info (updated to City University of London)
         Paragraph company = new Paragraph("City University of London\nNorthampton Square, London EC1V 0HB, UK\n(020) 7040 5000 | stageOps@lancaster.com",
-                new Font(Font.FontFamily.HELVETICA, 11));
+                SMALL_TEXT_FONT);
         company.setSpacingAfter(20);
         document.add(company);
 
         // Recipient info
         Paragraph recipient = new Paragraph("RECIPIENT:\n" + clientName + "\nClient Address:\n" + clientAddress ,
-                new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD));
+                TABLE_HEADER_FONT);
         recipient.setSpacingAfter(20);
         document.add(recipient);
 
@@ -128,7 +168,7 @@ public class PdfGenerator {
                 "Bank: XYZ Bank\n" +
                 "Account Number: 123456789\n" +
                 "Routing Number: 987654321",
-                new Font(Font.FontFamily.HELVETICA, 12));
+                TEXT_FONT);
         paymentInstructions.setSpacingAfter(20);
         document.add(paymentInstructions);
 
@@ -137,14 +177,13 @@ public class PdfGenerator {
                 "1. Payment is due within 30 days of the invoice date.\n" +
                 "2. Late payments may incur a fee of 1.5% per month.\n" +
                 "3. All services are subject to our standard terms and conditions.",
-                new Font(Font.FontFamily.HELVETICA, 12));
+                TEXT_FONT);
         terms.setSpacingAfter(20);
         document.add(terms);
 
         // Footer
         document.add(new Chunk("\n\n\n"));
-        final Font footerFont = new Font(Font.FontFamily.HELVETICA, 10, Font.ITALIC, BaseColor.GRAY);
-        Paragraph footer = new Paragraph("This is a computer-generated document and does not require a signature.", footerFont);
+        Paragraph footer = new Paragraph("This is a computer-generated document and does not require a signature.", NOTE_FONT);
         footer.setAlignment(Element.ALIGN_CENTER);
         document.add(footer);
 
@@ -177,16 +216,13 @@ public class PdfGenerator {
         document.open();
 
         // Add header
-        Font headerFont = new Font(Font.FontFamily.HELVETICA, 16, Font.BOLD, BaseColor.DARK_GRAY);
-        Paragraph header = new Paragraph("Client Contracts Summary", headerFont);
+        Paragraph header = new Paragraph("Client Contracts Summary", HEADER_FONT);
         header.setAlignment(Element.ALIGN_CENTER);
         document.add(header);
         document.add(Chunk.NEWLINE);
 
         // Add generation timestamp
-        Font timestampFont = new Font(Font.FontFamily.HELVETICA, 10, Font.ITALIC, BaseColor.GRAY);
-        Paragraph timestamp = new Paragraph("Generated on: " +
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")), timestampFont);
+        Paragraph timestamp = new Paragraph("Generated on: " + LocalDateTime.now().format(TIMESTAMP_FORMAT), NOTE_FONT);
         document.add(timestamp);
         document.add(Chunk.NEWLINE);
 
@@ -195,17 +231,15 @@ public class PdfGenerator {
         table.setWidthPercentage(100);
 
         // Add headers to table
-        Font tableHeader = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
-        table.addCell(new PdfPCell(new Phrase("Contract ID", tableHeader)));
-        table.addCell(new PdfPCell(new Phrase("Client ID", tableHeader)));
-        table.addCell(new PdfPCell(new Phrase("Status", tableHeader)));
+        table.addCell(new PdfPCell(new Phrase("Contract ID", TABLE_HEADER_FONT)));
+        table.addCell(new PdfPCell(new Phrase("Client ID", TABLE_HEADER_FONT)));
+        table.addCell(new PdfPCell(new Phrase("Status", TABLE_HEADER_FONT)));
 
         // Add data rows
-        Font tableData = new Font(Font.FontFamily.HELVETICA, 12);
         for (Contract contract : contracts) {
-            table.addCell(new Phrase(String.valueOf(contract.getContractId()), tableData));
-            table.addCell(new Phrase(String.valueOf(contract.getClientId()), tableData));
-            table.addCell(new Phrase(contract.getStatus(), tableData));
+            table.addCell(new Phrase(String.valueOf(contract.getContractId()), TEXT_FONT));
+            table.addCell(new Phrase(String.valueOf(contract.getClientId()), TEXT_FONT));
+            table.addCell(new Phrase(contract.getStatus(), TEXT_FONT));
         }
 
         document.add(table);
@@ -216,31 +250,37 @@ public class PdfGenerator {
      * Generates a PDF for a single contract
      */
     public static void generateSingleContractPdf(Contract contract, String ownerName, String renterName, String filePath) throws Exception {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(filePath))) {
+            generateSingleContractPdf(contract, ownerName, renterName, out);
+        }
+    }
+
+    /**
+     * Generates a PDF for a single contract and writes it to the given stream, which is left open.
+     */
+    public static void generateSingleContractPdf(Contract contract, String ownerName, String renterName, OutputStream out) throws Exception {
         Document document = new Document(PageSize.A4, 50, 50, 50, 50);
-        PdfWriter writer = PdfWriter.getInstance(document, new FileOutputStream(filePath));
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
         document.open();
 
-        // Add company logo
-        try {
-            Image logo = Image.getInstance("./src/main/resources/static/StageOpsLogo.png");
+        // Add company logo; if the logo could not be loaded, continue without it
+        if (LogoHolder.LOGO != null) {
+            Image logo = Image.getInstance(LogoHolder.LOGO);
             logo.scaleToFit(100, 100);
             logo.setAlignment(Element.ALIGN_CENTER);
             document.add(logo);
-        } catch (Exception e) {
-            // If logo file not found, continue without it
-            System.out.println("Company logo not found: " + e.getMessage());
         }
 
         // Add contract title
-        Font titleFont = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD);
-        Paragraph title = new Paragraph("VENUE RENTAL CONTRACT TEMPLATE", titleFont);
+        Paragraph title = new Paragraph("VENUE RENTAL CONTRACT TEMPLATE", TITLE_FONT);
         title.setAlignment(Element.ALIGN_CENTER);
         title.setSpacingAfter(10);
         document.add(title);
 
         // Add contract introduction
-        Font normalFont = new Font(Font.FontFamily.HELVETICA, 11);
-        Font boldFont = new Font(Font.FontFamily.HELVETICA, 11, Font.BOLD);
+        Font normalFont = SMALL_TEXT_FONT;
+        Font boldFont = SMALL_BOLD_FONT;
 
         String introText = "This Venue Rental Agreement (\"Agreement\") is made effective as of " +
                 contract.getEffectiveDate() + ", by and between " +
@@ -253,8 +293,7 @@ public class PdfGenerator {
         document.add(intro);
 
         // PART I: GENERAL TERMS
-        Font sectionFont = new Font(Font.FontFamily.HELVETICA, 14, Font.BOLD);
-        Paragraph section1 = new Paragraph("PART I: GENERAL TERMS", sectionFont);
+        Paragraph section1 = new Paragraph("PART I: GENERAL TERMS", SECTION_FONT);
         section1.setSpacingBefore(10);
         section1.setSpacingAfter(15);
         document.add(section1);
@@ -383,4 +422,21 @@ public class PdfGenerator {
         cell.setPadding(5);
         return cell;
     }
+
+    /**
+     * Parses the logo the first time a document needs it. Holds null if the logo could not be loaded.
+     */
+    private static final class LogoHolder {
+        private static final Image LOGO = loadLogo();
+
+        private static Image loadLogo() {
+            try (InputStream in = PdfGenerator.class.getResourceAsStream(LOGO_RESOURCE)) {
+                byte[] bytes = in != null ? in.readAllBytes() : Files.readAllBytes(Path.of(LOGO_FILE));
+                return Image.getInstance(bytes);
+            } catch (Exception e) {
+                logger.warn("Company logo not found: {}", e.getMessage());
+                return null;
+            }
+        }
+    }
 }
\ No newline at end of file
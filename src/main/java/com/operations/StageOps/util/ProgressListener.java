@@ -0,0 +1,16 @@
+package com.operations.StageOps.util;
+
+/**
+ * Receives progress updates from a long-running job such as an export.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+    /**
+     * Called as the job advances; may be called from a background thread.
+     *
+     * @param done The number of items processed so far.
+     * @param total The total number of items, or -1 if it is not known.
+     */
+    void update(long done, long total);
+}
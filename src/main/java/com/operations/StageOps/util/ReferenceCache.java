@@ -0,0 +1,182 @@
+package com.operations.StageOps.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A small in-process read-through cache for reference data that is read far more often than it changes
+ * (rooms, layouts, clients).
+ * <p>
+ * Entries expire {@code ttlMs} after they were loaded, and once the cache holds {@code maxSize} entries the least
+ * recently used one is evicted. Null results are not cached. The owning repository calls {@link #invalidate(Object)}
+ * from its own update and delete methods; a load that was already running when an invalidation happened is returned
+ * to its caller but not cached, so it cannot put the old row back. Inside a transaction an invalidation is repeated
+ * once the transaction completes, so neither an uncommitted row read back by the writing transaction nor the old row
+ * read by a concurrent caller before the commit stays cached. Cached values are shared between callers and must
+ * not be modified.
+ *
+ * @param <K> The key type, usually the row ID.
+ * @param <V> The cached value type.
+ */
+public class ReferenceCache<K, V> {
+
+    private final String name;
+    private final Map<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile int maxSize;
+    private volatile long ttlNanos;
+    // Incremented by every invalidation; a load only stores its result if no invalidation happened meanwhile
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructor for ReferenceCache.
+     *
+     * @param name    The name reported in {@link #stats()}.
+     * @param maxSize The maximum number of entries.
+     * @param ttlMs   How long an entry is served after it was loaded, in milliseconds.
+     */
+    public ReferenceCache(String name, int maxSize, long ttlMs) {
+        this.name = name;
+        configure(maxSize, ttlMs);
+    }
+
+    /**
+     * Change the size bound and TTL. Entries already cached keep the time they were loaded.
+     *
+     * @param maxSize The maximum number of entries.
+     * @param ttlMs   How long an entry is served after it was loaded, in milliseconds; 0 disables caching.
+     */
+    public void configure(int maxSize, long ttlMs) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, ttlMs));
+    }
+
+    /**
+     * Get the cached value for a key, loading and caching it if it is missing or expired.
+     *
+     * @param key    The key.
+     * @param loader Loads the value from the database; may return null.
+     * @return The value, or null if the loader returned null.
+     */
+    public V get(K key, Function<K, V> loader) {
+        long loadGeneration;
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.loadedAt < ttlNanos) {
+                hits.increment();
+                return entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+
+        // Load outside the lock so that a slow query does not block lookups of other keys
+        V value = loader.apply(key);
+        if (value != null && ttlNanos > 0) {
+            synchronized (entries) {
+                if (generation == loadGeneration) {
+                    entries.put(key, new Entry<>(value, System.nanoTime()));
+                    evictOverflow();
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drop the entry for a key, e.g. after the row was updated or deleted.
+     *
+     * @param key The key.
+     */
+    public void invalidate(K key) {
+        invalidateNowAndAfterTransaction(() -> entries.remove(key));
+    }
+
+    /**
+     * Drop the entries whose value matches, e.g. every cached layout of a room whose seats changed.
+     *
+     * @param predicate Selects the values to drop.
+     */
+    public void invalidateIf(Predicate<V> predicate) {
+        invalidateNowAndAfterTransaction(() -> entries.values().removeIf(entry -> predicate.test(entry.value)));
+    }
+
+    /**
+     * Drop every entry.
+     */
+    public void invalidateAll() {
+        invalidateNowAndAfterTransaction(entries::clear);
+    }
+
+    /**
+     * @return The name, number of entries, hits, misses, evictions and hit rate of the cache.
+     */
+    public Map<String, Object> stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("name", name);
+        stats.put("size", size);
+        stats.put("maxSize", maxSize);
+        stats.put("ttlMs", TimeUnit.NANOSECONDS.toMillis(ttlNanos));
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRate", lookups > 0 ? (double) hitCount / lookups : 0.0);
+        return stats;
+    }
+
+    private void invalidateNowAndAfterTransaction(Runnable removal) {
+        // Now, so the writing transaction reads its own change
+        remove(removal);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // And again once the outcome is known, whether it committed or rolled back
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(removal);
+                }
+            });
+        }
+    }
+
+    private void remove(Runnable removal) {
+        synchronized (entries) {
+            generation++;
+            removal.run();
+        }
+    }
+
+    // Called with the lock held
+    private void evictOverflow() {
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
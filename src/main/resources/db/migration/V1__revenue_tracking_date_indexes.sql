@@ -0,0 +1,6 @@
+-- Indexes for the booking_date range queries in RevenueTrackingRepository.
+-- (booking_date, total_revenue) covers the SUM/GROUP BY revenue reports without touching the table rows.
+CREATE INDEX idx_revenue_tracking_date_revenue ON revenue_tracking (booking_date, total_revenue);
+
+-- Per-event revenue lookups, narrowed by date.
+CREATE INDEX idx_revenue_tracking_event_date ON revenue_tracking (event_id, booking_date);
@@ -0,0 +1,33 @@
+-- Pre-aggregated revenue per room and day / per room and month, kept in step with revenue_tracking
+-- by RevenueRollupRepository. Rows without a booking_date are not part of any date report and are skipped.
+CREATE TABLE revenue_daily (
+    revenue_day   DATE   NOT NULL,
+    room_id       INT    NOT NULL,
+    ticket_sales  DOUBLE NOT NULL DEFAULT 0,
+    venue_hire    DOUBLE NOT NULL DEFAULT 0,
+    total_revenue DOUBLE NOT NULL DEFAULT 0,
+    PRIMARY KEY (revenue_day, room_id)
+);
+
+CREATE TABLE revenue_monthly (
+    revenue_year  INT    NOT NULL,
+    revenue_month INT    NOT NULL,
+    room_id       INT    NOT NULL,
+    ticket_sales  DOUBLE NOT NULL DEFAULT 0,
+    venue_hire    DOUBLE NOT NULL DEFAULT 0,
+    total_revenue DOUBLE NOT NULL DEFAULT 0,
+    PRIMARY KEY (revenue_year, revenue_month, room_id)
+);
+
+-- Initial backfill from the existing revenue rows
+INSERT INTO revenue_daily (revenue_day, room_id, ticket_sales, venue_hire, total_revenue)
+SELECT DATE(booking_date), COALESCE(room_id, 0),
+       COALESCE(SUM(ticket_sales), 0), COALESCE(SUM(venue_hire), 0), COALESCE(SUM(total_revenue), 0)
+FROM revenue_tracking
+WHERE booking_date IS NOT NULL
+GROUP BY DATE(booking_date), COALESCE(room_id, 0);
+
+INSERT INTO revenue_monthly (revenue_year, revenue_month, room_id, ticket_sales, venue_hire, total_revenue)
+SELECT YEAR(revenue_day), MONTH(revenue_day), room_id, SUM(ticket_sales), SUM(venue_hire), SUM(total_revenue)
+FROM revenue_daily
+GROUP BY YEAR(revenue_day), MONTH(revenue_day), room_id;
@@ -0,0 +1,2 @@
+-- Keyset pagination of the review feed in ReviewRepository: newest first, review_id breaks ties.
+CREATE INDEX idx_review_date_id ON review (review_date, review_id);
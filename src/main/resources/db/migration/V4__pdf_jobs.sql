@@ -0,0 +1,18 @@
+-- Background PDF jobs run by PdfJobService. document_ids and failed_ids hold comma-separated invoice or contract IDs;
+-- the rendered files live under stageops.pdf.jobs.output-dir/<job_id>.
+CREATE TABLE pdf_jobs (
+    job_id        INT          NOT NULL AUTO_INCREMENT,
+    job_type      VARCHAR(20)  NOT NULL,
+    document_ids  TEXT         NOT NULL,
+    status        VARCHAR(20)  NOT NULL,
+    attempts      INT          NOT NULL DEFAULT 0,
+    documents     INT          NOT NULL DEFAULT 0,
+    failed_ids    TEXT,
+    error_message VARCHAR(1000),
+    created_at    DATETIME     NOT NULL,
+    started_at    DATETIME,
+    completed_at  DATETIME,
+    PRIMARY KEY (job_id)
+);
+
+CREATE INDEX idx_pdf_jobs_status ON pdf_jobs (status, job_id);
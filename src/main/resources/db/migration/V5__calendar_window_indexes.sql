@@ -0,0 +1,4 @@
+-- Calendar windows in CalendarRepository: entries ending after the window start. Past events and bookings
+-- are skipped by the index, so a window costs the same however much history there is.
+CREATE INDEX idx_events_end_time ON events (end_time);
+CREATE INDEX idx_bookings_end_time ON bookings (end_time);
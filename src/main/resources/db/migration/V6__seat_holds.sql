@@ -0,0 +1,6 @@
+-- Group booking holds (SeatHoldService): held seats are reserved under a hold ID, with the hold time in the
+-- existing reservation_time column. Confirmed holds and sold seats have no hold ID. The index lets the reaper
+-- find expired holds without scanning every reservation.
+ALTER TABLE SeatEvents ADD COLUMN hold_id VARCHAR(36) NULL;
+
+CREATE INDEX idx_seat_events_hold ON SeatEvents (hold_id, reservation_time);
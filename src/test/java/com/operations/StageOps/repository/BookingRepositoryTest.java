@@ -2,13 +2,18 @@ package com.operations.StageOps.repository;
 
 import com.operations.StageOps.model.Booking;
 import com.operations.StageOps.model.BookingRoomAssignment;
+import com.operations.StageOps.util.ChangeFeed;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
@@ -37,6 +42,9 @@ class BookingRepositoryTest {
     @Mock
     private JdbcTemplate jdbcTemplate;
 
+    @Mock
+    private ChangeFeed changeFeed;
+
     @InjectMocks
     private BookingRepository bookingRepository;
 
@@ -136,7 +144,7 @@ class BookingRepositoryTest {
     void getAllBookings_ReturnsListOfBookings() {
         // Arrange
         List<Booking> expectedBookings = List.of(testBooking);
-        when(jdbcTemplate.query(anyString(), any(RowMapper.class)))
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class)))
                 .thenReturn(expectedBookings);
 
         // Act
@@ -148,11 +156,40 @@ class BookingRepositoryTest {
         assertEquals(testBooking.getBookingId(), bookings.get(0).getBookingId());
     }
 
+    @Test
+    void getAllBookings_JoinedRows_GroupsAssignmentsByBooking() throws SQLException {
+        // Arrange: booking 1 has two assignments, booking 2 has none (NULLs from the LEFT JOIN)
+        Timestamp start = Timestamp.valueOf(LocalDateTime.of(2025, 5, 1, 10, 0));
+        Timestamp end = Timestamp.valueOf(LocalDateTime.of(2025, 5, 2, 10, 0));
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true, true, true, false);
+        when(rs.getInt("booking_id")).thenReturn(1, 1, 2);
+        when(rs.getInt("client_id")).thenReturn(100, 200);
+        when(rs.getTimestamp("start_time")).thenReturn(start);
+        when(rs.getTimestamp("end_time")).thenReturn(end);
+        when(rs.getString("status")).thenReturn("CONFIRMED");
+        when(rs.getDouble("total_cost")).thenReturn(500.0);
+        when(rs.getTimestamp("assignment_date")).thenReturn(start, end, null);
+        when(rs.getInt("room_id")).thenReturn(101, 102);
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class)))
+                .thenAnswer(invocation -> invocation.<ResultSetExtractor<List<Booking>>>getArgument(1).extractData(rs));
+
+        // Act
+        List<Booking> bookings = bookingRepository.getAllBookings();
+
+        // Assert
+        assertEquals(2, bookings.size());
+        assertEquals(2, bookings.get(0).getRoomAssignments().size());
+        assertEquals(102, bookings.get(0).getRoomAssignments().get(1).getRoomId());
+        assertTrue(bookings.get(1).getRoomAssignments().isEmpty());
+        verify(jdbcTemplate, times(1)).query(anyString(), any(ResultSetExtractor.class));
+    }
+
     @Test
     void getBookingsForRoom_ValidRoomId_ReturnsBookings() {
         // Arrange
         List<Booking> expectedBookings = List.of(testBooking);
-        when(jdbcTemplate.query(anyString(), any(Object[].class), any(RowMapper.class)))
+        when(jdbcTemplate.query(anyString(), any(Object[].class), any(ResultSetExtractor.class)))
                 .thenReturn(expectedBookings);
 
         // Act
@@ -168,7 +205,7 @@ class BookingRepositoryTest {
     void getUpcomingBookings_ReturnsFutureBookings() {
         // Arrange
         List<Booking> expectedBookings = List.of(testBooking);
-        when(jdbcTemplate.query(anyString(), any(Object[].class), any(RowMapper.class)))
+        when(jdbcTemplate.query(anyString(), any(Object[].class), any(ResultSetExtractor.class)))
                 .thenReturn(expectedBookings);
 
         // Act
@@ -213,4 +250,54 @@ class BookingRepositoryTest {
         // Assert
         assertFalse(isAvailable);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void getBookingsPage_LimitsBookingsNotJoinedRows() {
+        // Arrange
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), eq(5), eq(20)))
+                .thenReturn(List.of(testBooking));
+
+        // Act
+        List<Booking> bookings = bookingRepository.getBookingsPage(5, 20);
+
+        // Assert
+        assertEquals(1, bookings.size());
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), any(ResultSetExtractor.class), eq(5), eq(20));
+        assertTrue(sql.getValue().contains("FROM (SELECT * FROM bookings WHERE booking_id > ? ORDER BY booking_id LIMIT ?) b"));
+    }
+
+    @Test
+    void forEachBooking_JoinedRows_EmitsEachBookingOnceComplete() throws SQLException {
+        // Arrange: booking 1 has two assignments, booking 2 has none (NULLs from the LEFT JOIN)
+        Timestamp start = Timestamp.valueOf(LocalDateTime.of(2025, 5, 1, 10, 0));
+        Timestamp end = Timestamp.valueOf(LocalDateTime.of(2025, 5, 2, 10, 0));
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getInt("booking_id")).thenReturn(1, 1, 2);
+        when(rs.getInt("client_id")).thenReturn(100, 200);
+        when(rs.getTimestamp("start_time")).thenReturn(start);
+        when(rs.getTimestamp("end_time")).thenReturn(end);
+        when(rs.getString("status")).thenReturn("CONFIRMED");
+        when(rs.getDouble("total_cost")).thenReturn(500.0);
+        when(rs.getTimestamp("assignment_date")).thenReturn(start, end, null);
+        when(rs.getInt("room_id")).thenReturn(101, 102);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int row = 0; row < 3; row++) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        // Act
+        List<Booking> bookings = new ArrayList<>();
+        bookingRepository.forEachBooking(bookings::add);
+
+        // Assert
+        assertEquals(2, bookings.size());
+        assertEquals(1, bookings.get(0).getBookingId());
+        assertEquals(2, bookings.get(0).getRoomAssignments().size());
+        assertEquals(2, bookings.get(1).getBookingId());
+        assertTrue(bookings.get(1).getRoomAssignments().isEmpty());
+    }
+}
@@ -0,0 +1,99 @@
+package com.operations.StageOps.repository;
+
+import com.operations.StageOps.model.CalendarEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the calendar window queries against H2 in MySQL mode.
+ */
+class CalendarRepositoryTest {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private JdbcTemplate jdbcTemplate;
+    private CalendarRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE rooms (room_id INT PRIMARY KEY, room_name VARCHAR(100), current_layout_id INT)");
+        jdbcTemplate.execute("CREATE TABLE layouts (layout_id INT PRIMARY KEY, layout_name VARCHAR(100))");
+        jdbcTemplate.execute("CREATE TABLE events (event_id INT PRIMARY KEY, event_name VARCHAR(100), client_id INT, " +
+                "start_time DATETIME, end_time DATETIME, room_id INT, layout_id INT)");
+        jdbcTemplate.execute("CREATE TABLE bookings (booking_id INT PRIMARY KEY, client_id INT, start_time DATETIME, end_time DATETIME)");
+        jdbcTemplate.execute("CREATE TABLE booking_room_assignments (booking_id INT, date DATETIME, room_id INT)");
+
+        jdbcTemplate.update("INSERT INTO layouts VALUES (1, 'Theatre'), (2, 'Cabaret')");
+        jdbcTemplate.update("INSERT INTO rooms VALUES (10, 'Main Hall', 1), (11, 'Rehearsal Space', 2)");
+        repository = new CalendarRepository(jdbcTemplate);
+    }
+
+    @Test
+    void testEventsInWindowIncludeRoomAndLayoutNames() {
+        jdbcTemplate.update("INSERT INTO events VALUES (1, 'Gala', 5, '2025-03-10 19:00:00', '2025-03-10 22:00:00', 10, 1)");
+        jdbcTemplate.update("INSERT INTO events VALUES (2, 'Earlier', 5, '2025-02-10 19:00:00', '2025-02-10 22:00:00', 10, 1)");
+        // Overlaps the window start
+        jdbcTemplate.update("INSERT INTO events VALUES (3, 'Overnight', 6, '2025-02-28 22:00:00', '2025-03-01 02:00:00', 11, 2)");
+
+        List<CalendarEntry> entries = repository.getEntries(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 4, 1));
+
+        assertEquals(List.of(3, 1), entries.stream().map(CalendarEntry::getId).toList());
+        CalendarEntry gala = entries.get(1);
+        assertEquals(CalendarEntry.Type.EVENT, gala.getType());
+        assertEquals("Gala", gala.getName());
+        assertEquals("Main Hall", gala.getRoomName());
+        assertEquals("Theatre", gala.getLayoutName());
+        assertEquals(LocalDateTime.of(2025, 3, 10, 19, 0).atZone(ZONE).toInstant(), gala.getStart());
+    }
+
+    @Test
+    void testBookingIsSplitIntoDaysInsideWindow() {
+        jdbcTemplate.update("INSERT INTO bookings VALUES (7, 3, '2025-03-30 09:00:00', '2025-04-02 17:00:00')");
+        jdbcTemplate.update("INSERT INTO booking_room_assignments VALUES (7, '2025-03-30 00:00:00', 10), " +
+                "(7, '2025-03-31 00:00:00', 11), (7, '2025-04-01 00:00:00', 10)");
+
+        List<CalendarEntry> entries = repository.getEntries(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 4, 1));
+
+        assertEquals(2, entries.size());
+        assertEquals("Main Hall", entries.get(0).getRoomName());
+        assertEquals("Theatre", entries.get(0).getLayoutName());
+        assertEquals(LocalDateTime.of(2025, 3, 30, 9, 0).atZone(ZONE).toInstant(), entries.get(0).getStart());
+        assertEquals("Rehearsal Space", entries.get(1).getRoomName());
+        assertEquals(LocalDateTime.of(2025, 3, 31, 23, 59, 59).atZone(ZONE).toInstant(), entries.get(1).getEnd());
+    }
+
+    @Test
+    void testBookingEndingAtWindowStartIsExcluded() {
+        jdbcTemplate.update("INSERT INTO bookings VALUES (8, 3, '2025-02-28 09:00:00', '2025-03-01 00:00:00')");
+
+        List<CalendarEntry> entries = repository.getEntries(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 4, 1));
+
+        assertTrue(entries.isEmpty());
+    }
+
+    @Test
+    void testExpandBookingDaysWithoutAssignment() {
+        List<CalendarEntry> days = CalendarRepository.expandBookingDays(4, 2,
+                LocalDateTime.of(2025, 3, 1, 10, 0), LocalDateTime.of(2025, 3, 3, 9, 0), Map.of(),
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 4, 1), ZONE);
+
+        assertEquals(3, days.size());
+        assertNull(days.get(0).getRoomId());
+        assertEquals(LocalDate.of(2025, 3, 2).atStartOfDay(ZONE).toInstant(), days.get(1).getStart());
+        assertEquals(LocalDateTime.of(2025, 3, 3, 9, 0).atZone(ZONE).toInstant(), days.get(2).getEnd());
+    }
+}
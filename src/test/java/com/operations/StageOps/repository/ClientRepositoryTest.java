@@ -7,6 +7,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -118,6 +119,39 @@ class ClientRepositoryTest {
         assertNull(result);
     }
 
+    @Test
+    void getClientById_RepeatedLookup_QueriesOnce() {
+        // Arrange
+        when(jdbcTemplate.queryForObject(anyString(), any(Object[].class), any(RowMapper.class)))
+            .thenReturn(testClient);
+
+        // Act
+        Client first = clientRepository.getClientById(1);
+        Client second = clientRepository.getClientById(1);
+
+        // Assert
+        assertSame(first, second);
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), any(Object[].class), any(RowMapper.class));
+        assertEquals(1L, clientRepository.clientCacheStats().get("hits"));
+        assertEquals(1L, clientRepository.clientCacheStats().get("misses"));
+    }
+
+    @Test
+    void update_ExistingClient_InvalidatesCachedClient() {
+        // Arrange
+        Client renamed = new Client(1, "Renamed Client", "123 Test St", "test@example.com", "1234567890");
+        when(jdbcTemplate.queryForObject(anyString(), any(Object[].class), any(RowMapper.class)))
+            .thenReturn(testClient, renamed);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(1);
+        clientRepository.getClientById(1);
+
+        // Act
+        clientRepository.update(renamed);
+
+        // Assert
+        assertEquals("Renamed Client", clientRepository.getClientById(1).getName());
+    }
+
     @Test
     void update_ExistingClient_ReturnsUpdatedClient() {
         // Arrange
@@ -183,4 +217,31 @@ class ClientRepositoryTest {
         // Assert
         assertEquals(0, result);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void getClientsPage_ReturnsClientsAfterId() {
+        // Arrange
+        when(jdbcTemplate.query(eq("SELECT * FROM clients WHERE client_id > ? ORDER BY client_id LIMIT ?"), any(RowMapper.class), eq(3), eq(25)))
+                .thenReturn(List.of(testClient));
+
+        // Act
+        List<Client> clients = clientRepository.getClientsPage(3, 25);
+
+        // Assert
+        assertEquals(1, clients.size());
+        assertEquals(testClient, clients.get(0));
+    }
+
+    @Test
+    void getClientsPage_DataAccessError_ReturnsEmptyList() {
+        // Arrange
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(0), eq(25)))
+                .thenThrow(new DataAccessResourceFailureException("Connection lost"));
+
+        // Act
+        List<Client> clients = clientRepository.getClientsPage(0, 25);
+
+        // Assert
+        assertTrue(clients.isEmpty());
+    }
+}
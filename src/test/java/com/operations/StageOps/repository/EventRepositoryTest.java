@@ -3,18 +3,26 @@ package com.operations.StageOps.repository;
 import com.operations.StageOps.model.Event;
 import com.operations.StageOps.model.LayoutConfiguration;
 import com.operations.StageOps.model.Seating;
+import com.operations.StageOps.util.ChangeFeed;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 
+import java.sql.Connection;
 import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
@@ -34,6 +42,12 @@ class EventRepositoryTest {
     @Mock
     private SeatingRepository seatingRepository;
 
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private ChangeFeed changeFeed;
+
     @InjectMocks
     private EventRepository eventRepository;
 
@@ -78,6 +92,7 @@ class EventRepositoryTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getEventId());
+        verify(roomRepository).invalidateCachedRoom(101); // the room's current layout changed
     }
 
     @Test
@@ -130,4 +145,66 @@ class EventRepositoryTest {
         boolean available = eventRepository.isRoomAvailableForEvent(101, testEvent.getStartTime(), testEvent.getEndTime());
         assertFalse(available);
     }
+
+    @Test
+    void recordTicketSales_AppliesGuardedRelativeDelta() {
+        when(jdbcTemplate.update(startsWith("UPDATE events SET tickets_sold = tickets_sold + ?"), eq(3), eq(-3), eq(150.0), eq(1), eq(3), eq(-3))).thenReturn(1);
+
+        int result = eventRepository.recordTicketSales(1, 3, 150.0);
+
+        assertEquals(1, result);
+        verify(jdbcTemplate).update(startsWith("INSERT INTO revenue_tracking"), eq(150.0), eq(3), eq(1));
+    }
+
+    @Test
+    void recordTicketRefund_GuardFails_DoesNotTouchRevenueTracking() {
+        when(jdbcTemplate.update(contains("tickets_available + ? >= 0"), eq(-1), eq(1), eq(-50.0), eq(1), eq(-1), eq(1))).thenReturn(0);
+
+        int result = eventRepository.recordTicketRefund(1, 1, 50.0);
+
+        assertEquals(0, result);
+        verify(jdbcTemplate, never()).update(startsWith("INSERT INTO revenue_tracking"), any(), any(), any());
+    }
+
+    @Test
+    void holdTickets_OnlyChangesAvailableTickets() {
+        when(jdbcTemplate.update(anyString(), eq(0), eq(-12), eq(0.0), eq(1), eq(0), eq(-12))).thenReturn(1);
+
+        int result = eventRepository.holdTickets(1, 12);
+
+        assertEquals(1, result);
+        verify(jdbcTemplate, never()).update(startsWith("INSERT INTO revenue_tracking"), any(), any(), any());
+    }
+
+    @Test
+    void getEventsPage_QueriesAfterIdWithLimit() {
+        // Arrange
+        when(jdbcTemplate.query(eq("SELECT * FROM events WHERE event_id > ? ORDER BY event_id LIMIT ?"), any(RowMapper.class), eq(10), eq(50)))
+                .thenReturn(List.of(testEvent));
+
+        // Act
+        List<Event> events = eventRepository.getEventsPage(10, 50);
+
+        // Assert
+        assertEquals(1, events.size());
+        assertEquals(testEvent, events.get(0));
+    }
+
+    @Test
+    void forEachEvent_UsesForwardOnlyStatementWithFetchSize() throws SQLException {
+        // Arrange
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement("SELECT * FROM events ORDER BY event_id", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY))
+                .thenReturn(statement);
+
+        // Act
+        eventRepository.forEachEvent(event -> { });
+
+        // Assert
+        ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate).query(creator.capture(), any(RowCallbackHandler.class));
+        assertSame(statement, creator.getValue().createPreparedStatement(connection));
+        verify(statement).setFetchSize(StreamingQueries.FETCH_SIZE);
+    }
 }
@@ -7,10 +7,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -44,6 +48,26 @@ class LayoutRepositoryTest {
         verify(jdbcTemplate, atLeastOnce()).update(contains("seating"), anyString(), anyString());
     }
 
+    @Test
+    void save_SectionWithManySeats_UpdatesSeatsInOneStatement() {
+        // Arrange
+        LayoutConfiguration layout = new LayoutConfiguration(2, "Presentation", 3, 10, "presentation");
+        Section section = new Section("Table A", "Table");
+        section.setSeats(List.of(
+                new Seating("A1", 10, 1, false, false, "Table A"),
+                new Seating("A2", 10, 2, false, false, "Table A"),
+                new Seating("A3", 10, 3, false, false, "Table A")));
+        layout.setSections(List.of(section));
+
+        // Act
+        layoutRepository.save(layout);
+
+        // Assert
+        verify(jdbcTemplate, times(1)).update(startsWith("UPDATE seating"), any(Object[].class));
+        verify(jdbcTemplate).update(eq("UPDATE seating SET section_name = ? WHERE seat_id IN (?, ?, ?)"),
+                eq(new Object[]{"Table A", "A1", "A2", "A3"}));
+    }
+
     @Test
     void getAllLayouts_ReturnsListOfLayouts() {
         // Arrange
@@ -74,6 +98,22 @@ class LayoutRepositoryTest {
         assertEquals("Standard", result.getLayoutName());
     }
 
+    @Test
+    void onSeatingChanged_DropsCachedLayoutsOfThatRoomOnly() {
+        when(jdbcTemplate.queryForObject(eq("SELECT * FROM layouts WHERE layout_id = ?"), any(Object[].class), any(RowMapper.class)))
+                .thenReturn(new LayoutConfiguration(1, "Standard", 100, 10, "Theater"))
+                .thenReturn(new LayoutConfiguration(2, "Banquet", 80, 20, "Banquet"));
+        layoutRepository.getLayoutById(1);
+        layoutRepository.getLayoutById(2);
+
+        layoutRepository.onSeatingChanged(new SeatingRepository.SeatingChangedEvent(this, Set.of(10)));
+        layoutRepository.getLayoutById(1);
+        layoutRepository.getLayoutById(2);
+
+        // Layout 1 (room 10) is loaded again, layout 2 (room 20) is still cached
+        verify(jdbcTemplate, times(3)).queryForObject(eq("SELECT * FROM layouts WHERE layout_id = ?"), any(Object[].class), any(RowMapper.class));
+    }
+
     @Test
     void update_ValidLayout_ReturnsUpdatedLayout() {
         // Arrange
@@ -116,4 +156,71 @@ class LayoutRepositoryTest {
         assertFalse(layouts.isEmpty());
         assertEquals(roomId, layouts.get(0).getRoomId());
     }
+
+    @Test
+    void findLayoutsByRoomId_BuildsGraphWithSeatsBucketedByRoomAndSection() throws SQLException {
+        // Arrange
+        int roomId = 10;
+        when(jdbcTemplate.query(eq("SELECT * FROM layouts WHERE room_id = ?"), any(Object[].class), any(RowMapper.class)))
+                .thenReturn(List.of(new LayoutConfiguration(1, "Standard", 100, roomId, "Theater")));
+
+        ResultSet sectionRs = mock(ResultSet.class);
+        when(sectionRs.getInt("layout_id")).thenReturn(1, 1);
+        when(sectionRs.getInt("section_id")).thenReturn(1, 2);
+        when(sectionRs.getString("section_name")).thenReturn("Stalls", "Balcony");
+        when(sectionRs.getString("section_type")).thenReturn("Row");
+
+        ResultSet seatRs = mock(ResultSet.class);
+        when(seatRs.getString("section_name")).thenReturn("Stalls", "Stalls", null);
+        when(seatRs.getString("seat_id")).thenReturn("A1", "A2", "X1");
+        when(seatRs.getInt("room_id")).thenReturn(roomId);
+        when(seatRs.getInt("seat_number")).thenReturn(1, 2, 3);
+
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            handler.processRow(sectionRs);
+            handler.processRow(sectionRs);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT * FROM sections WHERE layout_id IN"), any(Object[].class), any(RowCallbackHandler.class));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            handler.processRow(seatRs);
+            handler.processRow(seatRs);
+            handler.processRow(seatRs);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT * FROM seating WHERE room_id IN"), any(Object[].class), any(RowCallbackHandler.class));
+
+        // Act
+        List<LayoutConfiguration> layouts = layoutRepository.findLayoutsByRoomId(roomId);
+
+        // Assert
+        List<Section> sections = layouts.get(0).getSections();
+        assertEquals(2, sections.size());
+        assertEquals(2, sections.get(0).getSeats().size());
+        assertTrue(sections.get(1).getSeats().isEmpty());
+        verify(jdbcTemplate, times(2)).query(anyString(), any(Object[].class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void forEachLayout_ReadsKeysetPagesUntilShortPage() {
+        // Arrange: a full first page ending at layout 500, then a page with one more layout
+        List<LayoutConfiguration> firstPage = new ArrayList<>();
+        for (int id = 1; id <= StreamingQueries.FETCH_SIZE; id++) {
+            firstPage.add(new LayoutConfiguration(id, "Layout " + id, 100, 10, "Theater"));
+        }
+        String pageSql = "SELECT * FROM layouts WHERE layout_id > ? ORDER BY layout_id LIMIT ?";
+        when(jdbcTemplate.query(eq(pageSql), any(RowMapper.class), eq(0), eq(StreamingQueries.FETCH_SIZE)))
+                .thenReturn(firstPage);
+        when(jdbcTemplate.query(eq(pageSql), any(RowMapper.class), eq(StreamingQueries.FETCH_SIZE), eq(StreamingQueries.FETCH_SIZE)))
+                .thenReturn(new ArrayList<>(List.of(new LayoutConfiguration(501, "Last", 100, 10, "Theater"))));
+
+        // Act
+        List<LayoutConfiguration> layouts = new ArrayList<>();
+        layoutRepository.forEachLayout(layouts::add);
+
+        // Assert
+        assertEquals(StreamingQueries.FETCH_SIZE + 1, layouts.size());
+        assertEquals(501, layouts.get(layouts.size() - 1).getLayoutId());
+        verify(jdbcTemplate, times(2)).query(eq(pageSql), any(RowMapper.class), anyInt(), anyInt());
+    }
 }
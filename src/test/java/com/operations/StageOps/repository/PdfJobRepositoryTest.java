@@ -0,0 +1,76 @@
+package com.operations.StageOps.repository;
+
+import com.operations.StageOps.model.PdfJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PdfJobRepositoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private PdfJobRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        repository = new PdfJobRepository(jdbcTemplate);
+    }
+
+    @Test
+    void testIdsRoundTripThroughCommaSeparatedColumn() {
+        assertEquals("3,1,2", PdfJobRepository.joinIds(List.of(3, 1, 2)));
+        assertEquals(List.of(3, 1, 2), PdfJobRepository.parseIds("3,1,2"));
+        assertNull(PdfJobRepository.joinIds(List.of()));
+        assertEquals(List.of(), PdfJobRepository.parseIds(null));
+    }
+
+    @Test
+    void testGetJobByIdReturnsNullWhenMissing() {
+        when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class), eq(7)))
+                .thenThrow(new EmptyResultDataAccessException(1));
+
+        assertNull(repository.getJobById(7));
+    }
+
+    @Test
+    void testMarkRunningOnlyClaimsQueuedJobs() {
+        when(jdbcTemplate.update(contains("attempts = attempts + 1"), eq(PdfJob.RUNNING), any(Timestamp.class), eq(4), eq(PdfJob.QUEUED)))
+                .thenReturn(1);
+
+        assertEquals(1, repository.markRunning(4));
+        verify(jdbcTemplate).update(contains("WHERE job_id = ? AND status = ?"),
+                eq(PdfJob.RUNNING), any(Timestamp.class), eq(4), eq(PdfJob.QUEUED));
+    }
+
+    @Test
+    void testMarkQueuedRecordsFailedIdsForRetry() {
+        repository.markQueued(4, 2, List.of(9, 11), "2 document(s) failed to render");
+
+        verify(jdbcTemplate).update(startsWith("UPDATE pdf_jobs SET status = ?"),
+                eq(PdfJob.QUEUED), eq(2), eq("9,11"), eq("2 document(s) failed to render"), eq(4));
+    }
+
+    @Test
+    void testMarkFinishedSetsCompletionTime() {
+        repository.markFinished(4, PdfJob.COMPLETED, 3, List.of(), null);
+
+        verify(jdbcTemplate).update(contains("completed_at = ?"),
+                eq(PdfJob.COMPLETED), eq(3), isNull(), isNull(), any(Timestamp.class), eq(4));
+    }
+
+    @Test
+    void testRequeueRunningJobs() {
+        when(jdbcTemplate.update(anyString(), eq(PdfJob.QUEUED), eq(PdfJob.RUNNING))).thenReturn(2);
+
+        assertEquals(2, repository.requeueRunningJobs());
+    }
+}
@@ -0,0 +1,81 @@
+package com.operations.StageOps.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.and;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RevenueRollupRepositoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private RevenueRollupRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        repository = new RevenueRollupRepository(jdbcTemplate);
+    }
+
+    @Test
+    void testApplyDeltaUpdatesDailyAndMonthlyBuckets() {
+        LocalDate day = LocalDate.of(2025, 4, 7);
+
+        repository.applyDelta(day, 3, 20.0, 50.0, 70.0);
+
+        verify(jdbcTemplate).update(RevenueRollupRepository.DAILY_DELTA_SQL, day, 3, 20.0, 50.0, 70.0);
+        verify(jdbcTemplate).update(RevenueRollupRepository.MONTHLY_DELTA_SQL, 2025, 4, 3, 20.0, 50.0, 70.0);
+    }
+
+    @Test
+    void testApplyEventDeltaUsesStoredRowDate() {
+        repository.applyEventDelta(9, 2, 0, 40.0);
+
+        verify(jdbcTemplate).update(
+                and(startsWith("INSERT INTO revenue_daily"), contains("FROM revenue_tracking WHERE event_id = ?")),
+                eq(2.0), eq(0.0), eq(40.0), eq(9));
+        verify(jdbcTemplate).update(
+                and(startsWith("INSERT INTO revenue_monthly"), contains("FROM revenue_tracking WHERE event_id = ?")),
+                eq(2.0), eq(0.0), eq(40.0), eq(9));
+    }
+
+    @Test
+    void testRebuildClearsBeforeRecomputing() {
+        when(jdbcTemplate.update(startsWith("INSERT INTO revenue_daily"))).thenReturn(12);
+
+        int days = repository.rebuild();
+
+        assertEquals(12, days);
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).update("DELETE FROM revenue_daily");
+        inOrder.verify(jdbcTemplate).update("DELETE FROM revenue_monthly");
+        inOrder.verify(jdbcTemplate).update(startsWith("INSERT INTO revenue_daily"));
+        inOrder.verify(jdbcTemplate).update(startsWith("INSERT INTO revenue_monthly"));
+    }
+
+    @Test
+    void testSumMonthlyRevenueForWholeYear() {
+        when(jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(total_revenue), 0) FROM revenue_monthly WHERE revenue_year = ?", Double.class, 2025)
+        ).thenReturn(900.0);
+
+        assertEquals(900.0, repository.sumMonthlyRevenue(2025, null));
+    }
+
+    @Test
+    void testGetDailyTotalsQueriesMonthRange() {
+        List<Map<String, Object>> rows = List.of(Map.of("day", 1, "total_revenue", 10.0));
+        when(jdbcTemplate.queryForList(contains("FROM revenue_daily"), eq(LocalDate.of(2025, 12, 1)), eq(LocalDate.of(2026, 1, 1))))
+                .thenReturn(rows);
+
+        assertEquals(rows, repository.getDailyTotals(12, 2025));
+    }
+}
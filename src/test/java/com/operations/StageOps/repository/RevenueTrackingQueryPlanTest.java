@@ -0,0 +1,155 @@
+package com.operations.StageOps.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the revenue range queries against H2 in MySQL mode with the Flyway migrations applied,
+ * checking the query plans, the half-open range boundaries and the revenue rollups.
+ */
+class RevenueTrackingQueryPlanTest {
+
+    private static final String DATE_INDEX = "IDX_REVENUE_TRACKING_DATE_REVENUE";
+
+    private JdbcTemplate jdbcTemplate;
+    private RevenueTrackingRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;NON_KEYWORDS=MONTH,DAY,YEAR;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE revenue_tracking (" +
+                "revenue_id INT AUTO_INCREMENT PRIMARY KEY, room_id INT, event_id INT, booking_id INT, " +
+                "booking_date DATE, ticket_sales DOUBLE, venue_hire DOUBLE, total_revenue DOUBLE, status VARCHAR(50))");
+        // Other tables the migrations index
+        jdbcTemplate.execute("CREATE TABLE review (" +
+                "review_id INT AUTO_INCREMENT PRIMARY KEY, client_id INT, event_id INT, booking_id INT, " +
+                "rating INT, review_text TEXT, review_date DATETIME)");
+        jdbcTemplate.execute("CREATE TABLE events (event_id INT AUTO_INCREMENT PRIMARY KEY, start_time DATETIME, end_time DATETIME)");
+        jdbcTemplate.execute("CREATE TABLE bookings (booking_id INT AUTO_INCREMENT PRIMARY KEY, start_time DATETIME, end_time DATETIME)");
+        jdbcTemplate.execute("CREATE TABLE SeatEvents (seat_id VARCHAR(20), event_id INT, reserved BOOLEAN, reservation_time DATETIME, " +
+                "PRIMARY KEY (seat_id, event_id))");
+
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        repository = new RevenueTrackingRepository(jdbcTemplate);
+    }
+
+    @Test
+    void testRangeQueriesUseBookingDateIndex() {
+        // A few years of daily rows, so the optimizer has statistics that favour a range scan
+        jdbcTemplate.update("INSERT INTO revenue_tracking (room_id, event_id, booking_id, booking_date, total_revenue) " +
+                "SELECT 1, X, X, DATEADD('DAY', X, DATE '2022-01-01'), X FROM SYSTEM_RANGE(1, 2000)");
+        jdbcTemplate.execute("ANALYZE");
+
+        assertUsesDateIndex(RevenueTrackingRepository.SUM_REVENUE_BETWEEN_SQL);
+        assertUsesDateIndex(RevenueTrackingRepository.ENTRIES_BETWEEN_SQL);
+        assertUsesDateIndex(RevenueTrackingRepository.MONTHLY_TOTALS_BETWEEN_SQL);
+        assertUsesDateIndex(RevenueTrackingRepository.DAILY_TOTALS_BETWEEN_SQL);
+    }
+
+    @Test
+    void testFunctionWrappedPredicateDoesNotUseIndex() {
+        jdbcTemplate.update("INSERT INTO revenue_tracking (room_id, event_id, booking_id, booking_date, total_revenue) " +
+                "SELECT 1, X, X, DATEADD('DAY', X, DATE '2022-01-01'), X FROM SYSTEM_RANGE(1, 2000)");
+        jdbcTemplate.execute("ANALYZE");
+
+        String plan = explain("SELECT SUM(total_revenue) FROM revenue_tracking WHERE EXTRACT(YEAR FROM booking_date) = 2025");
+        assertFalse(plan.contains(DATE_INDEX + ":"), plan);
+    }
+
+    @Test
+    void testRangeBoundariesAreHalfOpen() {
+        insert(LocalDate.of(2025, 3, 31), 1.0);
+        insert(LocalDate.of(2025, 4, 1), 10.0);
+        insert(LocalDate.of(2025, 4, 30), 100.0);
+        insert(LocalDate.of(2025, 5, 1), 1000.0);
+        insert(LocalDate.of(2026, 1, 1), 10000.0);
+
+        assertEquals(10.0, repository.getTotalRevenueByDate("2025-04-01"));
+        assertEquals(110.0, repository.getTotalRevenueByMonth(4, 2025));
+        assertEquals(1111.0, repository.getTotalRevenueByYear(2025));
+        assertEquals(110.0, repository.sumRevenueByDateBetween(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 30)));
+        assertEquals(2, repository.getRevenueTrackingEntriesByMonth(4, 2025).size());
+        assertEquals(3, repository.getRevenueTrackingEntriesByDateRange("2025-03-31", "2025-04-30").size());
+
+        List<Map<String, Object>> months = repository.getTotalRevenueYear(2025);
+        assertEquals(3, months.size());
+        assertEquals(110.0, ((Number) months.get(1).get("total_revenue")).doubleValue());
+    }
+
+    @Test
+    void testStreamedExportRangeIsHalfOpenAndOrdered() {
+        insert(LocalDate.of(2025, 4, 30), 100.0);
+        insert(LocalDate.of(2025, 3, 31), 1.0);
+        insert(LocalDate.of(2025, 4, 1), 10.0);
+        insert(LocalDate.of(2025, 5, 1), 1000.0);
+        jdbcTemplate.update("INSERT INTO revenue_tracking (room_id, event_id, total_revenue) VALUES (1, 1, 5.0)");
+
+        List<LocalDate> april = new ArrayList<>();
+        repository.forEachRevenueTrackingEntryBetween(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 5, 1),
+                entry -> april.add(entry.getBookingDate()));
+        assertEquals(List.of(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 30)), april);
+        assertEquals(2, repository.countRevenueTrackingEntriesBetween(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 5, 1)));
+
+        // Without bounds every row is exported, including one with no booking date
+        List<LocalDate> all = new ArrayList<>();
+        repository.forEachRevenueTrackingEntryBetween(null, null, entry -> all.add(entry.getBookingDate()));
+        assertEquals(5, all.size());
+        assertEquals(5, repository.countRevenueTrackingEntriesBetween(null, null));
+    }
+
+    @Test
+    void testRollupsMatchRawTotals() {
+        insert(LocalDate.of(2025, 3, 31), 1.0);
+        insert(LocalDate.of(2025, 4, 1), 10.0);
+        insert(LocalDate.of(2025, 4, 1), 100.0);
+        insert(LocalDate.of(2026, 1, 1), 1000.0);
+
+        RevenueRollupRepository rollups = new RevenueRollupRepository(jdbcTemplate);
+        assertEquals(3, rollups.rebuild());
+
+        assertEquals(repository.getTotalRevenueByDate("2025-04-01"), rollups.sumDailyRevenue(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 2)));
+        assertEquals(repository.getTotalRevenueByMonth(4, 2025), rollups.sumMonthlyRevenue(2025, 4));
+        assertEquals(repository.getTotalRevenueByYear(2025), rollups.sumMonthlyRevenue(2025, null));
+        assertEquals(2, rollups.getMonthlyTotals(2025).size());
+        assertEquals(2, rollups.getYearlyTotals().size());
+
+        // Incremental updates land in the same buckets as a rebuild
+        rollups.applyDelta(LocalDate.of(2025, 4, 1), 1, 0, 0, 5.0);
+        assertEquals(115.0, rollups.sumMonthlyRevenue(2025, 4));
+        assertEquals(115.0, rollups.sumDailyRevenue(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 2)));
+    }
+
+    private void assertUsesDateIndex(String sql) {
+        String plan = explain(sql, LocalDate.of(2023, 4, 1), LocalDate.of(2023, 5, 1));
+        assertTrue(plan.contains(DATE_INDEX), "Expected " + DATE_INDEX + " in plan: " + plan);
+    }
+
+    private String explain(String sql, Object... params) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, params);
+    }
+
+    private void insert(LocalDate bookingDate, double totalRevenue) {
+        jdbcTemplate.update("INSERT INTO revenue_tracking (room_id, event_id, booking_id, booking_date, total_revenue) VALUES (1, 1, 1, ?, ?)",
+                bookingDate, totalRevenue);
+    }
+}
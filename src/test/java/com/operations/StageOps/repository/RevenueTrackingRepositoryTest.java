@@ -12,6 +12,7 @@ import java.time.LocalDate;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.Mockito.*;
 
 class RevenueTrackingRepositoryTest {
@@ -83,8 +84,8 @@ class RevenueTrackingRepositoryTest {
     void testGetTotalRevenueByDate() {
         String date = "2025-04-07";
         when(jdbcTemplate.queryForObject(
-                eq("SELECT SUM(total_revenue) FROM revenue_tracking WHERE DATE(booking_date) = ?"),
-                any(Object[].class),
+                eq(RevenueTrackingRepository.SUM_REVENUE_BETWEEN_SQL),
+                aryEq(new Object[]{LocalDate.of(2025, 4, 7), LocalDate.of(2025, 4, 8)}),
                 eq(Double.class))
         ).thenReturn(500.0);
 
@@ -99,8 +100,8 @@ class RevenueTrackingRepositoryTest {
         List<RevenueTracking> expected = List.of(new RevenueTracking());
 
         when(jdbcTemplate.query(
-                eq("SELECT * FROM revenue_tracking WHERE EXTRACT(MONTH FROM booking_date) = ? AND EXTRACT(YEAR FROM booking_date) = ?"),
-                any(Object[].class),
+                eq(RevenueTrackingRepository.ENTRIES_BETWEEN_SQL),
+                aryEq(new Object[]{LocalDate.of(2025, 4, 1), LocalDate.of(2025, 5, 1)}),
                 ArgumentMatchers.<RowMapper<RevenueTracking>>any())
         ).thenReturn(expected);
 
@@ -114,9 +115,9 @@ class RevenueTrackingRepositoryTest {
         LocalDate end = LocalDate.of(2025, 4, 7);
 
         when(jdbcTemplate.queryForObject(
-                eq("SELECT SUM(total_revenue) FROM revenue_tracking WHERE booking_date BETWEEN ? AND ?"),
+                eq(RevenueTrackingRepository.SUM_REVENUE_BETWEEN_SQL),
                 eq(Double.class),
-                eq(start), eq(end))
+                eq(start), eq(end.plusDays(1)))
         ).thenReturn(1200.0);
 
         double total = repository.sumRevenueByDateBetween(start, end);
@@ -137,4 +138,38 @@ class RevenueTrackingRepositoryTest {
         assertFalse(result.isEmpty());
         assertEquals(10000.0, result.get(0).get("total_revenue"));
     }
+
+    @Test
+    void testGetRevenueTrackingEntriesPage() {
+        RevenueTracking rt = new RevenueTracking();
+        rt.setRevenueId(11);
+
+        when(jdbcTemplate.query(eq("SELECT * FROM revenue_tracking WHERE revenue_id > ? ORDER BY revenue_id LIMIT ?"),
+                ArgumentMatchers.<RowMapper<RevenueTracking>>any(), eq(10), eq(100)))
+                .thenReturn(List.of(rt));
+
+        List<RevenueTracking> result = repository.getRevenueTrackingEntriesPage(10, 100);
+
+        assertEquals(1, result.size());
+        assertEquals(11, result.get(0).getRevenueId());
+    }
+
+    @Test
+    void testCountRevenueTrackingEntriesBetween() {
+        LocalDate start = LocalDate.of(2025, 4, 1);
+        LocalDate end = LocalDate.of(2025, 5, 1);
+        when(jdbcTemplate.queryForObject(eq("SELECT COUNT(*) FROM revenue_tracking WHERE booking_date >= ? AND booking_date < ?"),
+                eq(Integer.class), eq(start), eq(end))).thenReturn(42);
+
+        assertEquals(42, repository.countRevenueTrackingEntriesBetween(start, end));
+    }
+
+    @Test
+    void testCountRevenueTrackingEntriesBetween_OpenStart() {
+        LocalDate end = LocalDate.of(2025, 5, 1);
+        when(jdbcTemplate.queryForObject(eq("SELECT COUNT(*) FROM revenue_tracking WHERE booking_date < ?"),
+                eq(Integer.class), eq(end))).thenReturn(7);
+
+        assertEquals(7, repository.countRevenueTrackingEntriesBetween(null, end));
+    }
 }
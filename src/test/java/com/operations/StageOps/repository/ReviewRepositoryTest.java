@@ -1,6 +1,7 @@
 package com.operations.StageOps.repository;
 
 import com.operations.StageOps.model.Review;
+import com.operations.StageOps.model.ReviewDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -8,6 +9,8 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 
 import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
@@ -137,4 +140,53 @@ class ReviewRepositoryTest {
         assertEquals(1, result.size());
         assertEquals(20, result.get(0).getBookingId());
     }
+
+    @Test
+    void testGetReviewFeed_FirstPage() {
+        ReviewDto review = new ReviewDto();
+        review.setReviewId(7);
+        review.setEventName("Spring Gala");
+
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<ReviewDto>>any(), eq(20)))
+                .thenReturn(List.of(review));
+
+        List<ReviewDto> result = reviewRepository.getReviewFeed(null, 0, 20);
+        assertEquals(1, result.size());
+        assertEquals("Spring Gala", result.get(0).getEventName());
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), ArgumentMatchers.<RowMapper<ReviewDto>>any(), eq(20));
+        assertTrue(sql.getValue().contains("JOIN events"));
+        assertFalse(sql.getValue().contains("WHERE"));
+    }
+
+    @Test
+    void testGetReviewFeed_AfterCursor() {
+        LocalDateTime beforeDate = LocalDateTime.of(2025, 3, 14, 19, 30);
+        Timestamp cursor = Timestamp.valueOf(beforeDate);
+
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<ReviewDto>>any(), eq(cursor), eq(cursor), eq(42), eq(20)))
+                .thenReturn(List.of(new ReviewDto()));
+
+        List<ReviewDto> result = reviewRepository.getReviewFeed(beforeDate, 42, 20);
+        assertEquals(1, result.size());
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), ArgumentMatchers.<RowMapper<ReviewDto>>any(), eq(cursor), eq(cursor), eq(42), eq(20));
+        assertTrue(sql.getValue().contains("r.review_date < ? OR (r.review_date = ? AND r.review_id < ?)"));
+    }
+
+    @Test
+    void testGetReviewsPage() {
+        Review review = new Review();
+        review.setReviewId(31);
+
+        when(jdbcTemplate.query(eq("SELECT * FROM review WHERE review_id > ? ORDER BY review_id LIMIT ?"),
+                ArgumentMatchers.<RowMapper<Review>>any(), eq(30), eq(10)))
+                .thenReturn(List.of(review));
+
+        List<Review> result = reviewRepository.getReviewsPage(30, 10);
+        assertEquals(1, result.size());
+        assertEquals(31, result.get(0).getReviewId());
+    }
 }
@@ -1,15 +1,25 @@
 package com.operations.StageOps.repository;
 
+import com.operations.StageOps.model.ChangeEvent;
+import com.operations.StageOps.model.SeatHold;
 import com.operations.StageOps.model.Seating;
+import com.operations.StageOps.util.ChangeFeed;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -19,6 +29,12 @@ class SeatingRepositoryTest {
     @Mock
     private JdbcTemplate jdbcTemplate;
 
+    @Mock
+    private ChangeFeed changeFeed;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private SeatingRepository seatingRepository;
 
@@ -72,6 +88,28 @@ class SeatingRepositoryTest {
         assertEquals(1, result);
     }
 
+    @Test
+    void testUpdateReportsOldAndNewRoomAsChanged() {
+        when(jdbcTemplate.queryForList("SELECT room_id FROM seating WHERE seat_id = ?", Integer.class, "S1"))
+                .thenReturn(List.of(100));
+        when(jdbcTemplate.update(anyString(), any(), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        seatingRepository.update(sampleSeating);
+
+        ArgumentCaptor<SeatingRepository.SeatingChangedEvent> event = ArgumentCaptor.forClass(SeatingRepository.SeatingChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(Set.of(100, 101), event.getValue().getRoomIds());
+    }
+
+    @Test
+    void testUpdateOfMissingSeatReportsNoChange() {
+        when(jdbcTemplate.update(anyString(), any(), any(), any(), any(), any(), any(), any())).thenReturn(0);
+
+        seatingRepository.update(sampleSeating);
+
+        verifyNoInteractions(eventPublisher);
+    }
+
     @Test
     void testDelete() {
         when(jdbcTemplate.update(anyString(), anyInt())).thenReturn(1);
@@ -151,4 +189,135 @@ class SeatingRepositoryTest {
         List<Seating> results = seatingRepository.getAvailableSeatsForEvent(123);
         assertEquals(1, results.size());
     }
+
+    @Test
+    void testReserveSeatIfAvailable() {
+        when(jdbcTemplate.update(contains("reserved = false"), eq(5), eq("S1"))).thenReturn(1);
+
+        int result = seatingRepository.reserveSeatIfAvailable(5, "S1");
+        assertEquals(1, result);
+        verify(jdbcTemplate).update(startsWith("UPDATE SeatEvents SET reserved = true"), eq(5), eq("S1"));
+    }
+
+    @Test
+    void testReserveSeatIfAvailable_AlreadyReserved() {
+        when(jdbcTemplate.update(anyString(), eq(5), eq("S1"))).thenReturn(0);
+
+        assertEquals(0, seatingRepository.reserveSeatIfAvailable(5, "S1"));
+    }
+
+    @Test
+    void testReleaseSeat() {
+        when(jdbcTemplate.update(anyString(), eq(5), eq("S1"))).thenReturn(1);
+
+        int result = seatingRepository.releaseSeat(5, "S1");
+        assertEquals(1, result);
+        verify(jdbcTemplate).update(startsWith("UPDATE SeatEvents SET reserved = false"), eq(5), eq("S1"));
+        verify(changeFeed).publish(argThat(change -> ChangeEvent.SEATS_RELEASED.equals(change.getType())
+                && "seats/5".equals(change.getTopic()) && change.getSeatIds().equals(List.of("S1"))));
+    }
+
+    @Test
+    void testGetSeatReservationStates() {
+        List<String> seatIds = Arrays.asList("S1", "S2");
+
+        Map<String, Boolean> states = seatingRepository.getSeatReservationStates(5, seatIds);
+
+        assertNotNull(states);
+        verify(jdbcTemplate, times(1)).query(eq("SELECT seat_id, reserved FROM SeatEvents WHERE event_id = ? AND seat_id IN (?, ?)"),
+                eq(new Object[]{5, "S1", "S2"}), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void testReserveSeatsIfAvailable() {
+        List<String> seatIds = Arrays.asList("S1", "S2");
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0});
+
+        int[] result = seatingRepository.reserveSeatsIfAvailable(5, seatIds);
+
+        assertArrayEquals(new int[]{1, 0}, result);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+        // Only the seat that was actually reserved is published
+        verify(changeFeed).publish(argThat(change -> ChangeEvent.SEATS_RESERVED.equals(change.getType())
+                && change.getSeatIds().equals(List.of("S1"))));
+    }
+
+    @Test
+    void testSaveAllInsertsSeatsInBatches() {
+        List<Seating> seats = Arrays.asList(sampleSeating, new Seating("S2", 102, 1, false, false, ""));
+
+        int result = seatingRepository.saveAll(seats);
+
+        assertEquals(2, result);
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(SeatingRepository.INSERT_SEAT_SQL), eq(seats),
+                eq(SeatingRepository.SEAT_BATCH_SIZE), any(ParameterizedPreparedStatementSetter.class));
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void testAssignSectionUpdatesAllSeatsInOneStatement() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(3);
+
+        int result = seatingRepository.assignSection("Row A", Arrays.asList("S1", "S2", "S3"));
+
+        assertEquals(3, result);
+        verify(jdbcTemplate, times(1)).update(eq("UPDATE seating SET section_name = ? WHERE seat_id IN (?, ?, ?)"),
+                eq(new Object[]{"Row A", "S1", "S2", "S3"}));
+    }
+
+    @Test
+    void testAssignSectionReportsTheSeatsRoomsAsChanged() {
+        when(jdbcTemplate.queryForList("SELECT DISTINCT room_id FROM seating WHERE seat_id IN (?, ?)", Integer.class, "S1", "S2"))
+                .thenReturn(List.of(101));
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(2);
+
+        seatingRepository.assignSection("Row A", Arrays.asList("S1", "S2"));
+
+        ArgumentCaptor<SeatingRepository.SeatingChangedEvent> event = ArgumentCaptor.forClass(SeatingRepository.SeatingChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(Set.of(101), event.getValue().getRoomIds());
+    }
+
+    @Test
+    void testHoldSeatsIfAvailableRecordsHoldIdAndTime() {
+        LocalDateTime heldAt = LocalDateTime.of(2025, 3, 1, 12, 0);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 1});
+
+        int[] result = seatingRepository.holdSeatsIfAvailable(5, Arrays.asList("S1", "S2"), "hold-1", heldAt);
+
+        assertArrayEquals(new int[]{1, 1}, result);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE SeatEvents SET reserved = true, reservation_time = ?, hold_id = ?"),
+                argThat((List<Object[]> args) -> args.size() == 2
+                        && Arrays.equals(args.get(0), new Object[]{Timestamp.valueOf(heldAt), "hold-1", 5, "S1"})));
+        verify(changeFeed).publish(argThat(change -> ChangeEvent.SEATS_RESERVED.equals(change.getType())
+                && change.getSeatIds().equals(List.of("S1", "S2"))));
+    }
+
+    @Test
+    void testReleaseHoldsReleasesAllSeatsInOneStatement() {
+        List<SeatHold> holds = Arrays.asList(
+                new SeatHold("hold-1", 5, List.of("S1", "S2"), null, null),
+                new SeatHold("hold-2", 6, List.of("S9"), null, null));
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(3);
+
+        int result = seatingRepository.releaseHolds(holds);
+
+        assertEquals(3, result);
+        verify(jdbcTemplate, times(1)).update(
+                eq("UPDATE SeatEvents SET reserved = false, hold_id = NULL WHERE reserved = true AND hold_id IN (?, ?)"),
+                eq(new Object[]{"hold-1", "hold-2"}));
+        verify(changeFeed, times(2)).publish(argThat(change -> ChangeEvent.SEATS_RELEASED.equals(change.getType())));
+    }
+
+    @Test
+    void testFindExpiredHoldIdsLimitsBatch() {
+        LocalDateTime heldBefore = LocalDateTime.of(2025, 3, 1, 12, 0);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(), any())).thenReturn(List.of("hold-1"));
+
+        List<String> result = seatingRepository.findExpiredHoldIds(heldBefore, 50);
+
+        assertEquals(List.of("hold-1"), result);
+        verify(jdbcTemplate).queryForList(contains("hold_id IS NOT NULL AND reservation_time < ?"), eq(String.class),
+                eq(Timestamp.valueOf(heldBefore)), eq(50));
+    }
 }
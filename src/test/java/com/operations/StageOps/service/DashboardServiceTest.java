@@ -0,0 +1,114 @@
+package com.operations.StageOps.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.operations.StageOps.model.DashboardSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class DashboardServiceTest {
+
+    private EventService eventService;
+    private TicketService ticketService;
+    private RevenueTrackingService revenueTrackingService;
+    private RoomService roomService;
+    private ReviewService reviewService;
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        eventService = mock(EventService.class);
+        ticketService = mock(TicketService.class);
+        revenueTrackingService = mock(RevenueTrackingService.class);
+        roomService = mock(RoomService.class);
+        reviewService = mock(ReviewService.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dashboardService != null) {
+            dashboardService.shutdown();
+        }
+    }
+
+    private DashboardService newService(long ttlMs) {
+        dashboardService = new DashboardService(eventService, ticketService, revenueTrackingService, roomService,
+                reviewService, new ObjectMapper(), ttlMs);
+        return dashboardService;
+    }
+
+    @Test
+    void testSummaryIsServedFromCacheWithinTtl() {
+        when(eventService.getTotalEventsForWeek(any(), any())).thenReturn(3);
+        DashboardService service = newService(60_000);
+
+        DashboardSummary first = service.getSummary();
+        DashboardSummary second = service.getSummary();
+
+        assertSame(first, second);
+        assertEquals(3, first.getEventsThisWeek());
+        verify(eventService, times(1)).getTotalEventsForWeek(any(), any());
+    }
+
+    @Test
+    void testSummaryIsRecomputedAfterTtl() {
+        when(eventService.getTotalEventsForWeek(any(), any())).thenReturn(3, 4);
+        DashboardService service = newService(0);
+
+        assertEquals(3, service.getSummary().getEventsThisWeek());
+        assertEquals(4, service.getSummary().getEventsThisWeek());
+        verify(eventService, times(2)).getTotalEventsForWeek(any(), any());
+    }
+
+    @Test
+    void testConcurrentCallersShareOneComputation() throws Exception {
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(eventService.getTotalEventsForWeek(any(), any())).thenAnswer(invocation -> {
+            computing.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return 3;
+        });
+        DashboardService service = newService(60_000);
+
+        AtomicReference<DashboardSummary> firstResult = new AtomicReference<>();
+        AtomicReference<DashboardSummary> secondResult = new AtomicReference<>();
+        Thread first = new Thread(() -> firstResult.set(service.getSummary()));
+        first.start();
+        assertTrue(computing.await(5, TimeUnit.SECONDS));
+
+        Thread second = new Thread(() -> secondResult.set(service.getSummary()));
+        second.start();
+        // The second caller parks on the computation that is already running
+        while (second.getState() != Thread.State.WAITING) {
+            assertTrue(second.isAlive());
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        first.join(5_000);
+        second.join(5_000);
+
+        assertNotNull(firstResult.get());
+        assertSame(firstResult.get(), secondResult.get());
+        verify(eventService, times(1)).getTotalEventsForWeek(any(), any());
+    }
+
+    @Test
+    void testFailedComputationIsNotCached() {
+        when(eventService.getTotalEventsForWeek(any(), any()))
+                .thenThrow(new IllegalStateException("database down"))
+                .thenReturn(3);
+        DashboardService service = newService(60_000);
+
+        assertThrows(IllegalStateException.class, service::getSummary);
+        assertEquals(3, service.getSummary().getEventsThisWeek());
+    }
+}
@@ -0,0 +1,98 @@
+package com.operations.StageOps.service;
+
+import com.operations.StageOps.model.Client;
+import com.operations.StageOps.model.Invoice;
+import com.operations.StageOps.model.PdfBatchResult;
+import com.operations.StageOps.repository.ContractRepository;
+import com.operations.StageOps.repository.InvoiceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class PdfBatchServiceTest {
+
+    private static final int CLIENT_ID = 7;
+
+    @TempDir
+    Path directory;
+
+    private InvoiceRepository invoiceRepository;
+    private ClientService clientService;
+    private PdfBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        invoiceRepository = mock(InvoiceRepository.class);
+        clientService = mock(ClientService.class);
+        when(clientService.getClientById(CLIENT_ID)).thenReturn(new Client(CLIENT_ID, "Acme", "1 Stage Street", null, null));
+        ZonedDateTime issued = ZonedDateTime.parse("2026-03-02T10:00:00Z");
+        for (int id : List.of(1, 2, 3, 6)) {
+            when(invoiceRepository.getInvoiceById(id))
+                    .thenReturn(new Invoice(id, 100 + id, CLIENT_ID, 250.0, "UNPAID", issued, issued.plusDays(30)));
+        }
+        // Fails halfway through rendering, after the PDF has been started
+        when(invoiceRepository.getInvoiceById(4))
+                .thenReturn(new Invoice(4, 104, CLIENT_ID, 250.0, "UNPAID", null, null));
+        // Invoice 5 does not exist
+        service = new PdfBatchService(invoiceRepository, mock(ContractRepository.class), clientService, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testZipEntriesFollowTheRequestedOrderAndSkipFailedDocuments() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        PdfBatchResult result = service.writeInvoicesZip(List.of(6, 1, 5, 2, 4, 3), out);
+
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                entries.add(entry.getName());
+                assertEquals("%PDF", new String(zip.readNBytes(4)));
+            }
+        }
+        assertEquals(List.of("invoice_6.pdf", "invoice_1.pdf", "invoice_2.pdf", "invoice_3.pdf"), entries);
+        assertEquals(4, result.getDocuments());
+        assertEquals(List.of(5, 4), result.getFailedIds());
+    }
+
+    @Test
+    void testDirectoryKeepsNoFileOfAFailedDocument() throws Exception {
+        Path target = directory.resolve("batch");
+
+        PdfBatchResult result = service.writeInvoicesToDirectory(List.of(1, 4, 5, 2), target);
+
+        assertEquals(2, result.getDocuments());
+        assertEquals(List.of(4, 5), result.getFailedIds());
+        assertTrue(Files.size(target.resolve("invoice_1.pdf")) > 0);
+        assertTrue(Files.size(target.resolve("invoice_2.pdf")) > 0);
+        assertFalse(Files.exists(target.resolve("invoice_4.pdf")));
+        assertFalse(Files.exists(target.resolve("invoice_5.pdf")));
+    }
+
+    @Test
+    void testClientIsLookedUpOncePerBatch() throws Exception {
+        service.writeInvoicesToDirectory(List.of(1, 2, 3), directory);
+
+        verify(clientService, times(1)).getClientById(anyInt());
+    }
+}
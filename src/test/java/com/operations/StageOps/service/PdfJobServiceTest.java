@@ -0,0 +1,190 @@
+package com.operations.StageOps.service;
+
+import com.operations.StageOps.model.PdfBatchResult;
+import com.operations.StageOps.model.PdfJob;
+import com.operations.StageOps.repository.PdfJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PdfJobServiceTest {
+
+    @TempDir
+    Path outputDir;
+
+    private FakePdfJobRepository pdfJobRepository;
+    private PdfBatchService pdfBatchService;
+    private PdfJobService service;
+
+    @BeforeEach
+    void setUp() {
+        pdfJobRepository = new FakePdfJobRepository();
+        pdfBatchService = mock(PdfBatchService.class);
+        service = new PdfJobService(pdfJobRepository, pdfBatchService, outputDir.toString(), 1, 3, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private PdfJob awaitFinished(PdfJob job) {
+        return service.awaitCompletion(job.getJobId()).orTimeout(5, TimeUnit.SECONDS).join();
+    }
+
+    @Test
+    void testRetryRendersOnlyTheFailedDocuments() throws Exception {
+        when(pdfBatchService.writeInvoicesToDirectory(eq(List.of(1, 2, 3)), any()))
+                .thenReturn(new PdfBatchResult(2, List.of(2), 10));
+        when(pdfBatchService.writeInvoicesToDirectory(eq(List.of(2)), any()))
+                .thenReturn(new PdfBatchResult(1, List.of(), 10));
+
+        PdfJob job = awaitFinished(service.submit(PdfJob.INVOICE, List.of(1, 2, 3)));
+
+        assertEquals(PdfJob.COMPLETED, job.getStatus());
+        assertEquals(2, job.getAttempts());
+        assertEquals(3, job.getDocuments());
+        assertEquals(List.of(), job.getFailedIds());
+        verify(pdfBatchService).writeInvoicesToDirectory(eq(List.of(1, 2, 3)), any());
+        verify(pdfBatchService).writeInvoicesToDirectory(eq(List.of(2)), any());
+    }
+
+    @Test
+    void testJobGivesUpAfterTheLastAttempt() throws Exception {
+        when(pdfBatchService.writeContractsToDirectory(eq(List.of(5, 6)), any()))
+                .thenReturn(new PdfBatchResult(1, List.of(6), 10));
+        when(pdfBatchService.writeContractsToDirectory(eq(List.of(6)), any()))
+                .thenReturn(new PdfBatchResult(0, List.of(6), 10));
+
+        PdfJob job = awaitFinished(service.submit(PdfJob.CONTRACT, List.of(5, 6)));
+
+        // What was rendered is still the result
+        assertEquals(PdfJob.COMPLETED, job.getStatus());
+        assertEquals(3, job.getAttempts());
+        assertEquals(1, job.getDocuments());
+        assertEquals(List.of(6), job.getFailedIds());
+        assertEquals("1 document(s) failed to render", job.getErrorMessage());
+        verify(pdfBatchService, times(2)).writeContractsToDirectory(eq(List.of(6)), any());
+    }
+
+    @Test
+    void testJobWithNothingRenderedFails() throws Exception {
+        when(pdfBatchService.writeInvoicesToDirectory(any(), any())).thenThrow(new IllegalStateException("renderer down"));
+
+        PdfJob job = awaitFinished(service.submit(PdfJob.INVOICE, List.of(1)));
+
+        assertEquals(PdfJob.FAILED, job.getStatus());
+        assertEquals(3, job.getAttempts());
+        assertEquals("renderer down", job.getErrorMessage());
+    }
+
+    @Test
+    void testWaiterIsCompletedWhenTheJobStateCannotBeRecorded() throws Exception {
+        CountDownLatch waiting = new CountDownLatch(1);
+        when(pdfBatchService.writeInvoicesToDirectory(any(), any())).thenAnswer(invocation -> {
+            assertTrue(waiting.await(5, TimeUnit.SECONDS));
+            return new PdfBatchResult(1, List.of(), 10);
+        });
+        pdfJobRepository.failNextMarkFinished = 2; // the result and the attempt to mark the job failed
+
+        PdfJob submitted = service.submit(PdfJob.INVOICE, List.of(1));
+        // Registered while the job runs: it stays RUNNING, so only the waiter can report the failure
+        CompletableFuture<PdfJob> waiter = service.awaitCompletion(submitted.getJobId());
+        waiting.countDown();
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> waiter.orTimeout(5, TimeUnit.SECONDS).join());
+
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void testJobIsMarkedFailedWhenItsResultCannotBeRecorded() throws Exception {
+        when(pdfBatchService.writeInvoicesToDirectory(any(), any())).thenReturn(new PdfBatchResult(1, List.of(), 10));
+        pdfJobRepository.failNextMarkFinished = 1;
+
+        PdfJob job = awaitFinished(service.submit(PdfJob.INVOICE, List.of(1)));
+
+        assertEquals(PdfJob.FAILED, job.getStatus());
+        assertEquals("database down", job.getErrorMessage());
+    }
+
+    /**
+     * Keeps jobs in memory, so a job moves through its states as it would in {@code pdf_jobs}.
+     */
+    private static class FakePdfJobRepository extends PdfJobRepository {
+        private final Map<Integer, PdfJob> jobs = new HashMap<>();
+        private int nextId = 1;
+        private int failNextMarkFinished;
+
+        FakePdfJobRepository() {
+            super(null);
+        }
+
+        @Override
+        public synchronized int createJob(String jobType, List<Integer> documentIds) {
+            int jobId = nextId++;
+            jobs.put(jobId, new PdfJob(jobId, jobType, documentIds, PdfJob.QUEUED, 0, 0, List.of(), null,
+                    null, null, null));
+            return jobId;
+        }
+
+        @Override
+        public synchronized PdfJob getJobById(int jobId) {
+            PdfJob job = jobs.get(jobId);
+            // A copy, like a fresh row from the database
+            return job == null ? null : new PdfJob(job.getJobId(), job.getJobType(), job.getDocumentIds(),
+                    job.getStatus(), job.getAttempts(), job.getDocuments(), job.getFailedIds(), job.getErrorMessage(),
+                    null, null, null);
+        }
+
+        @Override
+        public synchronized int markRunning(int jobId) {
+            PdfJob job = jobs.get(jobId);
+            if (!PdfJob.QUEUED.equals(job.getStatus())) {
+                return 0;
+            }
+            job.setStatus(PdfJob.RUNNING);
+            job.setAttempts(job.getAttempts() + 1);
+            return 1;
+        }
+
+        @Override
+        public synchronized int markQueued(int jobId, int documents, List<Integer> failedIds, String errorMessage) {
+            return update(jobId, PdfJob.QUEUED, documents, failedIds, errorMessage);
+        }
+
+        @Override
+        public synchronized int markFinished(int jobId, String status, int documents, List<Integer> failedIds,
+                                             String errorMessage) {
+            if (failNextMarkFinished > 0) {
+                failNextMarkFinished--;
+                throw new IllegalStateException("database down");
+            }
+            return update(jobId, status, documents, failedIds, errorMessage);
+        }
+
+        private int update(int jobId, String status, int documents, List<Integer> failedIds, String errorMessage) {
+            PdfJob job = jobs.get(jobId);
+            job.setStatus(status);
+            job.setDocuments(documents);
+            job.setFailedIds(failedIds);
+            job.setErrorMessage(errorMessage);
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.operations.StageOps.service;
+
+import com.operations.StageOps.model.RevenueTracking;
+import com.operations.StageOps.repository.RevenueTrackingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RevenueCsvExportServiceTest {
+
+    private static final String HEADER = "Revenue ID,Room ID,Event ID,Booking ID,Total Revenue,Ticket Sales,Venue Hire,Booking Date,Status";
+
+    private RevenueTrackingRepository revenueTrackingRepository;
+    private RevenueCsvExportService service;
+    private final List<RevenueTracking> entries = new ArrayList<>();
+    private final List<long[]> progress = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        revenueTrackingRepository = mock(RevenueTrackingRepository.class);
+        when(revenueTrackingRepository.countRevenueTrackingEntriesBetween(any(), any()))
+                .thenAnswer(invocation -> entries.size());
+        doAnswer(invocation -> {
+            Consumer<RevenueTracking> action = invocation.getArgument(2);
+            entries.forEach(action);
+            return null;
+        }).when(revenueTrackingRepository).forEachRevenueTrackingEntryBetween(any(), any(), any());
+        service = new RevenueCsvExportService(revenueTrackingRepository);
+    }
+
+    private void entry(int revenueId, String status) {
+        RevenueTracking entry = new RevenueTracking();
+        entry.setRevenueId(revenueId);
+        entry.setRoomId(2);
+        entry.setEventId(3);
+        entry.setBookingId(4);
+        entry.setTotalRevenue(150.5);
+        entry.setTicketSales(100.0);
+        entry.setVenueHire(50.5);
+        entry.setBookingDate(LocalDate.of(2026, 3, 2));
+        entry.setStatus(status);
+        entries.add(entry);
+    }
+
+    private String export(boolean gzip) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.writeCsv(null, null, out, gzip, (done, total) -> progress.add(new long[]{done, total}));
+        if (!gzip) {
+            return out.toString(StandardCharsets.UTF_8);
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void testTextFieldsWithSeparatorsQuotesOrLineBreaksAreQuoted() throws Exception {
+        entry(1, "Paid");
+        entry(2, "Paid, in part");
+        entry(3, "Disputed \"fee\"");
+        entry(4, "Line\nbreak");
+        entry(5, null);
+
+        String csv = export(false);
+
+        assertEquals(HEADER + "\n"
+                + "1,2,3,4,150.5,100.0,50.5,2026-03-02,Paid\n"
+                + "2,2,3,4,150.5,100.0,50.5,2026-03-02,\"Paid, in part\"\n"
+                + "3,2,3,4,150.5,100.0,50.5,2026-03-02,\"Disputed \"\"fee\"\"\"\n"
+                + "4,2,3,4,150.5,100.0,50.5,2026-03-02,\"Line\nbreak\"\n"
+                + "5,2,3,4,150.5,100.0,50.5,2026-03-02,\n", csv);
+    }
+
+    @Test
+    void testGzipOutputHoldsTheSameCsv() throws Exception {
+        entry(1, "Paid, in part");
+        String plain = export(false);
+
+        assertEquals(plain, export(true));
+    }
+
+    @Test
+    void testProgressIsReportedEveryThousandRowsAndAtTheEnd() throws Exception {
+        for (int id = 1; id <= 2500; id++) {
+            entry(id, "Paid");
+        }
+
+        String csv = export(false);
+
+        assertEquals(2501, csv.lines().count());
+        assertEquals(List.of("0/2500", "1000/2500", "2000/2500", "2500/2500"),
+                progress.stream().map(update -> update[0] + "/" + update[1]).toList());
+    }
+
+    @Test
+    void testEndDateIsInclusive() throws Exception {
+        LocalDate start = LocalDate.of(2026, 3, 1);
+        LocalDate end = LocalDate.of(2026, 3, 31);
+
+        service.writeCsv(start, end, new ByteArrayOutputStream(), false, (done, total) -> { });
+
+        verify(revenueTrackingRepository).countRevenueTrackingEntriesBetween(start, LocalDate.of(2026, 4, 1));
+        verify(revenueTrackingRepository).forEachRevenueTrackingEntryBetween(eq(start), eq(LocalDate.of(2026, 4, 1)), any());
+    }
+}
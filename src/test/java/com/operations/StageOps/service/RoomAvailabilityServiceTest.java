@@ -0,0 +1,114 @@
+package com.operations.StageOps.service;
+
+import com.operations.StageOps.model.RoomTimeRange;
+import com.operations.StageOps.repository.RoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class RoomAvailabilityServiceTest {
+
+    private static final Instant DAY = Instant.parse("2026-03-02T00:00:00Z");
+
+    private RoomRepository roomRepository;
+    private RoomAvailabilityService service;
+    private final List<RoomTimeRange> ranges = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        roomRepository = mock(RoomRepository.class);
+        when(roomRepository.getAllRoomIds()).thenReturn(List.of(1, 2, 3));
+        when(roomRepository.getOccupiedTimeRanges(isNull())).thenReturn(ranges);
+        service = new RoomAvailabilityService(roomRepository);
+    }
+
+    private static Instant at(int hour) {
+        return DAY.plus(Duration.ofHours(hour));
+    }
+
+    private void event(int roomId, int startHour, int endHour) {
+        ranges.add(new RoomTimeRange(roomId, at(startHour), at(endHour), RoomTimeRange.Source.EVENT));
+    }
+
+    @Test
+    void testTouchingIntervalsDoNotOverlap() {
+        event(1, 10, 12);
+        event(1, 12, 14);
+
+        assertTrue(service.isRoomFree(1, at(9), at(10)));
+        assertTrue(service.isRoomFree(1, at(14), at(15)));
+        assertFalse(service.isRoomFree(1, at(11), at(12)));
+        assertFalse(service.isRoomFree(1, at(12), at(13)));
+        assertFalse(service.isRoomFree(1, at(9), at(15)));
+    }
+
+    @Test
+    void testWindowEndingWhereSeveralIntervalsStartIsFree() {
+        event(1, 10, 11);
+        event(1, 10, 12);
+        event(1, 10, 13);
+
+        assertTrue(service.isRoomFree(1, at(8), at(10)));
+        assertFalse(service.isRoomFree(1, at(12), at(14)));
+    }
+
+    @Test
+    void testNestedIntervalDoesNotHideTheOuterOne() {
+        event(2, 8, 20);
+        event(2, 10, 11);
+
+        // The interval starting last ends at 11, but the one around it still covers 15:00
+        assertFalse(service.isRoomFree(2, at(15), at(16)));
+        assertFalse(service.isRoomFree(2, at(10), at(11)));
+        assertTrue(service.isRoomFree(2, at(20), at(21)));
+        assertTrue(service.isRoomFree(2, at(7), at(8)));
+    }
+
+    @Test
+    void testBookingBlocksItsWholeDay() {
+        ranges.add(new RoomTimeRange(1, DAY, at(24), RoomTimeRange.Source.BOOKING));
+
+        assertFalse(service.isRoomFree(1, at(23), at(24)));
+        assertTrue(service.isRoomFree(1, at(24), at(25)));
+    }
+
+    @Test
+    void testRoomWithoutBookingsIsFreeAndUnknownRoomIsNot() {
+        event(1, 10, 12);
+
+        assertTrue(service.isRoomFree(3, at(0), at(24)));
+        assertArrayEquals(new boolean[]{true, true, true}, service.getFreeSlots(3, at(9), Duration.ofHours(1).toMillis(), 3));
+        assertFalse(service.isRoomFree(99, at(0), at(1)));
+        assertArrayEquals(new boolean[]{false, false}, service.getFreeSlots(99, at(0), Duration.ofHours(1).toMillis(), 2));
+        assertEquals(List.of(1, 2, 3), service.getRoomIds());
+    }
+
+    @Test
+    void testFreeSlotsAroundAnEvent() {
+        event(1, 10, 12);
+
+        boolean[] free = service.getFreeSlots(1, at(9), Duration.ofHours(1).toMillis(), 4);
+
+        assertArrayEquals(new boolean[]{true, false, false, true}, free);
+    }
+
+    @Test
+    void testRefreshReloadsOnlyTheChangedRoom() {
+        event(1, 10, 12);
+        assertFalse(service.isRoomFree(1, at(10), at(11)));
+
+        when(roomRepository.getOccupiedTimeRanges(1)).thenReturn(List.of());
+        service.refreshRoom(1);
+
+        assertTrue(service.isRoomFree(1, at(10), at(11)));
+        verify(roomRepository, times(1)).getAllRoomIds();
+    }
+}
@@ -0,0 +1,54 @@
+package com.operations.StageOps.service;
+
+import com.operations.StageOps.model.RoomAvailabilityMatrix;
+import com.operations.StageOps.repository.RoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RoomServiceTest {
+
+    private RoomRepository roomRepository;
+    private RoomAvailabilityService roomAvailabilityService;
+    private RoomService roomService;
+
+    @BeforeEach
+    void setUp() {
+        roomRepository = mock(RoomRepository.class);
+        roomAvailabilityService = mock(RoomAvailabilityService.class);
+        roomService = new RoomService(roomRepository, roomAvailabilityService);
+    }
+
+    @Test
+    void testAvailabilityMatrixLoadsRoomNamesInOneQuery() {
+        Map<Integer, String> names = new LinkedHashMap<>();
+        names.put(1, "Main Hall");
+        names.put(2, "Studio");
+        when(roomRepository.getRoomNames()).thenReturn(names);
+        when(roomAvailabilityService.getFreeSlots(anyInt(), any(), anyLong(), eq(4))).thenReturn(new boolean[4]);
+
+        LocalDate day = LocalDate.of(2026, 3, 2);
+        RoomAvailabilityMatrix matrix = roomService.getAvailabilityMatrix(day, day, 360);
+
+        assertEquals(2, matrix.getRooms().size());
+        assertEquals(1, matrix.getRooms().get(0).getRoomId());
+        assertEquals("Studio", matrix.getRooms().get(1).getRoomName());
+        verify(roomRepository, never()).getAllRooms();
+    }
+
+    @Test
+    void testAvailabilityMatrixRejectsInvalidSlots() {
+        LocalDate day = LocalDate.of(2026, 3, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> roomService.getAvailabilityMatrix(day, day, 7));
+        assertThrows(IllegalArgumentException.class, () -> roomService.getAvailabilityMatrix(day, day.minusDays(1), 60));
+        verifyNoInteractions(roomRepository);
+    }
+}
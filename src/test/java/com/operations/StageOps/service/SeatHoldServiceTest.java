@@ -0,0 +1,193 @@
+package com.operations.StageOps.service;
+
+import com.operations.StageOps.model.SeatAllocationRequest;
+import com.operations.StageOps.model.SeatHold;
+import com.operations.StageOps.model.Seating;
+import com.operations.StageOps.repository.EventRepository;
+import com.operations.StageOps.repository.SeatingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SeatHoldServiceTest {
+
+    private static final long TTL_MS = 60_000;
+    private static final int EVENT_ID = 1;
+
+    private SeatingRepository seatingRepository;
+    private EventRepository eventRepository;
+    private SeatInventoryService seatInventoryService;
+    private TransactionTemplate transactionTemplate;
+    private SeatHoldService service;
+    private final List<Seating> seats = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        seatingRepository = mock(SeatingRepository.class);
+        eventRepository = mock(EventRepository.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        for (int number = 1; number <= 4; number++) {
+            seats.add(new Seating("A" + number, 10, number, false, false, "A"));
+        }
+        when(eventRepository.getSeatsForEvent(EVENT_ID)).thenReturn(seats);
+        seatInventoryService = new SeatInventoryService(eventRepository, seatingRepository);
+        service = new SeatHoldService(seatingRepository, eventRepository, seatInventoryService, transactionTemplate,
+                TTL_MS, 60_000, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static SeatHold hold(String holdId, String... seatIds) {
+        return new SeatHold(holdId, EVENT_ID, List.of(seatIds), LocalDateTime.now(), null);
+    }
+
+    private static void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+
+    @Test
+    void testExpiredHoldsAreFoundByTheTtlCutoff() {
+        when(seatingRepository.findExpiredHoldIds(any(), anyInt())).thenReturn(List.of());
+
+        LocalDateTime before = LocalDateTime.now().minusNanos(TTL_MS * 1_000_000);
+        assertEquals(0, service.releaseExpiredHolds());
+        LocalDateTime after = LocalDateTime.now().minusNanos(TTL_MS * 1_000_000);
+
+        ArgumentCaptor<LocalDateTime> heldBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(seatingRepository).findExpiredHoldIds(heldBefore.capture(), eq(2));
+        assertFalse(heldBefore.getValue().isBefore(before));
+        assertFalse(heldBefore.getValue().isAfter(after));
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    void testExpiredHoldsAreReleasedInBatchesWithTheirTickets() {
+        SeatHold first = hold("h1", "A1", "A2");
+        SeatHold second = hold("h2", "A3");
+        SeatHold third = hold("h3", "A4");
+        when(seatingRepository.findExpiredHoldIds(any(), eq(2)))
+                .thenReturn(List.of("h1", "h2"), List.of("h3"));
+        when(seatingRepository.lockHolds(List.of("h1", "h2"))).thenReturn(List.of(first, second));
+        when(seatingRepository.lockHolds(List.of("h3"))).thenReturn(List.of(third));
+        seatInventoryService.claimSeatsInMemory(EVENT_ID, List.of("A1", "A2", "A3", "A4"));
+
+        assertEquals(3, service.releaseExpiredHolds());
+
+        // A full batch is followed by another query; the short one ends the loop
+        verify(seatingRepository, times(2)).findExpiredHoldIds(any(), eq(2));
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(seatingRepository).releaseHolds(List.of(first, second));
+        verify(seatingRepository).releaseHolds(List.of(third));
+        verify(eventRepository).holdTickets(EVENT_ID, -2);
+        verify(eventRepository, times(2)).holdTickets(EVENT_ID, -1);
+        assertEquals(4, seatInventoryService.getAvailableSeats(EVENT_ID).size());
+    }
+
+    @Test
+    void testReaperStopsWhenABatchWasConfirmedMeanwhile() {
+        when(seatingRepository.findExpiredHoldIds(any(), eq(2))).thenReturn(List.of("h1", "h2"));
+        when(seatingRepository.lockHolds(List.of("h1", "h2"))).thenReturn(List.of());
+
+        assertEquals(0, service.releaseExpiredHolds());
+
+        verify(seatingRepository, times(1)).findExpiredHoldIds(any(), eq(2));
+        verify(seatingRepository, never()).releaseHolds(any());
+        verify(eventRepository, never()).holdTickets(anyInt(), anyInt());
+    }
+
+    @Test
+    void testReleasedHoldFreesItsSeatsInMemoryOnlyAfterCommit() {
+        seatInventoryService.claimSeatsInMemory(EVENT_ID, List.of("A1", "A2"));
+        when(seatingRepository.lockHolds(List.of("h1"))).thenReturn(List.of(hold("h1", "A1", "A2")));
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertTrue(service.releaseHold("h1"));
+        assertTrue(seatInventoryService.isReserved(EVENT_ID, "A1"));
+
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        assertFalse(seatInventoryService.isReserved(EVENT_ID, "A1"));
+        assertFalse(seatInventoryService.isReserved(EVENT_ID, "A2"));
+        verify(eventRepository).holdTickets(EVENT_ID, -2);
+    }
+
+    @Test
+    void testConfirmedHoldCannotBeReleased() {
+        when(seatingRepository.confirmHold("h1")).thenReturn(2);
+        // The confirmation cleared the hold ID, so locking the hold finds no seats
+        when(seatingRepository.lockHolds(List.of("h1"))).thenReturn(List.of());
+
+        assertTrue(service.confirmHold("h1"));
+        assertFalse(service.releaseHold("h1"));
+
+        verify(seatingRepository, never()).releaseHolds(any());
+        verify(eventRepository, never()).holdTickets(anyInt(), anyInt());
+    }
+
+    @Test
+    void testReleasedHoldCannotBeConfirmed() {
+        when(seatingRepository.confirmHold("h1")).thenReturn(0);
+
+        assertFalse(service.confirmHold("h1"));
+    }
+
+    @Test
+    void testBestAvailableAvoidsASeatTheDatabaseRejected() {
+        when(seatingRepository.holdSeatsIfAvailable(eq(EVENT_ID), eq(List.of("A2", "A3")), anyString(), any()))
+                .thenReturn(new int[]{1, 0});
+        when(seatingRepository.holdSeatsIfAvailable(eq(EVENT_ID), eq(List.of("A1", "A2")), anyString(), any()))
+                .thenReturn(new int[]{1, 1});
+        when(eventRepository.holdTickets(EVENT_ID, 2)).thenReturn(1);
+        SeatAllocationRequest request = new SeatAllocationRequest(2, false, false, null);
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertThrows(IllegalArgumentException.class, () -> service.holdBestAvailable(EVENT_ID, request));
+        seats.get(2).setStatus("reserved"); // A3, as the database holds it
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Without the reload the allocator would pick A2-A3 again and fail the same way
+        assertEquals(List.of("A1", "A2"), service.holdBestAvailable(EVENT_ID, request).getSeatIds());
+    }
+
+    @Test
+    void testSeatReservedByAnotherInstanceStaysReservedAfterTheRollback() {
+        when(seatingRepository.holdSeatsIfAvailable(eq(EVENT_ID), eq(List.of("A1", "A2")), anyString(), any()))
+                .thenReturn(new int[]{1, 0});
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertThrows(IllegalArgumentException.class, () -> service.holdSeats(EVENT_ID, List.of("A1", "A2")));
+        seats.get(1).setStatus("reserved"); // what the database holds
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertFalse(seatInventoryService.isReserved(EVENT_ID, "A1"));
+        assertTrue(seatInventoryService.isReserved(EVENT_ID, "A2"));
+        verify(eventRepository, times(2)).getSeatsForEvent(EVENT_ID);
+    }
+}
@@ -0,0 +1,201 @@
+package com.operations.StageOps.service;
+
+import com.operations.StageOps.model.SeatAllocationRequest;
+import com.operations.StageOps.model.Seating;
+import com.operations.StageOps.repository.EventRepository;
+import com.operations.StageOps.repository.SeatingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SeatInventoryServiceTest {
+
+    private static final int EVENT_ID = 1;
+    private static final int ROOM_ID = 10;
+
+    private EventRepository eventRepository;
+    private SeatingRepository seatingRepository;
+    private SeatInventoryService service;
+    private final List<Seating> seats = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        seatingRepository = mock(SeatingRepository.class);
+        when(eventRepository.getSeatsForEvent(EVENT_ID)).thenReturn(seats);
+        service = new SeatInventoryService(eventRepository, seatingRepository);
+    }
+
+    private Seating seat(String section, int number) {
+        return seat(section, number, false, false);
+    }
+
+    private Seating seat(String section, int number, boolean accessible, boolean restricted) {
+        Seating seat = new Seating(section + number, ROOM_ID, number, accessible, restricted, section);
+        seats.add(seat);
+        return seat;
+    }
+
+    private void row(String section, int... numbers) {
+        for (int number : numbers) {
+            seat(section, number);
+        }
+    }
+
+    private List<String> best(int partySize, boolean accessible, boolean avoidRestricted, String preferredSection) {
+        return service.findBestAvailable(EVENT_ID, new SeatAllocationRequest(partySize, accessible, avoidRestricted, preferredSection))
+                .stream().map(Seating::getSeatId).toList();
+    }
+
+    @Test
+    void testBlockDoesNotSpanAGapInSeatNumbers() {
+        row("A", 1, 2, 3, 5, 6);
+
+        assertEquals(List.of("A1", "A2", "A3"), best(3, false, false, null));
+        assertEquals(List.of(), best(4, false, false, null));
+    }
+
+    @Test
+    void testBlockClosestToTheMiddleWins() {
+        row("A", 1, 2, 3, 4, 5, 6);
+
+        assertEquals(List.of("A3", "A4"), best(2, false, false, null));
+        // Seats 3 and 4 are equally close to the middle; the first one found wins
+        assertEquals(List.of("A3"), best(1, false, false, null));
+    }
+
+    @Test
+    void testEarlierSectionWinsATie() {
+        row("B", 1, 2, 3, 4);
+        row("A", 1, 2, 3, 4);
+
+        assertEquals(List.of("A2", "A3"), best(2, false, false, null));
+    }
+
+    @Test
+    void testAccessibleRequestIncludesAnAccessibleSeat() {
+        row("A", 1, 2, 3, 4, 5);
+        seat("A", 6, true, false);
+        row("A", 7, 8);
+
+        assertEquals(List.of("A4", "A5"), best(2, false, false, null));
+        assertEquals(List.of("A5", "A6"), best(2, true, false, null));
+
+        service.claimSeatsInMemory(EVENT_ID, List.of("A6"));
+        assertEquals(List.of(), best(2, true, false, null));
+    }
+
+    @Test
+    void testAvoidRestrictedSkipsRestrictedSeats() {
+        row("A", 1, 2);
+        seat("A", 3, false, true);
+        row("A", 4, 5);
+
+        assertEquals(List.of("A2", "A3"), best(2, false, false, null));
+        assertEquals(List.of("A1", "A2"), best(2, false, true, null));
+        assertEquals(List.of(), best(3, false, true, null));
+    }
+
+    @Test
+    void testPreferredSectionIsUsedWhenItHasABlock() {
+        row("A", 1, 2, 3, 4, 5, 6);
+        row("B", 1, 2);
+
+        assertEquals(List.of("B1", "B2"), best(2, false, false, "B"));
+    }
+
+    @Test
+    void testPreferredSectionFallsBackToTheBestOtherBlock() {
+        row("A", 1, 2, 3, 4, 5, 6);
+        row("B", 1, 2);
+
+        assertEquals(List.of("A2", "A3", "A4"), best(3, false, false, "B"));
+        assertEquals(List.of("A2", "A3", "A4"), best(3, false, false, "No such section"));
+    }
+
+    @Test
+    void testClaimedBlockIsNoLongerAvailable() {
+        row("A", 1, 2, 3, 4);
+
+        List<String> claimed = service.claimBestAvailable(EVENT_ID, new SeatAllocationRequest(2, false, false, null));
+
+        assertEquals(List.of("A2", "A3"), claimed);
+        assertEquals(List.of(), best(3, false, false, null));
+        assertEquals(2, service.getAvailableSeats(EVENT_ID).size());
+        verifyNoInteractions(seatingRepository);
+    }
+
+    @Test
+    void testClaimRollsBackWhenAConcurrentClaimTakesASeatOfTheBlock() {
+        row("A", 1, 2, 3);
+        // Claims itself while the allocator is looking at it, after its reserved bit was read as clear
+        seats.add(new Seating("A4", ROOM_ID, 4, false, false, "A") {
+            private boolean claimed;
+
+            @Override
+            public boolean isRestricted() {
+                if (!claimed) {
+                    claimed = true;
+                    service.claimSeatsInMemory(EVENT_ID, List.of("A4"));
+                }
+                return false;
+            }
+        });
+        row("A", 5, 6);
+
+        List<String> claimed = service.claimBestAvailable(EVENT_ID, new SeatAllocationRequest(2, false, true, null));
+
+        // The first attempt picked A3-A4 and lost A4; A3 was released again and is part of the retry's block
+        assertEquals(List.of("A2", "A3"), claimed);
+        assertTrue(service.isReserved(EVENT_ID, "A4"));
+        assertEquals(List.of("A1", "A5", "A6"),
+                service.getAvailableSeats(EVENT_ID).stream().map(Seating::getSeatId).toList());
+    }
+
+    @Test
+    void testClaimThatKeepsLosingToConcurrentClaimsIsNotReportedAsNoBlock() {
+        // A2 is taken by a concurrent claim while the allocator looks at it, and freed again when it looks at A1
+        seats.add(new Seating("A1", ROOM_ID, 1, false, false, "A") {
+            @Override
+            public boolean isRestricted() {
+                service.releaseInMemory(EVENT_ID, List.of("A2"));
+                return false;
+            }
+        });
+        seats.add(new Seating("A2", ROOM_ID, 2, false, false, "A") {
+            @Override
+            public boolean isRestricted() {
+                service.claimSeatsInMemory(EVENT_ID, List.of("A2"));
+                return false;
+            }
+        });
+        row("A", 3);
+
+        assertThrows(ConcurrencyFailureException.class,
+                () -> service.claimBestAvailable(EVENT_ID, new SeatAllocationRequest(2, false, true, null)));
+        assertFalse(service.isReserved(EVENT_ID, "A1"));
+        assertFalse(service.isReserved(EVENT_ID, "A3"));
+    }
+
+    @Test
+    void testSeatingChangeReloadsOnlyTheEventsOfThatRoom() {
+        row("A", 1, 2);
+        when(eventRepository.getSeatsForEvent(2)).thenReturn(List.of(new Seating("X1", 20, 1, false, false, "X")));
+        service.getSeatsForEvent(EVENT_ID);
+        service.getSeatsForEvent(2);
+
+        service.onSeatingChanged(new SeatingRepository.SeatingChangedEvent(this, Set.of(ROOM_ID)));
+        service.getSeatsForEvent(EVENT_ID);
+        service.getSeatsForEvent(2);
+
+        verify(eventRepository, times(2)).getSeatsForEvent(EVENT_ID);
+        verify(eventRepository, times(1)).getSeatsForEvent(2);
+    }
+}
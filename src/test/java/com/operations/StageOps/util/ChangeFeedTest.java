@@ -0,0 +1,114 @@
+package com.operations.StageOps.util;
+
+import com.operations.StageOps.model.ChangeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    private ChangeFeed changeFeed;
+
+    @AfterEach
+    void tearDown() {
+        changeFeed.shutdown();
+    }
+
+    private static ChangeEvent next(BlockingQueue<ChangeEvent> received) throws InterruptedException {
+        ChangeEvent change = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(change, "no change received");
+        return change;
+    }
+
+    @Test
+    void testSlowSubscriberDoesNotDelayOthers() throws Exception {
+        changeFeed = new ChangeFeed(100, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingQueue<ChangeEvent> slow = new LinkedBlockingQueue<>();
+        BlockingQueue<ChangeEvent> fast = new LinkedBlockingQueue<>();
+        changeFeed.subscribe(List.of("events"), null, change -> {
+            slow.add(change);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        changeFeed.subscribe(List.of("events"), null, fast::add);
+
+        for (int i = 1; i <= 3; i++) {
+            changeFeed.publish(ChangeEvent.eventChanged(ChangeEvent.EVENT_UPDATED, i));
+        }
+
+        assertEquals(1, next(fast).getSequence());
+        assertEquals(2, next(fast).getSequence());
+        assertEquals(3, next(fast).getSequence());
+        assertEquals(1, next(slow).getSequence());
+        release.countDown();
+        assertEquals(2, next(slow).getSequence());
+        assertEquals(3, next(slow).getSequence());
+    }
+
+    @Test
+    void testSubscriberThatFallsBehindGetsAResyncInsteadOfItsBacklog() throws Exception {
+        changeFeed = new ChangeFeed(100, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingQueue<ChangeEvent> slow = new LinkedBlockingQueue<>();
+        changeFeed.subscribe(List.of("events", "bookings"), null, change -> {
+            slow.add(change);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        changeFeed.publish(ChangeEvent.eventChanged(ChangeEvent.EVENT_UPDATED, 1));
+        assertEquals(1, next(slow).getSequence());
+        for (int i = 2; i <= 5; i++) {
+            changeFeed.publish(ChangeEvent.eventChanged(ChangeEvent.EVENT_UPDATED, i));
+        }
+        // Subscriptions are registered on the dispatcher thread, so this replay comes after all five changes
+        BlockingQueue<ChangeEvent> replayed = new LinkedBlockingQueue<>();
+        changeFeed.subscribe(List.of("events"), 4L, replayed::add);
+        assertEquals(5, next(replayed).getSequence());
+        release.countDown();
+
+        // Changes 2 to 4 overflowed the queue of two and were replaced by a resync per topic
+        ChangeEvent first = next(slow);
+        ChangeEvent second = next(slow);
+        assertEquals(ChangeEvent.RESYNC, first.getType());
+        assertEquals("events", first.getTopic());
+        assertEquals(ChangeEvent.RESYNC, second.getType());
+        assertEquals("bookings", second.getTopic());
+        assertEquals(5, next(slow).getSequence());
+        assertNull(slow.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testListenerThatThrowsIsClosed() throws Exception {
+        changeFeed = new ChangeFeed(100, 100);
+        BlockingQueue<ChangeEvent> failing = new LinkedBlockingQueue<>();
+        BlockingQueue<ChangeEvent> other = new LinkedBlockingQueue<>();
+        changeFeed.subscribe(List.of("events"), null, change -> {
+            failing.add(change);
+            throw new IllegalStateException("client disconnected");
+        });
+        changeFeed.subscribe(List.of("events"), null, other::add);
+
+        changeFeed.publish(ChangeEvent.eventChanged(ChangeEvent.EVENT_UPDATED, 1));
+        assertEquals(1, next(failing).getSequence());
+        assertEquals(1, next(other).getSequence());
+        changeFeed.publish(ChangeEvent.eventChanged(ChangeEvent.EVENT_UPDATED, 2));
+        assertEquals(2, next(other).getSequence());
+
+        assertNull(failing.poll(100, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,118 @@
+package com.operations.StageOps.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private String load(Integer key) {
+        return "value " + key + " #" + loads.incrementAndGet();
+    }
+
+    @Test
+    void testCachedValueIsServedUntilInvalidated() {
+        ReferenceCache<Integer, String> cache = new ReferenceCache<>("test", 10, 60_000);
+
+        assertEquals("value 1 #1", cache.get(1, this::load));
+        assertEquals("value 1 #1", cache.get(1, this::load));
+        cache.invalidate(1);
+        assertEquals("value 1 #2", cache.get(1, this::load));
+        assertEquals(1L, cache.stats().get("hits"));
+        assertEquals(2L, cache.stats().get("misses"));
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        ReferenceCache<Integer, String> cache = new ReferenceCache<>("test", 2, 60_000);
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+        cache.get(1, this::load); // 2 is now the least recently used
+
+        cache.get(3, this::load);
+
+        assertEquals(2, cache.stats().get("size"));
+        assertEquals(1L, cache.stats().get("evictions"));
+        assertEquals("value 1 #1", cache.get(1, this::load));
+        assertEquals("value 2 #4", cache.get(2, this::load));
+    }
+
+    @Test
+    void testExpiredEntryIsReloaded() throws InterruptedException {
+        ReferenceCache<Integer, String> cache = new ReferenceCache<>("test", 10, 20);
+
+        assertEquals("value 1 #1", cache.get(1, this::load));
+        Thread.sleep(40);
+        assertEquals("value 1 #2", cache.get(1, this::load));
+    }
+
+    @Test
+    void testZeroTtlAndNullResultsAreNotCached() {
+        ReferenceCache<Integer, String> disabled = new ReferenceCache<>("test", 10, 0);
+        disabled.get(1, this::load);
+        disabled.get(1, this::load);
+        assertEquals(2, loads.get());
+
+        ReferenceCache<Integer, String> cache = new ReferenceCache<>("test", 10, 60_000);
+        assertNull(cache.get(1, key -> null));
+        assertEquals(0, cache.stats().get("size"));
+    }
+
+    @Test
+    void testLoadRunningDuringAnInvalidationIsNotCached() {
+        ReferenceCache<Integer, String> cache = new ReferenceCache<>("test", 10, 60_000);
+
+        String stale = cache.get(1, key -> {
+            // The row is updated and invalidated while this load is still reading the old one
+            cache.invalidate(1);
+            return "old row";
+        });
+
+        assertEquals("old row", stale);
+        assertEquals("value 1 #1", cache.get(1, this::load));
+    }
+
+    @Test
+    void testInvalidateIfDropsOnlyMatchingValues() {
+        ReferenceCache<Integer, String> cache = new ReferenceCache<>("test", 10, 60_000);
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+
+        cache.invalidateIf(value -> value.startsWith("value 2"));
+
+        assertEquals("value 1 #1", cache.get(1, this::load));
+        assertEquals("value 2 #3", cache.get(2, this::load));
+    }
+
+    @Test
+    void testRowReadBackInsideARolledBackTransactionIsDroppedAfterCompletion() {
+        ReferenceCache<Integer, String> cache = new ReferenceCache<>("test", 10, 60_000);
+        cache.get(1, this::load);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidate(1);
+        assertEquals("uncommitted row", cache.get(1, key -> "uncommitted row"));
+        assertEquals("uncommitted row", cache.get(1, this::load));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals("value 1 #2", cache.get(1, this::load));
+    }
+}